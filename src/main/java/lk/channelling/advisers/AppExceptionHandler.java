@@ -1,8 +1,15 @@
 package lk.channelling.advisers;
 
+import lk.channelling.exception.ForbiddenException;
+import lk.channelling.exception.HoldExpiredException;
+import lk.channelling.exception.IdempotencyKeyMismatchException;
+import lk.channelling.exception.InvalidIdempotencyKeyException;
+import lk.channelling.exception.InvalidRequestException;
+import lk.channelling.exception.InvalidTokenException;
 import lk.channelling.exception.ObjectNotUniqueException;
 import lk.channelling.exception.OldObjectException;
 import lk.channelling.exception.RecordNotFoundException;
+import lk.channelling.exception.SessionFullException;
 import lk.channelling.exception.UserNotFoundException;
 import lk.channelling.resources.ErrorResponse;
 import org.springframework.http.HttpHeaders;
@@ -45,6 +52,21 @@ public class AppExceptionHandler extends ResponseEntityExceptionHandler {
         return commonExceptionHandler(ex, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    protected ResponseEntity<Object> handleInvalidRequest(InvalidRequestException ex) {
+        return commonExceptionHandler(ex, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    protected ResponseEntity<Object> handleInvalidIdempotencyKey(InvalidIdempotencyKeyException ex) {
+        return commonExceptionHandler(ex, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    protected ResponseEntity<Object> handleIdempotencyKeyMismatch(IdempotencyKeyMismatchException ex) {
+        return commonExceptionHandler(ex, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
     @ExceptionHandler(ObjectNotUniqueException.class)
     protected ResponseEntity<Object> handleObjectNotUnique(ObjectNotUniqueException ex) {
         return commonExceptionHandler(ex, HttpStatus.UNPROCESSABLE_ENTITY);
@@ -55,6 +77,26 @@ public class AppExceptionHandler extends ResponseEntityExceptionHandler {
         return commonExceptionHandler(ex, HttpStatus.UNAUTHORIZED);
     }
 
+    @ExceptionHandler(ForbiddenException.class)
+    protected ResponseEntity<Object> handleForbidden(ForbiddenException ex) {
+        return commonExceptionHandler(ex, HttpStatus.FORBIDDEN);
+    }
+
+    @ExceptionHandler(InvalidTokenException.class)
+    protected ResponseEntity<Object> handleInvalidToken(InvalidTokenException ex) {
+        return commonExceptionHandler(ex, HttpStatus.UNAUTHORIZED);
+    }
+
+    @ExceptionHandler(SessionFullException.class)
+    protected ResponseEntity<Object> handleSessionFull(SessionFullException ex) {
+        return commonExceptionHandler(ex, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(HoldExpiredException.class)
+    protected ResponseEntity<Object> handleHoldExpired(HoldExpiredException ex) {
+        return commonExceptionHandler(ex, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(OldObjectException.class)
     protected ResponseEntity<Object> handleOldObjectException(OldObjectException ex) {
         ErrorResponse errorResponse = new ErrorResponse();
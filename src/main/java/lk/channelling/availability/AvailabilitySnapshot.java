@@ -0,0 +1,439 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.availability;
+
+import lk.channelling.entity.Doctor;
+import lk.channelling.entity.DoctorSession;
+import lk.channelling.entity.DoctorSpeciality;
+import lk.channelling.entity.Hospital;
+import lk.channelling.enums.AppointmentStatus;
+import lk.channelling.enums.Status;
+import lk.channelling.repository.AppointmentRepository;
+import lk.channelling.repository.DoctorRepository;
+import lk.channelling.repository.DoctorSessionRepository;
+import lk.channelling.repository.DoctorSpecialityRepository;
+import lk.channelling.repository.HospitalRepository;
+import lk.channelling.resources.AvailabilityConsistencyReport;
+import lk.channelling.resources.AvailabilityMismatch;
+import lk.channelling.resources.SessionAvailability;
+import lk.channelling.util.TransactionUtil;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputed availability of the doctor sessions of the next {@code application.availability.horizon-days} days.
+ *
+ * <p>Sessions with free slots are indexed in buckets keyed by (date, specialization, city), where a {@code 0}
+ * specialization or city stands for "any". Each session is added to the buckets of all its doctor's specializations
+ * and removed from them as soon as it is fully booked, so a query only walks the buckets of the requested days and
+ * touches nothing but matching sessions.</p>
+ *
+ * <p>The snapshot is built on startup and every night, and kept up to date by the doctor session and appointment
+ * services after their transactions commit. The changes and the swap of a rebuilt snapshot are guarded by the lock of
+ * the snapshot, the remaining slots of a session by the monitor of its entry. {@link #checkConsistency()} compares
+ * the snapshot with the appointment table.</p>
+ */
+@Component
+@Log4j2
+public class AvailabilitySnapshot {
+
+    private static final long ANY = 0L;
+
+    private final DoctorSessionRepository doctorSessionRepository;
+
+    private final AppointmentRepository appointmentRepository;
+
+    private final DoctorRepository doctorRepository;
+
+    private final HospitalRepository hospitalRepository;
+
+    private final DoctorSpecialityRepository doctorSpecialityRepository;
+
+    private final Object rebuildLock = new Object();
+
+    @Value("${application.availability.horizon-days:14}")
+    private int horizonDays;
+
+    private volatile Snapshot snapshot = new Snapshot(LocalDate.now(), LocalDate.now().minusDays(1));
+
+    private Set<Long> changedSessions;
+
+    @Autowired
+    public AvailabilitySnapshot(DoctorSessionRepository doctorSessionRepository, AppointmentRepository appointmentRepository,
+                                DoctorRepository doctorRepository, HospitalRepository hospitalRepository,
+                                DoctorSpecialityRepository doctorSpecialityRepository) {
+        this.doctorSessionRepository = doctorSessionRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.doctorRepository = doctorRepository;
+        this.hospitalRepository = hospitalRepository;
+        this.doctorSpecialityRepository = doctorSpecialityRepository;
+    }
+
+    /**
+     * Rebuilds the snapshot from the database and swaps it in atomically.
+     *
+     * <p>The changes committed while the sessions are loading may or may not be part of what was read, so the sessions
+     * they touch are recorded, and after the swap read again from the database, until no more changes arrive in
+     * between.</p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${application.availability.rebuild-cron:0 5 0 * * *}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long startTime = System.currentTimeMillis();
+            LocalDate firstDay = LocalDate.now();
+            LocalDate lastDay = firstDay.plusDays(horizonDays - 1L);
+            synchronized (this) {
+                changedSessions = new HashSet<>();
+            }
+
+            try {
+                Snapshot rebuilt = new Snapshot(firstDay, lastDay);
+                entries(doctorSessionRepository.findScheduledBetween(firstDay.atStartOfDay(), lastDay.plusDays(1).atStartOfDay()))
+                        .forEach(rebuilt::put);
+
+                Set<Long> sessionIds;
+                synchronized (this) {
+                    snapshot = rebuilt;
+                    sessionIds = changedSessions;
+                    changedSessions = new HashSet<>();
+                }
+
+                int reloaded = 0;
+                while (!sessionIds.isEmpty()) {
+                    reload(sessionIds);
+                    reloaded += sessionIds.size();
+                    synchronized (this) {
+                        sessionIds = changedSessions;
+                        changedSessions = new HashSet<>();
+                    }
+                }
+
+                log.info("Rebuilt availability snapshot of {} sessions from {} to {} in {} ms, reloading {} changed sessions",
+                        rebuilt.sessions.size(), firstDay, lastDay, System.currentTimeMillis() - startTime, reloaded);
+            } finally {
+                synchronized (this) {
+                    changedSessions = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the sessions with free slots on the given days, optionally restricted to a specialization and a city.
+     *
+     * @param from             the first day, inclusive.
+     * @param to               the last day, inclusive.
+     * @param specializationId the id of the specialization, or {@code null} for any.
+     * @param cityId           the id of the city, or {@code null} for any.
+     * @return the available sessions ordered by date.
+     */
+    public List<SessionAvailability> find(LocalDate from, LocalDate to, Long specializationId, Long cityId) {
+        Snapshot current = snapshot;
+        LocalDate firstDay = from.isBefore(current.firstDay) ? current.firstDay : from;
+        LocalDate lastDay = to.isAfter(current.lastDay) ? current.lastDay : to;
+
+        List<SessionAvailability> availability = new ArrayList<>();
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            Set<Long> sessionIds = current.buckets.get(new BucketKey(day,
+                    specializationId == null ? ANY : specializationId,
+                    cityId == null ? ANY : cityId));
+            if (sessionIds == null) continue;
+
+            for (Long sessionId : sessionIds) {
+                SessionEntry entry = current.sessions.get(sessionId);
+                if (entry != null) availability.add(entry.toAvailability());
+            }
+        }
+
+        availability.sort(Comparator.comparing(SessionAvailability::getSessionDateTime).thenComparing(SessionAvailability::getSessionId));
+        return availability;
+    }
+
+    /**
+     * Indexes the saved session once the current transaction commits.
+     *
+     * @param session the saved doctor session.
+     */
+    public void sessionSaved(DoctorSession session) {
+        TransactionUtil.afterCommit(() -> {
+            SessionEntry entry = null;
+            if (session.getStatus() == Status.ACTIVE && session.getSessionDateTime() != null) {
+                long doctorId = session.getDoctorId();
+                entry = toEntry(session,
+                        doctorRepository.findById(doctorId).orElse(null),
+                        hospitalRepository.findById((long) session.getHospitalId()).orElse(null),
+                        doctorSpecialityRepository.findByDoctorId(doctorId).stream().map(DoctorSpeciality::getSpecialityId).toList(),
+                        session.getBookedPatients());
+            }
+
+            synchronized (this) {
+                changed(session.getId());
+                Snapshot current = snapshot;
+                current.remove(session.getId());
+                if (entry != null && current.covers(entry.day)) current.put(entry);
+            }
+        });
+    }
+
+    /**
+     * Removes the deleted session once the current transaction commits.
+     *
+     * @param sessionId the id of the deleted doctor session.
+     */
+    public void sessionDeleted(long sessionId) {
+        TransactionUtil.afterCommit(() -> {
+            synchronized (this) {
+                changed(sessionId);
+                snapshot.remove(sessionId);
+            }
+        });
+    }
+
+    /**
+     * Applies a change in the booked slots of a session once the current transaction commits.
+     *
+     * @param sessionId the id of the doctor session.
+     * @param slots     the number of freed slots, negative for reserved slots.
+     */
+    public void slotsChanged(long sessionId, int slots) {
+        TransactionUtil.afterCommit(() -> {
+            synchronized (this) {
+                changed(sessionId);
+                snapshot.adjust(sessionId, slots);
+            }
+        });
+    }
+
+    /**
+     * Compares the remaining slots of every session in the snapshot window with the appointment table.
+     *
+     * @return the consistency report.
+     */
+    public AvailabilityConsistencyReport checkConsistency() {
+        Snapshot current = snapshot;
+        List<DoctorSession> sessions = doctorSessionRepository.findScheduledBetween(current.firstDay.atStartOfDay(),
+                current.lastDay.plusDays(1).atStartOfDay());
+        Map<Integer, Integer> booked = countBooked(sessions);
+
+        List<AvailabilityMismatch> mismatches = new ArrayList<>();
+        for (DoctorSession session : sessions) {
+            if (session.getStatus() != Status.ACTIVE) continue;
+
+            int actualRemaining = Math.max(session.getMaxPatients() - booked.getOrDefault(session.getId().intValue(), 0), 0);
+            SessionEntry entry = current.sessions.get(session.getId());
+            int snapshotRemaining = entry == null ? -1 : entry.remaining;
+
+            if (snapshotRemaining != actualRemaining)
+                mismatches.add(new AvailabilityMismatch(session.getId(), snapshotRemaining, actualRemaining));
+        }
+
+        return new AvailabilityConsistencyReport(sessions.size(), mismatches);
+    }
+
+    /**
+     * Records a session changed during a rebuild. Must be called holding the lock of the snapshot.
+     */
+    private void changed(long sessionId) {
+        if (changedSessions != null) changedSessions.add(sessionId);
+    }
+
+    /**
+     * Replaces the entries of the sessions with their current rows.
+     */
+    private void reload(Set<Long> sessionIds) {
+        List<SessionEntry> entries = entries(doctorSessionRepository.findAllById(sessionIds));
+        synchronized (this) {
+            Snapshot current = snapshot;
+            sessionIds.forEach(current::remove);
+            for (SessionEntry entry : entries) if (current.covers(entry.day)) current.put(entry);
+        }
+    }
+
+    /**
+     * Returns the entries of the active sessions, with their doctors, hospitals, specializations and booked slots.
+     */
+    private List<SessionEntry> entries(List<DoctorSession> sessions) {
+        Map<Integer, Integer> booked = countBooked(sessions);
+        Set<Long> doctorIds = sessions.stream().map(session -> (long) session.getDoctorId()).collect(Collectors.toSet());
+        Set<Long> hospitalIds = sessions.stream().map(session -> (long) session.getHospitalId()).collect(Collectors.toSet());
+        Map<Long, Doctor> doctors = doctorRepository.findAllById(doctorIds).stream().collect(Collectors.toMap(Doctor::getId, Function.identity()));
+        Map<Long, Hospital> hospitals = hospitalRepository.findAllById(hospitalIds).stream().collect(Collectors.toMap(Hospital::getId, Function.identity()));
+        Map<Long, List<Long>> specializations = doctorIds.isEmpty() ? Map.of() : doctorSpecialityRepository.findByDoctorIdIn(doctorIds).stream()
+                .collect(Collectors.groupingBy(DoctorSpeciality::getDoctorId, Collectors.mapping(DoctorSpeciality::getSpecialityId, Collectors.toList())));
+
+        List<SessionEntry> entries = new ArrayList<>(sessions.size());
+        for (DoctorSession session : sessions) {
+            if (session.getStatus() != Status.ACTIVE || session.getSessionDateTime() == null) continue;
+
+            entries.add(toEntry(session,
+                    doctors.get((long) session.getDoctorId()),
+                    hospitals.get((long) session.getHospitalId()),
+                    specializations.getOrDefault((long) session.getDoctorId(), List.of()),
+                    booked.getOrDefault(session.getId().intValue(), 0)));
+        }
+        return entries;
+    }
+
+    private Map<Integer, Integer> countBooked(List<DoctorSession> sessions) {
+        if (sessions.isEmpty()) return Map.of();
+
+        List<Integer> sessionIds = sessions.stream().map(session -> session.getId().intValue()).toList();
+        Map<Integer, Integer> booked = new HashMap<>();
+        appointmentRepository.countBookedBySessionIn(sessionIds, AppointmentStatus.releasedStatuses())
+                .forEach(count -> booked.put(count.getSessionId(), count.getBooked().intValue()));
+        return booked;
+    }
+
+    private SessionEntry toEntry(DoctorSession session, Doctor doctor, Hospital hospital, List<Long> specializationIds, int bookedPatients) {
+        SessionEntry entry = new SessionEntry();
+        entry.session = session;
+        entry.day = session.getSessionDateTime().toLocalDate();
+        entry.doctorName = doctor == null ? null : doctor.getDisplayName();
+        entry.hospitalName = hospital == null ? null : hospital.getName();
+        entry.cityId = hospital == null ? null : hospital.getCityId();
+        entry.specializationIds = specializationIds;
+        entry.remaining = Math.max(session.getMaxPatients() - bookedPatients, 0);
+        return entry;
+    }
+
+    /**
+     * One generation of the availability index.
+     */
+    private static final class Snapshot {
+
+        private final LocalDate firstDay;
+
+        private final LocalDate lastDay;
+
+        private final ConcurrentMap<Long, SessionEntry> sessions = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<BucketKey, Set<Long>> buckets = new ConcurrentHashMap<>();
+
+        private Snapshot(LocalDate firstDay, LocalDate lastDay) {
+            this.firstDay = firstDay;
+            this.lastDay = lastDay;
+        }
+
+        private boolean covers(LocalDate day) {
+            return !day.isBefore(firstDay) && !day.isAfter(lastDay);
+        }
+
+        private void put(SessionEntry entry) {
+            sessions.put(entry.session.getId(), entry);
+            synchronized (entry) {
+                if (entry.remaining > 0) index(entry);
+            }
+        }
+
+        private void remove(long sessionId) {
+            SessionEntry entry = sessions.remove(sessionId);
+            if (entry == null) return;
+
+            synchronized (entry) {
+                if (entry.remaining > 0) unindex(entry);
+                entry.remaining = 0;
+            }
+        }
+
+        private void adjust(long sessionId, int slots) {
+            SessionEntry entry = sessions.get(sessionId);
+            if (entry == null) return;
+
+            synchronized (entry) {
+                boolean wasAvailable = entry.remaining > 0;
+                entry.remaining = Math.min(Math.max(entry.remaining + slots, 0), entry.session.getMaxPatients());
+                boolean available = entry.remaining > 0;
+
+                if (available && !wasAvailable) index(entry);
+                if (!available && wasAvailable) unindex(entry);
+            }
+        }
+
+        private void index(SessionEntry entry) {
+            for (BucketKey key : entry.bucketKeys())
+                buckets.computeIfAbsent(key, bucket -> ConcurrentHashMap.newKeySet()).add(entry.session.getId());
+        }
+
+        private void unindex(SessionEntry entry) {
+            for (BucketKey key : entry.bucketKeys()) {
+                Set<Long> sessionIds = buckets.get(key);
+                if (sessionIds != null) sessionIds.remove(entry.session.getId());
+            }
+        }
+    }
+
+    /**
+     * A session in the availability index. The remaining slots are guarded by the entry's monitor.
+     */
+    private static final class SessionEntry {
+
+        private DoctorSession session;
+
+        private LocalDate day;
+
+        private String doctorName;
+
+        private String hospitalName;
+
+        private Long cityId;
+
+        private List<Long> specializationIds;
+
+        private int remaining;
+
+        private List<BucketKey> bucketKeys() {
+            List<Long> cities = cityId == null ? List.of(ANY) : List.of(cityId, ANY);
+            List<BucketKey> keys = new ArrayList<>();
+            for (Long city : cities) {
+                keys.add(new BucketKey(day, ANY, city));
+                for (Long specializationId : specializationIds) keys.add(new BucketKey(day, specializationId, city));
+            }
+            return keys;
+        }
+
+        private SessionAvailability toAvailability() {
+            return new SessionAvailability(session.getId(), session.getDoctorId(), doctorName, session.getHospitalId(),
+                    hospitalName, cityId, session.getSessionDateTime(), session.getMaxPatients(),
+                    session.getMaxPatients() - remaining, session.getTotalFee());
+        }
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class BucketKey {
+
+        private final LocalDate day;
+
+        private final long specializationId;
+
+        private final long cityId;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counters of the slot reservations and holds, showing how often bookings contend for the last slots of a session.
+ *
+ * <p>{@code channelling.booking.reservations} counts the reservation attempts by outcome: {@code reserved},
+ * {@code rejected_fast_path} when the {@link SessionCapacityRegistry} already knew the session was full, and
+ * {@code rejected_lost_race} when the counter still showed a free slot but the conditional update in the database
+ * found none, which happens when concurrent bookings race for the same slots. {@code channelling.booking.holds}
+ * counts the confirmed, expired and too late confirmed holds, and {@code channelling.booking.holds.open} is the number
+ * of holds waiting for a payment.</p>
+ */
+@Component
+public class BookingMetrics {
+
+    private static final String RESERVATIONS = "channelling.booking.reservations";
+
+    private static final String HOLDS = "channelling.booking.holds";
+
+    private final Counter reserved;
+
+    private final Counter rejectedFastPath;
+
+    private final Counter rejectedLostRace;
+
+    private final Counter holdsConfirmed;
+
+    private final Counter holdsExpired;
+
+    private final Counter holdsConfirmedTooLate;
+
+    @Autowired
+    public BookingMetrics(MeterRegistry meterRegistry, SlotHoldRegistry slotHoldRegistry) {
+        reserved = Counter.builder(RESERVATIONS).tag("outcome", "reserved").register(meterRegistry);
+        rejectedFastPath = Counter.builder(RESERVATIONS).tag("outcome", "rejected_fast_path").register(meterRegistry);
+        rejectedLostRace = Counter.builder(RESERVATIONS).tag("outcome", "rejected_lost_race").register(meterRegistry);
+        holdsConfirmed = Counter.builder(HOLDS).tag("event", "confirmed").register(meterRegistry);
+        holdsExpired = Counter.builder(HOLDS).tag("event", "expired").register(meterRegistry);
+        holdsConfirmedTooLate = Counter.builder(HOLDS).tag("event", "confirmed_too_late").register(meterRegistry);
+        Gauge.builder(HOLDS + ".open", slotHoldRegistry, SlotHoldRegistry::size).register(meterRegistry);
+    }
+
+    public void reserved() {
+        reserved.increment();
+    }
+
+    public void rejectedFastPath() {
+        rejectedFastPath.increment();
+    }
+
+    public void rejectedLostRace() {
+        rejectedLostRace.increment();
+    }
+
+    public void holdConfirmed() {
+        holdsConfirmed.increment();
+    }
+
+    public void holdConfirmedTooLate() {
+        holdsConfirmedTooLate.increment();
+    }
+
+    public void holdsExpired(int holds) {
+        holdsExpired.increment(holds);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.booking;
+
+import lk.channelling.repository.AppointmentRepository;
+import lk.channelling.services.AppointmentService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Background task which releases the slots of expired holds.
+ *
+ * <p>On every run the expired holds are drained from the {@link SlotHoldRegistry} in batches and expired with one
+ * conditional update per session, so a flash crowd of abandoned payments is released in bulk.</p>
+ */
+@Component
+@Log4j2
+public class HoldExpirySweeper {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final SlotHoldRegistry slotHoldRegistry;
+
+    private final AppointmentService appointmentService;
+
+    private final AppointmentRepository appointmentRepository;
+
+    @Autowired
+    public HoldExpirySweeper(SlotHoldRegistry slotHoldRegistry, AppointmentService appointmentService,
+                             AppointmentRepository appointmentRepository) {
+        this.slotHoldRegistry = slotHoldRegistry;
+        this.appointmentService = appointmentService;
+        this.appointmentRepository = appointmentRepository;
+    }
+
+    /**
+     * Loads the holds which are still open in the database, so holds survive a restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOpenHolds() {
+        LocalDateTime now = LocalDateTime.now();
+        slotHoldRegistry.reset(appointmentRepository.findOpenHolds().stream()
+                .map(hold -> new SlotHold(hold.getId(), hold.getSessionId(), hold.getHoldExpiresAt() == null ? now : hold.getHoldExpiresAt()))
+                .toList());
+
+        log.info("Loaded {} open slot holds", slotHoldRegistry.size());
+    }
+
+    /**
+     * Expires the drained holds and releases their slots.
+     */
+    @Scheduled(fixedDelayString = "${application.booking.hold-sweep-interval:5000}")
+    public void sweep() {
+        List<SlotHold> expired;
+        while (!(expired = slotHoldRegistry.drainExpired(BATCH_SIZE)).isEmpty()) {
+            try {
+                int released = appointmentService.expireHolds(expired);
+                log.info("Released {} of {} expired slot holds", released, expired.size());
+            } catch (RuntimeException e) {
+                log.error("Failed to release expired slot holds, retrying on the next run", e);
+                expired.forEach(slotHoldRegistry::add);
+                return;
+            }
+        }
+    }
+}
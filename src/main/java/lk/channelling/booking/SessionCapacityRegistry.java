@@ -0,0 +1,167 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.booking;
+
+import lk.channelling.enums.AppointmentStatus;
+import lk.channelling.exception.SessionFullException;
+import lk.channelling.repository.AppointmentRepository;
+import lk.channelling.repository.DoctorSessionRepository;
+import lk.channelling.util.TransactionUtil;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory remaining capacity of the upcoming doctor sessions.
+ *
+ * <p>Each session has its own {@link AtomicInteger} counter, so bookings for different sessions never contend with
+ * each other. The counters are only a fast-reject path in front of the database: a session which is known to be full
+ * is rejected without opening a transaction, while every other request still goes through the conditional update in
+ * {@link DoctorSessionRepository#reserveSlot(Long)}, which remains the source of truth.</p>
+ *
+ * <p>Counters are rebuilt from the appointment table on startup and only adjusted after the booking or cancellation
+ * transaction has committed, so a rolled back booking never leaks a slot. A reservation rejected by the database does
+ * not touch the counter: a release may already have committed and counted its slot, and zeroing the counter then
+ * would fast-reject every booking of a session with a free slot.</p>
+ */
+@Component
+@Log4j2
+public class SessionCapacityRegistry {
+
+    private final ConcurrentMap<Long, AtomicInteger> remainingSlots = new ConcurrentHashMap<>();
+
+    private final AppointmentRepository appointmentRepository;
+
+    private final DoctorSessionRepository doctorSessionRepository;
+
+    private final BookingMetrics bookingMetrics;
+
+    @Autowired
+    public SessionCapacityRegistry(AppointmentRepository appointmentRepository, DoctorSessionRepository doctorSessionRepository,
+                                   BookingMetrics bookingMetrics) {
+        this.appointmentRepository = appointmentRepository;
+        this.doctorSessionRepository = doctorSessionRepository;
+        this.bookingMetrics = bookingMetrics;
+    }
+
+    /**
+     * Rebuilds the counters of all sessions scheduled from today onwards from the booked appointment counts.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long startTime = System.currentTimeMillis();
+
+        Map<Long, Long> booked = new HashMap<>();
+        appointmentRepository.countBookedBySession(AppointmentStatus.releasedStatuses())
+                .forEach(count -> booked.put(count.getSessionId().longValue(), count.getBooked()));
+
+        remainingSlots.clear();
+        doctorSessionRepository.findCapacitiesFrom(LocalDate.now().atStartOfDay()).forEach(session -> {
+            int remaining = session.getMaxPatients() - booked.getOrDefault(session.getId(), 0L).intValue();
+            remainingSlots.put(session.getId(), new AtomicInteger(Math.max(remaining, 0)));
+        });
+
+        log.info("Rebuilt capacity counters for {} sessions in {} ms", remainingSlots.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Rejects the booking straight away if the session is known to be full.
+     *
+     * @param sessionId the id of the doctor session.
+     * @throws SessionFullException if the session has no remaining slots.
+     */
+    public void ensureAvailable(long sessionId) {
+        AtomicInteger remaining = remainingSlots.get(sessionId);
+        if (remaining != null && remaining.get() <= 0) {
+            bookingMetrics.rejectedFastPath();
+            throw new SessionFullException("The doctor session " + sessionId + " is fully booked.");
+        }
+    }
+
+    /**
+     * Returns the remaining slots of the session, or {@code -1} if the session is not tracked.
+     *
+     * @param sessionId the id of the doctor session.
+     * @return the remaining slots.
+     */
+    public int getRemaining(long sessionId) {
+        AtomicInteger remaining = remainingSlots.get(sessionId);
+        return remaining == null ? -1 : remaining.get();
+    }
+
+    /**
+     * Records a reserved slot once the current transaction commits.
+     *
+     * @param sessionId the id of the doctor session.
+     */
+    public void reserved(long sessionId) {
+        TransactionUtil.afterCommit(() -> {
+            AtomicInteger remaining = remainingSlots.get(sessionId);
+            if (remaining != null) remaining.updateAndGet(value -> Math.max(value - 1, 0));
+        });
+    }
+
+    /**
+     * Records a released slot once the current transaction commits.
+     *
+     * @param sessionId the id of the doctor session.
+     */
+    public void released(long sessionId) {
+        released(sessionId, 1);
+    }
+
+    /**
+     * Records the given number of released slots once the current transaction commits.
+     *
+     * @param sessionId the id of the doctor session.
+     * @param slots     the number of released slots.
+     */
+    public void released(long sessionId, int slots) {
+        TransactionUtil.afterCommit(() -> {
+            AtomicInteger remaining = remainingSlots.get(sessionId);
+            if (remaining != null) remaining.addAndGet(slots);
+        });
+    }
+
+    /**
+     * Starts or restarts tracking of a session with the given capacity once the current transaction commits.
+     *
+     * @param sessionId      the id of the doctor session.
+     * @param maxPatients    the maximum number of patients of the session.
+     * @param bookedPatients the number of slots already booked.
+     */
+    public void track(long sessionId, int maxPatients, int bookedPatients) {
+        TransactionUtil.afterCommit(() -> remainingSlots.put(sessionId, new AtomicInteger(Math.max(maxPatients - bookedPatients, 0))));
+    }
+
+    /**
+     * Stops tracking the session once the current transaction commits.
+     *
+     * @param sessionId the id of the doctor session.
+     */
+    public void untrack(long sessionId) {
+        TransactionUtil.afterCommit(() -> remainingSlots.remove(sessionId));
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.booking;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A slot held by an appointment until the patient completes the payment.
+ */
+@Getter
+public class SlotHold implements Delayed {
+
+    private final long appointmentId;
+
+    private final long sessionId;
+
+    private final LocalDateTime expiresAt;
+
+    private final long expiresAtMillis;
+
+    public SlotHold(long appointmentId, long sessionId, LocalDateTime expiresAt) {
+        this.appointmentId = appointmentId;
+        this.sessionId = sessionId;
+        this.expiresAt = expiresAt;
+        this.expiresAtMillis = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(expiresAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        if (other instanceof SlotHold hold) return Long.compare(expiresAtMillis, hold.expiresAtMillis);
+        return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.booking;
+
+import lk.channelling.util.TransactionUtil;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+
+/**
+ * Keeps the open slot holds ordered by their expiry time.
+ *
+ * <p>Holds are kept in a {@link DelayQueue}, so the expired ones can be drained in bulk without scanning the
+ * appointment table. A hold which was confirmed by a payment is not removed from the queue; it is skipped when it
+ * reaches the head because the conditional expiry update only matches appointments which are still on hold.</p>
+ */
+@Component
+public class SlotHoldRegistry {
+
+    private final DelayQueue<SlotHold> holds = new DelayQueue<>();
+
+    /**
+     * Registers a hold once the current transaction commits.
+     *
+     * @param hold the slot hold.
+     */
+    public void add(SlotHold hold) {
+        TransactionUtil.afterCommit(() -> holds.add(hold));
+    }
+
+    /**
+     * Replaces the registered holds with the given ones.
+     *
+     * @param openHolds the holds currently open in the database.
+     */
+    public void reset(Collection<SlotHold> openHolds) {
+        holds.clear();
+        holds.addAll(openHolds);
+    }
+
+    /**
+     * Removes and returns up to {@code maxHolds} expired holds.
+     *
+     * @param maxHolds the maximum number of holds to drain.
+     * @return the expired holds.
+     */
+    public List<SlotHold> drainExpired(int maxHolds) {
+        List<SlotHold> expired = new ArrayList<>();
+        holds.drainTo(expired, maxHolds);
+        return expired;
+    }
+
+    /**
+     * Returns the number of registered holds.
+     *
+     * @return the number of holds.
+     */
+    public int size() {
+        return holds.size();
+    }
+}
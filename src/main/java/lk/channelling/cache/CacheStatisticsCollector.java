@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.cache;
+
+import lk.channelling.paging.CountCache;
+import lk.channelling.resources.CacheStatistics;
+import lk.channelling.security.VerifiedTokenCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the hit and miss counters of every in-memory cache of the application.
+ */
+@Component
+public class CacheStatisticsCollector {
+
+    private final CountCache countCache;
+
+    private final ReferenceDataCacheRegistry referenceDataCacheRegistry;
+
+    private final JsonPayloadCacheRegistry jsonPayloadCacheRegistry;
+
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    public CacheStatisticsCollector(CountCache countCache, ReferenceDataCacheRegistry referenceDataCacheRegistry,
+                                    JsonPayloadCacheRegistry jsonPayloadCacheRegistry, VerifiedTokenCache verifiedTokenCache) {
+        this.countCache = countCache;
+        this.referenceDataCacheRegistry = referenceDataCacheRegistry;
+        this.jsonPayloadCacheRegistry = jsonPayloadCacheRegistry;
+        this.verifiedTokenCache = verifiedTokenCache;
+    }
+
+    public List<CacheStatistics> collect() {
+        List<CacheStatistics> statistics = new ArrayList<>();
+        statistics.add(countCache.getStatistics());
+        statistics.addAll(referenceDataCacheRegistry.getStatistics());
+        statistics.addAll(jsonPayloadCacheRegistry.getStatistics());
+        statistics.add(verifiedTokenCache.getStatistics());
+        return statistics;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.cache;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Conditional GET support for the endpoints served from a {@link ReferenceDataCache}.
+ *
+ * <p>The controllers compare the {@code If-None-Match} header of the request with the entity tag of the cached table
+ * before loading the rows, so a client holding the current version gets a bodiless {@code 304 Not Modified} response
+ * and nothing is read or serialized.</p>
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * Returns whether the {@code If-None-Match} header matches the given entity tag, using the weak comparison
+     * required for {@code If-None-Match}.
+     *
+     * @param ifNoneMatch the value of the {@code If-None-Match} header, or {@code null}.
+     * @param eTag        the current entity tag, or {@code null} if there is none.
+     * @return {@code true} if the client already has the current representation.
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) return false;
+        if (ifNoneMatch.trim().equals("*")) return true;
+
+        String current = opaqueTag(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            if (opaqueTag(candidate).equals(current)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Builds the {@code 304 Not Modified} response for the given entity tag.
+     *
+     * @param eTag         the current entity tag.
+     * @param cacheControl the cache policy of the endpoint.
+     * @param <T>          the type of the body.
+     * @return the response without a body.
+     */
+    public static <T> ResponseEntity<T> notModified(String eTag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+    }
+
+    /**
+     * Builds the {@code 200 OK} response carrying the given entity tag and cache policy.
+     *
+     * @param body         the body.
+     * @param eTag         the entity tag, or {@code null} if the table is not cached yet.
+     * @param cacheControl the cache policy of the endpoint.
+     * @param <T>          the type of the body.
+     * @return the response.
+     */
+    public static <T> ResponseEntity<T> ok(T body, String eTag, CacheControl cacheControl) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(cacheControl);
+        if (eTag != null) builder.eTag(eTag);
+        return builder.body(body);
+    }
+
+    private static String opaqueTag(String tag) {
+        String trimmed = tag.trim();
+        return trimmed.startsWith("W/") ? trimmed.substring(2) : trimmed;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body serialized to JSON once, together with its gzip compressed variant.
+ *
+ * <p>The complete responses are built when the payload is created, so serving a request only selects one of the
+ * prepared {@link ResponseEntity responses} and the bytes are written to the client as they are.</p>
+ */
+public final class JsonPayload {
+
+    private final byte[] json;
+
+    private final byte[] gzip;
+
+    private final String eTag;
+
+    private final ResponseEntity<byte[]> plainResponse;
+
+    private final ResponseEntity<byte[]> gzipResponse;
+
+    private final ResponseEntity<byte[]> notModifiedResponse;
+
+    JsonPayload(byte[] json) {
+        this.json = json;
+        this.gzip = compress(json);
+
+        CRC32 checksum = new CRC32();
+        checksum.update(json);
+        this.eTag = "\"" + json.length + "-" + Long.toHexString(checksum.getValue()) + "\"";
+
+        this.plainResponse = new ResponseEntity<>(json, headers(null), HttpStatus.OK);
+        this.gzipResponse = new ResponseEntity<>(gzip, headers("gzip"), HttpStatus.OK);
+        this.notModifiedResponse = new ResponseEntity<>(headers(null), HttpStatus.NOT_MODIFIED);
+    }
+
+    public int getJsonLength() {
+        return json.length;
+    }
+
+    public int getGzipLength() {
+        return gzip.length;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * Returns the prepared response for the request.
+     *
+     * @param acceptEncoding the {@code Accept-Encoding} header of the request, or {@code null}.
+     * @param ifNoneMatch    the {@code If-None-Match} header of the request, or {@code null}.
+     * @return the response.
+     */
+    public ResponseEntity<byte[]> toResponse(String acceptEncoding, String ifNoneMatch) {
+        if (EntityTags.matches(ifNoneMatch, eTag)) return notModifiedResponse;
+        return acceptsGzip(acceptEncoding) ? gzipResponse : plainResponse;
+    }
+
+    /**
+     * Returns whether the {@code Accept-Encoding} header allows a gzip response. {@code x-gzip} is an alias of
+     * {@code gzip}, {@code *} covers gzip unless it is listed itself, and a coding with {@code q=0} is not acceptable.
+     *
+     * @param acceptEncoding the {@code Accept-Encoding} header of the request, or {@code null}.
+     * @return {@code true} if the gzip variant may be sent.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+
+        double gzipQuality = -1;
+        double wildcardQuality = -1;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parameters = element.split(";");
+            String coding = parameters[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parameters);
+
+            if (coding.equals("gzip") || coding.equals("x-gzip")) gzipQuality = Math.max(gzipQuality, quality);
+            else if (coding.equals("*")) wildcardQuality = Math.max(wildcardQuality, quality);
+        }
+        return (gzipQuality >= 0 ? gzipQuality : wildcardQuality) > 0;
+    }
+
+    /**
+     * Returns the {@code q} parameter of a coding, {@code 1} when it is absent and {@code 0} when it is malformed.
+     */
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.length() < 2 || Character.toLowerCase(parameter.charAt(0)) != 'q' || parameter.charAt(1) != '=')
+                continue;
+
+            try {
+                double quality = Double.parseDouble(parameter.substring(2).trim());
+                return quality >= 0 && quality <= 1 ? quality : 0;
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 1;
+    }
+
+    private HttpHeaders headers(String contentEncoding) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setETag(eTag);
+        headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (contentEncoding != null) headers.set(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    private static byte[] compress(byte[] json) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(Math.max(json.length / 4, 64));
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+            gzipOutputStream.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lk.channelling.resources.CacheStatistics;
+import lk.channelling.util.TransactionUtil;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches the serialized {@link JsonPayload} of a response body which is expensive to build.
+ *
+ * <p>The payload is built on the first request after an invalidation, by one thread while concurrent requests wait for
+ * it. An invalidation which arrives while the payload is being built discards the result, so a payload loaded before a
+ * write is never cached after it.</p>
+ */
+@Log4j2
+public class JsonPayloadCache {
+
+    @Getter
+    private final String name;
+
+    private final Supplier<?> loader;
+
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private volatile JsonPayload payload;
+
+    JsonPayloadCache(String name, Supplier<?> loader, ObjectMapper objectMapper) {
+        this.name = name;
+        this.loader = loader;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the cached payload, building it if there is none.
+     *
+     * @return the payload.
+     */
+    public JsonPayload get() {
+        JsonPayload current = payload;
+        if (current != null) {
+            hits.incrementAndGet();
+            return current;
+        }
+        return load();
+    }
+
+    /**
+     * Discards the cached payload.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        payload = null;
+    }
+
+    /**
+     * Discards the cached payload once the current transaction commits.
+     */
+    public void invalidateAfterCommit() {
+        TransactionUtil.afterCommit(this::invalidate);
+    }
+
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(name, payload == null ? 0 : 1, hits.get(), misses.get());
+    }
+
+    private synchronized JsonPayload load() {
+        JsonPayload current = payload;
+        if (current != null) {
+            hits.incrementAndGet();
+            return current;
+        }
+
+        misses.incrementAndGet();
+        long startTime = System.nanoTime();
+        long loadedGeneration = generation.get();
+        JsonPayload loaded;
+        try {
+            loaded = new JsonPayload(objectMapper.writeValueAsBytes(loader.get()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize the " + name + " payload", e);
+        }
+
+        if (generation.get() == loadedGeneration) payload = loaded;
+
+        log.debug("Built the {} payload of {} bytes ({} gzipped) in {} ms", name, loaded.getJsonLength(),
+                loaded.getGzipLength(), (System.nanoTime() - startTime) / 1_000_000);
+        return loaded;
+    }
+}
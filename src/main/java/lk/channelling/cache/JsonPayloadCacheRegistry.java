@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lk.channelling.resources.CacheStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Creates the {@link JsonPayloadCache JSON payload caches} with the application's {@link ObjectMapper} and keeps track
+ * of them for the statistics.
+ */
+@Component
+public class JsonPayloadCacheRegistry {
+
+    private final List<JsonPayloadCache> caches = new CopyOnWriteArrayList<>();
+
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public JsonPayloadCacheRegistry(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Creates and registers a cache of the payload returned by the loader.
+     *
+     * @param name   the name of the cache.
+     * @param loader builds the response body to be serialized.
+     * @return the cache.
+     */
+    public JsonPayloadCache register(String name, Supplier<?> loader) {
+        JsonPayloadCache cache = new JsonPayloadCache(name, loader, objectMapper);
+        caches.add(cache);
+        return cache;
+    }
+
+    public List<CacheStatistics> getStatistics() {
+        return caches.stream().map(JsonPayloadCache::getStatistics).toList();
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.cache;
+
+import lk.channelling.entity.BaseEntity;
+import lk.channelling.enums.Status;
+import lk.channelling.resources.ReferenceDataStatistics;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-memory copy of a reference data table, served from hash indexes.
+ *
+ * <p>The table is loaded into an immutable {@link Snapshot} holding the rows and their indexes by id, code, status and
+ * any number of grouping keys. Lookups read the current snapshot without locking, and a reload builds a complete new
+ * snapshot and swaps it in with a single volatile write, so readers see either the old or the new table but never a
+ * mixture. Until the first snapshot is loaded, lookups fall through to the database and count as misses.</p>
+ *
+ * <p>The cached entities are shared between requests and must be treated as read only.</p>
+ *
+ * @param <T> the entity.
+ */
+@Log4j2
+public class ReferenceDataCache<T extends BaseEntity> {
+
+    @Getter
+    private final String name;
+
+    private final Supplier<List<T>> loader;
+
+    private final Function<T, String> codeOf;
+
+    private final Map<String, Function<T, ?>> groupings = new LinkedHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private ReferenceDataCacheRegistry registry;
+
+    private volatile Snapshot<T> snapshot;
+
+    /**
+     * Creates a cache of the given table.
+     *
+     * @param name   the name of the cache.
+     * @param loader loads every row of the table.
+     * @param codeOf extracts the unique code of a row, or {@code null} if the table has no code.
+     */
+    public ReferenceDataCache(String name, Supplier<List<T>> loader, Function<T, String> codeOf) {
+        this.name = name;
+        this.loader = loader;
+        this.codeOf = codeOf;
+    }
+
+    /**
+     * Adds a hash index of the rows by the given key, served by {@link #findBy(String, Object)}.
+     *
+     * @param grouping the name of the index.
+     * @param keyOf    extracts the key of a row.
+     * @return this cache.
+     */
+    public ReferenceDataCache<T> groupBy(String grouping, Function<T, ?> keyOf) {
+        groupings.put(grouping, keyOf);
+        return this;
+    }
+
+    void setRegistry(ReferenceDataCacheRegistry registry) {
+        this.registry = registry;
+    }
+
+    public List<T> findAll() {
+        Snapshot<T> current = current();
+        return current == null ? loader.get() : current.rows;
+    }
+
+    public Optional<T> findById(Long id) {
+        Snapshot<T> current = current();
+        if (current == null) return loader.get().stream().filter(row -> row.getId().equals(id)).findFirst();
+        return Optional.ofNullable(current.byId.get(id));
+    }
+
+    public Optional<T> findByCode(String code) {
+        Snapshot<T> current = current();
+        if (current == null) return loader.get().stream().filter(row -> Objects.equals(codeOf.apply(row), code)).findFirst();
+        return Optional.ofNullable(current.byCode.get(code));
+    }
+
+    public List<T> findByStatus(Status status) {
+        Snapshot<T> current = current();
+        if (current == null) return loader.get().stream().filter(row -> row.getStatus() == status).toList();
+        return current.byStatus.getOrDefault(status, List.of());
+    }
+
+    /**
+     * Returns the rows with the given key in the named index.
+     *
+     * @param grouping the name of the index.
+     * @param key      the key.
+     * @return the matching rows.
+     */
+    public List<T> findBy(String grouping, Object key) {
+        Snapshot<T> current = current();
+        if (current == null) {
+            Function<T, ?> keyOf = groupings.get(grouping);
+            return loader.get().stream().filter(row -> Objects.equals(keyOf.apply(row), key)).toList();
+        }
+        return current.groups.get(grouping).getOrDefault(key, List.of());
+    }
+
+    /**
+     * Loads the table and swaps in the new snapshot.
+     */
+    public synchronized void reload() {
+        long startTime = System.nanoTime();
+        List<T> rows = loader.get();
+
+        Snapshot<T> previous = snapshot;
+        snapshot = new Snapshot<>(name, rows, codeOf, groupings, previous == null ? 1 : previous.version + 1,
+                (System.nanoTime() - startTime) / 1_000_000);
+
+        log.debug("Loaded version {} of the {} reference data cache with {} rows in {} ms", snapshot.version, name,
+                rows.size(), snapshot.buildMillis);
+    }
+
+    /**
+     * Reloads the table once the current transaction commits.
+     */
+    public void reloadAfterCommit() {
+        if (registry == null) reload();
+        else registry.reloadAfterCommit(this);
+    }
+
+    /**
+     * Returns the strong entity tag of the cached table, or {@code null} until the first snapshot is loaded.
+     *
+     * <p>The tag is derived from the row count and the id and {@code @Version} of every row, so it changes whenever a
+     * row is inserted, updated or deleted, and every instance of the application computes the same tag for the same
+     * table contents.</p>
+     *
+     * @return the quoted entity tag.
+     */
+    public String getETag() {
+        Snapshot<T> current = snapshot;
+        return current == null ? null : current.eTag;
+    }
+
+    public ReferenceDataStatistics getStatistics() {
+        Snapshot<T> current = snapshot;
+        return new ReferenceDataStatistics(name, current == null ? 0 : current.rows.size(), hits.get(), misses.get(),
+                current == null ? 0 : current.version,
+                current == null ? 0 : current.buildMillis,
+                current == null ? null : current.builtAt);
+    }
+
+    private Snapshot<T> current() {
+        Snapshot<T> current = snapshot;
+        if (current == null) misses.incrementAndGet();
+        else hits.incrementAndGet();
+        return current;
+    }
+
+    /**
+     * One immutable version of the table and its indexes.
+     */
+    private static final class Snapshot<T extends BaseEntity> {
+
+        private final List<T> rows;
+
+        private final Map<Long, T> byId;
+
+        private final Map<String, T> byCode;
+
+        private final Map<Status, List<T>> byStatus;
+
+        private final Map<String, Map<Object, List<T>>> groups;
+
+        private final String eTag;
+
+        private final long version;
+
+        private final long buildMillis;
+
+        private final LocalDateTime builtAt = LocalDateTime.now();
+
+        private Snapshot(String name, List<T> rows, Function<T, String> codeOf, Map<String, Function<T, ?>> groupings,
+                         long version, long buildMillis) {
+            this.rows = List.copyOf(rows);
+            this.version = version;
+            this.buildMillis = buildMillis;
+
+            Map<Long, T> ids = new HashMap<>();
+            Map<String, T> codes = new HashMap<>();
+            Map<Status, List<T>> statuses = new EnumMap<>(Status.class);
+            Map<String, Map<Object, List<T>>> groupIndexes = new HashMap<>();
+            long contentHash = 0;
+            groupings.keySet().forEach(grouping -> groupIndexes.put(grouping, new HashMap<>()));
+
+            for (T row : this.rows) {
+                ids.put(row.getId(), row);
+                contentHash += mix(row.getId() * 31 + (row.getVersion() == null ? 0 : row.getVersion()));
+                if (codeOf != null && codeOf.apply(row) != null) codes.put(codeOf.apply(row), row);
+                if (row.getStatus() != null) statuses.computeIfAbsent(row.getStatus(), status -> new ArrayList<>()).add(row);
+
+                groupings.forEach((grouping, keyOf) -> {
+                    Object key = keyOf.apply(row);
+                    if (key != null) groupIndexes.get(grouping).computeIfAbsent(key, value -> new ArrayList<>()).add(row);
+                });
+            }
+
+            this.byId = Map.copyOf(ids);
+            this.byCode = Map.copyOf(codes);
+            this.byStatus = immutableGroups(statuses);
+            Map<String, Map<Object, List<T>>> immutableGroupIndexes = new HashMap<>();
+            groupIndexes.forEach((grouping, index) -> immutableGroupIndexes.put(grouping, immutableGroups(index)));
+            this.groups = Map.copyOf(immutableGroupIndexes);
+            this.eTag = "\"" + name + "-" + this.rows.size() + "-" + Long.toHexString(contentHash) + "\"";
+        }
+
+        /**
+         * Spreads the bits of a row key, so the order independent sum of the keys still changes with every row.
+         */
+        private static long mix(long value) {
+            value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+            value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+            return value ^ (value >>> 31);
+        }
+
+        private static <K, T> Map<K, List<T>> immutableGroups(Map<K, List<T>> groups) {
+            Map<K, List<T>> copy = new HashMap<>();
+            groups.forEach((key, rows) -> copy.put(key, List.copyOf(rows)));
+            return Map.copyOf(copy);
+        }
+    }
+}
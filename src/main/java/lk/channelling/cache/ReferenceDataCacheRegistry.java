@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.cache;
+
+import lk.channelling.resources.ReferenceDataStatistics;
+import lk.channelling.util.TransactionUtil;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps track of the {@link ReferenceDataCache reference data caches}, loads them on startup and reloads them after
+ * writes.
+ *
+ * <p>A write only reloads the caches of the instance which made it, so every cache is also reloaded every
+ * {@code application.reference-data.reload-interval} milliseconds, which lets the other instances converge.</p>
+ *
+ * <p>Snapshots are always loaded in a new read only transaction, so the cached entities are detached from the
+ * persistence context of the request which triggered the reload.</p>
+ */
+@Component
+@Log4j2
+public class ReferenceDataCacheRegistry {
+
+    private final List<ReferenceDataCache<?>> caches = new CopyOnWriteArrayList<>();
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public ReferenceDataCacheRegistry(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Registers the cache, which is then loaded on startup and reported in the statistics.
+     *
+     * @param cache the cache.
+     * @return the cache.
+     */
+    public <T extends ReferenceDataCache<?>> T register(T cache) {
+        cache.setRegistry(this);
+        caches.add(cache);
+        return cache;
+    }
+
+    /**
+     * Loads every registered cache.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reloadAll() {
+        long startTime = System.currentTimeMillis();
+        caches.forEach(this::reload);
+        log.info("Loaded {} reference data caches in {} ms", caches.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Reloads every registered cache, picking up the writes made by other instances.
+     */
+    @Scheduled(initialDelayString = "${application.reference-data.reload-interval:300000}",
+            fixedDelayString = "${application.reference-data.reload-interval:300000}")
+    public void reloadPeriodically() {
+        caches.forEach(this::reload);
+        log.debug("Reloaded {} reference data caches", caches.size());
+    }
+
+    /**
+     * Reloads the cache once the current transaction commits.
+     *
+     * @param cache the cache.
+     */
+    public void reloadAfterCommit(ReferenceDataCache<?> cache) {
+        TransactionUtil.afterCommit(() -> reload(cache));
+    }
+
+    public List<ReferenceDataStatistics> getStatistics() {
+        return caches.stream().map(ReferenceDataCache::getStatistics).toList();
+    }
+
+    private void reload(ReferenceDataCache<?> cache) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> cache.reload());
+        } catch (RuntimeException e) {
+            log.error("Unable to reload the {} reference data cache, keeping the previous snapshot", cache.getName(), e);
+        }
+    }
+}
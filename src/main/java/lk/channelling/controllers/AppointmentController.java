@@ -16,7 +16,15 @@
 
 package lk.channelling.controllers;
 
+import jakarta.servlet.http.HttpServletResponse;
+import lk.channelling.booking.SessionCapacityRegistry;
 import lk.channelling.entity.Appointment;
+import lk.channelling.export.EntityExporter;
+import lk.channelling.export.ExportFormat;
+import lk.channelling.idempotency.IdempotencyKeyStore;
+import lk.channelling.idempotency.IdempotentResult;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 import lk.channelling.services.AppointmentService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +32,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -34,9 +43,19 @@ public class AppointmentController {
 
     private final AppointmentService appointmentService;
 
+    private final SessionCapacityRegistry sessionCapacityRegistry;
+
+    private final IdempotencyKeyStore idempotencyKeyStore;
+
+    private final EntityExporter entityExporter;
+
     @Autowired
-    public AppointmentController(AppointmentService appointmentService) {
+    public AppointmentController(AppointmentService appointmentService, SessionCapacityRegistry sessionCapacityRegistry,
+                                 IdempotencyKeyStore idempotencyKeyStore, EntityExporter entityExporter) {
         this.appointmentService = appointmentService;
+        this.sessionCapacityRegistry = sessionCapacityRegistry;
+        this.idempotencyKeyStore = idempotencyKeyStore;
+        this.entityExporter = entityExporter;
     }
 
     @GetMapping("/all")
@@ -53,9 +72,23 @@ public class AppointmentController {
     }
 
     @PostMapping("/save")
-    public ResponseEntity<Appointment> save(@RequestBody Appointment appointment) {
-        Appointment savedAppointment = appointmentService.save(appointment);
-        return new ResponseEntity<>(savedAppointment, HttpStatus.CREATED);
+    public ResponseEntity<Appointment> save(@RequestHeader(value = IdempotencyKeyStore.HEADER, required = false) String idempotencyKey,
+                                            @RequestBody Appointment appointment) {
+        IdempotentResult<Appointment> savedAppointment = idempotencyKeyStore.execute("appointments/save", idempotencyKey, appointment, Appointment.class, () -> {
+            sessionCapacityRegistry.ensureAvailable(appointment.getSessionId());
+            return appointmentService.save(appointment);
+        });
+        return new ResponseEntity<>(savedAppointment.getValue(), savedAppointment.getHeaders(), HttpStatus.CREATED);
+    }
+
+    @PostMapping("/hold")
+    public ResponseEntity<Appointment> hold(@RequestHeader(value = IdempotencyKeyStore.HEADER, required = false) String idempotencyKey,
+                                            @RequestBody Appointment appointment) {
+        IdempotentResult<Appointment> heldAppointment = idempotencyKeyStore.execute("appointments/hold", idempotencyKey, appointment, Appointment.class, () -> {
+            sessionCapacityRegistry.ensureAvailable(appointment.getSessionId());
+            return appointmentService.hold(appointment);
+        });
+        return new ResponseEntity<>(heldAppointment.getValue(), heldAppointment.getHeaders(), HttpStatus.CREATED);
     }
 
     @DeleteMapping("/{id}")
@@ -69,4 +102,14 @@ public class AppointmentController {
         Appointment updatedAppointment = appointmentService.update(id, appointment);
         return new ResponseEntity<>(updatedAppointment, HttpStatus.OK);
     }
+
+    @PostMapping("/data")
+    public PageArray getData(@RequestBody PagingRequest pagingRequest) {
+        return appointmentService.getData(pagingRequest);
+    }
+
+    @GetMapping("/export")
+    public void export(@RequestParam(defaultValue = "csv") String format, HttpServletResponse response) throws IOException {
+        entityExporter.export(Appointment.class, "appointments", ExportFormat.of(format), response);
+    }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.controllers;
+
+import jakarta.validation.Valid;
+import lk.channelling.resources.ChangePasswordRequest;
+import lk.channelling.resources.LoginRequest;
+import lk.channelling.resources.RefreshTokenRequest;
+import lk.channelling.resources.ResetPasswordRequest;
+import lk.channelling.resources.TokenResponse;
+import lk.channelling.security.AdminAuthorizer;
+import lk.channelling.services.AuthenticationService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Issues the bearer tokens expected by {@link lk.channelling.security.JwtAuthenticationFilter}.
+ */
+@RestController
+@RequestMapping("/api/v1/auth")
+@CrossOrigin(origins = "*")
+@Log4j2
+public class AuthenticationController {
+
+    private final AuthenticationService authenticationService;
+
+    private final AdminAuthorizer adminAuthorizer;
+
+    @Autowired
+    public AuthenticationController(AuthenticationService authenticationService, AdminAuthorizer adminAuthorizer) {
+        this.authenticationService = authenticationService;
+        this.adminAuthorizer = adminAuthorizer;
+    }
+
+    /**
+     * Exchanges the username and password for an access token and a refresh token.
+     *
+     * @param loginRequest the credentials.
+     * @return the Response Entity with the tokens.
+     */
+    @PostMapping("/login")
+    public ResponseEntity<TokenResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
+        return new ResponseEntity<>(authenticationService.login(loginRequest.getUsername(), loginRequest.getPassword()), HttpStatus.OK);
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and refresh token.
+     *
+     * @param refreshTokenRequest the refresh token.
+     * @return the Response Entity with the tokens.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenResponse> refresh(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        return new ResponseEntity<>(authenticationService.refresh(refreshTokenRequest.getRefreshToken()), HttpStatus.OK);
+    }
+
+    /**
+     * Sets the password of the authenticated user, see {@link AuthenticationService#changePassword(String, String)}.
+     *
+     * @param changePasswordRequest the current and the new password.
+     * @return the Response Entity without content.
+     */
+    @PutMapping("/password")
+    public ResponseEntity<Void> changePassword(@Valid @RequestBody ChangePasswordRequest changePasswordRequest) {
+        authenticationService.changePassword(changePasswordRequest.getCurrentPassword(), changePasswordRequest.getNewPassword());
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    /**
+     * Sets the password of the given user, for the administrators, see
+     * {@link AuthenticationService#resetPassword(String, String)}.
+     *
+     * @param username             the username of the user.
+     * @param resetPasswordRequest the new password.
+     * @return the Response Entity without content.
+     */
+    @PutMapping("/users/{username}/password")
+    public ResponseEntity<Void> resetPassword(@PathVariable String username, @Valid @RequestBody ResetPasswordRequest resetPasswordRequest) {
+        adminAuthorizer.validateAdmin();
+        authenticationService.resetPassword(username, resetPasswordRequest.getNewPassword());
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.controllers;
+
+import lk.channelling.resources.ApiResponse;
+import lk.channelling.search.AutocompleteIndex;
+import lk.channelling.security.AdminAuthorizer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Name autocomplete of the doctor and hospital search boxes.
+ *
+ * <p>The responses use the dropdown format of the {@code /all} endpoints, so the search boxes can load them directly
+ * as remote dropdown results.</p>
+ */
+@RestController
+@RequestMapping("/api/v1/autocomplete")
+@CrossOrigin(origins = "*")
+@Log4j2
+public class AutocompleteController {
+
+    private final AutocompleteIndex autocompleteIndex;
+
+    private final AdminAuthorizer adminAuthorizer;
+
+    @Autowired
+    public AutocompleteController(AutocompleteIndex autocompleteIndex, AdminAuthorizer adminAuthorizer) {
+        this.autocompleteIndex = autocompleteIndex;
+        this.adminAuthorizer = adminAuthorizer;
+    }
+
+    /**
+     * Returns the doctors whose names start with the typed text.
+     *
+     * @param query the typed text.
+     * @param fuzzy whether names with one typo are matched as well.
+     * @param limit the maximum number of results.
+     * @return the Response Entity with the matching doctors.
+     */
+    @GetMapping("/doctors")
+    public ResponseEntity<ApiResponse> suggestDoctors(@RequestParam("q") String query,
+                                                      @RequestParam(defaultValue = "false") boolean fuzzy,
+                                                      @RequestParam(defaultValue = "10") int limit) {
+        return new ResponseEntity<>(autocompleteIndex.suggestDoctors(query, fuzzy, limit), HttpStatus.OK);
+    }
+
+    /**
+     * Returns the hospitals whose names start with the typed text.
+     *
+     * @param query the typed text.
+     * @param fuzzy whether names with one typo are matched as well.
+     * @param limit the maximum number of results.
+     * @return the Response Entity with the matching hospitals.
+     */
+    @GetMapping("/hospitals")
+    public ResponseEntity<ApiResponse> suggestHospitals(@RequestParam("q") String query,
+                                                        @RequestParam(defaultValue = "false") boolean fuzzy,
+                                                        @RequestParam(defaultValue = "10") int limit) {
+        return new ResponseEntity<>(autocompleteIndex.suggestHospitals(query, fuzzy, limit), HttpStatus.OK);
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        adminAuthorizer.validateAdmin();
+        autocompleteIndex.rebuild();
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
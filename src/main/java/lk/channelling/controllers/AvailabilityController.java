@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.controllers;
+
+import lk.channelling.availability.AvailabilitySnapshot;
+import lk.channelling.resources.AvailabilityConsistencyReport;
+import lk.channelling.resources.SessionAvailability;
+import lk.channelling.security.AdminAuthorizer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/availability")
+@CrossOrigin(origins = "*")
+@Log4j2
+public class AvailabilityController {
+
+    private final AvailabilitySnapshot availabilitySnapshot;
+
+    private final AdminAuthorizer adminAuthorizer;
+
+    @Autowired
+    public AvailabilityController(AvailabilitySnapshot availabilitySnapshot, AdminAuthorizer adminAuthorizer) {
+        this.availabilitySnapshot = availabilitySnapshot;
+        this.adminAuthorizer = adminAuthorizer;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<SessionAvailability>> find(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                          @RequestParam(required = false) Long specializationId,
+                                                          @RequestParam(required = false) Long cityId) {
+        LocalDate firstDay = from == null ? LocalDate.now() : from;
+        LocalDate lastDay = to == null ? firstDay : to;
+        List<SessionAvailability> sessions = availabilitySnapshot.find(firstDay, lastDay, specializationId, cityId);
+        if (sessions.isEmpty()) return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        return new ResponseEntity<>(sessions, HttpStatus.OK);
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        adminAuthorizer.validateAdmin();
+        availabilitySnapshot.rebuild();
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    @GetMapping("/consistency")
+    public ResponseEntity<AvailabilityConsistencyReport> checkConsistency() {
+        adminAuthorizer.validateAdmin();
+        return new ResponseEntity<>(availabilitySnapshot.checkConsistency(), HttpStatus.OK);
+    }
+}
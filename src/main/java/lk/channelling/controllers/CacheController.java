@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.controllers;
+
+import lk.channelling.cache.CacheStatisticsCollector;
+import lk.channelling.cache.ReferenceDataCacheRegistry;
+import lk.channelling.resources.CacheStatistics;
+import lk.channelling.security.AdminAuthorizer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/caches")
+@CrossOrigin(origins = "*")
+@Log4j2
+public class CacheController {
+
+    private final CacheStatisticsCollector cacheStatisticsCollector;
+
+    private final ReferenceDataCacheRegistry referenceDataCacheRegistry;
+
+    private final AdminAuthorizer adminAuthorizer;
+
+    @Autowired
+    public CacheController(CacheStatisticsCollector cacheStatisticsCollector, ReferenceDataCacheRegistry referenceDataCacheRegistry,
+                           AdminAuthorizer adminAuthorizer) {
+        this.cacheStatisticsCollector = cacheStatisticsCollector;
+        this.referenceDataCacheRegistry = referenceDataCacheRegistry;
+        this.adminAuthorizer = adminAuthorizer;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStatistics>> getStatistics() {
+        return new ResponseEntity<>(cacheStatisticsCollector.collect(), HttpStatus.OK);
+    }
+
+    @PostMapping("/reference-data/reload")
+    public ResponseEntity<Void> reloadReferenceData() {
+        adminAuthorizer.validateAdmin();
+        referenceDataCacheRegistry.reloadAll();
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
@@ -16,15 +16,19 @@
 package lk.channelling.controllers;
 
 import jakarta.validation.Valid;
+import lk.channelling.cache.EntityTags;
 import lk.channelling.entity.City;
 import lk.channelling.enums.Status;
 import lk.channelling.services.CityService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -44,6 +48,12 @@ import java.util.List;
 @Log4j2
 public class CityController {
 
+    /**
+     * The cache policy of the City lists. Cities change rarely, so clients may reuse the lists for half an hour before
+     * revalidating them.
+     */
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(30)).cachePublic();
+
     /**
      * The City service for handling City related business logic.
      */
@@ -62,15 +72,19 @@ public class CityController {
     /**
      * Handles HTTP Get requests to retrieve details of all cities.
      *
+     * @param ifNoneMatch the entity tag of the list held by the client, if any.
      * @return The details of all cities as a Response Entity.
      */
     @GetMapping("/all")
-    public ResponseEntity<List<City>> findAll() {
+    public ResponseEntity<List<City>> findAll(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = cityService.getETag();
+        if (EntityTags.matches(ifNoneMatch, eTag)) return EntityTags.notModified(eTag, CACHE_CONTROL);
+
         List<City> cities = cityService.findAll();
 
         if (cities.isEmpty()) return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 
-        return new ResponseEntity<>(cities, HttpStatus.OK);
+        return EntityTags.ok(cities, eTag, CACHE_CONTROL);
     }
 
     /**
@@ -90,15 +104,20 @@ public class CityController {
      * Returns the list of City by the given status.
      *
      * @param status The status of the City. It should be either ACTIVE or INACTIVE.
+     * @param ifNoneMatch the entity tag of the list held by the client, if any.
      * @return the List of cities.
      */
     @GetMapping("/status={status}")
-    public ResponseEntity<List<City>> findByStatus(@PathVariable Status status) {
+    public ResponseEntity<List<City>> findByStatus(@PathVariable Status status,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = cityService.getETag();
+        if (EntityTags.matches(ifNoneMatch, eTag)) return EntityTags.notModified(eTag, CACHE_CONTROL);
+
         List<City> cities = cityService.findByStatus(status);
 
         if (cities.isEmpty()) return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 
-        return new ResponseEntity<>(cities, HttpStatus.OK);
+        return EntityTags.ok(cities, eTag, CACHE_CONTROL);
     }
 
     /**
@@ -138,12 +157,23 @@ public class CityController {
         return new ResponseEntity<>(updatedInstitution, HttpStatus.OK);
     }
 
+    /**
+     * Returns the list of City of the given state.
+     *
+     * @param stateId   the id of the state.
+     * @param ifNoneMatch the entity tag of the list held by the client, if any.
+     * @return the List of City.
+     */
     @GetMapping("/state-id={stateId}")
-    public ResponseEntity<List<City>> findByStateId(@PathVariable Long stateId) {
+    public ResponseEntity<List<City>> findByStateId(@PathVariable Long stateId,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = cityService.getETag();
+        if (EntityTags.matches(ifNoneMatch, eTag)) return EntityTags.notModified(eTag, CACHE_CONTROL);
+
         List<City> cities = cityService.findByStateId(stateId);
 
         if (cities.isEmpty()) return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 
-        return new ResponseEntity<>(cities, HttpStatus.OK);
+        return EntityTags.ok(cities, eTag, CACHE_CONTROL);
     }
 }
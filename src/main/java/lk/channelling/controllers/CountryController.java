@@ -16,6 +16,7 @@
 package lk.channelling.controllers;
 
 import jakarta.validation.Valid;
+import lk.channelling.cache.EntityTags;
 import lk.channelling.entity.Country;
 import lk.channelling.enums.Status;
 import lk.channelling.resources.PageArray;
@@ -23,10 +24,13 @@ import lk.channelling.resources.PagingRequest;
 import lk.channelling.services.CountryService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -46,6 +50,12 @@ import java.util.List;
 @Log4j2
 public class CountryController {
 
+    /**
+     * The cache policy of the Country lists. Countries change rarely, so clients may reuse the list for an hour before
+     * revalidating it.
+     */
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofHours(1)).cachePublic();
+
     /**
      * The country service for handling country related business logic.
      */
@@ -64,15 +74,19 @@ public class CountryController {
     /**
      * Handles HTTP Get requests to retrieve details of all countries.
      *
+     * @param ifNoneMatch the entity tag of the list held by the client, if any.
      * @return The details of all countries as a Response Entity.
      */
     @GetMapping("/all")
-    public ResponseEntity<List<Country>> findAll() {
+    public ResponseEntity<List<Country>> findAll(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = countryService.getETag();
+        if (EntityTags.matches(ifNoneMatch, eTag)) return EntityTags.notModified(eTag, CACHE_CONTROL);
+
         List<Country> countries = countryService.findAll();
 
         if (countries.isEmpty()) return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 
-        return new ResponseEntity<>(countries, HttpStatus.OK);
+        return EntityTags.ok(countries, eTag, CACHE_CONTROL);
     }
 
     /**
@@ -103,15 +117,20 @@ public class CountryController {
      * Returns the list of country by the given status.
      *
      * @param status The status of the country. It should be either ACTIVE or INACTIVE.
+     * @param ifNoneMatch the entity tag of the list held by the client, if any.
      * @return the List of countries.
      */
     @GetMapping("/status={status}")
-    public ResponseEntity<List<Country>> findByStatus(@PathVariable Status status) {
+    public ResponseEntity<List<Country>> findByStatus(@PathVariable Status status,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = countryService.getETag();
+        if (EntityTags.matches(ifNoneMatch, eTag)) return EntityTags.notModified(eTag, CACHE_CONTROL);
+
         List<Country> countries = countryService.findByStatus(status);
 
         if (countries.isEmpty()) return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 
-        return new ResponseEntity<>(countries, HttpStatus.OK);
+        return EntityTags.ok(countries, eTag, CACHE_CONTROL);
     }
 
     /**
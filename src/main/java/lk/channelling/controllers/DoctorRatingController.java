@@ -1,12 +1,16 @@
 package lk.channelling.controllers;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lk.channelling.entity.DoctorRating;
+import lk.channelling.export.EntityExporter;
+import lk.channelling.export.ExportFormat;
 import lk.channelling.services.DoctorRatingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -16,9 +20,12 @@ public class DoctorRatingController {
 
     private final DoctorRatingService doctorRatingService;
 
+    private final EntityExporter entityExporter;
+
     @Autowired
-    public DoctorRatingController(DoctorRatingService doctorRatingService) {
+    public DoctorRatingController(DoctorRatingService doctorRatingService, EntityExporter entityExporter) {
         this.doctorRatingService = doctorRatingService;
+        this.entityExporter = entityExporter;
     }
 
     @GetMapping("/")
@@ -50,4 +57,9 @@ public class DoctorRatingController {
         doctorRatingService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    @GetMapping("/export")
+    public void export(@RequestParam(defaultValue = "csv") String format, HttpServletResponse response) throws IOException {
+        entityExporter.export(DoctorRating.class, "doctor-ratings", ExportFormat.of(format), response);
+    }
 }
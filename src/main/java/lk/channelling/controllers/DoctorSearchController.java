@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.controllers;
+
+import lk.channelling.resources.DoctorSearchResult;
+import lk.channelling.resources.Page;
+import lk.channelling.search.DoctorSearchEngine;
+import lk.channelling.security.AdminAuthorizer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Free text doctor search, such as {@code "cardiologist near kandy"} or {@code "dr perera colombo"}.
+ */
+@RestController
+@RequestMapping("/api/v1/doctor-search")
+@CrossOrigin(origins = "*")
+@Log4j2
+public class DoctorSearchController {
+
+    private final DoctorSearchEngine doctorSearchEngine;
+
+    private final AdminAuthorizer adminAuthorizer;
+
+    @Autowired
+    public DoctorSearchController(DoctorSearchEngine doctorSearchEngine, AdminAuthorizer adminAuthorizer) {
+        this.doctorSearchEngine = doctorSearchEngine;
+        this.adminAuthorizer = adminAuthorizer;
+    }
+
+    /**
+     * Searches the doctors by specialization, place and name, ranked by how well they match and by their rating.
+     *
+     * @param query            the search text.
+     * @param specializationId the id of a specialization the doctors must have.
+     * @param cityId           the id of a city the doctors must practise in.
+     * @param page             the zero based page number.
+     * @param size             the page size.
+     * @return the Response Entity with the page of doctors.
+     */
+    @GetMapping
+    public ResponseEntity<Page<DoctorSearchResult>> search(@RequestParam(value = "q", defaultValue = "") String query,
+                                                           @RequestParam(required = false) Long specializationId,
+                                                           @RequestParam(required = false) Long cityId,
+                                                           @RequestParam(defaultValue = "0") int page,
+                                                           @RequestParam(defaultValue = "20") int size) {
+        return new ResponseEntity<>(doctorSearchEngine.search(query, specializationId, cityId, page, size), HttpStatus.OK);
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        adminAuthorizer.validateAdmin();
+        doctorSearchEngine.rebuild();
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
@@ -16,14 +16,23 @@
 
 package lk.channelling.controllers;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lk.channelling.entity.DoctorSession;
+import lk.channelling.export.EntityExporter;
+import lk.channelling.export.ExportFormat;
+import lk.channelling.resources.AvailabilitySearch;
+import lk.channelling.resources.Page;
+import lk.channelling.resources.SessionAvailability;
 import lk.channelling.services.DoctorSessionService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -34,9 +43,12 @@ public class DoctorSessionController {
 
     private final DoctorSessionService doctorSessionService;
 
+    private final EntityExporter entityExporter;
+
     @Autowired
-    public DoctorSessionController(DoctorSessionService doctorSessionService) {
+    public DoctorSessionController(DoctorSessionService doctorSessionService, EntityExporter entityExporter) {
         this.doctorSessionService = doctorSessionService;
+        this.entityExporter = entityExporter;
     }
 
     @GetMapping("/all")
@@ -46,6 +58,21 @@ public class DoctorSessionController {
         return new ResponseEntity<>(doctorSessions, HttpStatus.OK);
     }
 
+    @GetMapping("/availability")
+    public ResponseEntity<Page<SessionAvailability>> findAvailable(@RequestParam(required = false) Integer doctorId,
+                                                                   @RequestParam(required = false) Integer hospitalId,
+                                                                   @RequestParam(required = false) Long cityId,
+                                                                   @RequestParam(required = false) Long specializationId,
+                                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                   @RequestParam(defaultValue = "0") int page,
+                                                                   @RequestParam(defaultValue = "20") int size) {
+        AvailabilitySearch availabilitySearch = new AvailabilitySearch(doctorId, hospitalId, cityId, specializationId, from, to);
+        Page<SessionAvailability> sessions = doctorSessionService.findAvailable(availabilitySearch, page, size);
+        if (sessions.getData().isEmpty()) return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        return new ResponseEntity<>(sessions, HttpStatus.OK);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<DoctorSession> findById(@PathVariable Long id) {
         DoctorSession doctorSession = doctorSessionService.findById(id);
@@ -69,4 +96,9 @@ public class DoctorSessionController {
         DoctorSession updatedDoctorSession = doctorSessionService.update(id, doctorSession);
         return new ResponseEntity<>(updatedDoctorSession, HttpStatus.OK);
     }
+
+    @GetMapping("/export")
+    public void export(@RequestParam(defaultValue = "csv") String format, HttpServletResponse response) throws IOException {
+        entityExporter.export(DoctorSession.class, "doctor-sessions", ExportFormat.of(format), response);
+    }
 }
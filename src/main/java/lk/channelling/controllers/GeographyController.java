@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.controllers;
+
+import lk.channelling.entity.City;
+import lk.channelling.exception.RecordNotFoundException;
+import lk.channelling.geography.GeographyTree;
+import lk.channelling.resources.GeographyNode;
+import lk.channelling.security.AdminAuthorizer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Serves the Country → State → City hierarchy of the location pickers in a single call.
+ */
+@RestController
+@RequestMapping("/api/v1/geography")
+@CrossOrigin(origins = "*")
+@Log4j2
+public class GeographyController {
+
+    private final GeographyTree geographyTree;
+
+    private final AdminAuthorizer adminAuthorizer;
+
+    @Autowired
+    public GeographyController(GeographyTree geographyTree, AdminAuthorizer adminAuthorizer) {
+        this.geographyTree = geographyTree;
+        this.adminAuthorizer = adminAuthorizer;
+    }
+
+    /**
+     * Returns every active country with its states and cities.
+     *
+     * @return the Response Entity with the country nodes.
+     */
+    @GetMapping("/tree")
+    public ResponseEntity<List<GeographyNode>> getTree() {
+        List<GeographyNode> countries = geographyTree.getTree();
+
+        if (countries.isEmpty()) return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+
+        return new ResponseEntity<>(countries, HttpStatus.OK);
+    }
+
+    /**
+     * Returns the country with its states and cities.
+     *
+     * @param countryId the id of the country.
+     * @return the Response Entity with the country node.
+     */
+    @GetMapping("/country-id={countryId}")
+    public ResponseEntity<GeographyNode> findCountry(@PathVariable Long countryId) {
+        GeographyNode country = geographyTree.findCountry(countryId)
+                .orElseThrow(() -> new RecordNotFoundException("No active country record found for the id : " + countryId));
+        return new ResponseEntity<>(country, HttpStatus.OK);
+    }
+
+    /**
+     * Returns the cities of every state of the country as a flat list.
+     *
+     * @param countryId the id of the country.
+     * @return the Response Entity with the cities.
+     */
+    @GetMapping("/country-id={countryId}/cities")
+    public ResponseEntity<List<City>> findCitiesByCountryId(@PathVariable Long countryId) {
+        List<City> cities = geographyTree.findCitiesByCountryId(countryId)
+                .orElseThrow(() -> new RecordNotFoundException("No active country record found for the id : " + countryId));
+
+        if (cities.isEmpty()) return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+
+        return new ResponseEntity<>(cities, HttpStatus.OK);
+    }
+
+    /**
+     * Returns the state with its cities.
+     *
+     * @param stateId the id of the state.
+     * @return the Response Entity with the state node.
+     */
+    @GetMapping("/state-id={stateId}")
+    public ResponseEntity<GeographyNode> findState(@PathVariable Long stateId) {
+        GeographyNode state = geographyTree.findState(stateId)
+                .orElseThrow(() -> new RecordNotFoundException("No active state record found for the id : " + stateId));
+        return new ResponseEntity<>(state, HttpStatus.OK);
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        adminAuthorizer.validateAdmin();
+        geographyTree.rebuild();
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
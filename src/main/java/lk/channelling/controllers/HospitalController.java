@@ -18,11 +18,12 @@ package lk.channelling.controllers;
 import jakarta.validation.Valid;
 import lk.channelling.entity.Hospital;
 import lk.channelling.enums.Status;
-import lk.channelling.resources.ApiResponse;
 import lk.channelling.services.HospitalService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -63,15 +64,16 @@ public class HospitalController {
     /**
      * Handles HTTP Get requests to retrieve details of all hospitals.
      *
+     * <p>The response is served from the pre-serialized payload, gzip compressed if the client accepts it.</p>
+     *
+     * @param acceptEncoding the encodings accepted by the client, if any.
+     * @param ifNoneMatch    the entity tag of the payload held by the client, if any.
      * @return The details of all hospitals as a Response Entity.
      */
-    @GetMapping("/all")
-    public ResponseEntity<ApiResponse> findAll() {
-        ApiResponse hospitals = hospitalService.findAll();
-
-        if (hospitals == null) return new ResponseEntity<>(HttpStatus.NO_CONTENT);
-
-        return new ResponseEntity<>(hospitals, HttpStatus.OK);
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> findAll(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return hospitalService.findAllJson().toResponse(acceptEncoding, ifNoneMatch);
     }
 
     /**
@@ -18,6 +18,8 @@ package lk.channelling.controllers;
 import jakarta.validation.Valid;
 import lk.channelling.entity.Institution;
 import lk.channelling.enums.Status;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 import lk.channelling.services.InstitutionService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -157,4 +159,9 @@ public class InstitutionController {
 
         return new ResponseEntity<>(Institutions, HttpStatus.OK);
     }
+
+    @PostMapping("/data")
+    public PageArray getData(@RequestBody PagingRequest pagingRequest) {
+        return institutionService.getData(pagingRequest);
+    }
 }
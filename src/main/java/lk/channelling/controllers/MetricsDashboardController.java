@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.controllers;
+
+import lk.channelling.exception.InvalidRequestException;
+import lk.channelling.metrics.MetricsDashboardFactory;
+import lk.channelling.resources.MetricsDashboard;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Built-in view of the application metrics. The full set of meters is scraped from {@code /actuator/prometheus}.
+ */
+@RestController
+@RequestMapping("/api/v1/metrics")
+@CrossOrigin(origins = "*")
+@Log4j2
+public class MetricsDashboardController {
+
+    private static final int MAX_LIMIT = 200;
+
+    private final MetricsDashboardFactory metricsDashboardFactory;
+
+    @Autowired
+    public MetricsDashboardController(MetricsDashboardFactory metricsDashboardFactory) {
+        this.metricsDashboardFactory = metricsDashboardFactory;
+    }
+
+    /**
+     * Returns the slowest controller and repository methods, the connection pool, the booking counters and the
+     * cache hit ratios.
+     *
+     * @param limit the maximum number of controller and repository methods listed.
+     * @return the Response Entity with the dashboard.
+     */
+    @GetMapping("/dashboard")
+    public ResponseEntity<MetricsDashboard> getDashboard(@RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT)
+            throw new InvalidRequestException("The limit must be between 1 and " + MAX_LIMIT + ".");
+        return new ResponseEntity<>(metricsDashboardFactory.create(limit), HttpStatus.OK);
+    }
+}
@@ -16,7 +16,12 @@
 
 package lk.channelling.controllers;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lk.channelling.entity.Patient;
+import lk.channelling.export.EntityExporter;
+import lk.channelling.export.ExportFormat;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 import lk.channelling.services.PatientService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +29,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -34,9 +40,12 @@ public class PatientController {
 
     private final PatientService patientService;
 
+    private final EntityExporter entityExporter;
+
     @Autowired
-    public PatientController(PatientService patientService) {
+    public PatientController(PatientService patientService, EntityExporter entityExporter) {
         this.patientService = patientService;
+        this.entityExporter = entityExporter;
     }
 
     @GetMapping("/all")
@@ -69,4 +78,14 @@ public class PatientController {
         Patient updatedPatient = patientService.update(id, patient);
         return new ResponseEntity<>(updatedPatient, HttpStatus.OK);
     }
+
+    @PostMapping("/data")
+    public PageArray getData(@RequestBody PagingRequest pagingRequest) {
+        return patientService.getData(pagingRequest);
+    }
+
+    @GetMapping("/export")
+    public void export(@RequestParam(defaultValue = "csv") String format, HttpServletResponse response) throws IOException {
+        entityExporter.export(Patient.class, "patients", ExportFormat.of(format), response);
+    }
 }
@@ -1,12 +1,20 @@
 package lk.channelling.controllers;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lk.channelling.entity.Payment;
+import lk.channelling.export.EntityExporter;
+import lk.channelling.export.ExportFormat;
+import lk.channelling.idempotency.IdempotencyKeyStore;
+import lk.channelling.idempotency.IdempotentResult;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 import lk.channelling.services.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -16,9 +24,15 @@ public class PaymentController {
 
     private final PaymentService paymentService;
 
+    private final IdempotencyKeyStore idempotencyKeyStore;
+
+    private final EntityExporter entityExporter;
+
     @Autowired
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService, IdempotencyKeyStore idempotencyKeyStore, EntityExporter entityExporter) {
         this.paymentService = paymentService;
+        this.idempotencyKeyStore = idempotencyKeyStore;
+        this.entityExporter = entityExporter;
     }
 
     @GetMapping("/")
@@ -34,9 +48,11 @@ public class PaymentController {
     }
 
     @PostMapping("/")
-    public ResponseEntity<Payment> createPayment(@RequestBody Payment payment) {
-        Payment createdPayment = paymentService.save(payment);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdPayment);
+    public ResponseEntity<Payment> createPayment(@RequestHeader(value = IdempotencyKeyStore.HEADER, required = false) String idempotencyKey,
+                                                 @RequestBody Payment payment) {
+        IdempotentResult<Payment> createdPayment = idempotencyKeyStore.execute("payments/save", idempotencyKey, payment, Payment.class,
+                () -> paymentService.save(payment));
+        return ResponseEntity.status(HttpStatus.CREATED).headers(createdPayment.getHeaders()).body(createdPayment.getValue());
     }
 
     @PutMapping("/{id}")
@@ -50,4 +66,14 @@ public class PaymentController {
         paymentService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/data")
+    public PageArray getData(@RequestBody PagingRequest pagingRequest) {
+        return paymentService.getData(pagingRequest);
+    }
+
+    @GetMapping("/export")
+    public void export(@RequestParam(defaultValue = "csv") String format, HttpServletResponse response) throws IOException {
+        entityExporter.export(Payment.class, "payments", ExportFormat.of(format), response);
+    }
 }
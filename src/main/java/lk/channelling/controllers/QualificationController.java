@@ -18,6 +18,8 @@ package lk.channelling.controllers;
 import jakarta.validation.Valid;
 import lk.channelling.entity.Qualification;
 import lk.channelling.enums.Status;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 import lk.channelling.services.QualificationService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -157,4 +159,9 @@ public class QualificationController {
 
         return new ResponseEntity<>(Qualifications, HttpStatus.OK);
     }
+
+    @PostMapping("/data")
+    public PageArray getData(@RequestBody PagingRequest pagingRequest) {
+        return qualificationService.getData(pagingRequest);
+    }
 }
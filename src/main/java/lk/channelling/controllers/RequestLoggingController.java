@@ -0,0 +1,56 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.controllers;
+
+import lk.channelling.log.RequestLogPolicy;
+import lk.channelling.security.AdminAuthorizer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/request-logging")
+@CrossOrigin(origins = "*")
+@Log4j2
+public class RequestLoggingController {
+
+    private final RequestLogPolicy requestLogPolicy;
+
+    private final AdminAuthorizer adminAuthorizer;
+
+    @Autowired
+    public RequestLoggingController(RequestLogPolicy requestLogPolicy, AdminAuthorizer adminAuthorizer) {
+        this.requestLogPolicy = requestLogPolicy;
+        this.adminAuthorizer = adminAuthorizer;
+    }
+
+    /**
+     * Reloads the sampling and redaction settings without waiting for the next check of the reload file.
+     *
+     * @return the Response Entity with no content.
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<Void> reload() {
+        adminAuthorizer.validateAdmin();
+        requestLogPolicy.reload();
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+}
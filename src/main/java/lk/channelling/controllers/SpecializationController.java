@@ -16,16 +16,22 @@
 package lk.channelling.controllers;
 
 import jakarta.validation.Valid;
+import lk.channelling.cache.EntityTags;
 import lk.channelling.entity.Specialization;
 import lk.channelling.enums.Status;
 import lk.channelling.resources.ApiResponse;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 import lk.channelling.services.SpecializationService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -45,6 +51,12 @@ import java.util.List;
 @Log4j2
 public class SpecializationController {
 
+    /**
+     * The cache policy of the Specialization lists. Specializations are maintained by the administrators, so clients
+     * revalidate the lists every ten minutes.
+     */
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(10)).cachePublic();
+
     /**
      * The Specialization service for handling Specialization related business logic.
      */
@@ -63,15 +75,19 @@ public class SpecializationController {
     /**
      * Handles HTTP Get requests to retrieve details of all countries.
      *
+     * @param ifNoneMatch the entity tag of the list held by the client, if any.
      * @return The details of all countries as a Response Entity.
      */
     @GetMapping("/all")
-    public ResponseEntity<ApiResponse> findAll() {
+    public ResponseEntity<ApiResponse> findAll(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = specializationService.getETag();
+        if (EntityTags.matches(ifNoneMatch, eTag)) return EntityTags.notModified(eTag, CACHE_CONTROL);
+
         ApiResponse specializations = specializationService.findAll();
 
         if (specializations == null) return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 
-        return new ResponseEntity<>(specializations, HttpStatus.OK);
+        return EntityTags.ok(specializations, eTag, CACHE_CONTROL);
     }
 
     /**
@@ -102,15 +118,20 @@ public class SpecializationController {
      * Returns the list of Specialization by the given status.
      *
      * @param status The status of the Specialization. It should be either ACTIVE or INACTIVE.
+     * @param ifNoneMatch the entity tag of the list held by the client, if any.
      * @return the List of countries.
      */
     @GetMapping("/status={status}")
-    public ResponseEntity<List<Specialization>> findByStatus(@PathVariable Status status) {
+    public ResponseEntity<List<Specialization>> findByStatus(@PathVariable Status status,
+                                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = specializationService.getETag();
+        if (EntityTags.matches(ifNoneMatch, eTag)) return EntityTags.notModified(eTag, CACHE_CONTROL);
+
         List<Specialization> countries = specializationService.findByStatus(status);
 
         if (countries.isEmpty()) return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 
-        return new ResponseEntity<>(countries, HttpStatus.OK);
+        return EntityTags.ok(countries, eTag, CACHE_CONTROL);
     }
 
     /**
@@ -149,4 +170,9 @@ public class SpecializationController {
         Specialization updatedSpecialization = specializationService.update(id, specialization);
         return new ResponseEntity<>(updatedSpecialization, HttpStatus.OK);
     }
+
+    @PostMapping("/data")
+    public PageArray getData(@RequestBody PagingRequest pagingRequest) {
+        return specializationService.getData(pagingRequest);
+    }
 }
@@ -16,16 +16,20 @@
 package lk.channelling.controllers;
 
 import jakarta.validation.Valid;
+import lk.channelling.cache.EntityTags;
 import lk.channelling.entity.State;
 import lk.channelling.enums.Status;
 import lk.channelling.services.CityService;
 import lk.channelling.services.StateService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -45,6 +49,12 @@ import java.util.List;
 @Log4j2
 public class StateController {
 
+    /**
+     * The cache policy of the State lists. States change rarely, so clients may reuse the lists for half an hour
+     * before revalidating them.
+     */
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(30)).cachePublic();
+
     /**
      * The State service for handling State related business logic.
      */
@@ -63,15 +73,19 @@ public class StateController {
     /**
      * Handles HTTP Get requests to retrieve details of all states.
      *
+     * @param ifNoneMatch the entity tag of the list held by the client, if any.
      * @return The details of all states as a Response Entity.
      */
     @GetMapping("/all")
-    public ResponseEntity<List<State>> findAll() {
+    public ResponseEntity<List<State>> findAll(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = stateService.getETag();
+        if (EntityTags.matches(ifNoneMatch, eTag)) return EntityTags.notModified(eTag, CACHE_CONTROL);
+
         List<State> states = stateService.findAll();
 
         if (states.isEmpty()) return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 
-        return new ResponseEntity<>(states, HttpStatus.OK);
+        return EntityTags.ok(states, eTag, CACHE_CONTROL);
     }
 
     /**
@@ -91,15 +105,20 @@ public class StateController {
      * Returns the list of State by the given status.
      *
      * @param status The status of the State. It should be either ACTIVE or INACTIVE.
+     * @param ifNoneMatch the entity tag of the list held by the client, if any.
      * @return the List of states.
      */
     @GetMapping("/status={status}")
-    public ResponseEntity<List<State>> findByStatus(@PathVariable Status status) {
+    public ResponseEntity<List<State>> findByStatus(@PathVariable Status status,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = stateService.getETag();
+        if (EntityTags.matches(ifNoneMatch, eTag)) return EntityTags.notModified(eTag, CACHE_CONTROL);
+
         List<State> states = stateService.findByStatus(status);
 
         if (states.isEmpty()) return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 
-        return new ResponseEntity<>(states, HttpStatus.OK);
+        return EntityTags.ok(states, eTag, CACHE_CONTROL);
     }
 
     /**
@@ -139,12 +158,23 @@ public class StateController {
         return new ResponseEntity<>(updatedInstitution, HttpStatus.OK);
     }
 
+    /**
+     * Returns the list of State of the given country.
+     *
+     * @param countryId   the id of the country.
+     * @param ifNoneMatch the entity tag of the list held by the client, if any.
+     * @return the List of State.
+     */
     @GetMapping("/country-id={countryId}")
-    public ResponseEntity<List<State>> findByCountryId(@PathVariable Long countryId) {
+    public ResponseEntity<List<State>> findByCountryId(@PathVariable Long countryId,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = stateService.getETag();
+        if (EntityTags.matches(ifNoneMatch, eTag)) return EntityTags.notModified(eTag, CACHE_CONTROL);
+
         List<State> states = stateService.findByCountryId(countryId);
 
         if (states.isEmpty()) return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 
-        return new ResponseEntity<>(states, HttpStatus.OK);
+        return EntityTags.ok(states, eTag, CACHE_CONTROL);
     }
 }
@@ -18,6 +18,8 @@ package lk.channelling.controllers;
 import jakarta.validation.Valid;
 import lk.channelling.entity.TransactionType;
 import lk.channelling.enums.Status;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 import lk.channelling.services.TransactionTypeService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -148,4 +150,9 @@ public class TransactionTypeController {
         TransactionType updatedTransactionType = transactionTypeService.update(id, transactionType);
         return new ResponseEntity<>(updatedTransactionType, HttpStatus.OK);
     }
+
+    @PostMapping("/data")
+    public PageArray getData(@RequestBody PagingRequest pagingRequest) {
+        return transactionTypeService.getData(pagingRequest);
+    }
 }
@@ -24,6 +24,7 @@ import lombok.Data;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.time.LocalDateTime;
 
 @Data
 @Entity
@@ -43,4 +44,10 @@ public class Appointment extends BaseEntity implements Serializable {
     @Column(name = "session_id", nullable = false)
     private int sessionId;
 
+    @Column(name = "queue_no")
+    private Integer queueNo;
+
+    @Column(name = "hold_expires_at")
+    private LocalDateTime holdExpiresAt;
+
 }
@@ -19,11 +19,13 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lk.channelling.enums.Status;
+import lk.channelling.paging.CountCacheInvalidator;
 import lombok.Data;
 
 import java.sql.Timestamp;
 
 @MappedSuperclass
+@EntityListeners(CountCacheInvalidator.class)
 @Data
 public abstract class BaseEntity {
     @Id
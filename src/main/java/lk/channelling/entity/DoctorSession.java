@@ -46,4 +46,10 @@ public class DoctorSession extends BaseEntity implements Serializable {
 
     @Column(name = "total_fee", precision = 16, scale = 4)
     private double totalFee;
+
+    @Column(name = "booked_patients", insertable = false, updatable = false)
+    private int bookedPatients;
+
+    @Column(name = "last_queue_no", insertable = false, updatable = false)
+    private int lastQueueNo;
 }
@@ -1,5 +1,6 @@
 package lk.channelling.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import lombok.AllArgsConstructor;
@@ -22,4 +23,14 @@ public class User extends BaseEntity implements Serializable {
     @Column
     private String name;
 
+    @Column
+    private String username;
+
+    /**
+     * The PBKDF2 hash of the password, see {@link lk.channelling.security.PasswordHasher}. Never serialized.
+     */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @Column
+    private String password;
+
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.enums;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Enum representing the lifecycle state of an appointment.
+ *
+ * <p>Only appointments in a state that occupies a slot are counted against the
+ * {@code max_patients} of their doctor session.</p>
+ */
+public enum AppointmentStatus {
+
+    /**
+     * The slot is held for the patient until the payment completes or the hold expires.
+     */
+    HOLD(true),
+
+    /**
+     * The appointment holds a confirmed slot in the session.
+     */
+    BOOKED(true),
+
+    /**
+     * The appointment was cancelled and no longer occupies a slot.
+     */
+    CANCELLED(false),
+
+    /**
+     * The hold expired before the payment completed and the slot was released.
+     */
+    EXPIRED(false);
+
+    private final boolean slotOccupied;
+
+    AppointmentStatus(boolean slotOccupied) {
+        this.slotOccupied = slotOccupied;
+    }
+
+    /**
+     * Returns whether the given appointment status occupies a slot in its session.
+     *
+     * @param appointmentStatus the appointment status as stored in the appointment table.
+     * @return {@code true} if the appointment counts against the session capacity.
+     */
+    public static boolean occupiesSlot(String appointmentStatus) {
+        for (AppointmentStatus status : values())
+            if (status.name().equals(appointmentStatus)) return status.slotOccupied;
+        return true;
+    }
+
+    /**
+     * Returns the names of the statuses which do not occupy a slot in their session.
+     *
+     * @return the list of released status names.
+     */
+    public static List<String> releasedStatuses() {
+        return Arrays.stream(values()).filter(status -> !status.slotOccupied).map(Enum::name).toList();
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.exception;
+
+/**
+ * Exception thrown when a payment is made for an appointment whose slot hold has expired or was released.
+ */
+public class HoldExpiredException extends RuntimeException {
+
+    /**
+     * Constructs a {@code HoldExpiredException}
+     */
+    public HoldExpiredException() {
+        super();
+    }
+
+    /**
+     * Constructs a {@code HoldExpiredException} with the specified detail message.
+     *
+     * @param message the detail message.
+     */
+    public HoldExpiredException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.exception;
+
+/**
+ * Exception thrown when a request parameter, such as a page size, a paging cursor or an export format, is invalid.
+ */
+public class InvalidRequestException extends RuntimeException {
+
+    /**
+     * Constructs an {@code InvalidRequestException}
+     */
+    public InvalidRequestException() {
+        super();
+    }
+
+    /**
+     * Constructs an {@code InvalidRequestException} with the specified detail message.
+     *
+     * @param message the detail message.
+     */
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.exception;
+
+/**
+ * Exception thrown when a bearer token is malformed, has an invalid signature, has expired or is used for the wrong
+ * purpose.
+ */
+public class InvalidTokenException extends RuntimeException {
+
+    /**
+     * Constructs an {@code InvalidTokenException}
+     */
+    public InvalidTokenException() {
+        super();
+    }
+
+    /**
+     * Constructs an {@code InvalidTokenException} with the specified detail message.
+     *
+     * @param message the detail message.
+     */
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+
+}
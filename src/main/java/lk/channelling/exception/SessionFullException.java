@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.exception;
+
+/**
+ * Exception thrown when an appointment is requested for a doctor session that has no remaining slots.
+ */
+public class SessionFullException extends RuntimeException {
+
+    /**
+     * Constructs a {@code SessionFullException}
+     */
+    public SessionFullException() {
+        super();
+    }
+
+    /**
+     * Constructs a {@code SessionFullException} with the specified detail message.
+     *
+     * @param message the detail message.
+     */
+    public SessionFullException(String message) {
+        super(message);
+    }
+
+}
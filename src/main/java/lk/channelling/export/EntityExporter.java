@@ -0,0 +1,183 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.servlet.http.HttpServletResponse;
+import lk.channelling.entity.BaseEntity;
+import lombok.extern.log4j.Log4j2;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Streams whole tables to the response as CSV or NDJSON in constant memory.
+ *
+ * <p>Rows are read in id order through a JPA result stream. On MySQL the fetch size of the export statement is
+ * {@link Integer#MIN_VALUE}, which makes the driver stream the rows one by one for this statement only, while other
+ * databases fetch {@code application.export.fetch-size} rows at a time. Every {@code application.export.fetch-size}
+ * rows the writer is flushed and the persistence context is cleared, so neither the rows already written nor their
+ * managed entities are retained.</p>
+ *
+ * <p>CSV exports use the JSON property names of the entity as the header, taken from its serializer rather than from
+ * the rows, so properties omitted from some rows, such as {@code null} audit columns, still get their column. They
+ * neutralise values starting with
+ * {@code =}, {@code +}, {@code -} or {@code @} so that the file is safe to open in a spreadsheet.</p>
+ */
+@Component
+@Log4j2
+public class EntityExporter {
+
+    private static final char SEPARATOR = ',';
+
+    private static final String FORMULA_PREFIXES = "=+-@";
+
+    private static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${application.export.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    @Autowired
+    public EntityExporter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes every row of the entity to the response as an attachment.
+     *
+     * @param entityClass the entity to be exported.
+     * @param name        the base name of the exported file.
+     * @param format      the output format.
+     * @param response    the response.
+     * @return the number of exported rows.
+     * @throws IOException if the response cannot be written.
+     */
+    @Transactional(readOnly = true)
+    public <T extends BaseEntity> long export(Class<T> entityClass, String name, ExportFormat format, HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + format.getExtension() + "\"");
+
+        return export(entityClass, format, response.getOutputStream());
+    }
+
+    /**
+     * Writes every row of the entity to the output stream.
+     *
+     * @param entityClass the entity to be exported.
+     * @param format      the output format.
+     * @param outputStream the stream to write to, which is not closed.
+     * @return the number of exported rows.
+     * @throws IOException if the stream cannot be written.
+     */
+    @Transactional(readOnly = true)
+    public <T extends BaseEntity> long export(Class<T> entityClass, ExportFormat format, OutputStream outputStream) throws IOException {
+        long startTime = System.currentTimeMillis();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        ObjectWriter rowWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        List<String> header = format == ExportFormat.CSV ? header(entityClass) : null;
+        if (header != null) writeCsvLine(writer, header.stream().<JsonNode>map(TextNode::valueOf).toList());
+        long rows = 0;
+
+        String query = "SELECT e FROM " + entityManager.getMetamodel().entity(entityClass).getName() + " e ORDER BY e.id";
+        try (Stream<T> stream = entityManager.createQuery(query, entityClass)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, datasourceUrl.startsWith("jdbc:mysql:") ? MYSQL_STREAMING_FETCH_SIZE : fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+
+            Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                T entity = iterator.next();
+
+                if (format == ExportFormat.NDJSON) {
+                    rowWriter.writeValue(writer, entity);
+                    writer.write('\n');
+                } else {
+                    ObjectNode row = objectMapper.valueToTree(entity);
+                    writeCsvLine(writer, header.stream().map(row::get).toList());
+                }
+
+                if (++rows % fetchSize == 0) {
+                    writer.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.flush();
+
+        log.info("Exported {} rows of {} as {} in {} ms", rows, entityClass.getSimpleName(), format, System.currentTimeMillis() - startTime);
+        return rows;
+    }
+
+    /**
+     * Returns the names of every property the entity serializes, in serialization order.
+     */
+    private List<String> header(Class<?> entityClass) throws IOException {
+        JsonSerializer<Object> serializer = objectMapper.getSerializerProviderInstance().findValueSerializer(entityClass);
+        List<String> header = new ArrayList<>();
+        serializer.properties().forEachRemaining(property -> header.add(property.getName()));
+        return header;
+    }
+
+    private void writeCsvLine(Writer writer, List<JsonNode> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) writer.write(SEPARATOR);
+            writer.write(toCsvValue(values.get(i)));
+        }
+        writer.write('\n');
+    }
+
+    private static String toCsvValue(JsonNode value) {
+        if (value == null || value.isNull() || value.isMissingNode()) return "";
+
+        String text = value.isValueNode() ? value.asText() : value.toString();
+        if (value.isTextual() && !text.isEmpty() && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0) text = "'" + text;
+
+        if (text.indexOf(SEPARATOR) >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0)
+            return '"' + text.replace("\"", "\"\"") + '"';
+        return text;
+    }
+}
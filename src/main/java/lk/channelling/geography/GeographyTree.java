@@ -0,0 +1,346 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.geography;
+
+import lk.channelling.entity.BaseEntity;
+import lk.channelling.entity.City;
+import lk.channelling.entity.Country;
+import lk.channelling.entity.State;
+import lk.channelling.enums.Status;
+import lk.channelling.repository.CityRepository;
+import lk.channelling.repository.CountryRepository;
+import lk.channelling.repository.StateRepository;
+import lk.channelling.resources.GeographyNode;
+import lk.channelling.util.TransactionUtil;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * In-memory Country → State → City hierarchy of the active locations, used by the location pickers.
+ *
+ * <p>Each level is kept as an array sorted by description, and the hierarchy as adjacency arrays holding, for every
+ * country and state, the positions of its children in the level below. The arrays live in an immutable
+ * {@link Snapshot} which is swapped in with a single volatile write, so readers never lock and never see a partially
+ * applied change.</p>
+ *
+ * <p>The tree is loaded on startup and then maintained from the writes of the country, state and city services once
+ * their transactions commit. A write only rebuilds the level it touches and the adjacency arrays linking that level to
+ * its neighbours, the other levels are shared with the previous snapshot.</p>
+ */
+@Component
+@Log4j2
+public class GeographyTree {
+
+    private static final Comparator<BaseEntity> BY_DESCRIPTION = Comparator.comparing(GeographyTree::describe,
+            Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)).thenComparing(BaseEntity::getId);
+
+    private final CountryRepository countryRepository;
+
+    private final StateRepository stateRepository;
+
+    private final CityRepository cityRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The active rows of each level, guarded by this.
+     */
+    private final Map<Long, Country> countries = new HashMap<>();
+
+    private final Map<Long, State> states = new HashMap<>();
+
+    private final Map<Long, City> cities = new HashMap<>();
+
+    private volatile Snapshot snapshot = new Snapshot(new Country[0], new State[0], new City[0]);
+
+    /**
+     * Incremented on every swap of the snapshot, so consumers deriving data from the tree know when to refresh it.
+     */
+    private volatile long version;
+
+    @Autowired
+    public GeographyTree(CountryRepository countryRepository, StateRepository stateRepository,
+                         CityRepository cityRepository, PlatformTransactionManager transactionManager) {
+        this.countryRepository = countryRepository;
+        this.stateRepository = stateRepository;
+        this.cityRepository = cityRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Loads the whole tree from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long startTime = System.currentTimeMillis();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            load(countries, countryRepository.findAll());
+            load(states, stateRepository.findAll());
+            load(cities, cityRepository.findAll());
+        });
+        snapshot = new Snapshot(sorted(countries, Country[]::new), sorted(states, State[]::new), sorted(cities, City[]::new));
+        version++;
+
+        log.info("Loaded the geography tree with {} countries, {} states and {} cities in {} ms", countries.size(),
+                states.size(), cities.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Returns every country with its states and cities.
+     *
+     * @return the country nodes.
+     */
+    public List<GeographyNode> getTree() {
+        Snapshot current = snapshot;
+        List<GeographyNode> nodes = new ArrayList<>(current.countries.length);
+        for (int country = 0; country < current.countries.length; country++) nodes.add(current.countryNode(country));
+        return nodes;
+    }
+
+    /**
+     * Returns the version of the tree, which changes whenever a country, state or city is changed.
+     *
+     * @return the version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the country with its states and cities.
+     *
+     * @param countryId the id of the country.
+     * @return the country node, or empty if there is no active country with the id.
+     */
+    public Optional<GeographyNode> findCountry(long countryId) {
+        Snapshot current = snapshot;
+        Integer country = current.countryIndex.get(countryId);
+        return country == null ? Optional.empty() : Optional.of(current.countryNode(country));
+    }
+
+    /**
+     * Returns the state with its cities.
+     *
+     * @param stateId the id of the state.
+     * @return the state node, or empty if there is no active state with the id.
+     */
+    public Optional<GeographyNode> findState(long stateId) {
+        Snapshot current = snapshot;
+        Integer state = current.stateIndex.get(stateId);
+        return state == null ? Optional.empty() : Optional.of(current.stateNode(state));
+    }
+
+    /**
+     * Returns the cities of every state of the country, ordered by state and then by city.
+     *
+     * @param countryId the id of the country.
+     * @return the cities, or empty if there is no active country with the id.
+     */
+    public Optional<List<City>> findCitiesByCountryId(long countryId) {
+        Snapshot current = snapshot;
+        Integer country = current.countryIndex.get(countryId);
+        if (country == null) return Optional.empty();
+
+        List<City> countryCities = new ArrayList<>();
+        for (int state : current.statesOfCountry.children[country]) {
+            for (int city : current.citiesOfState.children[state]) countryCities.add(current.cities[city]);
+        }
+        return Optional.of(countryCities);
+    }
+
+    public void countrySaved(Country country) {
+        TransactionUtil.afterCommit(() -> changed(countries, country.getId(), country, Level.COUNTRY));
+    }
+
+    public void countryDeleted(long countryId) {
+        TransactionUtil.afterCommit(() -> changed(countries, countryId, null, Level.COUNTRY));
+    }
+
+    public void stateSaved(State state) {
+        TransactionUtil.afterCommit(() -> changed(states, state.getId(), state, Level.STATE));
+    }
+
+    public void stateDeleted(long stateId) {
+        TransactionUtil.afterCommit(() -> changed(states, stateId, null, Level.STATE));
+    }
+
+    public void citySaved(City city) {
+        TransactionUtil.afterCommit(() -> changed(cities, city.getId(), city, Level.CITY));
+    }
+
+    public void cityDeleted(long cityId) {
+        TransactionUtil.afterCommit(() -> changed(cities, cityId, null, Level.CITY));
+    }
+
+    /**
+     * Applies a saved or deleted row to its level and rebuilds that level of the snapshot. Inactive rows are removed
+     * from the tree.
+     */
+    private synchronized <T extends BaseEntity> void changed(Map<Long, T> rows, long id, T row, Level level) {
+        if (row == null || row.getStatus() != Status.ACTIVE) rows.remove(id);
+        else rows.put(id, row);
+
+        Snapshot current = snapshot;
+        snapshot = switch (level) {
+            case COUNTRY -> current.withCountries(sorted(countries, Country[]::new));
+            case STATE -> current.withStates(sorted(states, State[]::new));
+            case CITY -> current.withCities(sorted(cities, City[]::new));
+        };
+        version++;
+    }
+
+    private static <T extends BaseEntity> void load(Map<Long, T> rows, List<T> loaded) {
+        rows.clear();
+        loaded.stream().filter(row -> row.getStatus() == Status.ACTIVE).forEach(row -> rows.put(row.getId(), row));
+    }
+
+    private static <T extends BaseEntity> T[] sorted(Map<Long, T> rows, IntFunction<T[]> newArray) {
+        T[] array = rows.values().toArray(newArray.apply(0));
+        Arrays.sort(array, BY_DESCRIPTION);
+        return array;
+    }
+
+    private static String describe(BaseEntity row) {
+        if (row instanceof Country country) return country.getDescription();
+        if (row instanceof State state) return state.getDescription();
+        if (row instanceof City city) return city.getDescription();
+        return null;
+    }
+
+    private static <T extends BaseEntity> Map<Long, Integer> index(T[] rows) {
+        Map<Long, Integer> index = new HashMap<>(rows.length * 2);
+        for (int i = 0; i < rows.length; i++) index.put(rows[i].getId(), i);
+        return index;
+    }
+
+    private enum Level {
+        COUNTRY, STATE, CITY
+    }
+
+    /**
+     * The children of every parent as positions in the child level, in the order of the child level.
+     */
+    private static final class Adjacency {
+
+        private final int[][] children;
+
+        private <T> Adjacency(T[] rows, Function<T, Long> parentOf, Map<Long, Integer> parentIndex, int parents) {
+            int[] counts = new int[parents];
+            int[] parentPositions = new int[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                Integer parent = parentIndex.get(parentOf.apply(rows[i]));
+                parentPositions[i] = parent == null ? -1 : parent;
+                if (parent != null) counts[parent]++;
+            }
+
+            children = new int[parents][];
+            for (int parent = 0; parent < parents; parent++) children[parent] = new int[counts[parent]];
+
+            int[] filled = new int[parents];
+            for (int i = 0; i < rows.length; i++) {
+                int parent = parentPositions[i];
+                if (parent >= 0) children[parent][filled[parent]++] = i;
+            }
+        }
+    }
+
+    /**
+     * One immutable version of the tree. Rows whose parent is not active are kept in their level but are not
+     * reachable from the parent level.
+     */
+    private static final class Snapshot {
+
+        private final Country[] countries;
+
+        private final State[] states;
+
+        private final City[] cities;
+
+        private final Map<Long, Integer> countryIndex;
+
+        private final Map<Long, Integer> stateIndex;
+
+        private final Adjacency statesOfCountry;
+
+        private final Adjacency citiesOfState;
+
+        private Snapshot(Country[] countries, State[] states, City[] cities) {
+            this(countries, index(countries), states, index(states), cities, null, null);
+        }
+
+        /**
+         * Creates the snapshot, building the adjacency arrays which are not shared with the previous snapshot.
+         */
+        private Snapshot(Country[] countries, Map<Long, Integer> countryIndex, State[] states,
+                         Map<Long, Integer> stateIndex, City[] cities, Adjacency statesOfCountry,
+                         Adjacency citiesOfState) {
+            this.countries = countries;
+            this.countryIndex = countryIndex;
+            this.states = states;
+            this.stateIndex = stateIndex;
+            this.cities = cities;
+            this.statesOfCountry = statesOfCountry != null ? statesOfCountry
+                    : new Adjacency(states, State::getCountryId, countryIndex, countries.length);
+            this.citiesOfState = citiesOfState != null ? citiesOfState
+                    : new Adjacency(cities, City::getStateId, stateIndex, states.length);
+        }
+
+        private Snapshot withCountries(Country[] countries) {
+            return new Snapshot(countries, index(countries), states, stateIndex, cities, null, citiesOfState);
+        }
+
+        private Snapshot withStates(State[] states) {
+            return new Snapshot(countries, countryIndex, states, index(states), cities, null, null);
+        }
+
+        private Snapshot withCities(City[] cities) {
+            return new Snapshot(countries, countryIndex, states, stateIndex, cities, statesOfCountry, null);
+        }
+
+        private GeographyNode countryNode(int country) {
+            int[] countryStates = statesOfCountry.children[country];
+            List<GeographyNode> children = new ArrayList<>(countryStates.length);
+            for (int state : countryStates) children.add(stateNode(state));
+
+            Country row = countries[country];
+            return new GeographyNode(row.getId(), row.getCode(), row.getDescription(), children);
+        }
+
+        private GeographyNode stateNode(int state) {
+            int[] stateCities = citiesOfState.children[state];
+            List<GeographyNode> children = new ArrayList<>(stateCities.length);
+            for (int city : stateCities) {
+                children.add(new GeographyNode(cities[city].getId(), null, cities[city].getDescription(), null));
+            }
+
+            State row = states[state];
+            return new GeographyNode(row.getId(), null, row.getDescription(), children);
+        }
+    }
+}
@@ -20,6 +20,8 @@ import org.apache.commons.lang3.StringUtils;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Utility class for handling date and time operations.
@@ -48,7 +50,14 @@ public class DateTimeHandler {
     /**
      * Default pattern to format date time.
      */
-    private static final String DEFAULT_DATE_TIME_FORMAT = "yyyy-mm-dd hh:mm:ss";
+    private static final String DEFAULT_DATE_TIME_FORMAT = "yyyy-MM-dd HH:mm:ss";
+
+    private static final DateTimeFormatter DEFAULT_FORMATTER = DateTimeFormatter.ofPattern(DEFAULT_DATE_TIME_FORMAT);
+
+    /**
+     * Formatters by pattern. {@code DateTimeFormatter} is immutable and thread safe, so each pattern is compiled once.
+     */
+    private static final ConcurrentMap<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
 
     /**
      * Gets the current date and time.
@@ -68,11 +77,10 @@ public class DateTimeHandler {
      */
     public static String formatDate(LocalDateTime dateTime, String pattern) {
         if (StringUtils.isBlank(pattern)) {
-            pattern = DEFAULT_DATE_TIME_FORMAT;
+            return dateTime.format(DEFAULT_FORMATTER);
         }
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
-        return dateTime.format(formatter);
+        return dateTime.format(formatter(pattern));
     }
 
     /**
@@ -81,8 +89,7 @@ public class DateTimeHandler {
      * @return The formatted date and time as a {@code String}.
      */
     public static String formatCurrentDateTime() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DEFAULT_DATE_TIME_FORMAT);
-        return LocalDateTime.now().format(formatter);
+        return LocalDateTime.now().format(DEFAULT_FORMATTER);
     }
 
     /**
@@ -94,9 +101,16 @@ public class DateTimeHandler {
      * @throws java.time.format.DateTimeParseException If the input string cannot be parsed.
      */
     public static LocalDateTime parseDate(String dateString, String pattern) throws DateTimeParseException {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
+        return LocalDateTime.parse(dateString, formatter(pattern));
+    }
 
-        return LocalDateTime.parse(dateString, formatter);
+    private static DateTimeFormatter formatter(String pattern) {
+        DateTimeFormatter formatter = FORMATTERS.get(pattern);
+        if (formatter == null) {
+            formatter = DateTimeFormatter.ofPattern(pattern);
+            FORMATTERS.putIfAbsent(pattern, formatter);
+        }
+        return formatter;
     }
 }
 
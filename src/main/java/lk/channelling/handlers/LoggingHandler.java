@@ -17,16 +17,21 @@ package lk.channelling.handlers;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lk.channelling.log.LogRequest;
+import lk.channelling.log.RequestLogPolicy;
+import lk.channelling.log.RequestLogSettings;
 import org.apache.logging.log4j.Level;
 import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.CodeSignature;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
-
-import java.util.Arrays;
+import org.springframework.web.servlet.HandlerMapping;
 
 /**
  * Aspect class for logging operations based on a specified pointcut.
@@ -44,6 +49,15 @@ import java.util.Arrays;
 @Component
 public class LoggingHandler {
 
+    private static final String SAMPLED_ATTRIBUTE = LoggingHandler.class.getName() + ".sampled";
+
+    private final RequestLogPolicy requestLogPolicy;
+
+    @Autowired
+    public LoggingHandler(RequestLogPolicy requestLogPolicy) {
+        this.requestLogPolicy = requestLogPolicy;
+    }
+
     /**
      * Pointcut method for capturing REST controller method calls.
      *
@@ -64,23 +78,63 @@ public class LoggingHandler {
      * pointcut. It is typically used in conjunction with an AOP framework, such as
      * Spring AOP, to apply cross-cutting concerns (e.g., logging) before REST
      * controller method execution.</p>
+     *
+     * <p>Only the share of the requests set by the sample rate of the endpoint is logged, see
+     * {@link RequestLogPolicy}. The request id and the user are not part of the message, they are carried by the
+     * {@link lk.channelling.log.LogContext} of the request.</p>
      */
     @Before("pointcutController()")
     public void logBeforeController(JoinPoint joinPoint) {
-        HttpServletRequest httpRequest = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        LogRequest logRequest = LogRequest.getInstance();
+        if (!logRequest.isEnabled(Level.INFO)) return;
+
+        HttpServletRequest httpRequest = currentRequest();
+        RequestLogSettings settings = requestLogPolicy.current();
+        if (!settings.sample(endpoint(httpRequest))) return;
+
+        if (httpRequest != null) httpRequest.setAttribute(SAMPLED_ATTRIBUTE, Boolean.TRUE);
+        log(logRequest, Level.INFO, httpRequest, joinPoint, true, null, settings);
+    }
 
-        String requestId = httpRequest.getHeader("x-request-id");
-        String apiName = httpRequest.getRequestURI();
-        String userName = httpRequest.getHeader("user-name");
+    /**
+     * Advice method executed when a REST controller method throws.
+     *
+     * <p>The failure is logged if the request was sampled, or regardless of sampling when
+     * {@code application.logging.requests.always-log-errors} is enabled. The arguments are repeated only when the
+     * request was not already logged by {@link #logBeforeController(JoinPoint)}.</p>
+     */
+    @AfterThrowing(pointcut = "pointcutController()", throwing = "failure")
+    public void logControllerFailure(JoinPoint joinPoint, Throwable failure) {
+        LogRequest logRequest = LogRequest.getInstance();
+        if (!logRequest.isEnabled(Level.WARN)) return;
 
-        Object[] methodParams = joinPoint.getArgs();
-        LogRequest.getInstance().setRequestId(requestId);
-        LogRequest.getInstance().log(Level.INFO,
-                apiName,
-                joinPoint.getSignature().getDeclaringTypeName(),
-                joinPoint.getSignature().getName(),
-                Arrays.deepToString(methodParams));
+        HttpServletRequest httpRequest = currentRequest();
+        RequestLogSettings settings = requestLogPolicy.current();
+        boolean sampled = httpRequest != null && httpRequest.getAttribute(SAMPLED_ATTRIBUTE) != null;
+        if (!sampled && !settings.isAlwaysLogErrors()) return;
+
+        log(logRequest, Level.WARN, httpRequest, joinPoint, !sampled, failure, settings);
+    }
+
+    private void log(LogRequest logRequest, Level level, HttpServletRequest httpRequest, JoinPoint joinPoint,
+                     boolean withArguments, Throwable failure, RequestLogSettings settings) {
+        Signature signature = joinPoint.getSignature();
+        logRequest.log(level,
+                httpRequest == null ? null : httpRequest.getRequestURI(),
+                signature.getDeclaringTypeName(),
+                signature.getName(),
+                withArguments && signature instanceof CodeSignature codeSignature ? codeSignature.getParameterNames() : null,
+                withArguments ? joinPoint.getArgs() : new Object[0],
+                failure,
+                settings);
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest() : null;
+    }
 
-        LoginAuthenticationHandler.getInstance().setUserName(userName);
+    private static String endpoint(HttpServletRequest httpRequest) {
+        return httpRequest == null ? null : (String) httpRequest.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
     }
 }
@@ -16,8 +16,6 @@
 package lk.channelling.handlers;
 
 import lk.channelling.exception.UserNotFoundException;
-import lombok.Getter;
-import lombok.Setter;
 
 /**
  * Utility class for handling login authentication and storing the authenticated username.
@@ -28,6 +26,9 @@ import lombok.Setter;
  * designed to be used in scenarios where user authentication needs to be tracked
  * within the application.</p>
  *
+ * <p>The username is read from the {@link UserContext} of the current request or task, so concurrent requests never
+ * see each other's user.</p>
+ *
  * @author Chinthaka Manathunga
  * @version 1.0
  * @since 1.0
@@ -42,13 +43,6 @@ public class LoginAuthenticationHandler {
      */
     private static LoginAuthenticationHandler instance;
 
-    /**
-     * The username.
-     */
-    @Getter
-    @Setter
-    private static String userName;
-
     /**
      * Retrieves the singleton instance of the class. If the instance does not
      * exist, it is created for the first time.
@@ -64,8 +58,17 @@ public class LoginAuthenticationHandler {
         return instance;
     }
 
+    /**
+     * Returns the authenticated username of the current request or task.
+     *
+     * @return the username, or {@code null} if the request is not authenticated.
+     */
+    public static String getUserName() {
+        return UserContext.getUserName();
+    }
+
     public static void validateUser() {
-        if (userName == null) throw new UserNotFoundException("Unauthorized.");
+        if (getUserName() == null) throw new UserNotFoundException("Unauthorized.");
     }
 
 }
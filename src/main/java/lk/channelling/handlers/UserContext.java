@@ -0,0 +1,147 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.handlers;
+
+import lk.channelling.log.LogContext;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Holds the name of the user a request or task is executed for.
+ *
+ * <p>The user is bound to the current thread only for the duration of a {@link Scope}, which restores whatever was
+ * bound before once it is closed, so a pooled thread never carries the user of a previous request into the next one.
+ * The {@link lk.channelling.security.JwtAuthenticationFilter} opens the scope of every HTTP request, and the
+ * {@link UserContextTaskDecorator} carries the user of the submitting thread over to tasks run by the application task
+ * executors. The user is mirrored into the {@link LogContext}, so every log event carries it.</p>
+ *
+ * <p>Alongside the name the context records whether the user was authenticated by a verified access token, as opposed
+ * to a name the caller merely asserted, such as the trusted {@code user-name} header. Only token authenticated users
+ * are granted privileged operations, see {@link lk.channelling.security.AdminAuthorizer}.</p>
+ */
+public final class UserContext {
+
+    private static final ThreadLocal<String> USER_NAME = new ThreadLocal<>();
+
+    private static final ThreadLocal<Boolean> TOKEN_AUTHENTICATED = new ThreadLocal<>();
+
+    private UserContext() {
+    }
+
+    /**
+     * Returns the user bound to the current thread.
+     *
+     * @return the user name, or {@code null} if no user is bound.
+     */
+    public static String getUserName() {
+        return USER_NAME.get();
+    }
+
+    /**
+     * Returns whether the user bound to the current thread was authenticated by a verified access token.
+     *
+     * @return {@code true} if a user is bound and was authenticated by a token.
+     */
+    public static boolean isTokenAuthenticated() {
+        return USER_NAME.get() != null && Boolean.TRUE.equals(TOKEN_AUTHENTICATED.get());
+    }
+
+    /**
+     * Binds the user to the current thread until the returned scope is closed. The user is not considered token
+     * authenticated.
+     *
+     * @param userName the user name, {@code null} to run without a user.
+     * @return the scope, restoring the previously bound user when closed.
+     */
+    public static Scope open(String userName) {
+        return open(userName, false);
+    }
+
+    /**
+     * Binds the user to the current thread until the returned scope is closed.
+     *
+     * @param userName           the user name, {@code null} to run without a user.
+     * @param tokenAuthenticated whether the user was authenticated by a verified access token.
+     * @return the scope, restoring the previously bound user when closed.
+     */
+    public static Scope open(String userName, boolean tokenAuthenticated) {
+        String previous = USER_NAME.get();
+        boolean previousTokenAuthenticated = Boolean.TRUE.equals(TOKEN_AUTHENTICATED.get());
+        bind(userName, tokenAuthenticated);
+        return () -> bind(previous, previousTokenAuthenticated);
+    }
+
+    /**
+     * Runs the action as the given user.
+     *
+     * @param userName the user name.
+     * @param action   the action.
+     */
+    public static void runAs(String userName, Runnable action) {
+        try (Scope scope = open(userName)) {
+            action.run();
+        }
+    }
+
+    /**
+     * Calls the action as the given user.
+     *
+     * @param userName the user name.
+     * @param action   the action.
+     * @param <T>      the type of the result.
+     * @return the result of the action.
+     * @throws Exception if the action fails.
+     */
+    public static <T> T callAs(String userName, Callable<T> action) throws Exception {
+        try (Scope scope = open(userName)) {
+            return action.call();
+        }
+    }
+
+    /**
+     * Returns a task running the given one as the user bound to the current thread, whichever thread it ends up on,
+     * keeping how the user was authenticated.
+     *
+     * @param task the task.
+     * @return the wrapped task.
+     */
+    public static Runnable wrap(Runnable task) {
+        String userName = USER_NAME.get();
+        boolean tokenAuthenticated = isTokenAuthenticated();
+        return () -> {
+            try (Scope scope = open(userName, tokenAuthenticated)) {
+                task.run();
+            }
+        };
+    }
+
+    private static void bind(String userName, boolean tokenAuthenticated) {
+        if (userName == null) USER_NAME.remove();
+        else USER_NAME.set(userName);
+        if (userName == null || !tokenAuthenticated) TOKEN_AUTHENTICATED.remove();
+        else TOKEN_AUTHENTICATED.set(Boolean.TRUE);
+        LogContext.put(LogContext.USER, userName);
+    }
+
+    /**
+     * The binding of a user to the current thread. It must be closed on the thread which opened it.
+     */
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
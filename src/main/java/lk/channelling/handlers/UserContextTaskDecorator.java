@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.handlers;
+
+import lk.channelling.log.LogContext;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the tasks submitted to the application task executors as the user who submitted them, under the request id
+ * of the submitting request.
+ *
+ * <p>Spring Boot applies the decorator to the auto-configured {@code applicationTaskExecutor}, which backs
+ * {@code @Async} methods and asynchronous MVC request processing.</p>
+ */
+@Component
+public class UserContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return LogContext.wrap(UserContext.wrap(runnable));
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lk.channelling.entity.IdempotencyRecord;
+import lk.channelling.exception.IdempotencyKeyMismatchException;
+import lk.channelling.exception.InvalidIdempotencyKeyException;
+import lk.channelling.repository.IdempotencyRecordRepository;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-limited store of the responses of requests made with an {@code Idempotency-Key} header.
+ *
+ * <p>The first request for a key registers an in-flight entry with an atomic {@code putIfAbsent}, so duplicates
+ * arriving at the same time wait for the first request to finish and then replay its response instead of executing
+ * the action again. A failed request removes its entry, so the client can retry with the same key.</p>
+ *
+ * <p>A key is bound to the request it was first sent with by a SHA-256 hash of the scope, which names the method and
+ * the path, and of the request body. Reusing the key for another request is rejected with
+ * {@link IdempotencyKeyMismatchException} instead of replaying a response which does not belong to it.</p>
+ *
+ * <p>Entries expire after {@code application.idempotency.ttl} and the oldest entries are evicted once more than
+ * {@code application.idempotency.max-keys} keys are held. When {@code application.idempotency.persistent} is enabled,
+ * responses are also written to the {@code idempotency_key} table so they survive a restart.</p>
+ */
+@Component
+@Log4j2
+public class IdempotencyKeyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 200;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Deque<Entry> evictionOrder = new ArrayDeque<>();
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${application.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${application.idempotency.max-keys:100000}")
+    private int maxKeys;
+
+    @Value("${application.idempotency.persistent:false}")
+    private boolean persistent;
+
+    @Autowired
+    public IdempotencyKeyStore(IdempotencyRecordRepository idempotencyRecordRepository, ObjectMapper objectMapper) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Executes the action once per idempotency key and replays its response for repeated requests.
+     *
+     * @param scope          the endpoint the key belongs to.
+     * @param idempotencyKey the idempotency key sent by the client, may be {@code null}.
+     * @param request        the request body the key is bound to.
+     * @param type           the type of the response body.
+     * @param action         the action to be executed.
+     * @param <T>            the type of the response body.
+     * @return the response of the action and whether it was replayed.
+     * @throws InvalidIdempotencyKeyException   if the key is longer than {@value #MAX_KEY_LENGTH} characters.
+     * @throws IdempotencyKeyMismatchException if the key was sent with another request.
+     */
+    public <T> IdempotentResult<T> execute(String scope, String idempotencyKey, Object request, Class<T> type, Supplier<T> action) {
+        if (StringUtils.isBlank(idempotencyKey)) return new IdempotentResult<>(action.get(), false);
+        if (idempotencyKey.length() > MAX_KEY_LENGTH)
+            throw new InvalidIdempotencyKeyException("The " + HEADER + " must be at most " + MAX_KEY_LENGTH + " characters.");
+
+        String storeKey = scope + ":" + idempotencyKey;
+        long now = System.currentTimeMillis();
+        Entry entry = new Entry(storeKey, fingerprint(scope, request), now + ttl.toMillis());
+
+        while (true) {
+            Entry existing = entries.putIfAbsent(storeKey, entry);
+            if (existing == null) break;
+            if (!existing.isExpired(now)) {
+                if (!existing.requestHash.equals(entry.requestHash)) throw mismatch();
+                return replay(existing, type);
+            }
+            if (entries.replace(storeKey, existing, entry)) break;
+        }
+
+        evict(entry, now);
+        return run(entry, type, action);
+    }
+
+    /**
+     * Deletes the expired responses from the database.
+     */
+    @Scheduled(cron = "0 0 * * * *")
+    public void purgeExpired() {
+        if (!persistent) return;
+
+        int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        log.info("Purged {} expired idempotency keys", deleted);
+    }
+
+    private <T> IdempotentResult<T> run(Entry entry, Class<T> type, Supplier<T> action) {
+        try {
+            T stored = findStored(entry, type);
+            if (stored != null) {
+                entry.response.complete(stored);
+                return new IdempotentResult<>(stored, true);
+            }
+
+            T value = action.get();
+            entry.response.complete(value);
+            store(entry, value);
+            return new IdempotentResult<>(value, false);
+        } catch (RuntimeException e) {
+            entries.remove(entry.key, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private <T> IdempotentResult<T> replay(Entry entry, Class<T> type) {
+        try {
+            return new IdempotentResult<>(type.cast(entry.response.join()), true);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private <T> T findStored(Entry entry, Class<T> type) {
+        if (!persistent) return null;
+
+        return idempotencyRecordRepository.findByIdempotencyKeyAndExpiresAtAfter(entry.key, LocalDateTime.now())
+                .map(idempotencyRecord -> {
+                    if (idempotencyRecord.getRequestHash() != null && !idempotencyRecord.getRequestHash().equals(entry.requestHash))
+                        throw mismatch();
+                    try {
+                        return objectMapper.readValue(idempotencyRecord.getResponseBody(), type);
+                    } catch (JsonProcessingException e) {
+                        log.warn("Ignoring unreadable stored response of idempotency key {}", entry.key, e);
+                        return null;
+                    }
+                })
+                .orElse(null);
+    }
+
+    /**
+     * Hashes the scope and the JSON of the request body.
+     */
+    private String fingerprint(String scope, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(scope.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Unable to hash the request of an idempotency key.", e);
+        }
+    }
+
+    private static IdempotencyKeyMismatchException mismatch() {
+        return new IdempotencyKeyMismatchException("The " + HEADER + " was already used for a different request.");
+    }
+
+    private void store(Entry entry, Object value) {
+        if (!persistent) return;
+
+        try {
+            IdempotencyRecord idempotencyRecord = new IdempotencyRecord();
+            idempotencyRecord.setIdempotencyKey(entry.key);
+            idempotencyRecord.setRequestHash(entry.requestHash);
+            idempotencyRecord.setResponseBody(objectMapper.writeValueAsString(value));
+            idempotencyRecord.setExpiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.expiresAt), ZoneId.systemDefault()));
+            idempotencyRecordRepository.save(idempotencyRecord);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to store the response of idempotency key {}", entry.key, e);
+        }
+    }
+
+    /**
+     * Registers the new entry and evicts the expired entries and the oldest ones beyond the key limit. Entries expire
+     * in insertion order because they share the same time to live.
+     */
+    private void evict(Entry newEntry, long now) {
+        synchronized (evictionOrder) {
+            evictionOrder.addLast(newEntry);
+
+            Entry oldest;
+            while ((oldest = evictionOrder.peekFirst()) != null) {
+                boolean stale = entries.get(oldest.key) != oldest;
+                if (!stale && !oldest.isExpired(now) && entries.size() <= maxKeys) break;
+
+                evictionOrder.pollFirst();
+                if (!stale) entries.remove(oldest.key, oldest);
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final String key;
+
+        private final String requestHash;
+
+        private final long expiresAt;
+
+        private final CompletableFuture<Object> response = new CompletableFuture<>();
+
+        private Entry(String key, String requestHash, long expiresAt) {
+            this.key = key;
+            this.requestHash = requestHash;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
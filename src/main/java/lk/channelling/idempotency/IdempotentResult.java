@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * The result of a request executed through the {@link IdempotencyKeyStore}.
+ *
+ * @param <T> the type of the response body.
+ */
+@Getter
+@AllArgsConstructor
+public class IdempotentResult<T> {
+
+    private final T value;
+
+    private final boolean replayed;
+
+    /**
+     * Returns the response headers which tell the client whether the response was replayed.
+     *
+     * @return the response headers.
+     */
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        if (replayed) headers.set(IdempotencyKeyStore.REPLAYED_HEADER, Boolean.TRUE.toString());
+        return headers;
+    }
+}
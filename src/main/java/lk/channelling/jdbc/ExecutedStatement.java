@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.jdbc;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A normalized SQL statement with the time it took to execute.
+ */
+public final class ExecutedStatement {
+
+    private final String sql;
+
+    private final long nanos;
+
+    ExecutedStatement(String sql, long nanos) {
+        this.sql = sql;
+        this.nanos = nanos;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long getMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the statements executed through the {@link QueryMonitoringDataSource} per request and checks them against
+ * the query budget.
+ *
+ * <p>A request is flagged when it executes more than {@code application.query-monitor.max-statements} statements,
+ * spends more than {@code application.query-monitor.max-db-time} in the database or executes the same normalized
+ * statement at least {@code application.query-monitor.n-plus-one-threshold} times, which is the signature of an N+1
+ * select. Flagged requests are logged at WARN with their repeated and slowest statements and counted in
+ * {@value #BUDGET_EXCEEDED} by reason. Every request which used the database is recorded in {@value #STATEMENTS} and
+ * {@value #TIME} and logged at DEBUG.</p>
+ *
+ * <p>Statements slower than {@code application.query-monitor.slow-statement-threshold} are logged and counted in
+ * {@value #SLOW_STATEMENTS} wherever they run, including the scheduled jobs.</p>
+ */
+@Component
+@Log4j2
+public class QueryMonitor {
+
+    public static final String STATEMENTS = "channelling.db.request.statements";
+
+    public static final String TIME = "channelling.db.request.time";
+
+    public static final String BUDGET_EXCEEDED = "channelling.db.request.budget.exceeded";
+
+    public static final String SLOW_STATEMENTS = "channelling.db.slow.statements";
+
+    static final String STATEMENTS_VIOLATION = "statements";
+
+    static final String DB_TIME_VIOLATION = "db_time";
+
+    static final String N_PLUS_ONE_VIOLATION = "n_plus_one";
+
+    private static final int MAX_LOGGED_SQL_LENGTH = 200;
+
+    private static final int MAX_LOGGED_REPEATED = 3;
+
+    private final ThreadLocal<QueryStatistics> current = new ThreadLocal<>();
+
+    private final ConcurrentMap<String, EndpointMeters> endpointMeters = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter slowStatements;
+
+    @Value("${application.query-monitor.max-statements:30}")
+    private int maxStatements;
+
+    @Value("${application.query-monitor.max-db-time:500ms}")
+    private Duration maxDbTime;
+
+    @Value("${application.query-monitor.n-plus-one-threshold:5}")
+    private int nPlusOneThreshold;
+
+    @Value("${application.query-monitor.slow-statement-threshold:200ms}")
+    private Duration slowStatementThreshold;
+
+    @Value("${application.query-monitor.slowest-statements:3}")
+    private int slowestStatements;
+
+    @Autowired
+    public QueryMonitor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.slowStatements = Counter.builder(SLOW_STATEMENTS)
+                .description("Statements slower than the slow statement threshold")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts collecting the statements executed by the current thread.
+     *
+     * @return the statistics of the statements of the request.
+     */
+    public QueryStatistics begin() {
+        QueryStatistics statistics = new QueryStatistics(slowestStatements);
+        current.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Stops collecting the statements of the current thread, then records and checks the statements of the request.
+     *
+     * @param statistics the statistics returned by {@link #begin()}.
+     * @param method     the HTTP method of the request.
+     * @param endpoint   the matched path pattern of the request.
+     */
+    public void end(QueryStatistics statistics, String method, String endpoint) {
+        current.remove();
+        if (statistics.getStatements() == 0) return;
+
+        EndpointMeters meters = endpointMeters.computeIfAbsent(method + " " + endpoint, key -> new EndpointMeters(method, endpoint));
+        meters.statements.record(statistics.getStatements());
+        meters.time.record(statistics.getTotalNanos(), TimeUnit.NANOSECONDS);
+
+        List<String> violations = violations(statistics);
+        if (violations.isEmpty()) {
+            log.debug("Queries: endpoint=\"{} {}\" statements={} dbTimeMs={}", method, endpoint,
+                    statistics.getStatements(), statistics.getTotalMillis());
+            return;
+        }
+
+        violations.forEach(reason -> meters.budgetExceeded(reason).increment());
+        log.warn("Query budget exceeded: endpoint=\"{} {}\" violations={} statements={} dbTimeMs={} repeated={} slowest={}",
+                method, endpoint, violations, statistics.getStatements(), statistics.getTotalMillis(),
+                renderRepeated(statistics.getRepeated(nPlusOneThreshold)), renderSlowest(statistics.getSlowest()));
+    }
+
+    /**
+     * Records an executed statement against the request of the current thread, if any, and reports it if it was slow.
+     *
+     * @param sql   the executed statement.
+     * @param nanos the time the statement took to execute.
+     */
+    void statementExecuted(String sql, long nanos) {
+        QueryStatistics statistics = current.get();
+        boolean slow = nanos >= slowStatementThreshold.toNanos();
+        if (statistics == null && !slow) return;
+
+        String normalized = SqlNormalizer.normalize(sql);
+        if (statistics != null) statistics.record(normalized, nanos);
+        if (slow) {
+            slowStatements.increment();
+            log.warn("Slow statement: durationMs={} sql=\"{}\"", TimeUnit.NANOSECONDS.toMillis(nanos), abbreviate(normalized));
+        }
+    }
+
+    List<String> violations(QueryStatistics statistics) {
+        List<String> violations = new ArrayList<>(3);
+        if (statistics.getStatements() > maxStatements) violations.add(STATEMENTS_VIOLATION);
+        if (statistics.getTotalNanos() > maxDbTime.toNanos()) violations.add(DB_TIME_VIOLATION);
+        if (!statistics.getRepeated(nPlusOneThreshold).isEmpty()) violations.add(N_PLUS_ONE_VIOLATION);
+        return violations;
+    }
+
+    private static String renderRepeated(Map<String, Integer> repeated) {
+        StringBuilder rendered = new StringBuilder("[");
+        int count = 0;
+        for (Map.Entry<String, Integer> entry : repeated.entrySet()) {
+            if (count == MAX_LOGGED_REPEATED) {
+                rendered.append(", ...");
+                break;
+            }
+            if (count++ > 0) rendered.append(", ");
+            rendered.append(entry.getValue()).append("x \"").append(abbreviate(entry.getKey())).append('"');
+        }
+        return rendered.append(']').toString();
+    }
+
+    private static String renderSlowest(List<ExecutedStatement> slowest) {
+        StringBuilder rendered = new StringBuilder("[");
+        for (int i = 0; i < slowest.size(); i++) {
+            if (i > 0) rendered.append(", ");
+            rendered.append(slowest.get(i).getMillis()).append("ms \"").append(abbreviate(slowest.get(i).getSql())).append('"');
+        }
+        return rendered.append(']').toString();
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= MAX_LOGGED_SQL_LENGTH ? sql : sql.substring(0, MAX_LOGGED_SQL_LENGTH) + "...";
+    }
+
+    private final class EndpointMeters {
+
+        private final String method;
+
+        private final String endpoint;
+
+        private final DistributionSummary statements;
+
+        private final Timer time;
+
+        private final ConcurrentMap<String, Counter> budgetExceeded = new ConcurrentHashMap<>();
+
+        private EndpointMeters(String method, String endpoint) {
+            this.method = method;
+            this.endpoint = endpoint;
+            this.statements = DistributionSummary.builder(STATEMENTS)
+                    .description("Statements executed per request")
+                    .tag("method", method)
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+            this.time = Timer.builder(TIME)
+                    .description("Time spent executing statements per request")
+                    .tag("method", method)
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+        }
+
+        private Counter budgetExceeded(String reason) {
+            return budgetExceeded.computeIfAbsent(reason, key -> Counter.builder(BUDGET_EXCEEDED)
+                    .description("Requests which exceeded the query budget")
+                    .tag("method", method)
+                    .tag("endpoint", endpoint)
+                    .tag("reason", key)
+                    .register(meterRegistry));
+        }
+    }
+}
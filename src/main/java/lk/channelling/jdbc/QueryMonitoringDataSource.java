@@ -0,0 +1,169 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.jdbc;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wraps the connections of a data source so the time taken by every statement executed on them is reported to the
+ * {@link QueryMonitor}, whether it was issued by Hibernate, a {@code JdbcTemplate} or Liquibase.
+ *
+ * <p>Only the execution itself is timed, the time spent reading the rows of a result set is not. The wrapped
+ * connections, statements and the data source still unwrap to the pool's own classes, so the connection pool metrics
+ * and health checks are not affected.</p>
+ */
+final class QueryMonitoringDataSource extends DelegatingDataSource {
+
+    private static final ClassLoader CLASS_LOADER = QueryMonitoringDataSource.class.getClassLoader();
+
+    private static final String BATCH = "<batch>";
+
+    private final ObjectProvider<QueryMonitor> queryMonitorProvider;
+
+    private volatile QueryMonitor queryMonitor;
+
+    QueryMonitoringDataSource(DataSource targetDataSource, ObjectProvider<QueryMonitor> queryMonitorProvider) {
+        super(targetDataSource);
+        this.queryMonitorProvider = queryMonitorProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return monitored(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return monitored(super.getConnection(username, password));
+    }
+
+    private Connection monitored(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private void executed(String sql, long nanos) {
+        QueryMonitor monitor = queryMonitor;
+        if (monitor == null) {
+            monitor = queryMonitorProvider.getIfAvailable();
+            if (monitor == null) return;
+            queryMonitor = monitor;
+        }
+        monitor.statementExecuted(sql, nanos);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+
+        private ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            Object result = QueryMonitoringDataSource.invoke(connection, method, args);
+            if (!(result instanceof Statement statement)) return result;
+
+            String sql = method.getName().startsWith("prepare") && args != null && args[0] instanceof String prepared ? prepared : null;
+            Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                    : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+            return Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[]{type}, new StatementHandler(statement, (Connection) proxy, sql));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+
+        private final Connection connection;
+
+        private final String sql;
+
+        private String batchSql;
+
+        private StatementHandler(Statement statement, Connection connection, String sql) {
+            this.statement = statement;
+            this.connection = connection;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getConnection":
+                    return connection;
+                case "addBatch":
+                    if (args != null && args.length == 1 && batchSql == null) batchSql = (String) args[0];
+                    break;
+                default:
+                    break;
+            }
+            if (!name.startsWith("execute")) return QueryMonitoringDataSource.invoke(statement, method, args);
+
+            long startTime = System.nanoTime();
+            try {
+                return QueryMonitoringDataSource.invoke(statement, method, args);
+            } finally {
+                executed(executedSql(name, args), System.nanoTime() - startTime);
+            }
+        }
+
+        private String executedSql(String name, Object[] args) {
+            if (sql != null) return sql;
+            if (args != null && args.length > 0 && args[0] instanceof String executed) return executed;
+            if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                String executed = batchSql == null ? BATCH : batchSql;
+                batchSql = null;
+                return executed;
+            }
+            return BATCH;
+        }
+    }
+}
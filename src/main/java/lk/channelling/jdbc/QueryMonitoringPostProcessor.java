@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.jdbc;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the data sources of the application in a {@link QueryMonitoringDataSource}, unless
+ * {@code application.query-monitor.enabled} is false.
+ *
+ * <p>The {@link QueryMonitor} is looked up when the first statement runs rather than injected, so this post processor
+ * does not force the meter registry to be created before the other post processors have been registered.</p>
+ */
+@Component
+public class QueryMonitoringPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<QueryMonitor> queryMonitorProvider;
+
+    private final boolean enabled;
+
+    @Autowired
+    public QueryMonitoringPostProcessor(ObjectProvider<QueryMonitor> queryMonitorProvider,
+                                        @Value("${application.query-monitor.enabled:true}") boolean enabled) {
+        this.queryMonitorProvider = queryMonitorProvider;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof DataSource dataSource) || bean instanceof QueryMonitoringDataSource) return bean;
+        return new QueryMonitoringDataSource(dataSource, queryMonitorProvider);
+    }
+}
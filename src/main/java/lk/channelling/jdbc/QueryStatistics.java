@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The statements executed while serving one request: their number, the total time spent in the database, the number
+ * of executions of each normalized statement and the slowest executions.
+ *
+ * <p>Instances are confined to the thread serving the request and are not thread safe. At most
+ * {@value #MAX_DISTINCT_STATEMENTS} distinct statements are tracked, any further statement is still counted and timed.</p>
+ */
+public final class QueryStatistics {
+
+    static final int MAX_DISTINCT_STATEMENTS = 1000;
+
+    private final Map<String, Integer> executions = new HashMap<>();
+
+    private final List<ExecutedStatement> slowest = new ArrayList<>();
+
+    private final int slowestLimit;
+
+    private int statements;
+
+    private long totalNanos;
+
+    QueryStatistics(int slowestLimit) {
+        this.slowestLimit = slowestLimit;
+    }
+
+    void record(String sql, long nanos) {
+        statements++;
+        totalNanos += nanos;
+
+        if (executions.size() < MAX_DISTINCT_STATEMENTS || executions.containsKey(sql)) executions.merge(sql, 1, Integer::sum);
+
+        if (slowestLimit <= 0 || slowest.size() == slowestLimit && slowest.get(slowest.size() - 1).getNanos() >= nanos) return;
+        int index = 0;
+        while (index < slowest.size() && slowest.get(index).getNanos() >= nanos) index++;
+        slowest.add(index, new ExecutedStatement(sql, nanos));
+        if (slowest.size() > slowestLimit) slowest.remove(slowest.size() - 1);
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getTotalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalNanos);
+    }
+
+    /**
+     * Returns the slowest executions, slowest first.
+     *
+     * @return the slowest executions.
+     */
+    public List<ExecutedStatement> getSlowest() {
+        return Collections.unmodifiableList(slowest);
+    }
+
+    /**
+     * Returns the statements executed at least the given number of times, most executed first.
+     *
+     * @param threshold the minimum number of executions.
+     * @return the number of executions by normalized statement.
+     */
+    public Map<String, Integer> getRepeated(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        executions.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+}
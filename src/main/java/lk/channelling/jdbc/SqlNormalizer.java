@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.jdbc;
+
+/**
+ * Reduces SQL statements to their shape, so executions of the same statement with different values are grouped.
+ *
+ * <p>Whitespace runs are collapsed, string and numeric literals are replaced by {@code ?} and lists of placeholders,
+ * such as the variable sized {@code in (?, ?, ?)} lists of batch fetching, are collapsed to a single {@code ?}.</p>
+ */
+final class SqlNormalizer {
+
+    private SqlNormalizer() {
+    }
+
+    static String normalize(String sql) {
+        if (sql == null) return "";
+
+        StringBuilder normalized = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) i++;
+                if (!normalized.isEmpty() && i < length) normalized.append(' ');
+            } else if (c == '\'') {
+                i = skipString(sql, i + 1);
+                appendPlaceholder(normalized);
+            } else if (c >= '0' && c <= '9' && !endsWithIdentifier(normalized)) {
+                while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) i++;
+                appendPlaceholder(normalized);
+            } else if (c == '?') {
+                i++;
+                appendPlaceholder(normalized);
+            } else {
+                normalized.append(c);
+                i++;
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static int skipString(String sql, int i) {
+        while (i < sql.length()) {
+            if (sql.charAt(i++) == '\'') {
+                if (i < sql.length() && sql.charAt(i) == '\'') i++;
+                else break;
+            }
+        }
+        return i;
+    }
+
+    private static void appendPlaceholder(StringBuilder normalized) {
+        int end = normalized.length();
+        if (end >= 2 && normalized.charAt(end - 1) == ',' && normalized.charAt(end - 2) == '?') {
+            normalized.setLength(end - 1);
+        } else if (end >= 3 && normalized.charAt(end - 1) == ' ' && normalized.charAt(end - 2) == ',' && normalized.charAt(end - 3) == '?') {
+            normalized.setLength(end - 2);
+        } else {
+            normalized.append('?');
+        }
+    }
+
+    private static boolean endsWithIdentifier(StringBuilder normalized) {
+        if (normalized.isEmpty()) return false;
+        char last = normalized.charAt(normalized.length() - 1);
+        return Character.isLetterOrDigit(last) || last == '_' || last == '$' || last == '.';
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.log;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import lk.channelling.entity.BaseEntity;
+import org.springframework.validation.Errors;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Renders controller arguments into log messages within a size budget.
+ *
+ * <p>Scalars are written as they are, collections, maps and arrays as their type and size, and servlet and stream
+ * objects as their type only. The entities and resources of the application are written field by field without
+ * following their references, leaving out {@code null} fields. Parameters and fields named in the redacted fields of
+ * the {@link RequestLogSettings} are written as {@value RequestLogSettings#REDACTED}, every field is cut at the
+ * maximum field length, every argument at the maximum argument length, and the arguments stop being rendered once
+ * the maximum message length is reached.</p>
+ */
+public final class LogArguments {
+
+    private static final String TRUNCATED = "...";
+
+    private static final String APPLICATION_PACKAGE = "lk.channelling.";
+
+    private static final ClassValue<LoggedField[]> FIELDS = new ClassValue<>() {
+        @Override
+        protected LoggedField[] computeValue(Class<?> type) {
+            return loggedFields(type);
+        }
+    };
+
+    private LogArguments() {
+    }
+
+    /**
+     * Appends the arguments to the message as {@code [first, second, ...]}, or {@code [name=first, ...]} when the
+     * parameter names are known.
+     *
+     * @param message        the message being built.
+     * @param parameterNames the parameter names, may be {@code null}.
+     * @param arguments      the arguments, may be {@code null}.
+     * @param settings       the redaction rules and size limits.
+     */
+    public static void append(StringBuilder message, String[] parameterNames, Object[] arguments, RequestLogSettings settings) {
+        if (arguments == null) {
+            message.append("null");
+            return;
+        }
+
+        int maxLength = message.length() + settings.getMaxMessageLength();
+        message.append('[');
+        for (int i = 0; i < arguments.length; i++) {
+            if (i > 0) message.append(", ");
+            if (message.length() >= maxLength) {
+                message.append(TRUNCATED);
+                break;
+            }
+
+            String name = parameterNames != null && i < parameterNames.length ? parameterNames[i] : null;
+            if (name != null) message.append(name).append('=');
+            if (name != null && settings.isRedacted(name.toLowerCase(Locale.ROOT))) {
+                message.append(RequestLogSettings.REDACTED);
+            } else {
+                int limit = message.length() + Math.min(settings.getMaxArgumentLength(), maxLength - message.length());
+                appendArgument(message, arguments[i], settings, limit);
+            }
+        }
+        message.append(']');
+    }
+
+    private static void appendArgument(StringBuilder message, Object argument, RequestLogSettings settings, int limit) {
+        if (isApplicationType(argument)) {
+            appendFields(message, argument, settings, limit);
+        } else {
+            appendValue(message, argument, limit - message.length());
+        }
+    }
+
+    private static void appendFields(StringBuilder message, Object argument, RequestLogSettings settings, int limit) {
+        message.append(argument.getClass().getSimpleName()).append('(');
+        boolean first = true;
+        for (LoggedField loggedField : FIELDS.get(argument.getClass())) {
+            Object value = loggedField.get(argument);
+            if (value == null) continue;
+
+            if (!first) message.append(", ");
+            first = false;
+            if (message.length() >= limit) {
+                message.append(TRUNCATED);
+                break;
+            }
+
+            message.append(loggedField.name).append('=');
+            if (settings.isRedacted(loggedField.lowerName)) message.append(RequestLogSettings.REDACTED);
+            else if (isApplicationType(value)) appendReference(message, value);
+            else appendValue(message, value, Math.min(settings.getMaxFieldLength(), limit - message.length()));
+        }
+        message.append(')');
+    }
+
+    private static void appendReference(StringBuilder message, Object value) {
+        message.append(value.getClass().getSimpleName());
+        if (value instanceof BaseEntity entity) message.append("(id=").append(entity.getId()).append(')');
+    }
+
+    private static void appendValue(StringBuilder message, Object value, int maxLength) {
+        if (value == null) {
+            message.append("null");
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof Character
+                || value instanceof Enum<?> || value instanceof UUID) {
+            message.append(value);
+        } else if (value instanceof CharSequence text) {
+            appendCapped(message, text, maxLength);
+        } else if (value instanceof TemporalAccessor || value instanceof Date) {
+            appendCapped(message, value.toString(), maxLength);
+        } else if (value instanceof Collection<?> collection) {
+            message.append(value.getClass().getSimpleName()).append("(size=").append(collection.size()).append(')');
+        } else if (value instanceof Map<?, ?> map) {
+            message.append(value.getClass().getSimpleName()).append("(size=").append(map.size()).append(')');
+        } else if (value.getClass().isArray()) {
+            message.append(value.getClass().getComponentType().getSimpleName())
+                    .append('[').append(Array.getLength(value)).append(']');
+        } else if (value instanceof ServletRequest || value instanceof ServletResponse || value instanceof Errors
+                || value instanceof InputStream || value instanceof OutputStream) {
+            message.append(value.getClass().getSimpleName());
+        } else {
+            appendCapped(message, String.valueOf(value), maxLength);
+        }
+    }
+
+    private static void appendCapped(StringBuilder message, CharSequence text, int maxLength) {
+        if (text.length() <= maxLength) {
+            message.append(text);
+        } else {
+            message.append(text, 0, Math.max(maxLength, 0)).append(TRUNCATED);
+        }
+    }
+
+    private static boolean isApplicationType(Object value) {
+        return value != null && !(value instanceof Enum<?>) && value.getClass().getName().startsWith(APPLICATION_PACKAGE);
+    }
+
+    private static LoggedField[] loggedFields(Class<?> type) {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass())
+            hierarchy.add(0, current);
+
+        List<LoggedField> loggedFields = new ArrayList<>();
+        for (Class<?> current : hierarchy) {
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) continue;
+                try {
+                    field.setAccessible(true);
+                    loggedFields.add(new LoggedField(field));
+                } catch (RuntimeException e) {
+                    // not accessible, left out of the log
+                }
+            }
+        }
+        return loggedFields.toArray(new LoggedField[0]);
+    }
+
+    private static final class LoggedField {
+
+        private final Field field;
+
+        private final String name;
+
+        private final String lowerName;
+
+        private LoggedField(Field field) {
+            this.field = field;
+            this.name = field.getName();
+            this.lowerName = name.toLowerCase(Locale.ROOT);
+        }
+
+        private Object get(Object target) {
+            try {
+                return field.get(target);
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.log;
+
+import org.apache.logging.log4j.ThreadContext;
+
+/**
+ * Keys and helpers of the mapped diagnostic context added to every log event of a request.
+ *
+ * <p>The request id is bound by the {@link RequestIdFilter} and the user by {@link lk.channelling.handlers.UserContext},
+ * so the log layout can print them without the messages repeating them.</p>
+ */
+public final class LogContext {
+
+    public static final String REQUEST_ID = "requestId";
+
+    public static final String USER = "user";
+
+    private LogContext() {
+    }
+
+    /**
+     * Puts the value into the context of the current thread until the returned scope is closed.
+     *
+     * @param key   the context key.
+     * @param value the value, {@code null} to remove the key.
+     * @return the scope, restoring the previous value when closed.
+     */
+    public static Scope open(String key, String value) {
+        String previous = ThreadContext.get(key);
+        put(key, value);
+        return () -> put(key, previous);
+    }
+
+    /**
+     * Returns a task running the given one with the request id of the current thread, whichever thread it ends up on.
+     *
+     * @param task the task.
+     * @return the wrapped task.
+     */
+    public static Runnable wrap(Runnable task) {
+        String requestId = ThreadContext.get(REQUEST_ID);
+        return () -> {
+            try (Scope scope = open(REQUEST_ID, requestId)) {
+                task.run();
+            }
+        };
+    }
+
+    /**
+     * Sets or removes the value of the key in the context of the current thread.
+     *
+     * @param key   the context key.
+     * @param value the value, {@code null} to remove the key.
+     */
+    public static void put(String key, String value) {
+        if (value == null) ThreadContext.remove(key);
+        else ThreadContext.put(key, value);
+    }
+
+    /**
+     * A value put into the context of the current thread. It must be closed on the thread which opened it.
+     */
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
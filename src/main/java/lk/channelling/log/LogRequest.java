@@ -15,8 +15,6 @@
  */
 package lk.channelling.log;
 
-import lk.channelling.handlers.DateTimeHandler;
-import lombok.Setter;
 import lombok.extern.log4j.Log4j2;
 import org.apache.logging.log4j.Level;
 
@@ -27,22 +25,30 @@ import org.apache.logging.log4j.Level;
  * warnings, and errors.It serves as a centralized logging facility to capture and record relevant information
  * about the application's runtime behaviors.</p>
  *
+ * <p>The class holds no per request state: the request id and the user are taken from the {@link LogContext} by the
+ * log layout, and the time stamp is added by the layout as well. Messages are only built when the level is enabled,
+ * with the arguments rendered by {@link LogArguments} under the redaction rules and size limits of the
+ * {@link RequestLogSettings}. Writing the event is left to the asynchronous appender configured in
+ * {@code logback-spring.xml}, so the request thread never waits for the console or a file.</p>
+ *
  * @author Chinthaka Manathunga
  * @version 1.0
  * @since 1.0
  */
 @Log4j2
-@Setter
 public class LogRequest {
 
-    private String requestId;
-    private static LogRequest instance;
-    private final String DATE_AND_TIME = "Date & Time : ";
-    private final String API = "Api : ";
-    private final String CLASS_NAME = "Class Name : ";
-    private final String ENTER_METHOD = "Enter Method : ";
-    private final String ARGS = "Args : ";
-    private final String SPACE = " ";
+    private static final String API = "Api : ";
+    private static final String CLASS_NAME = "Class Name : ";
+    private static final String ENTER_METHOD = "Enter Method : ";
+    private static final String ARGS = "Args : ";
+    private static final String FAILED = "Failed : ";
+    private static final char SPACE = ' ';
+
+    private static volatile LogRequest instance;
+
+    private LogRequest() {
+    }
 
     /**
      * Retrieves the singleton instance of the class. If the instance does not exist, it is created for the first time.
@@ -60,35 +66,99 @@ public class LogRequest {
         return instance;
     }
 
+    /**
+     * Returns whether messages of the level are logged, so callers can skip collecting the arguments otherwise.
+     *
+     * @param logLevel the log level.
+     * @return {@code true} if the level is enabled.
+     */
+    public boolean isEnabled(Level logLevel) {
+        return log.isEnabled(logLevel);
+    }
+
     /**
      * Utility method for logging messages with various log levels.
      *
      * <p>This utility method allows for dynamic logging of messages with different
      * log levels. It accepts parameters such as log level, API name, class name,
-     * method name, and a string argument to construct a log message. The actual
+     * method name, and the method arguments to construct a log message. The actual
      * logging is performed using an underlying logging framework.</p>
      *
      * @param logLevel   The log level for the message (e.g. INFO, WARN, ERROR).
      * @param apiName    The name of the API or module associated with the log message.
      * @param className  The name of the class where log message originates.
      * @param methodName The name of the method where the log message originates.
-     * @param argument   The arguments of the method where the log message originates.
+     * @param arguments  The arguments of the method where the log message originates.
      */
-    public void log(Level logLevel, String apiName, String className, String methodName, String argument) {
-        StringBuilder message = new StringBuilder();
+    public void log(Level logLevel, String apiName, String className, String methodName, Object[] arguments) {
+        log(logLevel, apiName, className, methodName, null, arguments, null, RequestLogSettings.DEFAULT);
+    }
 
-        message.append(requestId)
-                .append(SPACE)
-                .append(DATE_AND_TIME).append(DateTimeHandler.formatCurrentDateTime())
-                .append(SPACE)
-                .append(API).append(apiName)
+    /**
+     * Logs a controller call with named, redacted arguments and the failure of the call, if any.
+     *
+     * @param logLevel       The log level for the message (e.g. INFO, WARN, ERROR).
+     * @param apiName        The name of the API or module associated with the log message.
+     * @param className      The name of the class where log message originates.
+     * @param methodName     The name of the method where the log message originates.
+     * @param parameterNames The parameter names of the method, may be {@code null}.
+     * @param arguments      The arguments of the method where the log message originates.
+     * @param failure        The exception thrown by the method, may be {@code null}.
+     * @param settings       The redaction rules and size limits.
+     */
+    public void log(Level logLevel, String apiName, String className, String methodName, String[] parameterNames,
+                    Object[] arguments, Throwable failure, RequestLogSettings settings) {
+        if (!log.isEnabled(logLevel)) return;
+        log.log(logLevel, format(apiName, className, methodName, parameterNames, arguments, failure, settings));
+    }
+
+    /**
+     * Builds the message logged by {@link #log(Level, String, String, String, Object[])}.
+     *
+     * @param apiName    The name of the API or module associated with the log message.
+     * @param className  The name of the class where log message originates.
+     * @param methodName The name of the method where the log message originates.
+     * @param arguments  The arguments of the method where the log message originates.
+     * @return the message.
+     */
+    public String format(String apiName, String className, String methodName, Object[] arguments) {
+        return format(apiName, className, methodName, null, arguments, null, RequestLogSettings.DEFAULT);
+    }
+
+    /**
+     * Builds the message logged by {@link #log(Level, String, String, String, String[], Object[], Throwable, RequestLogSettings)}.
+     *
+     * @param apiName        The name of the API or module associated with the log message.
+     * @param className      The name of the class where log message originates.
+     * @param methodName     The name of the method where the log message originates.
+     * @param parameterNames The parameter names of the method, may be {@code null}.
+     * @param arguments      The arguments of the method where the log message originates.
+     * @param failure        The exception thrown by the method, may be {@code null}.
+     * @param settings       The redaction rules and size limits.
+     * @return the message.
+     */
+    public String format(String apiName, String className, String methodName, String[] parameterNames, Object[] arguments,
+                         Throwable failure, RequestLogSettings settings) {
+        StringBuilder message = new StringBuilder(256);
+
+        message.append(API).append(apiName)
                 .append(SPACE)
                 .append(CLASS_NAME).append(className)
                 .append(SPACE)
                 .append(ENTER_METHOD).append(methodName)
                 .append(SPACE)
-                .append(ARGS).append(argument);
+                .append(ARGS);
+        LogArguments.append(message, parameterNames, arguments, settings);
+
+        if (failure != null) {
+            message.append(SPACE).append(FAILED).append(failure.getClass().getSimpleName());
+            if (failure.getMessage() != null) {
+                String failureMessage = failure.getMessage();
+                int maxLength = settings.getMaxArgumentLength();
+                message.append(": ").append(failureMessage, 0, Math.min(failureMessage.length(), maxLength));
+            }
+        }
 
-        log.log(logLevel, message.toString());
+        return message.toString();
     }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.log;
+
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySource;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the {@link RequestLogSettings} of the controller logging and reloads them while the application runs.
+ *
+ * <p>The settings are bound from the {@code application.logging.requests} properties of the application
+ * configuration. When {@code application.logging.requests.reload-file} names a YAML file, its properties take
+ * precedence and the file is checked for changes every {@code application.logging.requests.reload-interval}
+ * milliseconds, so sample rates and redaction can be changed without a restart. A file which cannot be read or bound
+ * leaves the settings in force unchanged.</p>
+ */
+@Component
+@Log4j2
+public class RequestLogPolicy {
+
+    private static final String PREFIX = "application.logging.requests";
+
+    private final ConfigurableEnvironment environment;
+
+    private final String reloadFile;
+
+    private volatile RequestLogSettings settings = RequestLogSettings.DEFAULT;
+
+    private volatile long reloadFileModified;
+
+    @Autowired
+    public RequestLogPolicy(ConfigurableEnvironment environment,
+                            @Value("${application.logging.requests.reload-file:}") String reloadFile) {
+        this.environment = environment;
+        this.reloadFile = reloadFile;
+        reload();
+    }
+
+    /**
+     * Returns the settings in force.
+     *
+     * @return the settings.
+     */
+    public RequestLogSettings current() {
+        return settings;
+    }
+
+    /**
+     * Reloads the settings when the reload file was changed, created or deleted since it was last read.
+     */
+    @Scheduled(fixedDelayString = "${application.logging.requests.reload-interval:10000}")
+    public void reloadIfChanged() {
+        if (StringUtils.isBlank(reloadFile)) return;
+
+        File file = new File(reloadFile);
+        long modified = file.isFile() ? file.lastModified() : 0;
+        if (modified != reloadFileModified) reload();
+    }
+
+    /**
+     * Binds the settings again from the application configuration and the reload file.
+     *
+     * @return the settings in force.
+     */
+    public synchronized RequestLogSettings reload() {
+        File file = StringUtils.isBlank(reloadFile) ? null : new File(reloadFile);
+        reloadFileModified = file != null && file.isFile() ? file.lastModified() : 0;
+        try {
+            List<ConfigurationPropertySource> sources = new ArrayList<>();
+            if (reloadFileModified != 0) {
+                for (PropertySource<?> propertySource : new YamlPropertySourceLoader().load(reloadFile, new FileSystemResource(file)))
+                    sources.add(ConfigurationPropertySource.from(propertySource));
+            }
+            ConfigurationPropertySources.get(environment).forEach(sources::add);
+
+            RequestLogProperties properties = new Binder(sources).bind(PREFIX, RequestLogProperties.class)
+                    .orElseGet(RequestLogProperties::new);
+            settings = new RequestLogSettings(properties);
+            log.info("Loaded the request log settings: sample rate {}, {} endpoint rates, {} redacted fields",
+                    properties.getSampleRate(), properties.getEndpointSampleRates().size(), properties.getRedactedFields().size());
+        } catch (Exception e) {
+            log.warn("Unable to load the request log settings, keeping the current ones: {}", e.getMessage());
+        }
+        return settings;
+    }
+}
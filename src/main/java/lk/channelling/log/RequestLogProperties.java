@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.log;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code application.logging.requests} properties, bound by {@link RequestLogPolicy}.
+ */
+@Getter
+@Setter
+public class RequestLogProperties {
+
+    /**
+     * Share of the requests to log, from {@code 0} to {@code 1}, for endpoints without a rate of their own.
+     */
+    private double sampleRate = 1;
+
+    /**
+     * Share of the requests to log by endpoint pattern, such as {@code /api/v1/autocomplete/**}. The most specific
+     * pattern matching the request mapping of the controller method wins.
+     */
+    private Map<String, Double> endpointSampleRates = new LinkedHashMap<>();
+
+    /**
+     * Whether a request which fails is logged even when it was not sampled.
+     */
+    private boolean alwaysLogErrors = true;
+
+    /**
+     * Maximum number of characters of a single field of an argument.
+     */
+    private int maxFieldLength = 64;
+
+    /**
+     * Maximum number of characters of a single argument.
+     */
+    private int maxArgumentLength = 200;
+
+    /**
+     * Maximum number of characters of all the arguments of a request.
+     */
+    private int maxMessageLength = 1000;
+
+    /**
+     * Names of the parameters and fields whose values are replaced by {@code ***}, case-insensitive. A trailing
+     * {@code *} matches every name with that prefix.
+     */
+    private List<String> redactedFields = new ArrayList<>(List.of("password", "accessToken", "refreshToken",
+            "firstName", "lastName", "displayName", "identificationValue", "mobileNo*", "email", "addressLine*",
+            "dateOfBirth", "profilePicture"));
+
+    /**
+     * Optional YAML file with {@code application.logging.requests} properties overriding those of the application
+     * configuration. It is checked for changes every {@code application.logging.requests.reload-interval}
+     * milliseconds.
+     */
+    private String reloadFile = "";
+}
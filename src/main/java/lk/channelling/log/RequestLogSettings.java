@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.log;
+
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Immutable, compiled form of the {@link RequestLogProperties} in force.
+ *
+ * <p>The sample rate of an endpoint is resolved against the configured patterns once and then memoized, so deciding
+ * to skip a request costs a map lookup and a random number. A reload replaces the whole instance.</p>
+ */
+public final class RequestLogSettings {
+
+    public static final RequestLogSettings DEFAULT = new RequestLogSettings(new RequestLogProperties());
+
+    static final String REDACTED = "***";
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final double sampleRate;
+
+    private final Map<String, Double> endpointSampleRates;
+
+    private final ConcurrentMap<String, Double> resolvedSampleRates = new ConcurrentHashMap<>();
+
+    private final boolean alwaysLogErrors;
+
+    private final int maxFieldLength;
+
+    private final int maxArgumentLength;
+
+    private final int maxMessageLength;
+
+    private final Set<String> redactedNames = new HashSet<>();
+
+    private final List<String> redactedPrefixes = new ArrayList<>();
+
+    public RequestLogSettings(RequestLogProperties properties) {
+        this.sampleRate = properties.getSampleRate();
+        this.endpointSampleRates = Map.copyOf(properties.getEndpointSampleRates());
+        this.alwaysLogErrors = properties.isAlwaysLogErrors();
+        this.maxFieldLength = Math.max(properties.getMaxFieldLength(), 0);
+        this.maxArgumentLength = Math.max(properties.getMaxArgumentLength(), 0);
+        this.maxMessageLength = Math.max(properties.getMaxMessageLength(), 0);
+
+        for (String name : properties.getRedactedFields()) {
+            String lowerName = name.trim().toLowerCase(Locale.ROOT);
+            if (lowerName.endsWith("*")) redactedPrefixes.add(lowerName.substring(0, lowerName.length() - 1));
+            else if (!lowerName.isEmpty()) redactedNames.add(lowerName);
+        }
+    }
+
+    /**
+     * Decides whether a request to the endpoint is logged.
+     *
+     * @param endpoint the request mapping pattern of the controller method, {@code null} if unknown.
+     * @return {@code true} if the request is sampled.
+     */
+    public boolean sample(String endpoint) {
+        double rate = endpoint == null ? sampleRate : resolvedSampleRates.computeIfAbsent(endpoint, this::resolveSampleRate);
+        return rate >= 1 || rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    public boolean isAlwaysLogErrors() {
+        return alwaysLogErrors;
+    }
+
+    public int getMaxFieldLength() {
+        return maxFieldLength;
+    }
+
+    public int getMaxArgumentLength() {
+        return maxArgumentLength;
+    }
+
+    public int getMaxMessageLength() {
+        return maxMessageLength;
+    }
+
+    /**
+     * Returns whether the value of the parameter or field must be redacted.
+     *
+     * @param lowerName the name in lower case.
+     * @return {@code true} if the value must not be logged.
+     */
+    public boolean isRedacted(String lowerName) {
+        if (lowerName == null) return false;
+        if (redactedNames.contains(lowerName)) return true;
+        for (String prefix : redactedPrefixes)
+            if (lowerName.startsWith(prefix)) return true;
+        return false;
+    }
+
+    private double resolveSampleRate(String endpoint) {
+        Comparator<String> specificity = PATH_MATCHER.getPatternComparator(endpoint);
+        String bestPattern = null;
+        for (String pattern : endpointSampleRates.keySet()) {
+            if (PATH_MATCHER.match(pattern, endpoint) && (bestPattern == null || specificity.compare(pattern, bestPattern) < 0))
+                bestPattern = pattern;
+        }
+        return bestPattern == null ? sampleRate : endpointSampleRates.get(bestPattern);
+    }
+}
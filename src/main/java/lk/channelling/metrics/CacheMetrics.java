@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lk.channelling.cache.CacheStatisticsCollector;
+import lk.channelling.resources.CacheStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the size, hits, misses and hit ratio of every in-memory cache, tagged with the name of the cache.
+ *
+ * <p>The caches register themselves while the application starts, so the meters are added once it is ready. The
+ * values are read from the {@link CacheStatisticsCollector} when the meters are scraped.</p>
+ */
+@Component
+public class CacheMetrics {
+
+    private final Set<String> registeredCaches = ConcurrentHashMap.newKeySet();
+
+    private final MeterRegistry meterRegistry;
+
+    private final CacheStatisticsCollector cacheStatisticsCollector;
+
+    @Autowired
+    public CacheMetrics(MeterRegistry meterRegistry, CacheStatisticsCollector cacheStatisticsCollector) {
+        this.meterRegistry = meterRegistry;
+        this.cacheStatisticsCollector = cacheStatisticsCollector;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void register() {
+        for (CacheStatistics statistics : cacheStatisticsCollector.collect()) {
+            String name = statistics.getName();
+            if (!registeredCaches.add(name)) continue;
+
+            Gauge.builder("channelling.cache.size", this, metrics -> metrics.value(name, CacheStatistics::getSize))
+                    .tag("cache", name).register(meterRegistry);
+            Gauge.builder("channelling.cache.hit.ratio", this, metrics -> metrics.value(name, CacheStatistics::getHitRatio))
+                    .tag("cache", name).register(meterRegistry);
+            FunctionCounter.builder("channelling.cache.requests", this, metrics -> metrics.value(name, CacheStatistics::getHits))
+                    .tag("cache", name).tag("result", "hit").register(meterRegistry);
+            FunctionCounter.builder("channelling.cache.requests", this, metrics -> metrics.value(name, CacheStatistics::getMisses))
+                    .tag("cache", name).tag("result", "miss").register(meterRegistry);
+        }
+    }
+
+    private double value(String name, ToDoubleFunction<CacheStatistics> value) {
+        for (CacheStatistics statistics : cacheStatisticsCollector.collect())
+            if (name.equals(statistics.getName())) return value.applyAsDouble(statistics);
+        return Double.NaN;
+    }
+}
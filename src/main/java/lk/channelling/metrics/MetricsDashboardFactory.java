@@ -0,0 +1,118 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lk.channelling.cache.CacheStatisticsCollector;
+import lk.channelling.resources.MetricsDashboard;
+import lk.channelling.resources.TimerSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Builds the {@link MetricsDashboard} from the meters in the registry, so the hot spots can be read without a
+ * Prometheus server.
+ */
+@Component
+public class MetricsDashboardFactory {
+
+    private static final String REPOSITORY_TIMER_NAME = "spring.data.repository.invocations";
+
+    private static final String POOL_PREFIX = "hikaricp.connections";
+
+    private final MeterRegistry meterRegistry;
+
+    private final CacheStatisticsCollector cacheStatisticsCollector;
+
+    @Autowired
+    public MetricsDashboardFactory(MeterRegistry meterRegistry, CacheStatisticsCollector cacheStatisticsCollector) {
+        this.meterRegistry = meterRegistry;
+        this.cacheStatisticsCollector = cacheStatisticsCollector;
+    }
+
+    /**
+     * Builds the dashboard.
+     *
+     * @param limit the maximum number of controller and repository methods listed.
+     * @return the dashboard.
+     */
+    public MetricsDashboard create(int limit) {
+        List<TimerSummary> controllers = summarize(ControllerMetricsAspect.TIMER_NAME, limit, timer -> name(timer,
+                timer.getId().getTag("controller"), timer.getId().getTag("exception"), "none"));
+        List<TimerSummary> repositories = summarize(REPOSITORY_TIMER_NAME, limit, timer -> name(timer,
+                timer.getId().getTag("repository"), timer.getId().getTag("state"), "SUCCESS"));
+
+        Map<String, Double> connectionPool = new LinkedHashMap<>();
+        for (String gauge : List.of("active", "idle", "pending", "max"))
+            connectionPool.put(gauge, sumOfGauges(POOL_PREFIX + "." + gauge));
+        connectionPool.put("timeouts", meterRegistry.find(POOL_PREFIX + ".timeout").counters().stream().mapToDouble(Counter::count).sum());
+
+        Map<String, Double> booking = new LinkedHashMap<>();
+        meterRegistry.find("channelling.booking.reservations").counters()
+                .forEach(counter -> booking.put("reservations." + counter.getId().getTag("outcome"), counter.count()));
+        meterRegistry.find("channelling.booking.holds").counters()
+                .forEach(counter -> booking.put("holds." + counter.getId().getTag("event"), counter.count()));
+        booking.put("holds.open", sumOfGauges("channelling.booking.holds.open"));
+
+        return new MetricsDashboard(LocalDateTime.now(), controllers, repositories, connectionPool, booking,
+                cacheStatisticsCollector.collect());
+    }
+
+    private List<TimerSummary> summarize(String timerName, int limit, Function<Timer, String> naming) {
+        List<TimerSummary> summaries = new ArrayList<>();
+        for (Timer timer : meterRegistry.find(timerName).timers()) {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            if (snapshot.count() == 0) continue;
+
+            TimerSummary summary = new TimerSummary(naming.apply(timer), snapshot.count(),
+                    snapshot.mean(TimeUnit.MILLISECONDS), null, null, null, snapshot.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                double value = percentile.value(TimeUnit.MILLISECONDS);
+                if (percentile.percentile() == 0.5) summary.setP50(value);
+                else if (percentile.percentile() == 0.95) summary.setP95(value);
+                else if (percentile.percentile() == 0.99) summary.setP99(value);
+            }
+            summaries.add(summary);
+        }
+
+        summaries.sort(Comparator.comparingDouble((TimerSummary summary) -> summary.getP99() != null ? summary.getP99() : summary.getMax())
+                .reversed());
+        return summaries.size() > limit ? new ArrayList<>(summaries.subList(0, limit)) : summaries;
+    }
+
+    private static String name(Timer timer, String owner, String outcome, String normalOutcome) {
+        String name = owner + "." + timer.getId().getTag("method");
+        return outcome == null || outcome.equals(normalOutcome) ? name : name + " [" + outcome + "]";
+    }
+
+    private double sumOfGauges(String gaugeName) {
+        return meterRegistry.find(gaugeName).gauges().stream().mapToDouble(Gauge::value).sum();
+    }
+}
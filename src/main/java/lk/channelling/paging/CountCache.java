@@ -0,0 +1,200 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.paging;
+
+import jakarta.persistence.Table;
+import lk.channelling.resources.CacheStatistics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Cache of the row counts reported as {@code recordsTotal} and {@code recordsFiltered} of the DataTables pages.
+ *
+ * <p>Counts are cached per entity and filter for {@code application.paging.count-ttl} and dropped as soon as a write
+ * to the entity commits, see {@link CountCacheInvalidator}. Every entity has a generation number which is bumped on
+ * invalidation, so a count loaded while a write was committing is never served once the write is visible. At most
+ * {@code application.paging.count-max-entries} counts are held, expired and the oldest ones are evicted first.</p>
+ *
+ * <p>For the tables listed in {@code application.paging.estimated-count-tables}, the unfiltered total is taken from
+ * the table statistics of the database instead of a {@code COUNT(*)} once it exceeds
+ * {@code application.paging.estimated-count-threshold} rows. Such totals are approximate.</p>
+ */
+@Component
+@Log4j2
+public class CountCache {
+
+    private static final String ESTIMATE_QUERY = "SELECT TABLE_ROWS FROM information_schema.TABLES " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Deque<Entry> evictionOrder = new ArrayDeque<>();
+
+    private final ConcurrentMap<Class<?>, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${application.paging.count-ttl:60s}")
+    private Duration ttl;
+
+    @Value("${application.paging.count-max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${application.paging.estimated-count-threshold:100000}")
+    private long estimatedCountThreshold;
+
+    private Set<String> estimatedCountTables = Set.of();
+
+    @Autowired
+    public CountCache(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Value("${application.paging.estimated-count-tables:}")
+    public void setEstimatedCountTables(String[] estimatedCountTables) {
+        this.estimatedCountTables = Arrays.stream(estimatedCountTables).map(String::trim).map(String::toLowerCase)
+                .filter(tableName -> !tableName.isEmpty()).collect(Collectors.toSet());
+    }
+
+    /**
+     * Returns the total number of rows of the entity, estimated for large tables when configured.
+     *
+     * @param entityClass the entity.
+     * @param loader      runs the exact count.
+     * @return the total number of rows.
+     */
+    public long getTotal(Class<?> entityClass, LongSupplier loader) {
+        return get(entityClass, "", () -> {
+            Long estimate = estimate(entityClass);
+            return estimate != null && estimate >= estimatedCountThreshold ? estimate : loader.getAsLong();
+        });
+    }
+
+    /**
+     * Returns the cached count of the entity under the given filter, or loads and caches it.
+     *
+     * @param entityClass the entity.
+     * @param filterKey   a canonical description of the filter.
+     * @param loader      runs the count.
+     * @return the number of rows.
+     */
+    public long get(Class<?> entityClass, String filterKey, LongSupplier loader) {
+        String key = entityClass.getName() + '|' + filterKey;
+        long generation = generation(entityClass).get();
+        long now = System.nanoTime();
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.generation == generation && now < entry.expiresAt) {
+            hits.incrementAndGet();
+            return entry.count;
+        }
+
+        misses.incrementAndGet();
+        long count = loader.getAsLong();
+        Entry newEntry = new Entry(key, count, generation, now + ttl.toNanos());
+        entries.put(key, newEntry);
+        evict(newEntry, now);
+        return count;
+    }
+
+    /**
+     * Drops every cached count of the entity.
+     *
+     * @param entityClass the entity.
+     */
+    public void invalidate(Class<?> entityClass) {
+        generation(entityClass).incrementAndGet();
+        String prefix = entityClass.getName() + '|';
+        entries.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics("counts", entries.size(), hits.get(), misses.get());
+    }
+
+    private AtomicLong generation(Class<?> entityClass) {
+        return generations.computeIfAbsent(entityClass, entity -> new AtomicLong());
+    }
+
+    /**
+     * Registers the new entry and evicts the expired entries and the oldest ones beyond the entry limit. Counts share
+     * the same lifetime, so entries expire in insertion order. The eviction order is bounded as well, so replaced and
+     * invalidated entries still waiting in it cannot make it grow without limit.
+     */
+    private void evict(Entry newEntry, long now) {
+        synchronized (evictionOrder) {
+            evictionOrder.addLast(newEntry);
+
+            Entry oldest;
+            while ((oldest = evictionOrder.peekFirst()) != null) {
+                boolean stale = entries.get(oldest.key) != oldest;
+                if (!stale && now < oldest.expiresAt && evictionOrder.size() <= maxEntries) break;
+
+                evictionOrder.pollFirst();
+                if (!stale) entries.remove(oldest.key, oldest);
+            }
+        }
+    }
+
+    private Long estimate(Class<?> entityClass) {
+        Table table = entityClass.getAnnotation(Table.class);
+        if (table == null || !estimatedCountTables.contains(table.name().toLowerCase())) return null;
+
+        try {
+            return jdbcTemplate.queryForObject(ESTIMATE_QUERY, Long.class, table.name());
+        } catch (DataAccessException e) {
+            log.warn("Unable to estimate the row count of {}, falling back to an exact count: {}", table.name(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static final class Entry {
+
+        private final String key;
+
+        private final long count;
+
+        private final long generation;
+
+        private final long expiresAt;
+
+        private Entry(String key, long count, long generation, long expiresAt) {
+            this.key = key;
+            this.count = count;
+            this.generation = generation;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.paging;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lk.channelling.util.TransactionUtil;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Entity listener which drops the cached row counts of an entity once an insert, update or delete of it commits.
+ * Updates matter as well, since the filtered counts depend on the column values.
+ *
+ * <p>Registered on {@link lk.channelling.entity.BaseEntity}, so every write made through the services and their
+ * repositories is covered. Hibernate obtains the listener from the Spring context. Bulk JPQL and native updates
+ * bypass the listener, so their callers invalidate the counts themselves.</p>
+ */
+@Component
+public class CountCacheInvalidator {
+
+    private final CountCache countCache;
+
+    @Autowired
+    public CountCacheInvalidator(CountCache countCache) {
+        this.countCache = countCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void invalidate(Object entity) {
+        Class<?> entityClass = Hibernate.getClass(entity);
+        TransactionUtil.afterCommit(() -> countCache.invalidate(entityClass));
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.paging;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Position of the last row of a keyset page, which is encoded into the opaque cursor token handed to the client.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Cursor {
+
+    /**
+     * The order the page was read in, such as {@code description:asc,code:desc}.
+     */
+    @JsonProperty("s")
+    private String sort;
+
+    /**
+     * The values of the order properties of the last row.
+     */
+    @JsonProperty("v")
+    private List<Object> values;
+
+    @JsonProperty("i")
+    private Long id;
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.paging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import lk.channelling.entity.BaseEntity;
+import lk.channelling.exception.InvalidRequestException;
+import lk.channelling.resources.Column;
+import lk.channelling.resources.Direction;
+import lk.channelling.resources.Order;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset (seek) pagination over any {@link BaseEntity} driven by a DataTables {@link PagingRequest}.
+ *
+ * <p>Rows are ordered by the requested columns with the id as the final tie breaker, and each page ends with an
+ * opaque cursor which encodes the order keys of its last row. The next page is read with a predicate selecting the
+ * rows after those keys instead of an offset, so fetching a page costs the same no matter how deep into the table it
+ * is, and rows inserted or deleted in between never shift the page boundaries.</p>
+ *
+ * <p>Searching and ordering are restricted to the indexed columns of the {@link PagingSchema}. Requests without a
+ * cursor still honour {@code start} as an offset, so existing DataTables clients keep working and can switch to the
+ * returned {@code nextCursor} at their own pace. Nulls are treated as the lowest value, matching the MySQL
+ * ordering.</p>
+ */
+@Component
+public class KeysetPager {
+
+    private static final String ID = "id";
+
+    private static final int DEFAULT_LENGTH = 10;
+
+    private static final int MAX_LENGTH = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final CountCache countCache;
+
+    @Autowired
+    public KeysetPager(ObjectMapper objectMapper, CountCache countCache) {
+        this.objectMapper = objectMapper;
+        this.countCache = countCache;
+    }
+
+    /**
+     * Reads one page of the entity of the schema.
+     *
+     * @param schema        the whitelisted columns of the entity.
+     * @param pagingRequest the paging request.
+     * @return the page in the DataTables format.
+     * @throws InvalidRequestException if the request searches or orders by a column the schema does not allow, or
+     *                                  carries a cursor of a different order.
+     */
+    public <T extends BaseEntity> PageArray getData(PagingSchema<T> schema, PagingRequest pagingRequest) {
+        Class<T> entityClass = schema.getEntityClass();
+        Map<String, Direction> sorts = resolveSorts(schema, pagingRequest);
+        Direction idDirection = sorts.isEmpty() ? Direction.asc : sorts.values().iterator().next();
+        String sort = describe(sorts, idDirection);
+        int length = pagingRequest.getLength() <= 0 ? DEFAULT_LENGTH : Math.min(pagingRequest.getLength(), MAX_LENGTH);
+        Cursor cursor = decode(pagingRequest.getCursor(), sort, sorts.size());
+        Specification<T> specification = schema.toSpecification(pagingRequest);
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = criteriaBuilder.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (specification != null) {
+            Predicate filter = specification.toPredicate(root, query, criteriaBuilder);
+            if (filter != null) predicates.add(filter);
+        }
+        if (cursor != null) predicates.add(seek(criteriaBuilder, root, sorts, idDirection, cursor));
+
+        List<jakarta.persistence.criteria.Order> orders = new ArrayList<>();
+        sorts.forEach((property, direction) -> orders.add(order(criteriaBuilder, root.get(property), direction)));
+        if (!sorts.containsKey(ID)) orders.add(order(criteriaBuilder, root.get(ID), idDirection));
+        query.select(root).where(predicates.toArray(Predicate[]::new)).orderBy(orders);
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query).setMaxResults(length + 1);
+        if (cursor == null && pagingRequest.getStart() > 0) typedQuery.setFirstResult(pagingRequest.getStart());
+        List<T> rows = typedQuery.getResultList();
+
+        boolean hasNext = rows.size() > length;
+        if (hasNext) rows = rows.subList(0, length);
+
+        PageArray pageArray = new PageArray();
+        pageArray.setRecordsTotal((int) countCache.getTotal(entityClass, () -> count(entityClass, null)));
+        pageArray.setRecordsFiltered(specification == null ? pageArray.getRecordsTotal()
+                : (int) countCache.get(entityClass, filterKey(schema, pagingRequest), () -> count(entityClass, specification)));
+        pageArray.setDraw(pagingRequest.getDraw());
+        pageArray.setData(rows.stream().map(schema::toRow).toList());
+        if (hasNext) pageArray.setNextCursor(encode(rows.get(rows.size() - 1), sorts, sort));
+
+        return pageArray;
+    }
+
+    /**
+     * Resolves the requested order into entity properties, stopping at the id as no key after it can apply.
+     */
+    private static Map<String, Direction> resolveSorts(PagingSchema<?> schema, PagingRequest pagingRequest) {
+        Map<String, Direction> sorts = new LinkedHashMap<>();
+        if (pagingRequest.getOrder() == null) return sorts;
+
+        for (Order order : pagingRequest.getOrder()) {
+            if (order.getColumn() == null) continue;
+
+            PagingColumn column = schema.getColumn(order.getColumn());
+            if (!column.isSearchable())
+                throw new InvalidRequestException("The column " + column.getProperty() + " is not orderable.");
+
+            sorts.putIfAbsent(column.getProperty(), direction(order));
+            if (ID.equals(column.getProperty())) break;
+        }
+        return sorts;
+    }
+
+    private static Direction direction(Order order) {
+        return order.getDir() == null ? Direction.asc : order.getDir();
+    }
+
+    private static jakarta.persistence.criteria.Order order(CriteriaBuilder criteriaBuilder, Expression<?> expression, Direction direction) {
+        return direction == Direction.asc ? criteriaBuilder.asc(expression) : criteriaBuilder.desc(expression);
+    }
+
+    /**
+     * Builds the predicate selecting the rows after the cursor in the requested order, that is the rows whose first
+     * differing order key comes after the key of the cursor.
+     */
+    private <T> Predicate seek(CriteriaBuilder criteriaBuilder, Root<T> root, Map<String, Direction> sorts, Direction idDirection,
+                               Cursor cursor) {
+        List<Path<?>> paths = new ArrayList<>();
+        List<Direction> directions = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+
+        int index = 0;
+        for (Map.Entry<String, Direction> sort : sorts.entrySet()) {
+            Path<?> path = root.get(sort.getKey());
+            Object value = cursor.getValues().get(index++);
+            paths.add(path);
+            directions.add(sort.getValue());
+            values.add(value == null ? null : cursorValue(value, path.getJavaType()));
+        }
+        if (!sorts.containsKey(ID)) {
+            paths.add(root.get(ID));
+            directions.add(idDirection);
+            values.add(cursor.getId());
+        }
+
+        List<Predicate> branches = new ArrayList<>();
+        List<Predicate> equalKeys = new ArrayList<>();
+        for (int i = 0; i < paths.size(); i++) {
+            Predicate after = after(criteriaBuilder, paths.get(i), directions.get(i), values.get(i));
+            if (after != null) {
+                List<Predicate> branch = new ArrayList<>(equalKeys);
+                branch.add(after);
+                branches.add(criteriaBuilder.and(branch.toArray(Predicate[]::new)));
+            }
+            equalKeys.add(values.get(i) == null ? criteriaBuilder.isNull(paths.get(i)) : criteriaBuilder.equal(paths.get(i), values.get(i)));
+        }
+
+        return branches.isEmpty() ? criteriaBuilder.disjunction() : criteriaBuilder.or(branches.toArray(Predicate[]::new));
+    }
+
+    /**
+     * Converts a key of the cursor to the type of its column. The cursor may have been tampered with, so a value of
+     * the wrong type is rejected as an invalid cursor.
+     */
+    private Object cursorValue(Object value, Class<?> type) {
+        try {
+            return objectMapper.convertValue(value, type);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("The paging cursor is invalid.");
+        }
+    }
+
+    /**
+     * Returns the predicate selecting the keys after the value, or {@code null} if there are none.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(CriteriaBuilder criteriaBuilder, Path<?> path, Direction direction, Object value) {
+        Path<Comparable> comparablePath = (Path<Comparable>) path;
+        if (direction == Direction.asc)
+            return value == null ? criteriaBuilder.isNotNull(path) : criteriaBuilder.greaterThan(comparablePath, (Comparable) value);
+
+        return value == null ? null : criteriaBuilder.or(criteriaBuilder.lessThan(comparablePath, (Comparable) value), criteriaBuilder.isNull(path));
+    }
+
+    /**
+     * Describes the search criteria of the request, which identify the filtered count in the {@link CountCache}.
+     */
+    private static String filterKey(PagingSchema<?> schema, PagingRequest pagingRequest) {
+        StringBuilder filterKey = new StringBuilder("search=");
+        if (pagingRequest.getSearch() != null) filterKey.append(pagingRequest.getSearch().getValue());
+
+        List<Column> columns = pagingRequest.getColumns() == null ? List.of() : pagingRequest.getColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            String value = PagingSchema.searchValue(columns.get(i));
+            if (value != null) filterKey.append('|').append(schema.getColumn(i).getProperty()).append('=').append(value);
+        }
+        return filterKey.toString();
+    }
+
+    private <T> long count(Class<T> entityClass, Specification<T> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<T> root = query.from(entityClass);
+        query.select(criteriaBuilder.count(root));
+
+        if (specification != null) {
+            Predicate filter = specification.toPredicate(root, query, criteriaBuilder);
+            if (filter != null) query.where(filter);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static String describe(Map<String, Direction> sorts, Direction idDirection) {
+        String order = sorts.entrySet().stream().map(sort -> sort.getKey() + ':' + sort.getValue()).collect(Collectors.joining(","));
+        return sorts.containsKey(ID) ? order : (order.isEmpty() ? "" : order + ',') + ID + ':' + idDirection;
+    }
+
+    private String encode(BaseEntity lastRow, Map<String, Direction> sorts, String sort) {
+        BeanWrapper beanWrapper = new BeanWrapperImpl(lastRow);
+        List<Object> values = sorts.keySet().stream().map(beanWrapper::getPropertyValue).toList();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(new Cursor(sort, values, lastRow.getId()));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to encode the paging cursor.", e);
+        }
+    }
+
+    private Cursor decode(String token, String sort, int sortCount) {
+        if (token == null || token.isBlank()) return null;
+
+        Cursor cursor;
+        try {
+            cursor = objectMapper.readValue(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8), Cursor.class);
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            throw new InvalidRequestException("The paging cursor is invalid.");
+        }
+
+        if (cursor.getId() == null || cursor.getValues() == null || cursor.getValues().size() != sortCount || !sort.equals(cursor.getSort()))
+            throw new InvalidRequestException("The paging cursor does not match the requested order.");
+        return cursor;
+    }
+}
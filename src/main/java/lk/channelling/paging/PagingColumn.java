@@ -0,0 +1,56 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.paging;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A column of a DataTables listing, naming the entity property shown at its position and whether the client may
+ * search and order by it.
+ *
+ * <p>Only columns backed by an index should be made searchable, as their search and order are pushed down to the
+ * database.</p>
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PagingColumn {
+
+    private final String property;
+
+    private final boolean searchable;
+
+    /**
+     * Returns a column which can be searched and ordered by.
+     *
+     * @param property the entity property.
+     * @return the column.
+     */
+    public static PagingColumn indexed(String property) {
+        return new PagingColumn(property, true);
+    }
+
+    /**
+     * Returns a column which is only displayed.
+     *
+     * @param property the entity property.
+     * @return the column.
+     */
+    public static PagingColumn display(String property) {
+        return new PagingColumn(property, false);
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.paging;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lk.channelling.entity.BaseEntity;
+import lk.channelling.entity.DefinitionBaseEntity;
+import lk.channelling.exception.InvalidRequestException;
+import lk.channelling.resources.Column;
+import lk.channelling.resources.PagingRequest;
+import lombok.Getter;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The whitelisted columns of the DataTables listing of an entity, in the order they appear in a row.
+ *
+ * <p>Translates the global and per-column {@link lk.channelling.resources.Search} of a {@link PagingRequest} into a
+ * {@link Specification} over the searchable columns. Text columns are matched by prefix so that the index on the
+ * column can be used, while numeric and enum columns are matched exactly. Values which cannot be converted to the
+ * type of a column never match it.</p>
+ *
+ * @param <T> the entity.
+ */
+@Getter
+public class PagingSchema<T extends BaseEntity> {
+
+    private static final String DATE_PATTERN = "yyyy/MM/dd HH:mm:ss";
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(DATE_PATTERN);
+
+    private static final char ESCAPE = '\\';
+
+    private final Class<T> entityClass;
+
+    private final List<PagingColumn> columns;
+
+    private PagingSchema(Class<T> entityClass, List<PagingColumn> columns) {
+        this.entityClass = entityClass;
+        this.columns = List.copyOf(columns);
+    }
+
+    /**
+     * Returns the schema with the given columns.
+     *
+     * @param entityClass the entity.
+     * @param columns     the columns in row order.
+     * @return the schema.
+     */
+    public static <T extends BaseEntity> PagingSchema<T> of(Class<T> entityClass, PagingColumn... columns) {
+        return new PagingSchema<>(entityClass, Arrays.asList(columns));
+    }
+
+    /**
+     * Returns the schema of a definition entity: code, description, the given extra columns, status, created date and
+     * created user.
+     *
+     * @param entityClass  the definition entity.
+     * @param extraColumns the entity specific columns shown after the description.
+     * @return the schema.
+     */
+    public static <T extends DefinitionBaseEntity> PagingSchema<T> definition(Class<T> entityClass, PagingColumn... extraColumns) {
+        List<PagingColumn> columns = new ArrayList<>();
+        columns.add(PagingColumn.indexed("code"));
+        columns.add(PagingColumn.indexed("description"));
+        columns.addAll(Arrays.asList(extraColumns));
+        columns.add(PagingColumn.indexed("status"));
+        columns.add(PagingColumn.display("createdDate"));
+        columns.add(PagingColumn.display("createdUser"));
+        return new PagingSchema<>(entityClass, columns);
+    }
+
+    /**
+     * Returns the column at the given position of a row.
+     *
+     * @param index the position of the column.
+     * @return the column.
+     * @throws InvalidRequestException if there is no such column.
+     */
+    public PagingColumn getColumn(int index) {
+        if (index < 0 || index >= columns.size())
+            throw new InvalidRequestException("The column " + index + " does not exist.");
+        return columns.get(index);
+    }
+
+    /**
+     * Builds the filter of the search criteria of the request.
+     *
+     * @param pagingRequest the paging request.
+     * @return the filter, or {@code null} when nothing is searched.
+     */
+    public Specification<T> toSpecification(PagingRequest pagingRequest) {
+        String globalSearch = pagingRequest.getSearch() == null ? null : pagingRequest.getSearch().getValue();
+        boolean hasGlobalSearch = globalSearch != null && !globalSearch.isBlank();
+
+        List<Column> requestColumns = pagingRequest.getColumns() == null ? List.of() : pagingRequest.getColumns();
+        boolean hasColumnSearch = false;
+        for (int i = 0; i < requestColumns.size(); i++) {
+            if (searchValue(requestColumns.get(i)) == null) continue;
+            if (!getColumn(i).isSearchable())
+                throw new InvalidRequestException("The column " + getColumn(i).getProperty() + " is not searchable.");
+            hasColumnSearch = true;
+        }
+
+        if (!hasGlobalSearch && !hasColumnSearch) return null;
+
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (hasGlobalSearch) {
+                List<Predicate> matches = new ArrayList<>();
+                for (PagingColumn column : columns) {
+                    if (!column.isSearchable()) continue;
+                    Predicate match = match(root, criteriaBuilder, column.getProperty(), globalSearch.trim());
+                    if (match != null) matches.add(match);
+                }
+                predicates.add(matches.isEmpty() ? criteriaBuilder.disjunction() : criteriaBuilder.or(matches.toArray(Predicate[]::new)));
+            }
+
+            for (int i = 0; i < requestColumns.size(); i++) {
+                String value = searchValue(requestColumns.get(i));
+                if (value == null) continue;
+
+                Predicate match = match(root, criteriaBuilder, columns.get(i).getProperty(), value);
+                predicates.add(match == null ? criteriaBuilder.disjunction() : match);
+            }
+
+            return criteriaBuilder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Maps an entity to the formatted values of its columns.
+     *
+     * @param entity the entity.
+     * @return the row values.
+     */
+    public List<String> toRow(T entity) {
+        BeanWrapper beanWrapper = new BeanWrapperImpl(entity);
+        List<String> values = new ArrayList<>(columns.size());
+        for (PagingColumn column : columns) values.add(format(beanWrapper.getPropertyValue(column.getProperty())));
+        return values;
+    }
+
+    static String searchValue(Column column) {
+        if (column.getSearch() == null || column.getSearch().getValue() == null) return null;
+        String value = column.getSearch().getValue().trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Returns the predicate matching the value against the property, or {@code null} if the value cannot be converted
+     * to the type of the property.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate match(Root<?> root, CriteriaBuilder criteriaBuilder, String property, String value) {
+        Path<?> path = root.get(property);
+        Class<?> type = path.getJavaType();
+
+        if (String.class.equals(type))
+            return criteriaBuilder.like((Path<String>) path, escape(value) + "%", ESCAPE);
+
+        try {
+            if (type.isEnum()) return criteriaBuilder.equal(path, Enum.valueOf((Class<Enum>) type, value.toUpperCase()));
+            if (Long.class.equals(type) || long.class.equals(type)) return criteriaBuilder.equal(path, Long.valueOf(value));
+            if (Integer.class.equals(type) || int.class.equals(type)) return criteriaBuilder.equal(path, Integer.valueOf(value));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return null;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static String format(Object value) {
+        if (value == null) return "";
+        if (value instanceof Date date) return new SimpleDateFormat(DATE_PATTERN).format(date);
+        if (value instanceof TemporalAccessor temporal) {
+            try {
+                return DATE_FORMATTER.format(temporal);
+            } catch (DateTimeException e) {
+                return value.toString();
+            }
+        }
+        return value.toString();
+    }
+}
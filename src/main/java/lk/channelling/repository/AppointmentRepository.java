@@ -17,8 +17,93 @@ package lk.channelling.repository;
 
 import lk.channelling.entity.Appointment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+
+    /**
+     * Returns the number of slot occupying appointments for every session that has at least one.
+     *
+     * @param releasedStatuses the appointment statuses which do not occupy a slot.
+     * @return the booked appointment count per session.
+     */
+    @Query("SELECT a.sessionId AS sessionId, COUNT(a) AS booked FROM Appointment a " +
+            "WHERE a.appointmentStatus NOT IN :releasedStatuses GROUP BY a.sessionId")
+    List<SessionBookingCount> countBookedBySession(@Param("releasedStatuses") Collection<String> releasedStatuses);
+
+    /**
+     * Returns the number of slot occupying appointments for each of the given sessions that has at least one.
+     *
+     * @param sessionIds       the ids of the doctor sessions.
+     * @param releasedStatuses the appointment statuses which do not occupy a slot.
+     * @return the booked appointment count per session.
+     */
+    @Query("SELECT a.sessionId AS sessionId, COUNT(a) AS booked FROM Appointment a " +
+            "WHERE a.sessionId IN :sessionIds AND a.appointmentStatus NOT IN :releasedStatuses GROUP BY a.sessionId")
+    List<SessionBookingCount> countBookedBySessionIn(@Param("sessionIds") Collection<Integer> sessionIds,
+                                                     @Param("releasedStatuses") Collection<String> releasedStatuses);
+
+    /**
+     * Returns every appointment which currently holds a slot, served by the appointment status index.
+     *
+     * @return the open slot holds.
+     */
+    @Query("SELECT a.id AS id, a.sessionId AS sessionId, a.holdExpiresAt AS holdExpiresAt FROM Appointment a " +
+            "WHERE a.appointmentStatus = 'HOLD'")
+    List<OpenHold> findOpenHolds();
+
+    /**
+     * Moves the given held appointments to the expired state. Appointments which were confirmed in the meantime are
+     * left untouched.
+     *
+     * @param ids the ids of the held appointments.
+     * @param now the current date and time.
+     * @return the number of expired appointments.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Appointment a SET a.appointmentStatus = 'EXPIRED' " +
+            "WHERE a.id IN :ids AND a.appointmentStatus = 'HOLD' AND a.holdExpiresAt <= :now")
+    int expireHolds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Confirms the held appointment if its hold has not expired yet.
+     *
+     * @param id  the id of the held appointment.
+     * @param now the current date and time.
+     * @return {@code 1} if the hold was confirmed, {@code 0} otherwise.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.appointmentStatus = 'BOOKED', a.holdExpiresAt = NULL " +
+            "WHERE a.id = :id AND a.appointmentStatus = 'HOLD' AND a.holdExpiresAt > :now")
+    int confirmHold(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Projection of an appointment which holds a slot.
+     */
+    interface OpenHold {
+
+        Long getId();
+
+        Integer getSessionId();
+
+        LocalDateTime getHoldExpiresAt();
+    }
+
+    /**
+     * Projection of the booked appointment count of a doctor session.
+     */
+    interface SessionBookingCount {
+
+        Integer getSessionId();
+
+        Long getBooked();
+    }
 }
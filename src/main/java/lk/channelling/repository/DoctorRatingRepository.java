@@ -2,9 +2,44 @@ package lk.channelling.repository;
 
 import lk.channelling.entity.DoctorRating;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface DoctorRatingRepository extends JpaRepository<DoctorRating, Long> {
-    // Add custom query methods if needed
+
+    /**
+     * Returns the sum and the number of the ratings of every rated doctor.
+     *
+     * @return the rating totals per doctor.
+     */
+    @Query("SELECT r.doctorId AS doctorId, SUM(r.rating) AS ratingSum, COUNT(r) AS ratingCount " +
+            "FROM DoctorRating r GROUP BY r.doctorId")
+    List<RatingTotal> findRatingTotals();
+
+    /**
+     * Returns the sum and the number of the ratings of the given doctors, leaving out the doctors without ratings.
+     *
+     * @param doctorIds the ids of the doctors.
+     * @return the rating totals per doctor.
+     */
+    @Query("SELECT r.doctorId AS doctorId, SUM(r.rating) AS ratingSum, COUNT(r) AS ratingCount " +
+            "FROM DoctorRating r WHERE r.doctorId IN :doctorIds GROUP BY r.doctorId")
+    List<RatingTotal> findRatingTotals(@Param("doctorIds") Collection<Long> doctorIds);
+
+    /**
+     * Projection of the rating totals of a doctor.
+     */
+    interface RatingTotal {
+
+        Long getDoctorId();
+
+        Long getRatingSum();
+
+        Long getRatingCount();
+    }
 }
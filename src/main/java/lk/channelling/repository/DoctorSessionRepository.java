@@ -17,9 +17,171 @@ package lk.channelling.repository;
 
 
 import lk.channelling.entity.DoctorSession;
+import lk.channelling.enums.Status;
+import lk.channelling.resources.SessionAvailability;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface DoctorSessionRepository extends JpaRepository<DoctorSession, Long> {
+
+    /**
+     * The joins and filters shared by the availability search and its count query.
+     */
+    String AVAILABILITY_FILTER = "FROM DoctorSession s, Doctor d, Hospital h " +
+            "WHERE d.id = s.doctorId AND h.id = s.hospitalId " +
+            "AND s.status = :status AND s.bookedPatients < s.maxPatients " +
+            "AND s.sessionDateTime >= :from AND s.sessionDateTime < :to " +
+            "AND (:doctorId IS NULL OR s.doctorId = :doctorId) " +
+            "AND (:hospitalId IS NULL OR s.hospitalId = :hospitalId) " +
+            "AND (:cityId IS NULL OR h.cityId = :cityId) " +
+            "AND (:specializationId IS NULL OR EXISTS (SELECT ds.id FROM DoctorSpeciality ds " +
+            "WHERE ds.doctorId = s.doctorId AND ds.specialityId = :specializationId))";
+
+    /**
+     * Reserves one slot in the given session if it still has capacity.
+     *
+     * <p>The conditional update takes the row lock on the session, so concurrent reservations are serialized by the
+     * database and the session can never be booked beyond {@code max_patients}. The lock is held until the calling
+     * transaction ends, which makes the queue number read by {@link #findLastQueueNoById(Long)} deterministic.</p>
+     *
+     * @param id the id of the doctor session.
+     * @return {@code 1} if a slot was reserved, {@code 0} if the session is full or does not exist.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE doctor_sessions SET booked_patients = booked_patients + 1, last_queue_no = last_queue_no + 1 " +
+            "WHERE id = :id AND booked_patients < max_patients", nativeQuery = true)
+    int reserveSlot(@Param("id") Long id);
+
+    /**
+     * Releases one previously reserved slot in the given session.
+     *
+     * @param id the id of the doctor session.
+     * @return {@code 1} if a slot was released, {@code 0} otherwise.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE doctor_sessions SET booked_patients = booked_patients - 1 " +
+            "WHERE id = :id AND booked_patients > 0", nativeQuery = true)
+    int releaseSlot(@Param("id") Long id);
+
+    /**
+     * Releases the given number of previously reserved slots in the given session.
+     *
+     * @param id    the id of the doctor session.
+     * @param slots the number of slots to release.
+     * @return {@code 1} if the slots were released, {@code 0} otherwise.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE doctor_sessions SET booked_patients = GREATEST(booked_patients - :slots, 0) " +
+            "WHERE id = :id", nativeQuery = true)
+    int releaseSlots(@Param("id") Long id, @Param("slots") int slots);
+
+    /**
+     * Returns the last queue number issued for the given session.
+     *
+     * @param id the id of the doctor session.
+     * @return the last issued queue number.
+     */
+    @Query(value = "SELECT last_queue_no FROM doctor_sessions WHERE id = :id", nativeQuery = true)
+    Integer findLastQueueNoById(@Param("id") Long id);
+
+    /**
+     * Returns the capacity of every session scheduled on or after the given date and time.
+     *
+     * @param from the earliest session date and time to include.
+     * @return the session capacities.
+     */
+    @Query("SELECT s.id AS id, s.maxPatients AS maxPatients FROM DoctorSession s WHERE s.sessionDateTime >= :from")
+    List<SessionCapacity> findCapacitiesFrom(@Param("from") LocalDateTime from);
+
+    /**
+     * Searches the sessions which still have free slots within the given date window. Doctor, hospital, city and
+     * specialization filters are ignored when {@code null}. Only the projected columns are loaded.
+     *
+     * @param doctorId         the id of the doctor.
+     * @param hospitalId       the id of the hospital.
+     * @param cityId           the id of the city of the hospital.
+     * @param specializationId the id of a specialization of the doctor.
+     * @param from             the start of the date window, inclusive.
+     * @param to               the end of the date window, exclusive.
+     * @param status           the status of the sessions.
+     * @param pageable         the requested page.
+     * @return the page of available sessions ordered by date.
+     */
+    @Query(value = "SELECT new lk.channelling.resources.SessionAvailability(s.id, s.doctorId, d.displayName, s.hospitalId, " +
+            "h.name, h.cityId, s.sessionDateTime, s.maxPatients, s.bookedPatients, s.totalFee) " +
+            AVAILABILITY_FILTER + " ORDER BY s.sessionDateTime, s.id",
+            countQuery = "SELECT COUNT(s) " + AVAILABILITY_FILTER)
+    Page<SessionAvailability> findAvailable(@Param("doctorId") Integer doctorId,
+                                            @Param("hospitalId") Integer hospitalId,
+                                            @Param("cityId") Long cityId,
+                                            @Param("specializationId") Long specializationId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to,
+                                            @Param("status") Status status,
+                                            Pageable pageable);
+
+    /**
+     * Returns the sessions scheduled within the given window.
+     *
+     * @param from the start of the window, inclusive.
+     * @param to   the end of the window, exclusive.
+     * @return the scheduled sessions.
+     */
+    @Query("SELECT s FROM DoctorSession s WHERE s.sessionDateTime >= :from AND s.sessionDateTime < :to")
+    List<DoctorSession> findScheduledBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Returns the number of sessions of every doctor at every hospital scheduled on or after the given date and time.
+     *
+     * @param from the earliest session date and time to include.
+     * @return the session counts per doctor and hospital.
+     */
+    @Query("SELECT s.doctorId AS doctorId, s.hospitalId AS hospitalId, COUNT(s) AS sessions FROM DoctorSession s " +
+            "WHERE s.sessionDateTime >= :from GROUP BY s.doctorId, s.hospitalId")
+    List<DoctorHospitalSessions> countDoctorHospitalSessionsFrom(@Param("from") LocalDateTime from);
+
+    /**
+     * Returns the number of sessions of the given doctors at every hospital scheduled on or after the given date and
+     * time.
+     *
+     * @param doctorIds the ids of the doctors.
+     * @param from      the earliest session date and time to include.
+     * @return the session counts per doctor and hospital.
+     */
+    @Query("SELECT s.doctorId AS doctorId, s.hospitalId AS hospitalId, COUNT(s) AS sessions FROM DoctorSession s " +
+            "WHERE s.doctorId IN :doctorIds AND s.sessionDateTime >= :from GROUP BY s.doctorId, s.hospitalId")
+    List<DoctorHospitalSessions> countDoctorHospitalSessionsFrom(@Param("doctorIds") Collection<Integer> doctorIds,
+                                                                 @Param("from") LocalDateTime from);
+
+    /**
+     * Projection of the capacity of a doctor session.
+     */
+    interface SessionCapacity {
+
+        Long getId();
+
+        int getMaxPatients();
+    }
+
+    /**
+     * Projection of the number of sessions of a doctor at a hospital.
+     */
+    interface DoctorHospitalSessions {
+
+        Integer getDoctorId();
+
+        Integer getHospitalId();
+
+        Long getSessions();
+    }
 }
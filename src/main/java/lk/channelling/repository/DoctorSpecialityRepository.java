@@ -19,8 +19,13 @@ import lk.channelling.entity.DoctorSpeciality;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface DoctorSpecialityRepository extends JpaRepository<DoctorSpeciality, Long> {
 
+    List<DoctorSpeciality> findByDoctorId(Long doctorId);
 
+    List<DoctorSpeciality> findByDoctorIdIn(Collection<Long> doctorIds);
 }
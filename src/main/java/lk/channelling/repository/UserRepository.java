@@ -2,12 +2,38 @@ package lk.channelling.repository;
 
 import lk.channelling.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByName(String name);
+
+    Optional<User> findByUsername(String username);
+
+    /**
+     * Returns the number of roles with the given name held by the user.
+     *
+     * @param username the username of the user.
+     * @param role     the name of the role.
+     * @return {@code 0} if the user does not hold the role.
+     */
+    @Query(value = "SELECT COUNT(*) FROM user u JOIN user_role ur ON ur.user_id = u.id JOIN role r ON r.id = ur.role_id " +
+            "WHERE u.username = :username AND r.name = :role", nativeQuery = true)
+    long countRoles(@Param("username") String username, @Param("role") String role);
+
+    /**
+     * Returns the users holding the given role which have no password yet.
+     *
+     * @param role the name of the role.
+     * @return the users.
+     */
+    @Query(value = "SELECT u.* FROM user u JOIN user_role ur ON ur.user_id = u.id JOIN role r ON r.id = ur.role_id " +
+            "WHERE r.name = :role AND u.password IS NULL", nativeQuery = true)
+    List<User> findWithoutPassword(@Param("role") String role);
 }
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.resources;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Filters of the doctor session availability search. Every filter except the date window is optional.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class AvailabilitySearch {
+    private Integer doctorId;
+    private Integer hospitalId;
+    private Long cityId;
+    private Long specializationId;
+    private LocalDate from;
+    private LocalDate to;
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.resources;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summary of the application metrics: the slowest controller and repository methods by p99 latency, the database
+ * connection pool, the booking counters and the cache hit ratios.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class MetricsDashboard {
+    private LocalDateTime generatedAt;
+    private List<TimerSummary> controllers;
+    private List<TimerSummary> repositories;
+    private Map<String, Double> connectionPool;
+    private Map<String, Double> booking;
+    private List<CacheStatistics> caches;
+}
@@ -31,4 +31,5 @@ public class PageArray {
     private int recordsFiltered;
     private int recordsTotal;
     private int draw;
+    private String nextCursor;
 }
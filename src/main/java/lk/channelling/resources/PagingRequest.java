@@ -32,4 +32,5 @@ public class PagingRequest {
     private List<Column> columns;
     private List<Order> order;
     private Search search;
+    private String cursor;
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.resources;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Statistics of a reference data cache, including the version and build time of its current snapshot.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@ToString(callSuper = true)
+public class ReferenceDataStatistics extends CacheStatistics {
+    private long version;
+    private long buildMillis;
+    private LocalDateTime builtAt;
+
+    public ReferenceDataStatistics(String name, long size, long hits, long misses, long version, long buildMillis, LocalDateTime builtAt) {
+        super(name, size, hits, misses);
+        this.version = version;
+        this.buildMillis = buildMillis;
+        this.builtAt = builtAt;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.resources;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a doctor session which still has free slots.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class SessionAvailability {
+    private Long sessionId;
+    private int doctorId;
+    private String doctorName;
+    private int hospitalId;
+    private String hospitalName;
+    private Long cityId;
+    private LocalDateTime sessionDateTime;
+    private int maxPatients;
+    private int remainingSlots;
+    private double totalFee;
+
+    public SessionAvailability(Long sessionId, int doctorId, String doctorName, int hospitalId, String hospitalName,
+                               Long cityId, LocalDateTime sessionDateTime, int maxPatients, int bookedPatients,
+                               double totalFee) {
+        this.sessionId = sessionId;
+        this.doctorId = doctorId;
+        this.doctorName = doctorName;
+        this.hospitalId = hospitalId;
+        this.hospitalName = hospitalName;
+        this.cityId = cityId;
+        this.sessionDateTime = sessionDateTime;
+        this.maxPatients = maxPatients;
+        this.remainingSlots = maxPatients - bookedPatients;
+        this.totalFee = totalFee;
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.search;
+
+import lk.channelling.entity.Doctor;
+import lk.channelling.entity.Hospital;
+import lk.channelling.enums.Status;
+import lk.channelling.exception.InvalidRequestException;
+import lk.channelling.repository.DoctorRepository;
+import lk.channelling.repository.HospitalRepository;
+import lk.channelling.resources.ApiResponse;
+import lk.channelling.resources.ApiResponseItem;
+import lk.channelling.util.TransactionUtil;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Name autocomplete of the active doctors and hospitals.
+ *
+ * <p>Doctors are found by their display name and by their first and last names, hospitals by their name and display
+ * name. The indexes are loaded on startup and then maintained from the doctor and hospital services once their
+ * transactions commit.</p>
+ *
+ * <p>A rebuild records the doctors and hospitals changed while it reads the tables, and reads those rows again once the
+ * loaded indexes are in place, so a change committed during the rebuild is never overwritten by the stale row.</p>
+ */
+@Component
+@Log4j2
+public class AutocompleteIndex {
+
+    public static final int MAX_LIMIT = 50;
+
+    private final SuggestionIndex doctors = new SuggestionIndex("doctors");
+
+    private final SuggestionIndex hospitals = new SuggestionIndex("hospitals");
+
+    private final DoctorRepository doctorRepository;
+
+    private final HospitalRepository hospitalRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Object rebuildLock = new Object();
+
+    private Set<Long> changedDoctors;
+
+    private Set<Long> changedHospitals;
+
+    @Autowired
+    public AutocompleteIndex(DoctorRepository doctorRepository, HospitalRepository hospitalRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.doctorRepository = doctorRepository;
+        this.hospitalRepository = hospitalRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Loads both indexes from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long startTime = System.currentTimeMillis();
+            synchronized (this) {
+                changedDoctors = new HashSet<>();
+                changedHospitals = new HashSet<>();
+            }
+
+            try {
+                List<SearchDocument> loadedDoctors = transactionTemplate.execute(status -> doctorRepository.findAll().stream()
+                        .filter(doctor -> doctor.getStatus() == Status.ACTIVE).map(AutocompleteIndex::document).toList());
+                List<SearchDocument> loadedHospitals = transactionTemplate.execute(status -> hospitalRepository.findAll().stream()
+                        .filter(hospital -> hospital.getStatus() == Status.ACTIVE).map(AutocompleteIndex::document).toList());
+
+                Set<Long> doctorIds;
+                Set<Long> hospitalIds;
+                synchronized (this) {
+                    doctors.load(loadedDoctors);
+                    hospitals.load(loadedHospitals);
+                    doctorIds = changedDoctors;
+                    hospitalIds = changedHospitals;
+                    changedDoctors = new HashSet<>();
+                    changedHospitals = new HashSet<>();
+                }
+
+                int reloaded = 0;
+                while (!doctorIds.isEmpty() || !hospitalIds.isEmpty()) {
+                    reload(doctorIds, hospitalIds);
+                    reloaded += doctorIds.size() + hospitalIds.size();
+                    synchronized (this) {
+                        doctorIds = changedDoctors;
+                        hospitalIds = changedHospitals;
+                        changedDoctors = new HashSet<>();
+                        changedHospitals = new HashSet<>();
+                    }
+                }
+
+                log.info("Loaded the autocomplete indexes with {} doctors and {} hospitals in {} ms, reloading {} changed rows",
+                        doctors.size(), hospitals.size(), System.currentTimeMillis() - startTime, reloaded);
+            } finally {
+                synchronized (this) {
+                    changedDoctors = null;
+                    changedHospitals = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the doctors best matching the typed text.
+     *
+     * @param query the typed text.
+     * @param fuzzy whether names with one typo are matched as well.
+     * @param limit the maximum number of results, at most {@value #MAX_LIMIT}.
+     * @return the matches in the dropdown format, the value of an item being the doctor id.
+     */
+    public ApiResponse suggestDoctors(String query, boolean fuzzy, int limit) {
+        return suggest(doctors, query, fuzzy, limit);
+    }
+
+    /**
+     * Returns the hospitals best matching the typed text.
+     *
+     * @param query the typed text.
+     * @param fuzzy whether names with one typo are matched as well.
+     * @param limit the maximum number of results, at most {@value #MAX_LIMIT}.
+     * @return the matches in the dropdown format, the value of an item being the hospital id.
+     */
+    public ApiResponse suggestHospitals(String query, boolean fuzzy, int limit) {
+        return suggest(hospitals, query, fuzzy, limit);
+    }
+
+    public void doctorSaved(Doctor doctor) {
+        TransactionUtil.afterCommit(() -> doctorChanged(doctor.getId(), doctor));
+    }
+
+    public void doctorDeleted(long doctorId) {
+        TransactionUtil.afterCommit(() -> doctorChanged(doctorId, null));
+    }
+
+    public void hospitalSaved(Hospital hospital) {
+        TransactionUtil.afterCommit(() -> hospitalChanged(hospital.getId(), hospital));
+    }
+
+    public void hospitalDeleted(long hospitalId) {
+        TransactionUtil.afterCommit(() -> hospitalChanged(hospitalId, null));
+    }
+
+    /**
+     * Applies the committed state of a doctor, {@code null} if it was deleted, and records it for a running rebuild.
+     */
+    private synchronized void doctorChanged(long doctorId, Doctor doctor) {
+        if (changedDoctors != null) changedDoctors.add(doctorId);
+        applyDoctor(doctorId, doctor);
+    }
+
+    /**
+     * Applies the committed state of a hospital, {@code null} if it was deleted, and records it for a running rebuild.
+     */
+    private synchronized void hospitalChanged(long hospitalId, Hospital hospital) {
+        if (changedHospitals != null) changedHospitals.add(hospitalId);
+        applyHospital(hospitalId, hospital);
+    }
+
+    /**
+     * Reads the given doctors and hospitals again and applies their current state.
+     */
+    private void reload(Set<Long> doctorIds, Set<Long> hospitalIds) {
+        Map<Long, Doctor> reloadedDoctors = new HashMap<>();
+        Map<Long, Hospital> reloadedHospitals = new HashMap<>();
+        doctorIds.forEach(doctorId -> reloadedDoctors.put(doctorId, null));
+        hospitalIds.forEach(hospitalId -> reloadedHospitals.put(hospitalId, null));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!doctorIds.isEmpty())
+                doctorRepository.findAllById(doctorIds).forEach(doctor -> reloadedDoctors.put(doctor.getId(), doctor));
+            if (!hospitalIds.isEmpty())
+                hospitalRepository.findAllById(hospitalIds).forEach(hospital -> reloadedHospitals.put(hospital.getId(), hospital));
+        });
+
+        synchronized (this) {
+            reloadedDoctors.forEach(this::applyDoctor);
+            reloadedHospitals.forEach(this::applyHospital);
+        }
+    }
+
+    private void applyDoctor(long doctorId, Doctor doctor) {
+        if (doctor != null && doctor.getStatus() == Status.ACTIVE) doctors.put(document(doctor));
+        else doctors.remove(doctorId);
+    }
+
+    private void applyHospital(long hospitalId, Hospital hospital) {
+        if (hospital != null && hospital.getStatus() == Status.ACTIVE) hospitals.put(document(hospital));
+        else hospitals.remove(hospitalId);
+    }
+
+    private static ApiResponse suggest(SuggestionIndex index, String query, boolean fuzzy, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT)
+            throw new InvalidRequestException("The limit must be between 1 and " + MAX_LIMIT + ".");
+
+        List<ApiResponseItem> items = index.suggest(query, fuzzy, limit).stream()
+                .map(document -> new ApiResponseItem(document.getLabel(), Long.toString(document.getId()),
+                        document.getLabel()))
+                .toList();
+        return new ApiResponse(true, items);
+    }
+
+    static SearchDocument document(Doctor doctor) {
+        String fullName = doctor.getFirstName() + " " + doctor.getLastName();
+        String label = doctor.getDisplayName() == null ? fullName : doctor.getDisplayName();
+        return new SearchDocument(doctor.getId(), label, doctor.getDisplayName(), fullName);
+    }
+
+    static SearchDocument document(Hospital hospital) {
+        String label = hospital.getDisplayName() == null ? hospital.getName() : hospital.getDisplayName();
+        return new SearchDocument(hospital.getId(), label, hospital.getName(), hospital.getDisplayName());
+    }
+}
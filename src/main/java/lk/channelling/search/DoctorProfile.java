@@ -0,0 +1,205 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.search;
+
+import lk.channelling.entity.Doctor;
+import lk.channelling.enums.Status;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Everything the doctor search knows about one doctor: the name terms, the city, the specializations, the hospitals
+ * the doctor holds sessions at and the rating totals.
+ *
+ * <p>Profiles are immutable, every change returns a new profile. Specializations and hospitals are kept as counts of
+ * the rows linking them to the doctor, so removing one of two identical rows keeps the link. The ids are also kept
+ * as sorted arrays, as every search checks them for each candidate doctor.</p>
+ */
+final class DoctorProfile {
+
+    private final long id;
+
+    private final String name;
+
+    private final boolean active;
+
+    private final Long cityId;
+
+    private final Set<String> terms;
+
+    private final Map<Long, Integer> specializations;
+
+    private final Map<Long, Integer> hospitals;
+
+    private final long ratingSum;
+
+    private final long ratingCount;
+
+    private final long[] specializationIds;
+
+    private final long[] hospitalIds;
+
+    private final int sessionCount;
+
+    private DoctorProfile(long id, String name, boolean active, Long cityId, Set<String> terms,
+                          Map<Long, Integer> specializations, Map<Long, Integer> hospitals, long ratingSum,
+                          long ratingCount) {
+        this.id = id;
+        this.name = name;
+        this.active = active;
+        this.cityId = cityId;
+        this.terms = terms;
+        this.specializations = specializations;
+        this.hospitals = hospitals;
+        this.ratingSum = ratingSum;
+        this.ratingCount = ratingCount;
+        this.specializationIds = sortedKeys(specializations);
+        this.hospitalIds = sortedKeys(hospitals);
+
+        int sessions = 0;
+        for (int count : hospitals.values()) sessions += count;
+        this.sessionCount = sessions;
+    }
+
+    /**
+     * Returns the profile of a doctor which is not loaded yet. It is not searchable until the doctor is applied.
+     */
+    static DoctorProfile empty(long id) {
+        return new DoctorProfile(id, null, false, null, Set.of(), Map.of(), Map.of(), 0, 0);
+    }
+
+    DoctorProfile withDoctor(Doctor doctor) {
+        String fullName = doctor.getFirstName() + " " + doctor.getLastName();
+        Set<String> nameTerms = new LinkedHashSet<>();
+        for (String name : new String[]{doctor.getDisplayName(), fullName}) {
+            String normalized = SearchDocument.normalize(name);
+            if (!normalized.isEmpty()) Collections.addAll(nameTerms, normalized.split(" "));
+        }
+
+        return new DoctorProfile(id, doctor.getDisplayName() == null ? fullName : doctor.getDisplayName(),
+                doctor.getStatus() == Status.ACTIVE, doctor.getCityId(), Set.copyOf(nameTerms), specializations,
+                hospitals, ratingSum, ratingCount);
+    }
+
+    DoctorProfile withoutDoctor() {
+        return new DoctorProfile(id, null, false, null, Set.of(), specializations, hospitals, ratingSum, ratingCount);
+    }
+
+    DoctorProfile withSpecialization(long specializationId, int delta) {
+        return new DoctorProfile(id, name, active, cityId, terms, adjusted(specializations, specializationId, delta),
+                hospitals, ratingSum, ratingCount);
+    }
+
+    DoctorProfile withHospital(long hospitalId, int delta) {
+        return new DoctorProfile(id, name, active, cityId, terms, specializations,
+                adjusted(hospitals, hospitalId, delta), ratingSum, ratingCount);
+    }
+
+    DoctorProfile withRating(long sumDelta, long countDelta) {
+        return new DoctorProfile(id, name, active, cityId, terms, specializations, hospitals,
+                Math.max(ratingSum + sumDelta, 0), Math.max(ratingCount + countDelta, 0));
+    }
+
+    long getId() {
+        return id;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    boolean isActive() {
+        return active;
+    }
+
+    Long getCityId() {
+        return cityId;
+    }
+
+    Set<String> getTerms() {
+        return terms;
+    }
+
+    Set<Long> getSpecializationIds() {
+        return specializations.keySet();
+    }
+
+    Set<Long> getHospitalIds() {
+        return hospitals.keySet();
+    }
+
+    /**
+     * Returns the ids of the hospitals the doctor holds sessions at, in ascending order. The array must not be
+     * modified.
+     */
+    long[] hospitalIds() {
+        return hospitalIds;
+    }
+
+    /**
+     * Returns whether the doctor has any of the specializations.
+     *
+     * @param ids the ids of the specializations in ascending order.
+     * @return whether any of them is a specialization of the doctor.
+     */
+    boolean hasAnySpecialization(long[] ids) {
+        for (long specializationId : specializationIds) {
+            if (Arrays.binarySearch(ids, specializationId) >= 0) return true;
+        }
+        return false;
+    }
+
+    int getSessionCount() {
+        return sessionCount;
+    }
+
+    long getRatingCount() {
+        return ratingCount;
+    }
+
+    double getAverageRating() {
+        return ratingCount == 0 ? 0 : (double) ratingSum / ratingCount;
+    }
+
+    /**
+     * Returns the average rating pulled towards the prior by the given weight, so a doctor with a single five star
+     * rating does not outrank one with hundreds of four and a half star ratings.
+     */
+    double getWeightedRating(double prior, double priorWeight) {
+        return (ratingSum + prior * priorWeight) / (ratingCount + priorWeight);
+    }
+
+    private static long[] sortedKeys(Map<Long, Integer> counts) {
+        long[] keys = new long[counts.size()];
+        int i = 0;
+        for (long key : counts.keySet()) keys[i++] = key;
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    private static Map<Long, Integer> adjusted(Map<Long, Integer> counts, long key, int delta) {
+        Map<Long, Integer> adjusted = new HashMap<>(counts);
+        int count = adjusted.getOrDefault(key, 0) + delta;
+        if (count > 0) adjusted.put(key, count);
+        else adjusted.remove(key);
+        return Collections.unmodifiableMap(adjusted);
+    }
+}
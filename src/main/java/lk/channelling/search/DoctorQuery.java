@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.search;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A free text doctor search split into what it asks for: the specializations, the place and the name terms.
+ * A {@code null} set means the query does not restrict that dimension.
+ */
+final class DoctorQuery {
+
+    private final Set<Long> specializationIds;
+
+    private final Set<Long> cityIds;
+
+    private final Set<Long> nearbyCityIds;
+
+    private final List<String> nameTerms;
+
+    /**
+     * Creates the query.
+     *
+     * @param specializationIds the ids of the specializations asked for.
+     * @param cityIds           the ids of the cities matching the place asked for.
+     * @param nearbyCityIds     the ids of the cities matching the place or lying in the same state as one.
+     * @param nameTerms         the normalized words of the doctor name.
+     */
+    DoctorQuery(Set<Long> specializationIds, Set<Long> cityIds, Set<Long> nearbyCityIds, List<String> nameTerms) {
+        this.specializationIds = specializationIds;
+        this.cityIds = cityIds;
+        this.nearbyCityIds = nearbyCityIds;
+        this.nameTerms = nameTerms;
+    }
+
+    Set<Long> getSpecializationIds() {
+        return specializationIds;
+    }
+
+    Set<Long> getCityIds() {
+        return cityIds;
+    }
+
+    Set<Long> getNearbyCityIds() {
+        return nearbyCityIds;
+    }
+
+    List<String> getNameTerms() {
+        return nameTerms;
+    }
+
+    boolean isEmpty() {
+        return specializationIds == null && nearbyCityIds == null && nameTerms.isEmpty();
+    }
+}
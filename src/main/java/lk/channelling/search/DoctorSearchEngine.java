@@ -0,0 +1,608 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.search;
+
+import lk.channelling.entity.Doctor;
+import lk.channelling.entity.Hospital;
+import lk.channelling.enums.Status;
+import lk.channelling.exception.InvalidRequestException;
+import lk.channelling.repository.DoctorRatingRepository;
+import lk.channelling.repository.DoctorRepository;
+import lk.channelling.repository.DoctorSessionRepository;
+import lk.channelling.repository.DoctorSpecialityRepository;
+import lk.channelling.repository.HospitalRepository;
+import lk.channelling.resources.DoctorSearchResult;
+import lk.channelling.resources.Page;
+import lk.channelling.util.TransactionUtil;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Free text doctor search ranked by specialization, location, name and rating, answered from memory.
+ *
+ * <p>Every doctor has a {@link DoctorProfile}, and inverted indexes map each specialization, hospital, city and name
+ * word to the doctors having it. A search is interpreted by the {@link QueryInterpreter}, the smallest of the
+ * matching postings is taken as the candidates, and each candidate is checked against the whole query and scored:</p>
+ * <ul>
+ *     <li>a requested specialization adds {@value #SPECIALIZATION_WEIGHT},</li>
+ *     <li>practising in the requested city, either from the own city or a hospital holding sessions of the doctor,
+ *     adds {@value #CITY_WEIGHT}, and in another city of the same state {@value #NEARBY_WEIGHT},</li>
+ *     <li>every name word adds {@value #NAME_WEIGHT} when it starts a word of the name, or {@value #NAME_TYPO_WEIGHT}
+ *     when it does so with one typo,</li>
+ *     <li>the average rating, pulled towards {@value #PRIOR_RATING} as if the doctor had {@value #PRIOR_WEIGHT}
+ *     more ratings of that value, adds {@value #RATING_WEIGHT} per star,</li>
+ *     <li>the sessions held in the recent past add up to {@value #ACTIVITY_WEIGHT}.</li>
+ * </ul>
+ * <p>The best results are kept in a heap bounded by the end of the requested page.</p>
+ *
+ * <p>The indexes are loaded on startup and every night, and in between maintained from the doctor, hospital,
+ * specialization, rating and session services once their transactions commit. Only the sessions scheduled in the
+ * configured history window are counted.</p>
+ */
+@Component
+@Log4j2
+public class DoctorSearchEngine {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final double SPECIALIZATION_WEIGHT = 4;
+
+    private static final double CITY_WEIGHT = 3;
+
+    private static final double NEARBY_WEIGHT = 1.5;
+
+    private static final double NAME_WEIGHT = 2;
+
+    private static final double NAME_TYPO_WEIGHT = 1;
+
+    private static final double RATING_WEIGHT = 0.6;
+
+    private static final double PRIOR_RATING = 3.5;
+
+    private static final double PRIOR_WEIGHT = 5;
+
+    private static final double ACTIVITY_WEIGHT = 0.5;
+
+    private static final int ACTIVITY_SESSIONS = 50;
+
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private static final char[] ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+
+    private static final Comparator<Match> RANKING = Comparator.comparingDouble((Match match) -> match.score).reversed()
+            .thenComparingLong(match -> match.profile.getId());
+
+    private final DoctorRepository doctorRepository;
+
+    private final HospitalRepository hospitalRepository;
+
+    private final DoctorSpecialityRepository doctorSpecialityRepository;
+
+    private final DoctorRatingRepository doctorRatingRepository;
+
+    private final DoctorSessionRepository doctorSessionRepository;
+
+    private final QueryInterpreter queryInterpreter;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Object rebuildLock = new Object();
+
+    @Value("${application.search.session-history-days:180}")
+    private int sessionHistoryDays;
+
+    private volatile Indexes indexes = new Indexes();
+
+    private Set<Long> changedDoctors;
+
+    private Set<Long> changedHospitals;
+
+    @Autowired
+    public DoctorSearchEngine(DoctorRepository doctorRepository, HospitalRepository hospitalRepository,
+                              DoctorSpecialityRepository doctorSpecialityRepository,
+                              DoctorRatingRepository doctorRatingRepository,
+                              DoctorSessionRepository doctorSessionRepository, QueryInterpreter queryInterpreter,
+                              PlatformTransactionManager transactionManager) {
+        this.doctorRepository = doctorRepository;
+        this.hospitalRepository = hospitalRepository;
+        this.doctorSpecialityRepository = doctorSpecialityRepository;
+        this.doctorRatingRepository = doctorRatingRepository;
+        this.doctorSessionRepository = doctorSessionRepository;
+        this.queryInterpreter = queryInterpreter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Loads the indexes from the database and swaps them in.
+     *
+     * <p>The changes committed while the indexes are loading may or may not be part of what was read, so their
+     * deltas cannot simply be applied to the loaded indexes. Instead the doctors and hospitals they touch are
+     * recorded, and after the swap they are read again from the database, until no more changes arrive in between.</p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${application.search.rebuild-cron:0 15 0 * * *}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long startTime = System.currentTimeMillis();
+            synchronized (this) {
+                changedDoctors = new HashSet<>();
+                changedHospitals = new HashSet<>();
+            }
+
+            try {
+                Indexes loaded = new Indexes();
+                transactionTemplate.executeWithoutResult(status -> {
+                    hospitalRepository.findAll().forEach(hospital -> loaded.hospitalChanged(hospital.getId(), cityOf(hospital)));
+                    doctorRepository.findAll().forEach(doctor -> loaded.update(doctor.getId(), profile -> profile.withDoctor(doctor)));
+                    doctorSpecialityRepository.findAll().forEach(speciality -> loaded.update(speciality.getDoctorId(),
+                            profile -> profile.withSpecialization(speciality.getSpecialityId(), 1)));
+                    doctorRatingRepository.findRatingTotals().forEach(total -> loaded.update(total.getDoctorId(),
+                            profile -> profile.withRating(total.getRatingSum(), total.getRatingCount())));
+                    doctorSessionRepository.countDoctorHospitalSessionsFrom(historyStart()).forEach(count ->
+                            loaded.update(count.getDoctorId() == null ? null : count.getDoctorId().longValue(),
+                                    profile -> profile.withHospital(count.getHospitalId(), count.getSessions().intValue())));
+                });
+
+                Set<Long> doctorIds;
+                Set<Long> hospitalIds;
+                synchronized (this) {
+                    indexes = loaded;
+                    doctorIds = changedDoctors;
+                    hospitalIds = changedHospitals;
+                    changedDoctors = new HashSet<>();
+                    changedHospitals = new HashSet<>();
+                }
+
+                int reloaded = 0;
+                while (!doctorIds.isEmpty() || !hospitalIds.isEmpty()) {
+                    reload(doctorIds, hospitalIds);
+                    reloaded += doctorIds.size() + hospitalIds.size();
+                    synchronized (this) {
+                        doctorIds = changedDoctors;
+                        hospitalIds = changedHospitals;
+                        changedDoctors = new HashSet<>();
+                        changedHospitals = new HashSet<>();
+                    }
+                }
+
+                log.info("Loaded the doctor search indexes with {} doctors and {} name words in {} ms, reloading {} changed rows",
+                        loaded.profiles.size(), loaded.doctorsByNameTerm.size(), System.currentTimeMillis() - startTime, reloaded);
+            } finally {
+                synchronized (this) {
+                    changedDoctors = null;
+                    changedHospitals = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Searches the active doctors.
+     *
+     * @param text             the search text, such as {@code "cardiologist near kandy"}.
+     * @param specializationId the id of a specialization the doctors must have, ignored when {@code null}.
+     * @param cityId           the id of a city the doctors must practise in, ignored when {@code null}.
+     * @param page             the zero based page number.
+     * @param size             the page size, at most {@value #MAX_PAGE_SIZE}.
+     * @return the page of doctors, best first, with the total number of matching doctors.
+     */
+    public Page<DoctorSearchResult> search(String text, Long specializationId, Long cityId, int page, int size) {
+        if (page < 0) throw new InvalidRequestException("The page must not be negative.");
+        if (size < 1 || size > MAX_PAGE_SIZE)
+            throw new InvalidRequestException("The size must be between 1 and " + MAX_PAGE_SIZE + ".");
+
+        Indexes current = indexes;
+        DoctorQuery query = restrict(queryInterpreter.interpret(text, current.doctorsByNameTerm::containsKey),
+                specializationId, cityId);
+
+        Criteria criteria = new Criteria(query);
+        int wanted = (int) Math.min((long) (page + 1) * size, Integer.MAX_VALUE);
+        PriorityQueue<Match> best = new PriorityQueue<>(Math.min(wanted, 1024) + 1, RANKING.reversed());
+        int matched = 0;
+        for (Long doctorId : candidates(current, query)) {
+            DoctorProfile profile = current.profiles.get(doctorId);
+            double score = profile == null ? -1 : score(current, profile, criteria);
+            if (score < 0) continue;
+
+            matched++;
+            best.offer(new Match(profile, score));
+            if (best.size() > wanted) best.poll();
+        }
+
+        List<Match> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        List<DoctorSearchResult> results = new ArrayList<>(size);
+        for (long i = (long) page * size; i < ranked.size(); i++) results.add(result(ranked.get((int) i)));
+
+        Page<DoctorSearchResult> resultPage = new Page<>(results);
+        resultPage.setRecordsTotal(matched);
+        resultPage.setRecordsFiltered(matched);
+        return resultPage;
+    }
+
+    public void doctorSaved(Doctor doctor) {
+        TransactionUtil.afterCommit(() -> update(doctor.getId(), profile -> profile.withDoctor(doctor)));
+    }
+
+    public void doctorDeleted(long doctorId) {
+        TransactionUtil.afterCommit(() -> update(doctorId, DoctorProfile::withoutDoctor));
+    }
+
+    public void hospitalSaved(Hospital hospital) {
+        TransactionUtil.afterCommit(() -> hospitalChanged(hospital.getId(), cityOf(hospital)));
+    }
+
+    public void hospitalDeleted(long hospitalId) {
+        TransactionUtil.afterCommit(() -> hospitalChanged(hospitalId, null));
+    }
+
+    public void specializationAdded(Long doctorId, Long specializationId) {
+        if (specializationId == null) return;
+        TransactionUtil.afterCommit(() -> update(doctorId, profile -> profile.withSpecialization(specializationId, 1)));
+    }
+
+    public void specializationRemoved(Long doctorId, Long specializationId) {
+        if (specializationId == null) return;
+        TransactionUtil.afterCommit(() -> update(doctorId, profile -> profile.withSpecialization(specializationId, -1)));
+    }
+
+    public void ratingAdded(Long doctorId, int rating) {
+        TransactionUtil.afterCommit(() -> update(doctorId, profile -> profile.withRating(rating, 1)));
+    }
+
+    public void ratingRemoved(Long doctorId, int rating) {
+        TransactionUtil.afterCommit(() -> update(doctorId, profile -> profile.withRating(-rating, -1)));
+    }
+
+    public void sessionAdded(int doctorId, int hospitalId, LocalDateTime sessionDateTime) {
+        sessionChanged(doctorId, hospitalId, sessionDateTime, 1);
+    }
+
+    public void sessionRemoved(int doctorId, int hospitalId, LocalDateTime sessionDateTime) {
+        sessionChanged(doctorId, hospitalId, sessionDateTime, -1);
+    }
+
+    private void sessionChanged(int doctorId, int hospitalId, LocalDateTime sessionDateTime, int delta) {
+        if (sessionDateTime == null || sessionDateTime.isBefore(historyStart())) return;
+        TransactionUtil.afterCommit(() -> update((long) doctorId, profile -> profile.withHospital(hospitalId, delta)));
+    }
+
+    private synchronized void update(Long doctorId, UnaryOperator<DoctorProfile> change) {
+        if (changedDoctors != null && doctorId != null) changedDoctors.add(doctorId);
+        indexes.update(doctorId, change);
+    }
+
+    private synchronized void hospitalChanged(long hospitalId, Long cityId) {
+        if (changedHospitals != null) changedHospitals.add(hospitalId);
+        indexes.hospitalChanged(hospitalId, cityId);
+    }
+
+    /**
+     * Replaces the profiles of the doctors and the cities of the hospitals with their current rows.
+     */
+    private void reload(Set<Long> doctorIds, Set<Long> hospitalIds) {
+        Map<Long, DoctorProfile> profiles = new HashMap<>();
+        Map<Long, Long> hospitalCities = new HashMap<>();
+        doctorIds.forEach(doctorId -> profiles.put(doctorId, DoctorProfile.empty(doctorId)));
+        hospitalIds.forEach(hospitalId -> hospitalCities.put(hospitalId, null));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!hospitalIds.isEmpty())
+                hospitalRepository.findAllById(hospitalIds).forEach(hospital -> hospitalCities.put(hospital.getId(), cityOf(hospital)));
+            if (doctorIds.isEmpty()) return;
+
+            doctorRepository.findAllById(doctorIds).forEach(doctor -> profiles.computeIfPresent(doctor.getId(),
+                    (doctorId, profile) -> profile.withDoctor(doctor)));
+            doctorSpecialityRepository.findByDoctorIdIn(doctorIds).forEach(speciality -> profiles.computeIfPresent(
+                    speciality.getDoctorId(), (doctorId, profile) -> profile.withSpecialization(speciality.getSpecialityId(), 1)));
+            doctorRatingRepository.findRatingTotals(doctorIds).forEach(total -> profiles.computeIfPresent(total.getDoctorId(),
+                    (doctorId, profile) -> profile.withRating(total.getRatingSum(), total.getRatingCount())));
+            List<Integer> sessionDoctorIds = doctorIds.stream().map(Long::intValue).toList();
+            doctorSessionRepository.countDoctorHospitalSessionsFrom(sessionDoctorIds, historyStart()).forEach(count ->
+                    profiles.computeIfPresent(count.getDoctorId().longValue(),
+                            (doctorId, profile) -> profile.withHospital(count.getHospitalId(), count.getSessions().intValue())));
+        });
+
+        synchronized (this) {
+            hospitalCities.forEach((hospitalId, cityId) -> indexes.hospitalChanged(hospitalId, cityId));
+            profiles.forEach((doctorId, profile) -> indexes.update(doctorId, previous -> profile));
+        }
+    }
+
+    private LocalDateTime historyStart() {
+        return LocalDate.now().minusDays(sessionHistoryDays).atStartOfDay();
+    }
+
+    /**
+     * Applies the specialization and city filters given next to the search text. A filter overrides the place found
+     * in the text, and a specialization filter outside of the specializations found in the text matches nothing.
+     */
+    private static DoctorQuery restrict(DoctorQuery query, Long specializationId, Long cityId) {
+        Set<Long> specializationIds = query.getSpecializationIds();
+        if (specializationId != null) {
+            boolean requested = specializationIds == null || specializationIds.contains(specializationId);
+            specializationIds = requested ? Set.of(specializationId) : Set.of();
+        }
+        if (cityId == null) {
+            return new DoctorQuery(specializationIds, query.getCityIds(), query.getNearbyCityIds(), query.getNameTerms());
+        }
+        return new DoctorQuery(specializationIds, Set.of(cityId), Set.of(cityId), query.getNameTerms());
+    }
+
+    /**
+     * Returns the smallest of the postings of the specializations, the place and the longest name word, or every
+     * doctor if the query has none of them. The postings of a dimension are only merged once they are known to be
+     * the smallest, judging by the sum of their sizes.
+     */
+    private static Collection<Long> candidates(Indexes current, DoctorQuery query) {
+        List<Set<Long>> smallest = null;
+
+        if (query.getSpecializationIds() != null) {
+            List<Set<Long>> postings = new ArrayList<>();
+            for (Long specializationId : query.getSpecializationIds()) {
+                Set<Long> doctors = current.doctorsBySpecialization.get(specializationId);
+                if (doctors != null) postings.add(doctors);
+            }
+            smallest = postings;
+        }
+
+        if (query.getNearbyCityIds() != null) {
+            List<Set<Long>> postings = new ArrayList<>();
+            for (Long cityId : query.getNearbyCityIds()) {
+                Set<Long> doctors = current.doctorsByCity.get(cityId);
+                if (doctors != null) postings.add(doctors);
+                for (Long hospitalId : current.hospitalsByCity.getOrDefault(cityId, Set.of())) {
+                    Set<Long> hospitalDoctors = current.doctorsByHospital.get(hospitalId);
+                    if (hospitalDoctors != null) postings.add(hospitalDoctors);
+                }
+            }
+            smallest = smaller(smallest, postings);
+        }
+
+        String longest = query.getNameTerms().stream().max(Comparator.comparingInt(String::length)).orElse(null);
+        if (longest != null) smallest = smaller(smallest, List.of(doctorsByName(current, longest)));
+
+        return smallest == null ? current.profiles.keySet() : union(smallest);
+    }
+
+    /**
+     * Returns the doctors having a name word starting with the term, or with the term with one typo in it.
+     */
+    private static Set<Long> doctorsByName(Indexes current, String term) {
+        Set<Long> doctors = new HashSet<>();
+        collect(current.doctorsByNameTerm, term, doctors);
+        if (term.length() >= MIN_FUZZY_LENGTH) {
+            for (String variant : PrefixIndex.variants(term, ALPHABET)) collect(current.doctorsByNameTerm, variant, doctors);
+        }
+        return doctors;
+    }
+
+    private static void collect(ConcurrentNavigableMap<String, Set<Long>> postings, String prefix, Set<Long> doctors) {
+        postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values().forEach(doctors::addAll);
+    }
+
+    private static Collection<Long> union(List<Set<Long>> postings) {
+        if (postings.size() == 1) return postings.get(0);
+
+        Set<Long> union = new HashSet<>();
+        postings.forEach(union::addAll);
+        return union;
+    }
+
+    private static List<Set<Long>> smaller(List<Set<Long>> first, List<Set<Long>> second) {
+        return first == null || size(second) < size(first) ? second : first;
+    }
+
+    private static long size(List<Set<Long>> postings) {
+        long size = 0;
+        for (Set<Long> doctors : postings) size += doctors.size();
+        return size;
+    }
+
+    /**
+     * Scores the doctor, or returns {@code -1} if the doctor does not match the query.
+     */
+    private static double score(Indexes current, DoctorProfile profile, Criteria criteria) {
+        if (!profile.isActive()) return -1;
+
+        double score = 0;
+        if (criteria.specializationIds != null) {
+            if (!profile.hasAnySpecialization(criteria.specializationIds)) return -1;
+            score += SPECIALIZATION_WEIGHT;
+        }
+
+        if (criteria.nearbyCityIds != null) {
+            double location = locationScore(profile.getCityId(), criteria);
+            for (long hospitalId : profile.hospitalIds()) {
+                if (location == CITY_WEIGHT) break;
+                location = Math.max(location, locationScore(current.hospitalCities.get(hospitalId), criteria));
+            }
+            if (location == 0) return -1;
+            score += location;
+        }
+
+        for (String term : criteria.nameTerms) {
+            double name = nameScore(profile, term);
+            if (name == 0) return -1;
+            score += name;
+        }
+
+        score += RATING_WEIGHT * profile.getWeightedRating(PRIOR_RATING, PRIOR_WEIGHT);
+        score += ACTIVITY_WEIGHT * Math.min(profile.getSessionCount(), ACTIVITY_SESSIONS) / ACTIVITY_SESSIONS;
+        return score;
+    }
+
+    private static double locationScore(Long cityId, Criteria criteria) {
+        if (cityId == null) return 0;
+        if (Arrays.binarySearch(criteria.cityIds, cityId) >= 0) return CITY_WEIGHT;
+        return Arrays.binarySearch(criteria.nearbyCityIds, cityId) >= 0 ? NEARBY_WEIGHT : 0;
+    }
+
+    private static double nameScore(DoctorProfile profile, String term) {
+        double score = 0;
+        for (String word : profile.getTerms()) {
+            if (word.startsWith(term)) return NAME_WEIGHT;
+            if (term.length() >= MIN_FUZZY_LENGTH && PrefixIndex.matchesWithOneEdit(word, term)) score = NAME_TYPO_WEIGHT;
+        }
+        return score;
+    }
+
+    private DoctorSearchResult result(Match match) {
+        DoctorProfile profile = match.profile;
+        List<String> specializations = new ArrayList<>();
+        for (Long specializationId : profile.getSpecializationIds()) {
+            String description = queryInterpreter.describeSpecialization(specializationId);
+            if (description != null) specializations.add(description);
+        }
+        Collections.sort(specializations);
+
+        return new DoctorSearchResult(profile.getId(), profile.getName(), profile.getCityId(), specializations,
+                Math.round(profile.getAverageRating() * 100) / 100.0, profile.getRatingCount(),
+                Math.round(match.score * 1000) / 1000.0);
+    }
+
+    private static Long cityOf(Hospital hospital) {
+        return hospital.getStatus() == Status.ACTIVE ? hospital.getCityId() : null;
+    }
+
+    private static Set<Long> single(Long id) {
+        return id == null ? Set.of() : Set.of(id);
+    }
+
+    /**
+     * The doctor profiles and the postings derived from them. The postings are concurrent so searches can read them
+     * while a single writer, holding the lock of the engine, applies changes.
+     */
+    private static final class Indexes {
+
+        private final ConcurrentMap<Long, DoctorProfile> profiles = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<Long, Set<Long>> doctorsBySpecialization = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<Long, Set<Long>> doctorsByHospital = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<Long, Set<Long>> doctorsByCity = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<Long, Set<Long>> hospitalsByCity = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<Long, Long> hospitalCities = new ConcurrentHashMap<>();
+
+        private final ConcurrentNavigableMap<String, Set<Long>> doctorsByNameTerm = new ConcurrentSkipListMap<>();
+
+        /**
+         * Applies the change to the profile of the doctor and moves the doctor between the postings accordingly.
+         * Rows without a doctor are ignored.
+         */
+        private void update(Long doctorId, UnaryOperator<DoctorProfile> change) {
+            if (doctorId == null) return;
+
+            DoctorProfile previous = profiles.getOrDefault(doctorId, DoctorProfile.empty(doctorId));
+            DoctorProfile updated = change.apply(previous);
+            profiles.put(doctorId, updated);
+
+            reindex(previous.getSpecializationIds(), updated.getSpecializationIds(), doctorsBySpecialization, doctorId);
+            reindex(previous.getHospitalIds(), updated.getHospitalIds(), doctorsByHospital, doctorId);
+            reindex(single(previous.getCityId()), single(updated.getCityId()), doctorsByCity, doctorId);
+            reindex(previous.getTerms(), updated.getTerms(), doctorsByNameTerm, doctorId);
+        }
+
+        /**
+         * Moves the hospital to the city, or removes it from the cities if the city is {@code null}.
+         */
+        private void hospitalChanged(long hospitalId, Long cityId) {
+            Long previous = cityId == null ? hospitalCities.remove(hospitalId) : hospitalCities.put(hospitalId, cityId);
+            reindex(single(previous), single(cityId), hospitalsByCity, hospitalId);
+        }
+
+        private static <K> void reindex(Set<K> previous, Set<K> updated, ConcurrentMap<K, Set<Long>> postings, long id) {
+            for (K key : previous) {
+                if (updated.contains(key)) continue;
+                postings.computeIfPresent(key, (k, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+            for (K key : updated) {
+                if (previous.contains(key)) continue;
+                postings.compute(key, (k, ids) -> {
+                    Set<Long> added = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                    added.add(id);
+                    return added;
+                });
+            }
+        }
+    }
+
+    /**
+     * The query with its ids as sorted arrays, checked against every candidate without boxing.
+     */
+    private static final class Criteria {
+
+        private final long[] specializationIds;
+
+        private final long[] cityIds;
+
+        private final long[] nearbyCityIds;
+
+        private final List<String> nameTerms;
+
+        private Criteria(DoctorQuery query) {
+            this.specializationIds = sorted(query.getSpecializationIds());
+            this.cityIds = sorted(query.getCityIds());
+            this.nearbyCityIds = sorted(query.getNearbyCityIds());
+            this.nameTerms = query.getNameTerms();
+        }
+
+        private static long[] sorted(Set<Long> ids) {
+            if (ids == null) return null;
+
+            long[] sorted = ids.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    private static final class Match {
+
+        private final DoctorProfile profile;
+
+        private final double score;
+
+        private Match(DoctorProfile profile, double score) {
+            this.profile = profile;
+            this.score = score;
+        }
+    }
+}
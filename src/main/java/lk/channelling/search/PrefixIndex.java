@@ -0,0 +1,316 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.search;
+
+import java.util.*;
+
+/**
+ * Immutable prefix index over the terms of a set of {@link SearchDocument documents}.
+ *
+ * <p>The distinct terms are kept in one sorted array, so the terms starting with a prefix form one contiguous range
+ * which is found with a binary search. Each term points to its postings, the positions of the documents having the
+ * term. Documents are numbered in the order of their labels and the position is the final tie breaker of the score,
+ * so the postings of a term are already ordered from the best to the worst match and the scan of a term stops at the
+ * first posting which cannot make it into the results, and a prefix costs about one comparison per distinct term
+ * rather than one per document.</p>
+ *
+ * <p>Short prefixes still span a large part of the terms, because every whole name is a distinct term. The results of
+ * every prefix spanning more than {@value #SHORTCUT_TERMS} terms are therefore computed when the index is built, so no
+ * query scans more than that many terms.</p>
+ *
+ * <p>The typo tolerant mode additionally looks up every string within one edit (deletion, insertion, substitution or
+ * transposition of adjacent characters) of the query, using the characters which occur in the index as the alphabet.
+ * It is only used for queries of at least {@value #MIN_FUZZY_LENGTH} characters, shorter queries would match almost
+ * everything.</p>
+ */
+public final class PrefixIndex {
+
+    static final int MIN_FUZZY_LENGTH = 4;
+
+    static final long LOWEST_RANK = (1L << 40) - 1;
+
+    static final int SHORTCUT_TERMS = 512;
+
+    static final int SHORTCUT_SIZE = 50;
+
+    private final SearchDocument[] documents;
+
+    private final Map<Long, Integer> ordinals;
+
+    private final String[] terms;
+
+    private final int[] offsets;
+
+    private final int[] postings;
+
+    private final char[] alphabet;
+
+    private final Map<String, Shortcut> shortcuts = new HashMap<>();
+
+    private PrefixIndex(SearchDocument[] documents, String[] terms, int[] offsets, int[] postings, char[] alphabet) {
+        this.documents = documents;
+        this.terms = terms;
+        this.offsets = offsets;
+        this.postings = postings;
+        this.alphabet = alphabet;
+
+        this.ordinals = new HashMap<>(documents.length * 2);
+        for (int i = 0; i < documents.length; i++) ordinals.put(documents[i].getId(), i);
+
+        buildShortcuts();
+    }
+
+    /**
+     * Builds the index of the given documents.
+     *
+     * @param documents the documents.
+     * @return the index.
+     */
+    public static PrefixIndex build(Collection<SearchDocument> documents) {
+        SearchDocument[] ordered = documents.toArray(new SearchDocument[0]);
+        Arrays.sort(ordered, Comparator.comparing(SearchDocument::getSortKey).thenComparingLong(SearchDocument::getId));
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (SearchDocument document : ordered) {
+            for (String term : document.getTerms()) counts.merge(term, 1, Integer::sum);
+        }
+
+        String[] terms = counts.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+
+        int[] offsets = new int[terms.length + 1];
+        Map<String, Integer> termIndex = new HashMap<>(terms.length * 2);
+        BitSet characters = new BitSet();
+        for (int i = 0; i < terms.length; i++) {
+            offsets[i + 1] = offsets[i] + counts.get(terms[i]);
+            termIndex.put(terms[i], i);
+            terms[i].chars().forEach(characters::set);
+        }
+
+        int[] postings = new int[offsets[terms.length]];
+        int[] filled = Arrays.copyOf(offsets, terms.length);
+        for (int ordinal = 0; ordinal < ordered.length; ordinal++) {
+            for (String term : ordered[ordinal].getTerms()) postings[filled[termIndex.get(term)]++] = ordinal;
+        }
+
+        char[] alphabet = new char[characters.cardinality()];
+        int next = 0;
+        for (int c = characters.nextSetBit(0); c >= 0; c = characters.nextSetBit(c + 1)) alphabet[next++] = (char) c;
+
+        return new PrefixIndex(ordered, terms, offsets, postings, alphabet);
+    }
+
+    public int size() {
+        return documents.length;
+    }
+
+    /**
+     * Returns the position of the document with the given id, or {@code -1} if it is not in the index.
+     *
+     * @param id the id of the document.
+     * @return the position.
+     */
+    int ordinalOf(long id) {
+        Integer ordinal = ordinals.get(id);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Offers every document matching the normalized query to the collector.
+     *
+     * @param query    the normalized query.
+     * @param fuzzy    whether strings within one edit of the query match as well.
+     * @param topK     the collector.
+     * @param shadowed the positions of the documents which must be skipped, because they changed after the index was
+     *                 built.
+     */
+    void collect(String query, boolean fuzzy, TopK topK, BitSet shadowed) {
+        Shortcut shortcut = shortcuts.get(query);
+        if (shortcut == null || !shortcut.collect(topK, shadowed)) scan(query, true, query.length(), topK, shadowed);
+        if (!fuzzy || query.length() < MIN_FUZZY_LENGTH) return;
+
+        for (String variant : variants(query, alphabet)) scan(variant, false, query.length(), topK, shadowed);
+    }
+
+    /**
+     * Scores a match of a term with the query. Exact prefix matches beat typo tolerant ones, whole name matches beat
+     * single word matches, and terms closer in length to the query beat longer ones.
+     */
+    static long score(boolean exact, byte kind, int termLength, int queryLength, long rank) {
+        long closeness = 255 - Math.min(255, Math.abs(termLength - queryLength));
+        return ((exact ? 1L : 0L) << 50) | ((long) kind << 49) | (closeness << 40) | (LOWEST_RANK - rank);
+    }
+
+    /**
+     * Returns whether a prefix of the term is within one edit of the query.
+     */
+    static boolean matchesWithOneEdit(String term, String query) {
+        int length = query.length();
+        int[] previous = new int[length + 1];
+        int[] current = new int[length + 1];
+        for (int i = 0; i <= length; i++) previous[i] = i;
+        if (previous[length] <= 1) return true;
+
+        for (int j = 1; j <= term.length(); j++) {
+            current[0] = j;
+            int best = current[0];
+            for (int i = 1; i <= length; i++) {
+                int cost = query.charAt(i - 1) == term.charAt(j - 1) ? 0 : 1;
+                current[i] = Math.min(Math.min(current[i - 1] + 1, previous[i] + 1), previous[i - 1] + cost);
+                best = Math.min(best, current[i]);
+            }
+            if (current[length] <= 1) return true;
+            if (best > 1) return false;
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return false;
+    }
+
+    private void scan(String prefix, boolean exact, int queryLength, TopK topK, BitSet shadowed) {
+        int from = lowerBound(prefix);
+        scan(from, upperBound(prefix, from), exact, queryLength, topK, shadowed);
+    }
+
+    private void scan(int from, int to, boolean exact, int queryLength, TopK topK, BitSet shadowed) {
+        for (int term = from; term < to; term++) {
+            byte kind = terms[term].indexOf(' ') > 0 ? SearchDocument.NAME_TERM : SearchDocument.WORD_TERM;
+            for (int posting = offsets[term]; posting < offsets[term + 1]; posting++) {
+                int ordinal = postings[posting];
+                if (shadowed.get(ordinal)) continue;
+
+                long score = score(exact, kind, terms[term].length(), queryLength, ordinal);
+                if (!topK.accepts(score)) break;
+                topK.offer(documents[ordinal], score);
+            }
+        }
+    }
+
+    /**
+     * Computes the shortcut of every prefix spanning more than {@link #SHORTCUT_TERMS} terms, splitting the range of
+     * each such prefix by the next character to find the longer ones.
+     */
+    private void buildShortcuts() {
+        Deque<int[]> ranges = new ArrayDeque<>();
+        ranges.push(new int[]{0, terms.length, 0});
+        while (!ranges.isEmpty()) {
+            int[] range = ranges.pop();
+            int from = range[0];
+            int to = range[1];
+            int length = range[2];
+
+            if (length > 0) {
+                TopK topK = new TopK(SHORTCUT_SIZE);
+                scan(from, to, true, length, topK, new BitSet());
+                shortcuts.put(terms[from].substring(0, length), new Shortcut(topK, this));
+            }
+
+            while (from < to && terms[from].length() == length) from++;
+            while (from < to) {
+                char next = terms[from].charAt(length);
+                int end = from;
+                while (end < to && terms[end].charAt(length) == next) end++;
+                if (end - from > SHORTCUT_TERMS) ranges.push(new int[]{from, end, length + 1});
+                from = end;
+            }
+        }
+    }
+
+    private int upperBound(String prefix, int from) {
+        int low = from;
+        int high = terms.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (terms[middle].startsWith(prefix)) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = terms.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (terms[middle].compareTo(prefix) < 0) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Returns the strings within one edit of the query. Appending a character is left out, as every term starting with
+     * such a string also starts with the query itself.
+     *
+     * @param query    the query.
+     * @param alphabet the characters which may be inserted or substituted.
+     * @return the variants, without the query itself.
+     */
+    static Set<String> variants(String query, char[] alphabet) {
+        Set<String> variants = new LinkedHashSet<>();
+        int length = query.length();
+        for (int i = 0; i < length; i++) {
+            variants.add(query.substring(0, i) + query.substring(i + 1));
+            if (i + 1 < length)
+                variants.add(query.substring(0, i) + query.charAt(i + 1) + query.charAt(i) + query.substring(i + 2));
+
+            for (char c : alphabet) {
+                variants.add(query.substring(0, i) + c + query.substring(i + 1));
+                variants.add(query.substring(0, i) + c + query.substring(i));
+            }
+        }
+        variants.remove(query);
+        return variants;
+    }
+
+    /**
+     * The precomputed results of a prefix.
+     */
+    private static final class Shortcut {
+
+        private final SearchDocument[] documents;
+
+        private final long[] scores;
+
+        private final int[] ordinals;
+
+        private Shortcut(TopK topK, PrefixIndex index) {
+            List<SearchDocument> results = topK.toList();
+            documents = results.toArray(new SearchDocument[0]);
+            scores = new long[documents.length];
+            ordinals = new int[documents.length];
+            for (int i = 0; i < documents.length; i++) {
+                ordinals[i] = index.ordinalOf(documents[i].getId());
+                scores[i] = topK.scoreOf(documents[i]);
+            }
+        }
+
+        /**
+         * Offers the precomputed results to the collector. Returns {@code false} if changed documents had to be
+         * skipped and the remaining results may not be enough, in which case the prefix has to be scanned.
+         */
+        private boolean collect(TopK topK, BitSet shadowed) {
+            int skipped = 0;
+            for (int i = 0; i < documents.length; i++) {
+                if (shadowed.get(ordinals[i])) skipped++;
+                else topK.offer(documents[i], scores[i]);
+            }
+            return skipped == 0 || documents.length < SHORTCUT_SIZE || topK.capacity() <= documents.length - skipped;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.search;
+
+import lk.channelling.entity.Specialization;
+import lk.channelling.enums.Status;
+import lk.channelling.geography.GeographyTree;
+import lk.channelling.resources.GeographyNode;
+import lk.channelling.services.SpecializationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Splits a free text doctor search such as {@code "cardiologist near kandy"} into the specializations, the place and
+ * the name words it asks for.
+ *
+ * <p>Every word is resolved in turn, first exactly against the specializations, the places and the known name words,
+ * and only then with typo tolerance against the specializations and places. A specialization word matches a word
+ * of a specialization sharing a long enough prefix with it, so {@code "cardiologist"} finds {@code "Cardiology"} and
+ * {@code "surgeon"} finds {@code "Surgery"}. Words left over are matched against the doctor names.</p>
+ *
+ * <p>The vocabularies are derived from the specialization cache and the geography tree, and are only rebuilt when
+ * those change.</p>
+ */
+@Component
+public class QueryInterpreter {
+
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "around", "at", "best", "by", "close",
+            "doctor", "doctors", "dr", "for", "good", "in", "me", "near", "nearby", "of", "specialist", "specialists",
+            "the", "to", "top", "with");
+
+    /**
+     * The minimum length of a word matched with typo tolerance.
+     */
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    /**
+     * The maximum number of words of a place name.
+     */
+    private static final int MAX_PLACE_WORDS = 3;
+
+    private final SpecializationService specializationService;
+
+    private final GeographyTree geographyTree;
+
+    private volatile SpecializationVocabulary specializations = new SpecializationVocabulary(List.of());
+
+    private volatile PlaceVocabulary places = new PlaceVocabulary(-1, List.of());
+
+    @Autowired
+    public QueryInterpreter(SpecializationService specializationService, GeographyTree geographyTree) {
+        this.specializationService = specializationService;
+        this.geographyTree = geographyTree;
+    }
+
+    /**
+     * Interprets the search text.
+     *
+     * @param text       the search text.
+     * @param isNameTerm whether a normalized word is a word of a doctor name.
+     * @return the query.
+     */
+    public DoctorQuery interpret(String text, Predicate<String> isNameTerm) {
+        SpecializationVocabulary specializationVocabulary = specializationVocabulary();
+        PlaceVocabulary placeVocabulary = placeVocabulary();
+
+        List<String> words = new ArrayList<>();
+        for (String word : SearchDocument.normalize(text).split(" ")) {
+            if (!word.isEmpty() && !STOP_WORDS.contains(word)) words.add(word);
+        }
+
+        Set<Long> specializationIds = null;
+        Place place = null;
+        List<String> nameTerms = new ArrayList<>();
+
+        for (int i = 0; i < words.size(); ) {
+            int length = Math.min(MAX_PLACE_WORDS, words.size() - i);
+            Place phrase = null;
+            while (length > 1 && (phrase = placeVocabulary.places.get(String.join(" ", words.subList(i, i + length)))) == null)
+                length--;
+            if (phrase != null) {
+                place = Place.merge(place, phrase);
+                i += length;
+                continue;
+            }
+
+            String word = words.get(i++);
+            Set<Long> exact = specializationVocabulary.match(word, false);
+            Place exactPlace = exact.isEmpty() ? placeVocabulary.places.get(word) : null;
+            if (!exact.isEmpty()) {
+                specializationIds = combine(specializationIds, exact);
+            } else if (exactPlace != null) {
+                place = Place.merge(place, exactPlace);
+            } else if (isNameTerm.test(word) || word.length() < MIN_FUZZY_LENGTH) {
+                nameTerms.add(word);
+            } else {
+                Set<Long> related = specializationVocabulary.match(word, true);
+                Place relatedPlace = related.isEmpty() ? placeVocabulary.findWithOneEdit(word) : null;
+                if (!related.isEmpty()) specializationIds = combine(specializationIds, related);
+                else if (relatedPlace != null) place = Place.merge(place, relatedPlace);
+                else nameTerms.add(word);
+            }
+        }
+
+        return new DoctorQuery(specializationIds, place == null ? null : place.cityIds,
+                place == null ? null : place.nearbyCityIds, nameTerms);
+    }
+
+    /**
+     * Returns the description of the specialization, or {@code null} if it is not active.
+     *
+     * @param specializationId the id of the specialization.
+     * @return the description.
+     */
+    public String describeSpecialization(long specializationId) {
+        return specializationVocabulary().descriptions.get(specializationId);
+    }
+
+    /**
+     * Narrows the specializations down to those matching every word, unless the words have nothing in common, in
+     * which case any of them is accepted.
+     */
+    private static Set<Long> combine(Set<Long> current, Set<Long> matched) {
+        if (current == null) return matched;
+
+        Set<Long> common = new HashSet<>(current);
+        common.retainAll(matched);
+        if (!common.isEmpty()) return common;
+
+        Set<Long> any = new HashSet<>(current);
+        any.addAll(matched);
+        return any;
+    }
+
+    private SpecializationVocabulary specializationVocabulary() {
+        List<Specialization> active = specializationService.findByStatus(Status.ACTIVE);
+        SpecializationVocabulary current = specializations;
+        if (current.source != active) specializations = current = new SpecializationVocabulary(active);
+        return current;
+    }
+
+    private PlaceVocabulary placeVocabulary() {
+        long version = geographyTree.getVersion();
+        PlaceVocabulary current = places;
+        if (current.version != version) places = current = new PlaceVocabulary(version, geographyTree.getTree());
+        return current;
+    }
+
+    /**
+     * Returns whether the words share a prefix long enough to be taken for the same word, allowing one typo in it.
+     */
+    static boolean related(String word, String vocabularyWord) {
+        int shorter = Math.min(word.length(), vocabularyWord.length());
+        if (shorter < MIN_FUZZY_LENGTH) return false;
+
+        int required = Math.max(MIN_FUZZY_LENGTH, shorter - 3);
+        if (word.regionMatches(0, vocabularyWord, 0, required)) return true;
+        return PrefixIndex.matchesWithOneEdit(vocabularyWord, word.substring(0, required));
+    }
+
+    /**
+     * Returns whether the words are equal but for one inserted, deleted, substituted or transposed character.
+     */
+    static boolean withinOneEdit(String first, String second) {
+        if (Math.abs(first.length() - second.length()) > 1) return false;
+
+        int start = 0;
+        while (start < first.length() && start < second.length() && first.charAt(start) == second.charAt(start)) start++;
+        int firstEnd = first.length();
+        int secondEnd = second.length();
+        while (firstEnd > start && secondEnd > start && first.charAt(firstEnd - 1) == second.charAt(secondEnd - 1)) {
+            firstEnd--;
+            secondEnd--;
+        }
+
+        int firstRest = firstEnd - start;
+        int secondRest = secondEnd - start;
+        if (firstRest <= 1 && secondRest <= 1) return true;
+        return firstRest == 2 && secondRest == 2 && first.charAt(start) == second.charAt(start + 1)
+                && first.charAt(start + 1) == second.charAt(start);
+    }
+
+    /**
+     * The words of the active specializations.
+     */
+    private static final class SpecializationVocabulary {
+
+        private final List<Specialization> source;
+
+        private final Map<Long, String> descriptions = new HashMap<>();
+
+        private final Map<String, Set<Long>> words = new HashMap<>();
+
+        private SpecializationVocabulary(List<Specialization> source) {
+            this.source = source;
+            for (Specialization specialization : source) {
+                descriptions.put(specialization.getId(), specialization.getDescription());
+                add(specialization.getCode(), specialization.getId());
+                for (String word : SearchDocument.normalize(specialization.getDescription()).split(" ")) {
+                    if (word.length() > 2 && !STOP_WORDS.contains(word)) add(word, specialization.getId());
+                }
+            }
+        }
+
+        private void add(String word, long specializationId) {
+            String normalized = SearchDocument.normalize(word);
+            if (!normalized.isEmpty()) words.computeIfAbsent(normalized, key -> new HashSet<>()).add(specializationId);
+        }
+
+        private Set<Long> match(String word, boolean fuzzy) {
+            if (!fuzzy) return words.getOrDefault(word, Set.of());
+
+            Set<Long> matched = new HashSet<>();
+            words.forEach((vocabularyWord, ids) -> {
+                if (related(word, vocabularyWord)) matched.addAll(ids);
+            });
+            return matched;
+        }
+    }
+
+    /**
+     * The names of the active countries, states and cities.
+     */
+    private static final class PlaceVocabulary {
+
+        private final long version;
+
+        private final Map<String, Place> places = new HashMap<>();
+
+        private PlaceVocabulary(long version, List<GeographyNode> countries) {
+            this.version = version;
+            for (GeographyNode country : countries) {
+                Set<Long> countryCities = new HashSet<>();
+                for (GeographyNode state : country.getChildren()) {
+                    Set<Long> stateCities = new HashSet<>();
+                    for (GeographyNode city : state.getChildren()) stateCities.add(city.getId());
+                    countryCities.addAll(stateCities);
+
+                    add(state.getDescription(), new Place(stateCities, stateCities));
+                    for (GeographyNode city : state.getChildren()) {
+                        add(city.getDescription(), new Place(Set.of(city.getId()), stateCities));
+                    }
+                }
+                add(country.getDescription(), new Place(countryCities, countryCities));
+            }
+        }
+
+        private void add(String name, Place place) {
+            String normalized = SearchDocument.normalize(name);
+            if (!normalized.isEmpty()) places.merge(normalized, place, Place::merge);
+        }
+
+        /**
+         * Returns the places whose name is within one edit of the word. Short words are too likely to be one edit
+         * away from an unrelated place and are only matched exactly.
+         */
+        private Place findWithOneEdit(String word) {
+            if (word.length() <= MIN_FUZZY_LENGTH) return null;
+
+            Place found = null;
+            for (Map.Entry<String, Place> place : places.entrySet()) {
+                if (withinOneEdit(word, place.getKey())) found = Place.merge(found, place.getValue());
+            }
+            return found;
+        }
+    }
+
+    /**
+     * The cities matching a place name, and the cities near it.
+     */
+    private static final class Place {
+
+        private final Set<Long> cityIds;
+
+        private final Set<Long> nearbyCityIds;
+
+        private Place(Set<Long> cityIds, Set<Long> nearbyCityIds) {
+            this.cityIds = cityIds;
+            this.nearbyCityIds = nearbyCityIds;
+        }
+
+        private static Place merge(Place first, Place second) {
+            if (first == null) return second;
+
+            Set<Long> cityIds = new HashSet<>(first.cityIds);
+            cityIds.addAll(second.cityIds);
+            Set<Long> nearbyCityIds = new HashSet<>(first.nearbyCityIds);
+            nearbyCityIds.addAll(second.nearbyCityIds);
+            return new Place(cityIds, nearbyCityIds);
+        }
+    }
+}
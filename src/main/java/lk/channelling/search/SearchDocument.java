@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.search;
+
+import lombok.Getter;
+
+import java.text.Normalizer;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * A doctor or hospital as seen by the autocomplete index: its id, the label shown to the user and the normalized
+ * terms it can be found by.
+ *
+ * <p>Every word of every name is a term, and every name of more than one word is also a term on its own, so that
+ * {@code "john sm"} finds {@code "John Smith"} while {@code "smi"} still finds it by the last name.</p>
+ */
+public final class SearchDocument {
+
+    static final byte NAME_TERM = 1;
+
+    static final byte WORD_TERM = 0;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    @Getter
+    private final long id;
+
+    @Getter
+    private final String label;
+
+    private final String sortKey;
+
+    private final String[] terms;
+
+    private final byte[] kinds;
+
+    /**
+     * Creates the document.
+     *
+     * @param id    the id of the row.
+     * @param label the text shown to the user.
+     * @param names the names the row can be found by, {@code null} names are ignored.
+     */
+    public SearchDocument(long id, String label, String... names) {
+        this.id = id;
+        this.label = label;
+        this.sortKey = normalize(label);
+
+        Map<String, Byte> termKinds = new LinkedHashMap<>();
+        for (String name : names) {
+            String normalized = normalize(name);
+            if (normalized.isEmpty()) continue;
+
+            if (normalized.indexOf(' ') > 0) termKinds.put(normalized, NAME_TERM);
+            for (String word : normalized.split(" ")) termKinds.putIfAbsent(word, WORD_TERM);
+        }
+
+        this.terms = termKinds.keySet().toArray(new String[0]);
+        this.kinds = new byte[terms.length];
+        for (int i = 0; i < terms.length; i++) kinds[i] = termKinds.get(terms[i]);
+    }
+
+    String getSortKey() {
+        return sortKey;
+    }
+
+    String[] getTerms() {
+        return terms;
+    }
+
+    byte[] getKinds() {
+        return kinds;
+    }
+
+    /**
+     * Lower cases the text, strips the accents and collapses everything which is not a letter or a digit into single
+     * spaces.
+     *
+     * @param text the text, may be {@code null}.
+     * @return the normalized text.
+     */
+    public static String normalize(String text) {
+        if (text == null) return "";
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
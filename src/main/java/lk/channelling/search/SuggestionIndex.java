@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.search;
+
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.*;
+
+/**
+ * A {@link PrefixIndex} which is kept up to date with single document changes.
+ *
+ * <p>Rebuilding the sorted arrays on every write would cost a full sort, so changed documents are kept in a small
+ * delta next to the index instead: their old entries in the index are skipped and the delta is scanned linearly on
+ * each query. Once the delta grows beyond {@value #MAX_DELTA} documents the index is rebuilt from the documents held in
+ * memory and the delta starts over. Queries read an immutable {@link State} and never lock.</p>
+ */
+@Log4j2
+public class SuggestionIndex {
+
+    private static final int MAX_DELTA = 1024;
+
+    @Getter
+    private final String name;
+
+    /**
+     * Every indexed document, guarded by this.
+     */
+    private final Map<Long, SearchDocument> documents = new HashMap<>();
+
+    private volatile State state = new State(PrefixIndex.build(List.of()), Map.of(), new BitSet());
+
+    public SuggestionIndex(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Replaces the whole content of the index.
+     *
+     * @param loaded the documents.
+     */
+    public synchronized void load(Collection<SearchDocument> loaded) {
+        documents.clear();
+        loaded.forEach(document -> documents.put(document.getId(), document));
+        rebuild();
+    }
+
+    /**
+     * Adds the document or replaces the document with the same id.
+     *
+     * @param document the document.
+     */
+    public synchronized void put(SearchDocument document) {
+        documents.put(document.getId(), document);
+
+        Map<Long, SearchDocument> delta = new LinkedHashMap<>(state.delta);
+        delta.put(document.getId(), document);
+        changed(document.getId(), delta);
+    }
+
+    /**
+     * Removes the document with the given id.
+     *
+     * @param id the id of the document.
+     */
+    public synchronized void remove(long id) {
+        documents.remove(id);
+
+        Map<Long, SearchDocument> delta = new LinkedHashMap<>(state.delta);
+        delta.remove(id);
+        changed(id, delta);
+    }
+
+    public int size() {
+        State current = state;
+        return current.index.size() - current.shadowed.cardinality() + current.delta.size();
+    }
+
+    /**
+     * Returns the best matches of the query.
+     *
+     * @param query the text typed by the user.
+     * @param fuzzy whether matches with one typo are included, ranked below the exact ones.
+     * @param limit the maximum number of matches.
+     * @return the matches, best first.
+     */
+    public List<SearchDocument> suggest(String query, boolean fuzzy, int limit) {
+        String normalized = SearchDocument.normalize(query);
+        if (normalized.isEmpty() || limit <= 0) return List.of();
+
+        State current = state;
+        TopK topK = new TopK(limit);
+        current.index.collect(normalized, fuzzy, topK, current.shadowed);
+        for (SearchDocument document : current.delta.values()) offer(document, normalized, fuzzy, topK);
+        return topK.toList();
+    }
+
+    private void changed(long id, Map<Long, SearchDocument> delta) {
+        State current = state;
+        BitSet shadowed = current.shadowed;
+        int ordinal = current.index.ordinalOf(id);
+        if (ordinal >= 0 && !shadowed.get(ordinal)) {
+            shadowed = (BitSet) shadowed.clone();
+            shadowed.set(ordinal);
+        }
+
+        if (delta.size() + shadowed.cardinality() > MAX_DELTA) rebuild();
+        else state = new State(current.index, Collections.unmodifiableMap(delta), shadowed);
+    }
+
+    private void rebuild() {
+        long startTime = System.currentTimeMillis();
+        state = new State(PrefixIndex.build(documents.values()), Map.of(), new BitSet());
+        log.debug("Built the {} suggestion index with {} documents in {} ms", name, documents.size(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    private static void offer(SearchDocument document, String query, boolean fuzzy, TopK topK) {
+        boolean typoTolerant = fuzzy && query.length() >= PrefixIndex.MIN_FUZZY_LENGTH;
+        String[] terms = document.getTerms();
+        for (int i = 0; i < terms.length; i++) {
+            boolean exact = terms[i].startsWith(query);
+            if (exact || typoTolerant && PrefixIndex.matchesWithOneEdit(terms[i], query)) {
+                topK.offer(document, PrefixIndex.score(exact, document.getKinds()[i], terms[i].length(), query.length(),
+                        PrefixIndex.LOWEST_RANK));
+            }
+        }
+    }
+
+    /**
+     * The index, the documents changed since it was built, and the positions of their outdated entries in the index.
+     */
+    private static final class State {
+
+        private final PrefixIndex index;
+
+        private final Map<Long, SearchDocument> delta;
+
+        private final BitSet shadowed;
+
+        private State(PrefixIndex index, Map<Long, SearchDocument> delta, BitSet shadowed) {
+            this.index = index;
+            this.delta = delta;
+            this.shadowed = shadowed;
+        }
+    }
+}
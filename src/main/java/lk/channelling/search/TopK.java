@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps the {@code k} best scored documents seen so far, each document at most once with its best score.
+ *
+ * <p>Queries offer far more candidates than they return, so a candidate which does not beat the worst kept score is
+ * rejected with a single comparison once the collector is full.</p>
+ */
+final class TopK {
+
+    private final SearchDocument[] documents;
+
+    private final long[] scores;
+
+    private int size;
+
+    private int worst;
+
+    TopK(int k) {
+        this.documents = new SearchDocument[k];
+        this.scores = new long[k];
+    }
+
+    int capacity() {
+        return documents.length;
+    }
+
+    long scoreOf(SearchDocument document) {
+        for (int i = 0; i < size; i++) {
+            if (documents[i] == document) return scores[i];
+        }
+        return Long.MIN_VALUE;
+    }
+
+    /**
+     * Returns whether a candidate with the given score could still be kept.
+     */
+    boolean accepts(long score) {
+        return size < documents.length || score > scores[worst];
+    }
+
+    void offer(SearchDocument document, long score) {
+        if (!accepts(score)) return;
+
+        for (int i = 0; i < size; i++) {
+            if (documents[i].getId() == document.getId()) {
+                if (score > scores[i]) {
+                    scores[i] = score;
+                    documents[i] = document;
+                    if (i == worst) findWorst();
+                }
+                return;
+            }
+        }
+
+        if (size < documents.length) {
+            documents[size] = document;
+            scores[size++] = score;
+        } else {
+            documents[worst] = document;
+            scores[worst] = score;
+        }
+        findWorst();
+    }
+
+    /**
+     * Returns the kept documents from the best to the worst score.
+     */
+    List<SearchDocument> toList() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) order[i] = i;
+        Arrays.sort(order, (left, right) -> Long.compare(scores[right], scores[left]));
+
+        List<SearchDocument> result = new ArrayList<>(size);
+        for (Integer i : order) result.add(documents[i]);
+        return result;
+    }
+
+    private void findWorst() {
+        worst = 0;
+        for (int i = 1; i < size; i++) {
+            if (scores[i] < scores[worst]) worst = i;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.security;
+
+import lk.channelling.exception.ForbiddenException;
+import lk.channelling.exception.UserNotFoundException;
+import lk.channelling.handlers.LoginAuthenticationHandler;
+import lk.channelling.handlers.UserContext;
+import lk.channelling.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Restricts the maintenance endpoints, such as the rebuilds of the in-memory indexes, to the administrators.
+ *
+ * <p>An administrator is a user authenticated by a verified access token, see
+ * {@link UserContext#isTokenAuthenticated()}, holding the role named {@code application.security.admin-role} in the
+ * {@code user_role} table. A user name taken from the trusted header is never enough, since any caller can send it.</p>
+ */
+@Component
+public class AdminAuthorizer {
+
+    private final UserRepository userRepository;
+
+    @Value("${application.security.admin-role:ADMIN}")
+    private String adminRole;
+
+    @Autowired
+    public AdminAuthorizer(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Checks that the current request is made by an administrator.
+     *
+     * @throws UserNotFoundException if the request is not authenticated by an access token.
+     * @throws ForbiddenException    if the user is not an administrator.
+     */
+    public void validateAdmin() {
+        LoginAuthenticationHandler.validateUser();
+        if (!UserContext.isTokenAuthenticated()) throw new UserNotFoundException("Unauthorized.");
+        if (userRepository.countRoles(LoginAuthenticationHandler.getUserName(), adminRole) == 0)
+            throw new ForbiddenException("Administrator access is required.");
+    }
+}
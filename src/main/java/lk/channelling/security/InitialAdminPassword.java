@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.security;
+
+import lk.channelling.entity.User;
+import lk.channelling.repository.UserRepository;
+import lk.channelling.util.TimeUtil;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Sets {@code application.security.initial-admin-password} as the password of every administrator which has none yet,
+ * so the first administrator can log in and set the passwords of the other users.
+ *
+ * <p>Administrators which already have a password are left alone, so the setting can stay in place, but it should be
+ * removed once the administrators have changed their password.</p>
+ */
+@Component
+@Log4j2
+public class InitialAdminPassword {
+
+    private final UserRepository userRepository;
+
+    @Value("${application.security.initial-admin-password:}")
+    private String initialAdminPassword;
+
+    @Value("${application.security.admin-role:ADMIN}")
+    private String adminRole;
+
+    @Autowired
+    public InitialAdminPassword(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(rollbackFor = Exception.class)
+    public void apply() {
+        if (StringUtils.isBlank(initialAdminPassword)) return;
+
+        List<User> administrators = userRepository.findWithoutPassword(adminRole);
+        for (User administrator : administrators) {
+            administrator.setPassword(PasswordHasher.hash(initialAdminPassword));
+            administrator.setModifiedUser("system");
+            administrator.setModifiedDate(TimeUtil.getCurrentTimeStamp());
+        }
+        userRepository.saveAll(administrators);
+        if (!administrators.isEmpty())
+            log.warn("Set the initial password of {} administrators, change it and remove the setting", administrators.size());
+    }
+}
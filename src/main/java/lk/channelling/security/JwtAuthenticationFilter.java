@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lk.channelling.exception.InvalidTokenException;
+import lk.channelling.handlers.UserContext;
+import lk.channelling.resources.ErrorResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Authenticates the request from its {@code Authorization: Bearer} access token and binds the subject of the token to
+ * the {@link UserContext} for the duration of the request, including its asynchronous dispatches.
+ *
+ * <p>Tokens are checked through the {@link VerifiedTokenCache}, so the HMAC of a token is only computed the first
+ * time it is seen. A request with an invalid, expired or refresh token is rejected with {@code 401}. A request without
+ * a token runs anonymously and is rejected by {@link lk.channelling.handlers.LoginAuthenticationHandler#validateUser()}
+ * on the endpoints which need a user. The login and refresh endpoints are not filtered, so a client holding an expired
+ * access token can still obtain a new one.</p>
+ *
+ * <p>Without a token the {@value #USER_NAME_HEADER} header is honoured only while
+ * {@code application.security.trust-user-name-header} is enabled, which is meant for callers behind a gateway that
+ * authenticates the user itself. A user taken from the header is never token authenticated in the
+ * {@link UserContext}, so it is not granted the administrator endpoints.</p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String USER_NAME_HEADER = "user-name";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private static final Set<String> UNAUTHENTICATED_PATHS = Set.of("/api/v1/auth/login", "/api/v1/auth/refresh");
+
+    private final JwtService jwtService;
+
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${application.security.trust-user-name-header:false}")
+    private boolean trustUserNameHeader;
+
+    @Autowired
+    public JwtAuthenticationFilter(JwtService jwtService, VerifiedTokenCache verifiedTokenCache, ObjectMapper objectMapper) {
+        this.jwtService = jwtService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String userName;
+        boolean tokenAuthenticated = false;
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            try {
+                VerifiedToken token = verifiedTokenCache.verify(authorization.substring(BEARER_PREFIX.length()).trim(), jwtService::verify);
+                if (!token.isAccessToken()) throw new InvalidTokenException("Not an access token.");
+                userName = token.getSubject();
+                tokenAuthenticated = true;
+            } catch (InvalidTokenException e) {
+                reject(response, e.getMessage());
+                return;
+            }
+        } else {
+            userName = trustUserNameHeader ? request.getHeader(USER_NAME_HEADER) : null;
+        }
+
+        try (UserContext.Scope scope = UserContext.open(userName, tokenAuthenticated)) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    /**
+     * Skips the endpoints which issue tokens. The password endpoint stays filtered, since it needs the user.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return UNAUTHENTICATED_PATHS.contains(path);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private void reject(HttpServletResponse response, String message) throws IOException {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setTimestamp(new Date());
+        errorResponse.setStatus(HttpStatus.UNAUTHORIZED.value());
+        errorResponse.setErrors(List.of(message));
+
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lk.channelling.exception.InvalidTokenException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and verifies the HMAC signed access and refresh tokens.
+ *
+ * <p>The signing key is the hex encoded {@code application.security.jwt.secret.key}. Access tokens live for
+ * {@code application.security.jwt.secret.expiration} and refresh tokens for
+ * {@code application.security.jwt.secret.refresh-token.expiration} milliseconds. The purpose of a token is kept in
+ * the {@value #TOKEN_USE_CLAIM} claim, so a refresh token is never accepted in place of an access token.</p>
+ */
+@Component
+public class JwtService {
+
+    public static final String TOKEN_USE_CLAIM = "token_use";
+
+    public static final String ACCESS_TOKEN = "access";
+
+    public static final String REFRESH_TOKEN = "refresh";
+
+    private final SecretKey key;
+
+    private final JwtParser parser;
+
+    private final long accessTokenExpiration;
+
+    private final long refreshTokenExpiration;
+
+    @Autowired
+    public JwtService(@Value("${application.security.jwt.secret.key}") String secretKey,
+                      @Value("${application.security.jwt.secret.expiration:86400000}") long accessTokenExpiration,
+                      @Value("${application.security.jwt.secret.refresh-token.expiration:604800000}") long refreshTokenExpiration) {
+        this.key = Keys.hmacShaKeyFor(HexFormat.of().parseHex(secretKey));
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.accessTokenExpiration = accessTokenExpiration;
+        this.refreshTokenExpiration = refreshTokenExpiration;
+    }
+
+    public String generateAccessToken(String userName) {
+        return generate(userName, ACCESS_TOKEN, accessTokenExpiration);
+    }
+
+    public String generateRefreshToken(String userName) {
+        return generate(userName, REFRESH_TOKEN, refreshTokenExpiration);
+    }
+
+    /**
+     * @return the lifetime of the access tokens in milliseconds.
+     */
+    public long getAccessTokenExpiration() {
+        return accessTokenExpiration;
+    }
+
+    /**
+     * Verifies the signature and expiry of the token and returns its claims. Every call recomputes the HMAC, use
+     * {@link VerifiedTokenCache} on the request path.
+     *
+     * @param token the compact token.
+     * @return the verified claims.
+     * @throws InvalidTokenException if the token is malformed, tampered with or expired.
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid or expired token.");
+        }
+
+        String use = claims.get(TOKEN_USE_CLAIM, String.class);
+        if (claims.getSubject() == null || claims.getExpiration() == null || use == null)
+            throw new InvalidTokenException("Invalid or expired token.");
+        return new VerifiedToken(claims.getSubject(), use, claims.getExpiration().getTime());
+    }
+
+    private String generate(String userName, String use, long expiration) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(userName)
+                .claim(TOKEN_USE_CLAIM, use)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(key)
+                .compact();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.security;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Hashes the user passwords with PBKDF2-HMAC-SHA256.
+ *
+ * <p>Hashes are stored as {@code pbkdf2-sha256$<iterations>$<salt>$<hash>} with a Base64 encoded random salt, so
+ * the iteration count can be raised later without invalidating the existing hashes.</p>
+ */
+public final class PasswordHasher {
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+
+    private static final String PREFIX = "pbkdf2-sha256";
+
+    private static final int ITERATIONS = 310_000;
+
+    private static final int SALT_LENGTH = 16;
+
+    private static final int HASH_LENGTH = 256;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private PasswordHasher() {
+    }
+
+    /**
+     * Hashes the password with a new random salt.
+     *
+     * @param password the plain text password.
+     * @return the encoded hash.
+     */
+    public static String hash(String password) {
+        byte[] salt = new byte[SALT_LENGTH];
+        RANDOM.nextBytes(salt);
+        Base64.Encoder encoder = Base64.getEncoder();
+        return PREFIX + '$' + ITERATIONS + '$' + encoder.encodeToString(salt) + '$'
+                + encoder.encodeToString(derive(password, salt, ITERATIONS, HASH_LENGTH));
+    }
+
+    /**
+     * Checks the password against an encoded hash in constant time.
+     *
+     * @param password    the plain text password.
+     * @param encodedHash the hash returned by {@link #hash(String)}.
+     * @return {@code true} if the password matches.
+     */
+    public static boolean matches(String password, String encodedHash) {
+        if (password == null || encodedHash == null) return false;
+
+        String[] parts = encodedHash.split("\\$");
+        if (parts.length != 4 || !PREFIX.equals(parts[0])) return false;
+
+        try {
+            int iterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return MessageDigest.isEqual(expected, derive(password, salt, iterations, expected.length * 8));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations, int length) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, length);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.security;
+
+/**
+ * The claims of a token whose signature and expiry have been verified.
+ */
+public final class VerifiedToken {
+
+    private final String subject;
+
+    private final String use;
+
+    private final long expiresAt;
+
+    VerifiedToken(String subject, String use, long expiresAt) {
+        this.subject = subject;
+        this.use = use;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * @return the username the token was issued to.
+     */
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * @return {@link JwtService#ACCESS_TOKEN} or {@link JwtService#REFRESH_TOKEN}.
+     */
+    public String getUse() {
+        return use;
+    }
+
+    /**
+     * @return the expiry of the token in epoch milliseconds.
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isAccessToken() {
+        return JwtService.ACCESS_TOKEN.equals(use);
+    }
+
+    public boolean isRefreshToken() {
+        return JwtService.REFRESH_TOKEN.equals(use);
+    }
+
+    boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+}
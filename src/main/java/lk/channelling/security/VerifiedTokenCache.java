@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.security;
+
+import lk.channelling.resources.CacheStatistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of recently verified tokens, so the request path does not recompute the HMAC of a token it has
+ * already accepted.
+ *
+ * <p>Entries are keyed by the first 128 bits of the SHA-256 digest of the token, so the cache never holds the tokens
+ * themselves, and are dropped at the {@code exp} of the token. Only successfully verified tokens are cached. Once
+ * more than {@code application.security.jwt.cache.max-entries} tokens are held the oldest ones are evicted.</p>
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final ConcurrentMap<TokenHash, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Deque<Entry> evictionOrder = new ArrayDeque<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final MessageDigest digest;
+
+    @Value("${application.security.jwt.cache.max-entries:10000}")
+    private int maxEntries;
+
+    public VerifiedTokenCache() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the cached claims of the token, or verifies the token and caches its claims until it expires.
+     *
+     * @param token    the compact token.
+     * @param verifier verifies the token, typically {@link JwtService#verify(String)}.
+     * @return the verified claims.
+     */
+    public VerifiedToken verify(String token, Function<String, VerifiedToken> verifier) {
+        TokenHash hash = hash(token);
+        long now = System.currentTimeMillis();
+
+        Entry entry = entries.get(hash);
+        if (entry != null) {
+            if (!entry.token.isExpired(now)) {
+                hits.incrementAndGet();
+                return entry.token;
+            }
+            entries.remove(hash, entry);
+        }
+
+        misses.incrementAndGet();
+        VerifiedToken verified = verifier.apply(token);
+        if (!verified.isExpired(now)) {
+            Entry newEntry = new Entry(hash, verified);
+            entries.put(hash, newEntry);
+            evict(newEntry, now);
+        }
+        return verified;
+    }
+
+    /**
+     * Drops every cached token, so the next request of every client is verified again.
+     */
+    public void clear() {
+        synchronized (evictionOrder) {
+            entries.clear();
+            evictionOrder.clear();
+        }
+    }
+
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics("verified-tokens", entries.size(), hits.get(), misses.get());
+    }
+
+    private TokenHash hash(String token) {
+        MessageDigest tokenDigest;
+        try {
+            tokenDigest = (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer hash = ByteBuffer.wrap(tokenDigest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new TokenHash(hash.getLong(), hash.getLong());
+    }
+
+    /**
+     * Registers the new entry and evicts the expired entries and the oldest ones beyond the entry limit. Access tokens
+     * share the same lifetime, so entries mostly expire in insertion order.
+     */
+    private void evict(Entry newEntry, long now) {
+        synchronized (evictionOrder) {
+            evictionOrder.addLast(newEntry);
+
+            Entry oldest;
+            while ((oldest = evictionOrder.peekFirst()) != null) {
+                boolean stale = entries.get(oldest.hash) != oldest;
+                if (!stale && !oldest.token.isExpired(now) && entries.size() <= maxEntries) break;
+
+                evictionOrder.pollFirst();
+                if (!stale) entries.remove(oldest.hash, oldest);
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final TokenHash hash;
+
+        private final VerifiedToken token;
+
+        private Entry(TokenHash hash, VerifiedToken token) {
+            this.hash = hash;
+            this.token = token;
+        }
+    }
+
+    private static final class TokenHash {
+
+        private final long high;
+
+        private final long low;
+
+        private TokenHash(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TokenHash other)) return false;
+            return high == other.high && low == other.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(high ^ low);
+        }
+    }
+}
@@ -16,8 +16,12 @@
 
 package lk.channelling.services;
 
+import lk.channelling.booking.SlotHold;
 import lk.channelling.entity.Appointment;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface AppointmentService {
@@ -31,5 +35,12 @@ public interface AppointmentService {
     void delete(Long id);
 
     Appointment update(Long id, Appointment appointment);
-}
 
+    Appointment hold(Appointment appointment);
+
+    Appointment confirmHold(Long id);
+
+    int expireHolds(Collection<SlotHold> holds);
+
+    PageArray getData(PagingRequest pagingRequest);
+}
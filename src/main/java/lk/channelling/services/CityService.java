@@ -90,4 +90,11 @@ public interface CityService {
      * @return the list of states
      */
     List<City> findByStateId(Long stateId);
+
+    /**
+     * Returns the entity tag of the current City list, used to answer conditional requests.
+     *
+     * @return the quoted entity tag, or {@code null} if the list is not cached yet.
+     */
+    String getETag();
 }
@@ -92,5 +92,18 @@ public interface CountryService {
      */
     Country update(Long id, Country country);
 
+    /**
+     * Returns one page of countries matching the search criteria of the given DataTables request.
+     *
+     * @param pagingRequest the paging request.
+     * @return the requested page.
+     */
     PageArray getData(PagingRequest pagingRequest);
+
+    /**
+     * Returns the entity tag of the current Country list, used to answer conditional requests.
+     *
+     * @return the quoted entity tag, or {@code null} if the list is not cached yet.
+     */
+    String getETag();
 }
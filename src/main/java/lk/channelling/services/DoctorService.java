@@ -15,6 +15,7 @@
  */
 package lk.channelling.services;
 
+import lk.channelling.cache.JsonPayload;
 import lk.channelling.entity.Doctor;
 import lk.channelling.enums.Status;
 import lk.channelling.resources.ApiResponse;
@@ -43,6 +44,13 @@ public interface DoctorService {
      */
     ApiResponse findAll();
 
+    /**
+     * Returns the serialized {@link #findAll()} response, which is built once and cached until the next Doctor write.
+     *
+     * @return the JSON payload of all Doctors.
+     */
+    JsonPayload findAllJson();
+
     /**
      * Returns the Doctor by its id.
      *
@@ -16,6 +16,9 @@
 package lk.channelling.services;
 
 import lk.channelling.entity.DoctorSession;
+import lk.channelling.resources.AvailabilitySearch;
+import lk.channelling.resources.Page;
+import lk.channelling.resources.SessionAvailability;
 
 import java.util.List;
 
@@ -30,4 +33,6 @@ public interface DoctorSessionService {
     void delete(Long id);
 
     DoctorSession update(Long id, DoctorSession doctorSession);
+
+    Page<SessionAvailability> findAvailable(AvailabilitySearch availabilitySearch, int page, int size);
 }
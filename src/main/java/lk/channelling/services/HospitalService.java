@@ -15,6 +15,7 @@
  */
 package lk.channelling.services;
 
+import lk.channelling.cache.JsonPayload;
 import lk.channelling.entity.Hospital;
 import lk.channelling.enums.Status;
 import lk.channelling.resources.ApiResponse;
@@ -43,6 +44,13 @@ public interface HospitalService {
      */
     ApiResponse findAll();
 
+    /**
+     * Returns the serialized {@link #findAll()} response, which is built once and cached until the next Hospital write.
+     *
+     * @return the JSON payload of all Hospitals.
+     */
+    JsonPayload findAllJson();
+
     /**
      * Returns the Hospital by its id.
      *
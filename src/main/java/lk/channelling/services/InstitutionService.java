@@ -17,6 +17,8 @@ package lk.channelling.services;
 
 import lk.channelling.entity.Institution;
 import lk.channelling.enums.Status;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -97,4 +99,12 @@ public interface InstitutionService {
      * @return the list of institutions
      */
     List<Institution> findByCountryId(Long countryId);
+
+    /**
+     * Returns one page of institutions matching the search criteria of the given DataTables request.
+     *
+     * @param pagingRequest the paging request.
+     * @return the requested page.
+     */
+    PageArray getData(PagingRequest pagingRequest);
 }
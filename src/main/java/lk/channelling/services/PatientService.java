@@ -16,6 +16,8 @@
 package lk.channelling.services;
 
 import lk.channelling.entity.Patient;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 
 import java.util.List;
 
@@ -30,4 +32,6 @@ public interface PatientService {
     void delete(Long id);
 
     Patient update(Long id, Patient patient);
+
+    PageArray getData(PagingRequest pagingRequest);
 }
@@ -1,6 +1,8 @@
 package lk.channelling.services;
 
 import lk.channelling.entity.Payment;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 
 import java.util.List;
 
@@ -15,4 +17,6 @@ public interface PaymentService {
     void delete(Long id);
 
     Payment update(Long id, Payment payment);
+
+    PageArray getData(PagingRequest pagingRequest);
 }
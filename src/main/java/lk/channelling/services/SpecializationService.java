@@ -18,6 +18,8 @@ package lk.channelling.services;
 import lk.channelling.entity.Specialization;
 import lk.channelling.enums.Status;
 import lk.channelling.resources.ApiResponse;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -90,4 +92,19 @@ public interface SpecializationService {
      * @return the updated Specialization details.
      */
     Specialization update(Long id, Specialization specialization);
+
+    /**
+     * Returns one page of specializations matching the search criteria of the given DataTables request.
+     *
+     * @param pagingRequest the paging request.
+     * @return the requested page.
+     */
+    PageArray getData(PagingRequest pagingRequest);
+
+    /**
+     * Returns the entity tag of the current Specialization list, used to answer conditional requests.
+     *
+     * @return the quoted entity tag, or {@code null} if the list is not cached yet.
+     */
+    String getETag();
 }
@@ -90,4 +90,11 @@ public interface StateService {
      * @return the list of states
      */
     List<State> findByCountryId(Long countryId);
+
+    /**
+     * Returns the entity tag of the current State list, used to answer conditional requests.
+     *
+     * @return the quoted entity tag, or {@code null} if the list is not cached yet.
+     */
+    String getETag();
 }
@@ -17,6 +17,8 @@ package lk.channelling.services;
 
 import lk.channelling.entity.Title;
 import lk.channelling.enums.Status;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -89,4 +91,12 @@ public interface TitleService {
      * @return the updated title details.
      */
     Title update(Long id, Title title);
+
+    /**
+     * Returns one page of titles matching the search criteria of the given DataTables request.
+     *
+     * @param pagingRequest the paging request.
+     * @return the requested page.
+     */
+    PageArray getData(PagingRequest pagingRequest);
 }
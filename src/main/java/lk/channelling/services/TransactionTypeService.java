@@ -17,6 +17,8 @@ package lk.channelling.services;
 
 import lk.channelling.entity.TransactionType;
 import lk.channelling.enums.Status;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -89,4 +91,12 @@ public interface TransactionTypeService {
      * @return the updated TransactionType details.
      */
     TransactionType update(Long id, TransactionType transactionType);
+
+    /**
+     * Returns one page of transaction types matching the search criteria of the given DataTables request.
+     *
+     * @param pagingRequest the paging request.
+     * @return the requested page.
+     */
+    PageArray getData(PagingRequest pagingRequest);
 }
@@ -16,28 +16,89 @@
 
 package lk.channelling.services.impl;
 
+import lk.channelling.availability.AvailabilitySnapshot;
+import lk.channelling.booking.BookingMetrics;
+import lk.channelling.booking.SessionCapacityRegistry;
+import lk.channelling.booking.SlotHold;
+import lk.channelling.booking.SlotHoldRegistry;
 import lk.channelling.entity.Appointment;
+import lk.channelling.enums.AppointmentStatus;
+import lk.channelling.enums.Status;
+import lk.channelling.exception.HoldExpiredException;
 import lk.channelling.exception.RecordNotFoundException;
+import lk.channelling.exception.SessionFullException;
+import lk.channelling.handlers.LoginAuthenticationHandler;
+import lk.channelling.paging.CountCache;
+import lk.channelling.paging.KeysetPager;
+import lk.channelling.paging.PagingColumn;
+import lk.channelling.paging.PagingSchema;
 import lk.channelling.repository.AppointmentRepository;
+import lk.channelling.repository.DoctorSessionRepository;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 import lk.channelling.services.AppointmentService;
+import lk.channelling.util.TimeUtil;
+import lk.channelling.util.TransactionUtil;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(rollbackFor = Exception.class)
 @Log4j2
 public class AppointmentServiceImpl implements AppointmentService {
 
+    private static final PagingSchema<Appointment> PAGING_SCHEMA = PagingSchema.of(Appointment.class,
+            PagingColumn.indexed("id"),
+            PagingColumn.indexed("sessionId"),
+            PagingColumn.indexed("patientId"),
+            PagingColumn.display("queueNo"),
+            PagingColumn.indexed("appointmentStatus"),
+            PagingColumn.display("holdExpiresAt"),
+            PagingColumn.display("createdDate"));
+
     private final AppointmentRepository appointmentRepository;
 
+    private final DoctorSessionRepository doctorSessionRepository;
+
+    private final SessionCapacityRegistry sessionCapacityRegistry;
+
+    private final SlotHoldRegistry slotHoldRegistry;
+
+    private final AvailabilitySnapshot availabilitySnapshot;
+
+    private final KeysetPager keysetPager;
+
+    private final BookingMetrics bookingMetrics;
+
+    private final CountCache countCache;
+
+    @Value("${application.booking.hold-ttl:10m}")
+    private Duration holdTtl;
+
     @Autowired
-    public AppointmentServiceImpl(AppointmentRepository appointmentRepository) {
+    public AppointmentServiceImpl(AppointmentRepository appointmentRepository, DoctorSessionRepository doctorSessionRepository,
+                                  SessionCapacityRegistry sessionCapacityRegistry, SlotHoldRegistry slotHoldRegistry,
+                                  AvailabilitySnapshot availabilitySnapshot, KeysetPager keysetPager, BookingMetrics bookingMetrics,
+                                  CountCache countCache) {
         this.appointmentRepository = appointmentRepository;
+        this.doctorSessionRepository = doctorSessionRepository;
+        this.sessionCapacityRegistry = sessionCapacityRegistry;
+        this.slotHoldRegistry = slotHoldRegistry;
+        this.availabilitySnapshot = availabilitySnapshot;
+        this.keysetPager = keysetPager;
+        this.bookingMetrics = bookingMetrics;
+        this.countCache = countCache;
     }
 
     @Override
@@ -54,18 +115,82 @@ public class AppointmentServiceImpl implements AppointmentService {
 
     @Override
     public Appointment save(Appointment appointment) {
-        return appointmentRepository.save(appointment);
+        return book(appointment, AppointmentStatus.BOOKED);
+    }
+
+    @Override
+    public Appointment hold(Appointment appointment) {
+        appointment.setHoldExpiresAt(LocalDateTime.now().plus(holdTtl));
+        Appointment heldAppointment = book(appointment, AppointmentStatus.HOLD);
+
+        slotHoldRegistry.add(new SlotHold(heldAppointment.getId(), heldAppointment.getSessionId(), heldAppointment.getHoldExpiresAt()));
+        return heldAppointment;
+    }
+
+    @Override
+    public Appointment confirmHold(Long id) {
+        Appointment appointment = findById(id);
+        String appointmentStatus = appointment.getAppointmentStatus();
+
+        if (AppointmentStatus.HOLD.name().equals(appointmentStatus)) {
+            if (appointmentRepository.confirmHold(id, LocalDateTime.now()) == 0) {
+                bookingMetrics.holdConfirmedTooLate();
+                throw new HoldExpiredException("The slot hold of the appointment " + id + " has expired.");
+            }
+            bookingMetrics.holdConfirmed();
+            invalidateCounts();
+            return findById(id);
+        }
+
+        if (!AppointmentStatus.occupiesSlot(appointmentStatus)) {
+            bookingMetrics.holdConfirmedTooLate();
+            throw new HoldExpiredException("The appointment " + id + " no longer holds a slot.");
+        }
+
+        return appointment;
+    }
+
+    @Override
+    public int expireHolds(Collection<SlotHold> holds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<Long>> holdsBySession = holds.stream().collect(Collectors.groupingBy(SlotHold::getSessionId,
+                Collectors.mapping(SlotHold::getAppointmentId, Collectors.toList())));
+
+        int expired = 0;
+        for (Map.Entry<Long, List<Long>> sessionHolds : holdsBySession.entrySet()) {
+            int sessionExpired = appointmentRepository.expireHolds(sessionHolds.getValue(), now);
+            if (sessionExpired > 0 && doctorSessionRepository.releaseSlots(sessionHolds.getKey(), sessionExpired) == 1) {
+                sessionCapacityRegistry.released(sessionHolds.getKey(), sessionExpired);
+                availabilitySnapshot.slotsChanged(sessionHolds.getKey(), sessionExpired);
+            }
+            expired += sessionExpired;
+        }
+        bookingMetrics.holdsExpired(expired);
+        if (expired > 0) invalidateCounts();
+        return expired;
     }
 
     @Override
     public void delete(Long id) {
         Appointment appointment = findById(id);
+        if (AppointmentStatus.occupiesSlot(appointment.getAppointmentStatus()))
+            releaseSlot(appointment.getSessionId());
+
         appointmentRepository.delete(appointment);
     }
 
     @Override
     public Appointment update(Long id, Appointment newAppointment) {
         Optional<Appointment> updatedAppointment = appointmentRepository.findById(id).map(appointment -> {
+            boolean occupied = AppointmentStatus.occupiesSlot(appointment.getAppointmentStatus());
+            boolean occupies = AppointmentStatus.occupiesSlot(newAppointment.getAppointmentStatus());
+            boolean sessionChanged = appointment.getSessionId() != newAppointment.getSessionId();
+
+            if (occupied && (!occupies || sessionChanged))
+                releaseSlot(appointment.getSessionId());
+            if (occupies && (!occupied || sessionChanged))
+                appointment.setQueueNo(reserveSlot(newAppointment.getSessionId()));
+
             appointment.setAppointmentStatus(newAppointment.getAppointmentStatus());
             appointment.setPatientId(newAppointment.getPatientId());
             appointment.setSessionId(newAppointment.getSessionId());
@@ -78,4 +203,72 @@ public class AppointmentServiceImpl implements AppointmentService {
         if (updatedAppointment.isPresent()) return updatedAppointment.get();
         throw new RecordNotFoundException("No appointment record found for the id: " + id);
     }
+
+    /**
+     * Books a slot for the given appointment in its session. Like the writes of the other services, a booking needs an
+     * authenticated user, which is recorded as the creator of the appointment.
+     *
+     * @param appointment       the appointment to be booked.
+     * @param appointmentStatus the initial status of the appointment.
+     * @return the saved appointment.
+     * @throws lk.channelling.exception.UserNotFoundException if no user is authenticated.
+     */
+    private Appointment book(Appointment appointment, AppointmentStatus appointmentStatus) {
+        LoginAuthenticationHandler.validateUser();
+
+        appointment.setQueueNo(reserveSlot(appointment.getSessionId()));
+        appointment.setAppointmentStatus(appointmentStatus.name());
+        appointment.setStatus(Status.ACTIVE);
+        appointment.setCreatedUser(LoginAuthenticationHandler.getUserName());
+        appointment.setCreatedDate(TimeUtil.getCurrentTimeStamp());
+
+        return appointmentRepository.save(appointment);
+    }
+
+    /**
+     * Reserves a slot in the given session and returns the queue number issued for it.
+     *
+     * @param sessionId the id of the doctor session.
+     * @return the queue number of the reserved slot.
+     */
+    private int reserveSlot(long sessionId) {
+        if (doctorSessionRepository.reserveSlot(sessionId) == 1) {
+            bookingMetrics.reserved();
+            sessionCapacityRegistry.reserved(sessionId);
+            availabilitySnapshot.slotsChanged(sessionId, -1);
+            return doctorSessionRepository.findLastQueueNoById(sessionId);
+        }
+
+        if (!doctorSessionRepository.existsById(sessionId))
+            throw new RecordNotFoundException("No doctor session found for the id: " + sessionId);
+
+        bookingMetrics.rejectedLostRace();
+        throw new SessionFullException("The doctor session " + sessionId + " is fully booked.");
+    }
+
+    /**
+     * Releases a previously reserved slot in the given session.
+     *
+     * @param sessionId the id of the doctor session.
+     */
+    private void releaseSlot(long sessionId) {
+        if (doctorSessionRepository.releaseSlot(sessionId) == 1) {
+            sessionCapacityRegistry.released(sessionId);
+            availabilitySnapshot.slotsChanged(sessionId, 1);
+        }
+    }
+
+    /**
+     * Drops the cached appointment counts once the transaction commits, for the bulk updates which bypass
+     * {@link lk.channelling.paging.CountCacheInvalidator}.
+     */
+    private void invalidateCounts() {
+        TransactionUtil.afterCommit(() -> countCache.invalidate(Appointment.class));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageArray getData(PagingRequest pagingRequest) {
+        return keysetPager.getData(PAGING_SCHEMA, pagingRequest);
+    }
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.services.impl;
+
+import lk.channelling.entity.User;
+import lk.channelling.enums.Status;
+import lk.channelling.enums.TokenType;
+import lk.channelling.exception.InvalidTokenException;
+import lk.channelling.exception.RecordNotFoundException;
+import lk.channelling.exception.UserNotFoundException;
+import lk.channelling.handlers.LoginAuthenticationHandler;
+import lk.channelling.repository.UserRepository;
+import lk.channelling.resources.TokenResponse;
+import lk.channelling.security.JwtService;
+import lk.channelling.security.PasswordHasher;
+import lk.channelling.security.VerifiedToken;
+import lk.channelling.services.AuthenticationService;
+import lk.channelling.util.TimeUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Service
+@Transactional(rollbackFor = Exception.class, readOnly = true)
+public class AuthenticationServiceImpl implements AuthenticationService {
+
+    /**
+     * Hash checked when the user does not exist or has no password, so a failed login takes the same time either way
+     * and does not reveal which usernames exist.
+     */
+    private static final String DUMMY_HASH = PasswordHasher.hash("dummy-password");
+
+    private final UserRepository userRepository;
+
+    private final JwtService jwtService;
+
+    @Autowired
+    public AuthenticationServiceImpl(UserRepository userRepository, JwtService jwtService) {
+        this.userRepository = userRepository;
+        this.jwtService = jwtService;
+    }
+
+    @Override
+    public TokenResponse login(String username, String password) {
+        Optional<User> user = userRepository.findByUsername(username).filter(this::isActive);
+        String passwordHash = user.map(User::getPassword).orElse(null);
+        boolean matches = PasswordHasher.matches(password, passwordHash != null ? passwordHash : DUMMY_HASH);
+        if (passwordHash == null || !matches) throw new UserNotFoundException("Invalid username or password.");
+        return issue(user.get().getUsername());
+    }
+
+    @Override
+    public TokenResponse refresh(String refreshToken) {
+        VerifiedToken token = jwtService.verify(refreshToken);
+        if (!token.isRefreshToken()) throw new InvalidTokenException("Not a refresh token.");
+        if (userRepository.findByUsername(token.getSubject()).filter(this::isActive).isEmpty())
+            throw new InvalidTokenException("Invalid or expired token.");
+        return issue(token.getSubject());
+    }
+
+    /**
+     * Sets the password of the authenticated user. The current password must match, unless the user has none yet, which
+     * is only possible when authenticated by the trusted
+     * {@value lk.channelling.security.JwtAuthenticationFilter#USER_NAME_HEADER} header. Otherwise an administrator sets
+     * the first password, see {@link #resetPassword(String, String)}.
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void changePassword(String currentPassword, String newPassword) {
+        LoginAuthenticationHandler.validateUser();
+
+        String username = LoginAuthenticationHandler.getUserName();
+        User user = userRepository.findByUsername(username).filter(this::isActive)
+                .orElseThrow(() -> new UserNotFoundException("Unauthorized."));
+        if (user.getPassword() != null && !PasswordHasher.matches(currentPassword, user.getPassword()))
+            throw new UserNotFoundException("Invalid username or password.");
+
+        user.setPassword(PasswordHasher.hash(newPassword));
+        user.setModifiedUser(username);
+        user.setModifiedDate(TimeUtil.getCurrentTimeStamp());
+        userRepository.save(user);
+    }
+
+    /**
+     * Sets the password of any user, for the administrators. The caller is authorized by the controller.
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void resetPassword(String username, String newPassword) {
+        LoginAuthenticationHandler.validateUser();
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RecordNotFoundException("No user found for the username: " + username));
+
+        user.setPassword(PasswordHasher.hash(newPassword));
+        user.setModifiedUser(LoginAuthenticationHandler.getUserName());
+        user.setModifiedDate(TimeUtil.getCurrentTimeStamp());
+        userRepository.save(user);
+    }
+
+    private TokenResponse issue(String username) {
+        return new TokenResponse(jwtService.generateAccessToken(username), jwtService.generateRefreshToken(username),
+                TokenType.BEARER, jwtService.getAccessTokenExpiration() / 1000);
+    }
+
+    private boolean isActive(User user) {
+        return user.getStatus() != Status.INACTIVE;
+    }
+}
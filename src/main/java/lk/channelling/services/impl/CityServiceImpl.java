@@ -15,10 +15,13 @@
  */
 package lk.channelling.services.impl;
 
+import lk.channelling.cache.ReferenceDataCache;
+import lk.channelling.cache.ReferenceDataCacheRegistry;
 import lk.channelling.entity.City;
 import lk.channelling.enums.Status;
 import lk.channelling.exception.OldObjectException;
 import lk.channelling.exception.RecordNotFoundException;
+import lk.channelling.geography.GeographyTree;
 import lk.channelling.handlers.LoginAuthenticationHandler;
 import lk.channelling.repository.CityRepository;
 import lk.channelling.services.CityService;
@@ -37,20 +40,35 @@ import java.util.Optional;
 public class CityServiceImpl implements CityService {
 
     private CityRepository cityRepository;
+    private ReferenceDataCache<City> cityCache;
+    private GeographyTree geographyTree;
+    private static final String BY_STATE_ID = "stateId";
 
     @Autowired
     public void setCityRepository(CityRepository cityRepository) {
         this.cityRepository = cityRepository;
     }
 
+    @Autowired
+    public void setGeographyTree(GeographyTree geographyTree) {
+        this.geographyTree = geographyTree;
+    }
+
+    @Autowired
+    public void setReferenceDataCacheRegistry(ReferenceDataCacheRegistry referenceDataCacheRegistry) {
+        this.cityCache = referenceDataCacheRegistry.register(
+                new ReferenceDataCache<City>("cities", () -> cityRepository.findAll(), null)
+                        .groupBy(BY_STATE_ID, City::getStateId));
+    }
+
     @Override
     public List<City> findAll() {
-        return cityRepository.findAll();
+        return cityCache.findAll();
     }
 
     @Override
     public City findById(Long id) {
-        Optional<City> city = cityRepository.findById(id);
+        Optional<City> city = cityCache.findById(id);
 
         if (city.isEmpty()) throw new RecordNotFoundException("No city record found for the id : " + id);
 
@@ -59,7 +77,7 @@ public class CityServiceImpl implements CityService {
 
     @Override
     public List<City> findByStatus(Status status) {
-        return cityRepository.findByStatus(status);
+        return cityCache.findByStatus(status);
     }
 
     @Override
@@ -70,16 +88,20 @@ public class CityServiceImpl implements CityService {
         city.setStatus(Status.ACTIVE);
         city.setCreatedDate(TimeUtil.getCurrentTimeStamp());
 
+        cityCache.reloadAfterCommit();
+        geographyTree.citySaved(city);
         return cityRepository.saveAndFlush(city);
     }
 
     @Override
     public void delete(Long id) {
-        City fetchedInstitution = findById(id);
+        Optional<City> fetchedInstitution = cityRepository.findById(id);
 
-        if (fetchedInstitution == null) throw new RecordNotFoundException("No city record found for the id : " + id);
+        if (fetchedInstitution.isEmpty()) throw new RecordNotFoundException("No city record found for the id : " + id);
 
-        cityRepository.delete(fetchedInstitution);
+        cityCache.reloadAfterCommit();
+        geographyTree.cityDeleted(id);
+        cityRepository.delete(fetchedInstitution.get());
     }
 
     @Override
@@ -95,6 +117,8 @@ public class CityServiceImpl implements CityService {
             city.setModifiedUser(LoginAuthenticationHandler.getUserName());
             city.setModifiedDate(TimeUtil.getCurrentTimeStamp());
 
+            cityCache.reloadAfterCommit();
+            geographyTree.citySaved(city);
             return cityRepository.save(city);
         });
 
@@ -104,6 +128,11 @@ public class CityServiceImpl implements CityService {
 
     @Override
     public List<City> findByStateId(Long stateId) {
-        return cityRepository.findByStateId(stateId);
+        return cityCache.findBy(BY_STATE_ID, stateId);
+    }
+
+    @Override
+    public String getETag() {
+        return cityCache.getETag();
     }
 }
@@ -15,13 +15,19 @@
  */
 package lk.channelling.services.impl;
 
+import lk.channelling.cache.ReferenceDataCache;
+import lk.channelling.cache.ReferenceDataCacheRegistry;
 import lk.channelling.entity.ContactMethod;
 import lk.channelling.enums.Status;
 import lk.channelling.exception.ObjectNotUniqueException;
 import lk.channelling.exception.OldObjectException;
 import lk.channelling.exception.RecordNotFoundException;
 import lk.channelling.handlers.LoginAuthenticationHandler;
+import lk.channelling.paging.KeysetPager;
+import lk.channelling.paging.PagingSchema;
 import lk.channelling.repository.ContactMethodRepository;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 import lk.channelling.services.ContactMethodService;
 import lk.channelling.util.TimeUtil;
 import lombok.extern.log4j.Log4j2;
@@ -38,20 +44,34 @@ import java.util.Optional;
 public class ContactMethodServiceImpl implements ContactMethodService {
 
     private ContactMethodRepository contactMethodRepository;
+    private ReferenceDataCache<ContactMethod> contactMethodCache;
+    private KeysetPager keysetPager;
+    private static final PagingSchema<ContactMethod> PAGING_SCHEMA = PagingSchema.definition(ContactMethod.class);
 
     @Autowired
     public void setContactMethodRepository(ContactMethodRepository contactMethodRepository) {
         this.contactMethodRepository = contactMethodRepository;
     }
 
+    @Autowired
+    public void setReferenceDataCacheRegistry(ReferenceDataCacheRegistry referenceDataCacheRegistry) {
+        this.contactMethodCache = referenceDataCacheRegistry.register(
+                new ReferenceDataCache<>("contact-methods", () -> contactMethodRepository.findAll(), ContactMethod::getCode));
+    }
+
+    @Autowired
+    public void setKeysetPager(KeysetPager keysetPager) {
+        this.keysetPager = keysetPager;
+    }
+
     @Override
     public List<ContactMethod> findAll() {
-        return contactMethodRepository.findAll();
+        return contactMethodCache.findAll();
     }
 
     @Override
     public ContactMethod findById(Long id) {
-        Optional<ContactMethod> country = contactMethodRepository.findById(id);
+        Optional<ContactMethod> country = contactMethodCache.findById(id);
 
         if (country.isEmpty()) throw new RecordNotFoundException("No contact method record found for the id : " + id);
 
@@ -60,7 +80,7 @@ public class ContactMethodServiceImpl implements ContactMethodService {
 
     @Override
     public ContactMethod findByCode(String code) {
-        Optional<ContactMethod> country = contactMethodRepository.findByCode(code);
+        Optional<ContactMethod> country = contactMethodCache.findByCode(code);
 
         if (country.isEmpty())
             throw new RecordNotFoundException("No contact method record found for the code : " + code);
@@ -70,7 +90,7 @@ public class ContactMethodServiceImpl implements ContactMethodService {
 
     @Override
     public List<ContactMethod> findByStatus(Status status) {
-        return contactMethodRepository.findByStatus(status);
+        return contactMethodCache.findByStatus(status);
     }
 
     @Override
@@ -85,17 +105,19 @@ public class ContactMethodServiceImpl implements ContactMethodService {
         contactMethod.setStatus(Status.ACTIVE);
         contactMethod.setCreatedDate(TimeUtil.getCurrentTimeStamp());
 
+        contactMethodCache.reloadAfterCommit();
         return contactMethodRepository.saveAndFlush(contactMethod);
     }
 
     @Override
     public void delete(Long id) {
-        ContactMethod fetchedContactMethod = findById(id);
+        Optional<ContactMethod> fetchedContactMethod = contactMethodRepository.findById(id);
 
-        if (fetchedContactMethod == null)
+        if (fetchedContactMethod.isEmpty())
             throw new RecordNotFoundException("No contact method record found for the id : " + id);
 
-        contactMethodRepository.delete(fetchedContactMethod);
+        contactMethodCache.reloadAfterCommit();
+        contactMethodRepository.delete(fetchedContactMethod.get());
     }
 
     @Override
@@ -111,10 +133,17 @@ public class ContactMethodServiceImpl implements ContactMethodService {
             cm.setModifiedUser(LoginAuthenticationHandler.getUserName());
             cm.setModifiedDate(TimeUtil.getCurrentTimeStamp());
 
+            contactMethodCache.reloadAfterCommit();
             return contactMethodRepository.save(cm);
         });
 
         if (updatedContactMethod.isPresent()) return updatedContactMethod.get();
         throw new RecordNotFoundException("No contact method record found for the id : " + id);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageArray getData(PagingRequest pagingRequest) {
+        return keysetPager.getData(PAGING_SCHEMA, pagingRequest);
+    }
 }
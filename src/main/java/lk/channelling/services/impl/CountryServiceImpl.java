@@ -15,12 +15,18 @@
  */
 package lk.channelling.services.impl;
 
+import lk.channelling.cache.ReferenceDataCache;
+import lk.channelling.cache.ReferenceDataCacheRegistry;
 import lk.channelling.entity.Country;
 import lk.channelling.enums.Status;
 import lk.channelling.exception.ObjectNotUniqueException;
 import lk.channelling.exception.OldObjectException;
 import lk.channelling.exception.RecordNotFoundException;
+import lk.channelling.geography.GeographyTree;
 import lk.channelling.handlers.LoginAuthenticationHandler;
+import lk.channelling.paging.KeysetPager;
+import lk.channelling.paging.PagingColumn;
+import lk.channelling.paging.PagingSchema;
 import lk.channelling.repository.CountryRepository;
 import lk.channelling.resources.PageArray;
 import lk.channelling.resources.PagingRequest;
@@ -28,14 +34,9 @@ import lk.channelling.services.CountryService;
 import lk.channelling.util.TimeUtil;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.text.SimpleDateFormat;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -45,21 +46,41 @@ import java.util.Optional;
 public class CountryServiceImpl implements CountryService {
 
     private CountryRepository countryRepository;
+    private ReferenceDataCache<Country> countryCache;
+    private GeographyTree geographyTree;
+    private KeysetPager keysetPager;
     private static final String RECORD_NOT_FOUND = "No country record found for the %s : %s";
+    private static final PagingSchema<Country> PAGING_SCHEMA = PagingSchema.definition(Country.class, PagingColumn.display("isoCode"));
 
     @Autowired
     public void setCountryRepository(CountryRepository countryRepository) {
         this.countryRepository = countryRepository;
     }
 
+    @Autowired
+    public void setGeographyTree(GeographyTree geographyTree) {
+        this.geographyTree = geographyTree;
+    }
+
+    @Autowired
+    public void setReferenceDataCacheRegistry(ReferenceDataCacheRegistry referenceDataCacheRegistry) {
+        this.countryCache = referenceDataCacheRegistry.register(
+                new ReferenceDataCache<>("countries", () -> countryRepository.findAll(), Country::getCode));
+    }
+
+    @Autowired
+    public void setKeysetPager(KeysetPager keysetPager) {
+        this.keysetPager = keysetPager;
+    }
+
     @Override
     public List<Country> findAll() {
-        return countryRepository.findAll();
+        return countryCache.findAll();
     }
 
     @Override
     public Country findById(Long id) {
-        Optional<Country> country = countryRepository.findById(id);
+        Optional<Country> country = countryCache.findById(id);
 
         if (country.isEmpty()) throw new RecordNotFoundException(String.format(RECORD_NOT_FOUND, "id", id));
 
@@ -68,7 +89,7 @@ public class CountryServiceImpl implements CountryService {
 
     @Override
     public Country findByCode(String code) {
-        Optional<Country> country = countryRepository.findByCode(code);
+        Optional<Country> country = countryCache.findByCode(code);
 
         if (country.isEmpty()) throw new RecordNotFoundException(String.format(RECORD_NOT_FOUND, "code", code));
 
@@ -77,7 +98,7 @@ public class CountryServiceImpl implements CountryService {
 
     @Override
     public List<Country> findByStatus(Status status) {
-        return countryRepository.findByStatus(status);
+        return countryCache.findByStatus(status);
     }
 
     @Override
@@ -93,15 +114,19 @@ public class CountryServiceImpl implements CountryService {
         country.setCreatedUser(LoginAuthenticationHandler.getUserName());
         country.setCreatedDate(TimeUtil.getCurrentTimeStamp());
 
+        countryCache.reloadAfterCommit();
+        geographyTree.countrySaved(country);
         return countryRepository.saveAndFlush(country);
     }
 
     @Override
     public void delete(Long id) {
-        Country fetchedCountry = findById(id);
-        if (fetchedCountry == null) throw new RecordNotFoundException(String.format(RECORD_NOT_FOUND, "id", id));
+        Optional<Country> fetchedCountry = countryRepository.findById(id);
+        if (fetchedCountry.isEmpty()) throw new RecordNotFoundException(String.format(RECORD_NOT_FOUND, "id", id));
 
-        countryRepository.delete(fetchedCountry);
+        countryCache.reloadAfterCommit();
+        geographyTree.countryDeleted(id);
+        countryRepository.delete(fetchedCountry.get());
     }
 
     @Override
@@ -117,6 +142,8 @@ public class CountryServiceImpl implements CountryService {
             country.setModifiedUser(LoginAuthenticationHandler.getUserName());
             country.setModifiedDate(TimeUtil.getCurrentTimeStamp());
 
+            countryCache.reloadAfterCommit();
+            geographyTree.countrySaved(country);
             return countryRepository.save(country);
         });
 
@@ -125,33 +152,13 @@ public class CountryServiceImpl implements CountryService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PageArray getData(PagingRequest pagingRequest) {
-        long total = countryRepository.count();
-
-        Pageable pageable = PageRequest.of(pagingRequest.getStart(), pagingRequest.getLength(), Sort.by("description").ascending());
-        List<Country> filtered = countryRepository.findAll(pageable).stream().toList();
-
-        PageArray pageArray = new PageArray();
-        pageArray.setRecordsFiltered((int) total);
-        pageArray.setRecordsTotal((int) total);
-        pageArray.setDraw(pagingRequest.getDraw());
-        pageArray.setData(filtered.stream().map(this::toStringList).toList());
-
-        return pageArray;
+        return keysetPager.getData(PAGING_SCHEMA, pagingRequest);
     }
 
-    private List<String> toStringList(Country country) {
-
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss");
-        return Arrays.asList(country.getCode(),
-                country.getDescription(),
-                country.getIsoCode(),
-                country.getStatus().toString(),
-                sdf.format(country.getCreatedDate()),
-                country.getCreatedUser());
+    @Override
+    public String getETag() {
+        return countryCache.getETag();
     }
-
-
 }
-
-
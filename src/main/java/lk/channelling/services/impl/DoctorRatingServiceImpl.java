@@ -3,6 +3,7 @@ package lk.channelling.services.impl;
 import lk.channelling.entity.DoctorRating;
 import lk.channelling.exception.RecordNotFoundException;
 import lk.channelling.repository.DoctorRatingRepository;
+import lk.channelling.search.DoctorSearchEngine;
 import lk.channelling.services.DoctorRatingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -17,9 +18,12 @@ public class DoctorRatingServiceImpl implements DoctorRatingService {
 
     private final DoctorRatingRepository doctorRatingRepository;
 
+    private final DoctorSearchEngine doctorSearchEngine;
+
     @Autowired
-    public DoctorRatingServiceImpl(DoctorRatingRepository doctorRatingRepository) {
+    public DoctorRatingServiceImpl(DoctorRatingRepository doctorRatingRepository, DoctorSearchEngine doctorSearchEngine) {
         this.doctorRatingRepository = doctorRatingRepository;
+        this.doctorSearchEngine = doctorSearchEngine;
     }
 
     @Override
@@ -38,11 +42,15 @@ public class DoctorRatingServiceImpl implements DoctorRatingService {
 
     @Override
     public DoctorRating save(DoctorRating doctorRating) {
-        return doctorRatingRepository.save(doctorRating);
+        DoctorRating savedDoctorRating = doctorRatingRepository.save(doctorRating);
+        doctorSearchEngine.ratingAdded(savedDoctorRating.getDoctorId(), savedDoctorRating.getRating());
+        return savedDoctorRating;
     }
 
     @Override
     public void delete(Long id) {
+        doctorRatingRepository.findById(id).ifPresent(doctorRating ->
+                doctorSearchEngine.ratingRemoved(doctorRating.getDoctorId(), doctorRating.getRating()));
         doctorRatingRepository.deleteById(id);
     }
 
@@ -54,6 +62,8 @@ public class DoctorRatingServiceImpl implements DoctorRatingService {
         }
 
         DoctorRating updatedDoctorRating = existingDoctorRating.get();
+        doctorSearchEngine.ratingRemoved(updatedDoctorRating.getDoctorId(), updatedDoctorRating.getRating());
+        doctorSearchEngine.ratingAdded(doctorRating.getDoctorId(), doctorRating.getRating());
         updatedDoctorRating.setPatientId(doctorRating.getPatientId());
         updatedDoctorRating.setSessionId(doctorRating.getSessionId());
         updatedDoctorRating.setDoctorId(doctorRating.getDoctorId());
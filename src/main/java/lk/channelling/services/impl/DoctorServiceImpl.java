@@ -15,6 +15,9 @@
  */
 package lk.channelling.services.impl;
 
+import lk.channelling.cache.JsonPayload;
+import lk.channelling.cache.JsonPayloadCache;
+import lk.channelling.cache.JsonPayloadCacheRegistry;
 import lk.channelling.entity.Doctor;
 import lk.channelling.enums.Status;
 import lk.channelling.exception.OldObjectException;
@@ -23,11 +26,14 @@ import lk.channelling.handlers.LoginAuthenticationHandler;
 import lk.channelling.repository.DoctorRepository;
 import lk.channelling.resources.ApiResponse;
 import lk.channelling.resources.ApiResponseItem;
+import lk.channelling.search.AutocompleteIndex;
+import lk.channelling.search.DoctorSearchEngine;
 import lk.channelling.services.DoctorService;
 import lk.channelling.util.TimeUtil;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -40,16 +46,47 @@ public class DoctorServiceImpl implements DoctorService {
 
     private DoctorRepository doctorRepository;
 
+    private JsonPayloadCache doctorsPayload;
+
+    private AutocompleteIndex autocompleteIndex;
+
+    private DoctorSearchEngine doctorSearchEngine;
+
     @Autowired
     public void setDoctorRepository(DoctorRepository doctorRepository) {
         this.doctorRepository = doctorRepository;
     }
 
+    @Autowired
+    public void setAutocompleteIndex(AutocompleteIndex autocompleteIndex) {
+        this.autocompleteIndex = autocompleteIndex;
+    }
+
+    @Autowired
+    public void setDoctorSearchEngine(DoctorSearchEngine doctorSearchEngine) {
+        this.doctorSearchEngine = doctorSearchEngine;
+    }
+
+    @Autowired
+    public void setJsonPayloadCacheRegistry(JsonPayloadCacheRegistry jsonPayloadCacheRegistry) {
+        this.doctorsPayload = jsonPayloadCacheRegistry.register("doctors", this::findAll);
+    }
+
     @Override
     public ApiResponse findAll() {
         return new ApiResponse(true, doctorRepository.findAll().stream().map(doctor -> new ApiResponseItem(doctor.getDisplayName(), Long.toString(doctor.getId()), doctor.getDisplayName())).toList());
     }
 
+    /**
+     * Serves the cached payload without opening a transaction, the repository is only queried when the payload is
+     * rebuilt.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public JsonPayload findAllJson() {
+        return doctorsPayload.get();
+    }
+
     @Override
     public Doctor findById(Long id) {
         Optional<Doctor> doctor = doctorRepository.findById(id);
@@ -72,6 +109,9 @@ public class DoctorServiceImpl implements DoctorService {
         doctor.setStatus(Status.ACTIVE);
         doctor.setCreatedDate(TimeUtil.getCurrentTimeStamp());
 
+        doctorsPayload.invalidateAfterCommit();
+        autocompleteIndex.doctorSaved(doctor);
+        doctorSearchEngine.doctorSaved(doctor);
         return doctorRepository.saveAndFlush(doctor);
     }
 
@@ -81,6 +121,9 @@ public class DoctorServiceImpl implements DoctorService {
 
         if (fetchedInstitution == null) throw new RecordNotFoundException("No doctor record found for the id : " + id);
 
+        doctorsPayload.invalidateAfterCommit();
+        autocompleteIndex.doctorDeleted(id);
+        doctorSearchEngine.doctorDeleted(id);
         doctorRepository.delete(fetchedInstitution);
     }
 
@@ -109,6 +152,9 @@ public class DoctorServiceImpl implements DoctorService {
             doctor.setModifiedUser(LoginAuthenticationHandler.getUserName());
             doctor.setModifiedDate(TimeUtil.getCurrentTimeStamp());
 
+            doctorsPayload.invalidateAfterCommit();
+            autocompleteIndex.doctorSaved(doctor);
+            doctorSearchEngine.doctorSaved(doctor);
             return doctorRepository.save(doctor);
         });
 
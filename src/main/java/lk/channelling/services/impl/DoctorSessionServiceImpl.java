@@ -16,15 +16,24 @@
 
 package lk.channelling.services.impl;
 
+import lk.channelling.availability.AvailabilitySnapshot;
+import lk.channelling.booking.SessionCapacityRegistry;
 import lk.channelling.entity.DoctorSession;
+import lk.channelling.enums.Status;
 import lk.channelling.exception.RecordNotFoundException;
 import lk.channelling.repository.DoctorSessionRepository;
+import lk.channelling.resources.AvailabilitySearch;
+import lk.channelling.resources.Page;
+import lk.channelling.resources.SessionAvailability;
+import lk.channelling.search.DoctorSearchEngine;
 import lk.channelling.services.DoctorSessionService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,11 +42,25 @@ import java.util.Optional;
 @Log4j2
 public class DoctorSessionServiceImpl implements DoctorSessionService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final int DEFAULT_SEARCH_DAYS = 7;
+
     private final DoctorSessionRepository doctorSessionRepository;
 
+    private final SessionCapacityRegistry sessionCapacityRegistry;
+
+    private final AvailabilitySnapshot availabilitySnapshot;
+
+    private final DoctorSearchEngine doctorSearchEngine;
+
     @Autowired
-    public DoctorSessionServiceImpl(DoctorSessionRepository doctorSessionRepository) {
+    public DoctorSessionServiceImpl(DoctorSessionRepository doctorSessionRepository, SessionCapacityRegistry sessionCapacityRegistry,
+                                    AvailabilitySnapshot availabilitySnapshot, DoctorSearchEngine doctorSearchEngine) {
         this.doctorSessionRepository = doctorSessionRepository;
+        this.sessionCapacityRegistry = sessionCapacityRegistry;
+        this.availabilitySnapshot = availabilitySnapshot;
+        this.doctorSearchEngine = doctorSearchEngine;
     }
 
     @Override
@@ -54,18 +77,26 @@ public class DoctorSessionServiceImpl implements DoctorSessionService {
 
     @Override
     public DoctorSession save(DoctorSession doctorSession) {
-        return doctorSessionRepository.save(doctorSession);
+        DoctorSession savedDoctorSession = doctorSessionRepository.save(doctorSession);
+        sessionCapacityRegistry.track(savedDoctorSession.getId(), savedDoctorSession.getMaxPatients(), 0);
+        availabilitySnapshot.sessionSaved(savedDoctorSession);
+        doctorSearchEngine.sessionAdded(savedDoctorSession.getDoctorId(), savedDoctorSession.getHospitalId(), savedDoctorSession.getSessionDateTime());
+        return savedDoctorSession;
     }
 
     @Override
     public void delete(Long id) {
         DoctorSession doctorSession = findById(id);
         doctorSessionRepository.delete(doctorSession);
+        sessionCapacityRegistry.untrack(id);
+        availabilitySnapshot.sessionDeleted(id);
+        doctorSearchEngine.sessionRemoved(doctorSession.getDoctorId(), doctorSession.getHospitalId(), doctorSession.getSessionDateTime());
     }
 
     @Override
     public DoctorSession update(Long id, DoctorSession newDoctorSession) {
         Optional<DoctorSession> updatedDoctorSession = doctorSessionRepository.findById(id).map(doctorSession -> {
+            doctorSearchEngine.sessionRemoved(doctorSession.getDoctorId(), doctorSession.getHospitalId(), doctorSession.getSessionDateTime());
             doctorSession.setDoctorId(newDoctorSession.getDoctorId());
             doctorSession.setHospitalId(newDoctorSession.getHospitalId());
             doctorSession.setSessionDateTime(newDoctorSession.getSessionDateTime());
@@ -75,9 +106,34 @@ public class DoctorSessionServiceImpl implements DoctorSessionService {
             doctorSession.setModifiedDate(newDoctorSession.getModifiedDate());
             doctorSession.setVersion(newDoctorSession.getVersion());
             doctorSession.setTotalFee(newDoctorSession.getTotalFee());
+            sessionCapacityRegistry.track(id, doctorSession.getMaxPatients(), doctorSession.getBookedPatients());
+            availabilitySnapshot.sessionSaved(doctorSession);
+            doctorSearchEngine.sessionAdded(doctorSession.getDoctorId(), doctorSession.getHospitalId(), doctorSession.getSessionDateTime());
             return doctorSessionRepository.save(doctorSession);
         });
         if (updatedDoctorSession.isPresent()) return updatedDoctorSession.get();
         throw new RecordNotFoundException("No doctor session record found for the id: " + id);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<SessionAvailability> findAvailable(AvailabilitySearch availabilitySearch, int page, int size) {
+        LocalDate from = availabilitySearch.getFrom() == null ? LocalDate.now() : availabilitySearch.getFrom();
+        LocalDate to = availabilitySearch.getTo() == null ? from.plusDays(DEFAULT_SEARCH_DAYS) : availabilitySearch.getTo();
+
+        org.springframework.data.domain.Page<SessionAvailability> sessions = doctorSessionRepository.findAvailable(
+                availabilitySearch.getDoctorId(),
+                availabilitySearch.getHospitalId(),
+                availabilitySearch.getCityId(),
+                availabilitySearch.getSpecializationId(),
+                from.atStartOfDay(),
+                to.plusDays(1).atStartOfDay(),
+                Status.ACTIVE,
+                PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE)));
+
+        Page<SessionAvailability> availability = new Page<>(sessions.getContent());
+        availability.setRecordsTotal((int) sessions.getTotalElements());
+        availability.setRecordsFiltered((int) sessions.getTotalElements());
+        return availability;
+    }
 }
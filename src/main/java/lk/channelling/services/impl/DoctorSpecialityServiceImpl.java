@@ -3,6 +3,7 @@ package lk.channelling.services.impl;
 import lk.channelling.entity.DoctorSpeciality;
 import lk.channelling.exception.RecordNotFoundException;
 import lk.channelling.repository.DoctorSpecialityRepository;
+import lk.channelling.search.DoctorSearchEngine;
 import lk.channelling.services.DoctorSpecialityService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -17,9 +18,12 @@ public class DoctorSpecialityServiceImpl implements DoctorSpecialityService {
 
     private final DoctorSpecialityRepository doctorSpecialityRepository;
 
+    private final DoctorSearchEngine doctorSearchEngine;
+
     @Autowired
-    public DoctorSpecialityServiceImpl(DoctorSpecialityRepository doctorSpecialityRepository) {
+    public DoctorSpecialityServiceImpl(DoctorSpecialityRepository doctorSpecialityRepository, DoctorSearchEngine doctorSearchEngine) {
         this.doctorSpecialityRepository = doctorSpecialityRepository;
+        this.doctorSearchEngine = doctorSearchEngine;
     }
 
     @Override
@@ -38,11 +42,15 @@ public class DoctorSpecialityServiceImpl implements DoctorSpecialityService {
 
     @Override
     public DoctorSpeciality save(DoctorSpeciality doctorSpeciality) {
-        return doctorSpecialityRepository.save(doctorSpeciality);
+        DoctorSpeciality savedDoctorSpeciality = doctorSpecialityRepository.save(doctorSpeciality);
+        doctorSearchEngine.specializationAdded(savedDoctorSpeciality.getDoctorId(), savedDoctorSpeciality.getSpecialityId());
+        return savedDoctorSpeciality;
     }
 
     @Override
     public void delete(Long id) {
+        doctorSpecialityRepository.findById(id).ifPresent(doctorSpeciality ->
+                doctorSearchEngine.specializationRemoved(doctorSpeciality.getDoctorId(), doctorSpeciality.getSpecialityId()));
         doctorSpecialityRepository.deleteById(id);
     }
 
@@ -54,6 +62,8 @@ public class DoctorSpecialityServiceImpl implements DoctorSpecialityService {
         }
 
         DoctorSpeciality updatedDoctorSpeciality = existingDoctorSpeciality.get();
+        doctorSearchEngine.specializationRemoved(updatedDoctorSpeciality.getDoctorId(), updatedDoctorSpeciality.getSpecialityId());
+        doctorSearchEngine.specializationAdded(doctorSpeciality.getDoctorId(), doctorSpeciality.getSpecialityId());
         updatedDoctorSpeciality.setDoctorId(doctorSpeciality.getDoctorId());
         updatedDoctorSpeciality.setSpecialityId(doctorSpeciality.getSpecialityId());
 
@@ -15,6 +15,9 @@
  */
 package lk.channelling.services.impl;
 
+import lk.channelling.cache.JsonPayload;
+import lk.channelling.cache.JsonPayloadCache;
+import lk.channelling.cache.JsonPayloadCacheRegistry;
 import lk.channelling.entity.Hospital;
 import lk.channelling.enums.Status;
 import lk.channelling.exception.OldObjectException;
@@ -23,11 +26,14 @@ import lk.channelling.handlers.LoginAuthenticationHandler;
 import lk.channelling.repository.HospitalRepository;
 import lk.channelling.resources.ApiResponse;
 import lk.channelling.resources.ApiResponseItem;
+import lk.channelling.search.AutocompleteIndex;
+import lk.channelling.search.DoctorSearchEngine;
 import lk.channelling.services.HospitalService;
 import lk.channelling.util.TimeUtil;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -40,11 +46,32 @@ public class HospitalServiceImpl implements HospitalService {
 
     private HospitalRepository hospitalRepository;
 
+    private JsonPayloadCache hospitalsPayload;
+
+    private AutocompleteIndex autocompleteIndex;
+
+    private DoctorSearchEngine doctorSearchEngine;
+
     @Autowired
     public void setHospitalRepository(HospitalRepository hospitalRepository) {
         this.hospitalRepository = hospitalRepository;
     }
 
+    @Autowired
+    public void setAutocompleteIndex(AutocompleteIndex autocompleteIndex) {
+        this.autocompleteIndex = autocompleteIndex;
+    }
+
+    @Autowired
+    public void setDoctorSearchEngine(DoctorSearchEngine doctorSearchEngine) {
+        this.doctorSearchEngine = doctorSearchEngine;
+    }
+
+    @Autowired
+    public void setJsonPayloadCacheRegistry(JsonPayloadCacheRegistry jsonPayloadCacheRegistry) {
+        this.hospitalsPayload = jsonPayloadCacheRegistry.register("hospitals", this::findAll);
+    }
+
     @Override
     public ApiResponse findAll() {
         return new ApiResponse(true, hospitalRepository.findAll().stream()
@@ -52,6 +79,16 @@ public class HospitalServiceImpl implements HospitalService {
                 .toList());
     }
 
+    /**
+     * Serves the cached payload without opening a transaction, the repository is only queried when the payload is
+     * rebuilt.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public JsonPayload findAllJson() {
+        return hospitalsPayload.get();
+    }
+
     @Override
     public Hospital findById(Long id) {
         Optional<Hospital> hospital = hospitalRepository.findById(id);
@@ -74,6 +111,9 @@ public class HospitalServiceImpl implements HospitalService {
         hospital.setStatus(Status.ACTIVE);
         hospital.setCreatedDate(TimeUtil.getCurrentTimeStamp());
 
+        hospitalsPayload.invalidateAfterCommit();
+        autocompleteIndex.hospitalSaved(hospital);
+        doctorSearchEngine.hospitalSaved(hospital);
         return hospitalRepository.saveAndFlush(hospital);
     }
 
@@ -84,6 +124,9 @@ public class HospitalServiceImpl implements HospitalService {
         if (fetchedInstitution == null)
             throw new RecordNotFoundException("No hospital record found for the id : " + id);
 
+        hospitalsPayload.invalidateAfterCommit();
+        autocompleteIndex.hospitalDeleted(id);
+        doctorSearchEngine.hospitalDeleted(id);
         hospitalRepository.delete(fetchedInstitution);
     }
 
@@ -106,6 +149,9 @@ public class HospitalServiceImpl implements HospitalService {
             hospital.setModifiedUser(LoginAuthenticationHandler.getUserName());
             hospital.setModifiedDate(TimeUtil.getCurrentTimeStamp());
 
+            hospitalsPayload.invalidateAfterCommit();
+            autocompleteIndex.hospitalSaved(hospital);
+            doctorSearchEngine.hospitalSaved(hospital);
             return hospitalRepository.save(hospital);
         });
 
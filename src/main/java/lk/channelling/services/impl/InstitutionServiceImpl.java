@@ -15,13 +15,20 @@
  */
 package lk.channelling.services.impl;
 
+import lk.channelling.cache.ReferenceDataCache;
+import lk.channelling.cache.ReferenceDataCacheRegistry;
 import lk.channelling.entity.Institution;
 import lk.channelling.enums.Status;
 import lk.channelling.exception.ObjectNotUniqueException;
 import lk.channelling.exception.OldObjectException;
 import lk.channelling.exception.RecordNotFoundException;
 import lk.channelling.handlers.LoginAuthenticationHandler;
+import lk.channelling.paging.KeysetPager;
+import lk.channelling.paging.PagingColumn;
+import lk.channelling.paging.PagingSchema;
 import lk.channelling.repository.InstitutionRepository;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 import lk.channelling.services.InstitutionService;
 import lk.channelling.util.TimeUtil;
 import lombok.extern.log4j.Log4j2;
@@ -38,20 +45,36 @@ import java.util.Optional;
 public class InstitutionServiceImpl implements InstitutionService {
 
     private InstitutionRepository institutionRepository;
+    private ReferenceDataCache<Institution> institutionCache;
+    private static final String BY_COUNTRY_ID = "countryId";
+    private KeysetPager keysetPager;
+    private static final PagingSchema<Institution> PAGING_SCHEMA = PagingSchema.definition(Institution.class, PagingColumn.indexed("countryId"));
 
     @Autowired
     public void setInstitutionRepository(InstitutionRepository institutionRepository) {
         this.institutionRepository = institutionRepository;
     }
 
+    @Autowired
+    public void setReferenceDataCacheRegistry(ReferenceDataCacheRegistry referenceDataCacheRegistry) {
+        this.institutionCache = referenceDataCacheRegistry.register(
+                new ReferenceDataCache<Institution>("institutions", () -> institutionRepository.findAll(), Institution::getCode)
+                        .groupBy(BY_COUNTRY_ID, Institution::getCountryId));
+    }
+
+    @Autowired
+    public void setKeysetPager(KeysetPager keysetPager) {
+        this.keysetPager = keysetPager;
+    }
+
     @Override
     public List<Institution> findAll() {
-        return institutionRepository.findAll();
+        return institutionCache.findAll();
     }
 
     @Override
     public Institution findById(Long id) {
-        Optional<Institution> institution = institutionRepository.findById(id);
+        Optional<Institution> institution = institutionCache.findById(id);
 
         if (institution.isEmpty()) throw new RecordNotFoundException("No institution record found for the id : " + id);
 
@@ -60,7 +83,7 @@ public class InstitutionServiceImpl implements InstitutionService {
 
     @Override
     public Institution findByCode(String code) {
-        Optional<Institution> institution = institutionRepository.findByCode(code);
+        Optional<Institution> institution = institutionCache.findByCode(code);
 
         if (institution.isEmpty())
             throw new RecordNotFoundException("No institution record found for the code : " + code);
@@ -70,7 +93,7 @@ public class InstitutionServiceImpl implements InstitutionService {
 
     @Override
     public List<Institution> findByStatus(Status status) {
-        return institutionRepository.findByStatus(status);
+        return institutionCache.findByStatus(status);
     }
 
     @Override
@@ -86,17 +109,19 @@ public class InstitutionServiceImpl implements InstitutionService {
         institution.setStatus(Status.ACTIVE);
         institution.setCreatedDate(TimeUtil.getCurrentTimeStamp());
 
+        institutionCache.reloadAfterCommit();
         return institutionRepository.saveAndFlush(institution);
     }
 
     @Override
     public void delete(Long id) {
-        Institution fetchedInstitution = findById(id);
+        Optional<Institution> fetchedInstitution = institutionRepository.findById(id);
 
-        if (fetchedInstitution == null)
+        if (fetchedInstitution.isEmpty())
             throw new RecordNotFoundException("No institution record found for the id : " + id);
 
-        institutionRepository.delete(fetchedInstitution);
+        institutionCache.reloadAfterCommit();
+        institutionRepository.delete(fetchedInstitution.get());
     }
 
     @Override
@@ -112,6 +137,7 @@ public class InstitutionServiceImpl implements InstitutionService {
             institution.setModifiedUser(LoginAuthenticationHandler.getUserName());
             institution.setModifiedDate(TimeUtil.getCurrentTimeStamp());
 
+            institutionCache.reloadAfterCommit();
             return institutionRepository.save(institution);
         });
 
@@ -121,6 +147,12 @@ public class InstitutionServiceImpl implements InstitutionService {
 
     @Override
     public List<Institution> findByCountryId(Long institutionId) {
-        return institutionRepository.findByCountryId(institutionId);
+        return institutionCache.findBy(BY_COUNTRY_ID, institutionId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageArray getData(PagingRequest pagingRequest) {
+        return keysetPager.getData(PAGING_SCHEMA, pagingRequest);
     }
 }
@@ -18,7 +18,12 @@ package lk.channelling.services.impl;
 
 import lk.channelling.entity.Patient;
 import lk.channelling.exception.RecordNotFoundException;
+import lk.channelling.paging.KeysetPager;
+import lk.channelling.paging.PagingColumn;
+import lk.channelling.paging.PagingSchema;
 import lk.channelling.repository.PatientRepository;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 import lk.channelling.services.PatientService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,11 +38,23 @@ import java.util.Optional;
 @Log4j2
 public class PatientServiceImpl implements PatientService {
 
+    private static final PagingSchema<Patient> PAGING_SCHEMA = PagingSchema.of(Patient.class,
+            PagingColumn.indexed("id"),
+            PagingColumn.display("displayName"),
+            PagingColumn.display("identificationValue"),
+            PagingColumn.display("mobileNo1"),
+            PagingColumn.display("email"),
+            PagingColumn.indexed("cityId"),
+            PagingColumn.indexed("titleId"));
+
     private final PatientRepository patientRepository;
 
+    private final KeysetPager keysetPager;
+
     @Autowired
-    public PatientServiceImpl(PatientRepository patientRepository) {
+    public PatientServiceImpl(PatientRepository patientRepository, KeysetPager keysetPager) {
         this.patientRepository = patientRepository;
+        this.keysetPager = keysetPager;
     }
 
     @Override
@@ -90,4 +107,10 @@ public class PatientServiceImpl implements PatientService {
         if (updatedPatient.isPresent()) return updatedPatient.get();
         throw new RecordNotFoundException("No patient record found for the id: " + id);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageArray getData(PagingRequest pagingRequest) {
+        return keysetPager.getData(PAGING_SCHEMA, pagingRequest);
+    }
 }
@@ -2,7 +2,13 @@ package lk.channelling.services.impl;
 
 import lk.channelling.entity.Payment;
 import lk.channelling.exception.RecordNotFoundException;
+import lk.channelling.paging.KeysetPager;
+import lk.channelling.paging.PagingColumn;
+import lk.channelling.paging.PagingSchema;
 import lk.channelling.repository.PaymentRepository;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
+import lk.channelling.services.AppointmentService;
 import lk.channelling.services.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -15,11 +21,24 @@ import java.util.Optional;
 @Transactional(rollbackFor = Exception.class)
 public class PaymentServiceImpl implements PaymentService {
 
+    private static final PagingSchema<Payment> PAGING_SCHEMA = PagingSchema.of(Payment.class,
+            PagingColumn.indexed("id"),
+            PagingColumn.indexed("appointmentId"),
+            PagingColumn.display("paymentDate"),
+            PagingColumn.display("amount"),
+            PagingColumn.display("paymentMethod"));
+
     private final PaymentRepository paymentRepository;
 
+    private final AppointmentService appointmentService;
+
+    private final KeysetPager keysetPager;
+
     @Autowired
-    public PaymentServiceImpl(PaymentRepository paymentRepository) {
+    public PaymentServiceImpl(PaymentRepository paymentRepository, AppointmentService appointmentService, KeysetPager keysetPager) {
         this.paymentRepository = paymentRepository;
+        this.appointmentService = appointmentService;
+        this.keysetPager = keysetPager;
     }
 
     @Override
@@ -38,6 +57,7 @@ public class PaymentServiceImpl implements PaymentService {
 
     @Override
     public Payment save(Payment payment) {
+        appointmentService.confirmHold(payment.getAppointmentId());
         return paymentRepository.save(payment);
     }
 
@@ -61,4 +81,10 @@ public class PaymentServiceImpl implements PaymentService {
 
         return paymentRepository.save(updatedPayment);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageArray getData(PagingRequest pagingRequest) {
+        return keysetPager.getData(PAGING_SCHEMA, pagingRequest);
+    }
 }
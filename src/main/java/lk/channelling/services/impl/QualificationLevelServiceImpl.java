@@ -15,13 +15,20 @@
  */
 package lk.channelling.services.impl;
 
+import lk.channelling.cache.ReferenceDataCache;
+import lk.channelling.cache.ReferenceDataCacheRegistry;
 import lk.channelling.entity.QualificationLevel;
 import lk.channelling.enums.Status;
 import lk.channelling.exception.ObjectNotUniqueException;
 import lk.channelling.exception.OldObjectException;
 import lk.channelling.exception.RecordNotFoundException;
 import lk.channelling.handlers.LoginAuthenticationHandler;
+import lk.channelling.paging.KeysetPager;
+import lk.channelling.paging.PagingColumn;
+import lk.channelling.paging.PagingSchema;
 import lk.channelling.repository.QualificationLevelRepository;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 import lk.channelling.services.QualificationLevelService;
 import lk.channelling.util.TimeUtil;
 import lombok.extern.log4j.Log4j2;
@@ -38,20 +45,34 @@ import java.util.Optional;
 public class QualificationLevelServiceImpl implements QualificationLevelService {
 
     private QualificationLevelRepository qualificationLevelRepository;
+    private ReferenceDataCache<QualificationLevel> qualificationLevelCache;
+    private KeysetPager keysetPager;
+    private static final PagingSchema<QualificationLevel> PAGING_SCHEMA = PagingSchema.definition(QualificationLevel.class, PagingColumn.display("level"));
 
     @Autowired
     public void setQualificationLevelRepository(QualificationLevelRepository qualificationLevelRepository) {
         this.qualificationLevelRepository = qualificationLevelRepository;
     }
 
+    @Autowired
+    public void setReferenceDataCacheRegistry(ReferenceDataCacheRegistry referenceDataCacheRegistry) {
+        this.qualificationLevelCache = referenceDataCacheRegistry.register(
+                new ReferenceDataCache<>("qualification-levels", () -> qualificationLevelRepository.findAll(), QualificationLevel::getCode));
+    }
+
+    @Autowired
+    public void setKeysetPager(KeysetPager keysetPager) {
+        this.keysetPager = keysetPager;
+    }
+
     @Override
     public List<QualificationLevel> findAll() {
-        return qualificationLevelRepository.findAll();
+        return qualificationLevelCache.findAll();
     }
 
     @Override
     public QualificationLevel findById(Long id) {
-        Optional<QualificationLevel> country = qualificationLevelRepository.findById(id);
+        Optional<QualificationLevel> country = qualificationLevelCache.findById(id);
 
         if (country.isEmpty()) throw new RecordNotFoundException("No Qualification Level record found for the id : " + id);
 
@@ -60,7 +81,7 @@ public class QualificationLevelServiceImpl implements QualificationLevelService
 
     @Override
     public QualificationLevel findByCode(String code) {
-        Optional<QualificationLevel> country = qualificationLevelRepository.findByCode(code);
+        Optional<QualificationLevel> country = qualificationLevelCache.findByCode(code);
 
         if (country.isEmpty())
             throw new RecordNotFoundException("No Qualification Level record found for the code : " + code);
@@ -70,7 +91,7 @@ public class QualificationLevelServiceImpl implements QualificationLevelService
 
     @Override
     public List<QualificationLevel> findByStatus(Status status) {
-        return qualificationLevelRepository.findByStatus(status);
+        return qualificationLevelCache.findByStatus(status);
     }
 
     @Override
@@ -85,17 +106,19 @@ public class QualificationLevelServiceImpl implements QualificationLevelService
         qualificationLevel.setStatus(Status.ACTIVE);
         qualificationLevel.setCreatedDate(TimeUtil.getCurrentTimeStamp());
 
+        qualificationLevelCache.reloadAfterCommit();
         return qualificationLevelRepository.saveAndFlush(qualificationLevel);
     }
 
     @Override
     public void delete(Long id) {
-        QualificationLevel fetchedQualificationLevel = findById(id);
+        Optional<QualificationLevel> fetchedQualificationLevel = qualificationLevelRepository.findById(id);
 
-        if (fetchedQualificationLevel == null)
+        if (fetchedQualificationLevel.isEmpty())
             throw new RecordNotFoundException("No Qualification Level record found for the id : " + id);
 
-        qualificationLevelRepository.delete(fetchedQualificationLevel);
+        qualificationLevelCache.reloadAfterCommit();
+        qualificationLevelRepository.delete(fetchedQualificationLevel.get());
     }
 
     @Override
@@ -111,10 +134,17 @@ public class QualificationLevelServiceImpl implements QualificationLevelService
             cm.setModifiedUser(LoginAuthenticationHandler.getUserName());
             cm.setModifiedDate(TimeUtil.getCurrentTimeStamp());
 
+            qualificationLevelCache.reloadAfterCommit();
             return qualificationLevelRepository.save(cm);
         });
 
         if (updatedQualificationLevel.isPresent()) return updatedQualificationLevel.get();
         throw new RecordNotFoundException("No Qualification Level record found for the id : " + id);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageArray getData(PagingRequest pagingRequest) {
+        return keysetPager.getData(PAGING_SCHEMA, pagingRequest);
+    }
 }
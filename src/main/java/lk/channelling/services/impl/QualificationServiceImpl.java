@@ -15,13 +15,20 @@
  */
 package lk.channelling.services.impl;
 
+import lk.channelling.cache.ReferenceDataCache;
+import lk.channelling.cache.ReferenceDataCacheRegistry;
 import lk.channelling.entity.Qualification;
 import lk.channelling.enums.Status;
 import lk.channelling.exception.ObjectNotUniqueException;
 import lk.channelling.exception.OldObjectException;
 import lk.channelling.exception.RecordNotFoundException;
 import lk.channelling.handlers.LoginAuthenticationHandler;
+import lk.channelling.paging.KeysetPager;
+import lk.channelling.paging.PagingColumn;
+import lk.channelling.paging.PagingSchema;
 import lk.channelling.repository.QualificationRepository;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 import lk.channelling.services.QualificationService;
 import lk.channelling.util.TimeUtil;
 import lombok.extern.log4j.Log4j2;
@@ -38,20 +45,36 @@ import java.util.Optional;
 public class QualificationServiceImpl implements QualificationService {
 
     private QualificationRepository qualificationRepository;
+    private ReferenceDataCache<Qualification> qualificationCache;
+    private static final String BY_QUALIFICATION_LEVEL_ID = "qualificationLevelId";
+    private KeysetPager keysetPager;
+    private static final PagingSchema<Qualification> PAGING_SCHEMA = PagingSchema.definition(Qualification.class, PagingColumn.indexed("qualificationLevelId"));
 
     @Autowired
     public void setQualificationRepository(QualificationRepository qualificationRepository) {
         this.qualificationRepository = qualificationRepository;
     }
 
+    @Autowired
+    public void setReferenceDataCacheRegistry(ReferenceDataCacheRegistry referenceDataCacheRegistry) {
+        this.qualificationCache = referenceDataCacheRegistry.register(
+                new ReferenceDataCache<Qualification>("qualifications", () -> qualificationRepository.findAll(), Qualification::getCode)
+                        .groupBy(BY_QUALIFICATION_LEVEL_ID, Qualification::getQualificationLevelId));
+    }
+
+    @Autowired
+    public void setKeysetPager(KeysetPager keysetPager) {
+        this.keysetPager = keysetPager;
+    }
+
     @Override
     public List<Qualification> findAll() {
-        return qualificationRepository.findAll();
+        return qualificationCache.findAll();
     }
 
     @Override
     public Qualification findById(Long id) {
-        Optional<Qualification> qualification = qualificationRepository.findById(id);
+        Optional<Qualification> qualification = qualificationCache.findById(id);
 
         if (qualification.isEmpty())
             throw new RecordNotFoundException("No qualification Level record found for the id : " + id);
@@ -61,7 +84,7 @@ public class QualificationServiceImpl implements QualificationService {
 
     @Override
     public Qualification findByCode(String code) {
-        Optional<Qualification> qualification = qualificationRepository.findByCode(code);
+        Optional<Qualification> qualification = qualificationCache.findByCode(code);
 
         if (qualification.isEmpty())
             throw new RecordNotFoundException("No qualification Level record found for the code : " + code);
@@ -71,7 +94,7 @@ public class QualificationServiceImpl implements QualificationService {
 
     @Override
     public List<Qualification> findByStatus(Status status) {
-        return qualificationRepository.findByStatus(status);
+        return qualificationCache.findByStatus(status);
     }
 
     @Override
@@ -87,17 +110,19 @@ public class QualificationServiceImpl implements QualificationService {
         qualification.setStatus(Status.ACTIVE);
         qualification.setCreatedDate(TimeUtil.getCurrentTimeStamp());
 
+        qualificationCache.reloadAfterCommit();
         return qualificationRepository.saveAndFlush(qualification);
     }
 
     @Override
     public void delete(Long id) {
-        Qualification fetchedQualification = findById(id);
+        Optional<Qualification> fetchedQualification = qualificationRepository.findById(id);
 
-        if (fetchedQualification == null)
+        if (fetchedQualification.isEmpty())
             throw new RecordNotFoundException("No qualification record found for the id : " + id);
 
-        qualificationRepository.delete(fetchedQualification);
+        qualificationCache.reloadAfterCommit();
+        qualificationRepository.delete(fetchedQualification.get());
     }
 
     @Override
@@ -113,6 +138,7 @@ public class QualificationServiceImpl implements QualificationService {
             qualification.setModifiedUser(LoginAuthenticationHandler.getUserName());
             qualification.setModifiedDate(TimeUtil.getCurrentTimeStamp());
 
+            qualificationCache.reloadAfterCommit();
             return qualificationRepository.save(qualification);
         });
 
@@ -122,6 +148,12 @@ public class QualificationServiceImpl implements QualificationService {
 
     @Override
     public List<Qualification> findByQualificationLevelId(Long qualificationLevelId) {
-        return qualificationRepository.findByQualificationLevelId(qualificationLevelId);
+        return qualificationCache.findBy(BY_QUALIFICATION_LEVEL_ID, qualificationLevelId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageArray getData(PagingRequest pagingRequest) {
+        return keysetPager.getData(PAGING_SCHEMA, pagingRequest);
     }
 }
@@ -1,5 +1,7 @@
 package lk.channelling.services.impl;
 
+import lk.channelling.cache.ReferenceDataCache;
+import lk.channelling.cache.ReferenceDataCacheRegistry;
 import lk.channelling.entity.RatingCategory;
 import lk.channelling.exception.RecordNotFoundException;
 import lk.channelling.repository.RatingCategoryRepository;
@@ -17,19 +19,23 @@ public class RatingCategoryServiceImpl implements RatingCategoryService {
 
     private final RatingCategoryRepository ratingCategoryRepository;
 
+    private final ReferenceDataCache<RatingCategory> ratingCategoryCache;
+
     @Autowired
-    public RatingCategoryServiceImpl(RatingCategoryRepository ratingCategoryRepository) {
+    public RatingCategoryServiceImpl(RatingCategoryRepository ratingCategoryRepository, ReferenceDataCacheRegistry referenceDataCacheRegistry) {
         this.ratingCategoryRepository = ratingCategoryRepository;
+        this.ratingCategoryCache = referenceDataCacheRegistry.register(
+                new ReferenceDataCache<>("rating-categories", ratingCategoryRepository::findAll, null));
     }
 
     @Override
     public List<RatingCategory> findAll() {
-        return ratingCategoryRepository.findAll();
+        return ratingCategoryCache.findAll();
     }
 
     @Override
     public RatingCategory findById(Long id) {
-        Optional<RatingCategory> ratingCategory = ratingCategoryRepository.findById(id);
+        Optional<RatingCategory> ratingCategory = ratingCategoryCache.findById(id);
         if (ratingCategory.isEmpty()) {
             throw new RecordNotFoundException("Rating category not found with id: " + id);
         }
@@ -38,11 +44,13 @@ public class RatingCategoryServiceImpl implements RatingCategoryService {
 
     @Override
     public RatingCategory save(RatingCategory ratingCategory) {
+        ratingCategoryCache.reloadAfterCommit();
         return ratingCategoryRepository.save(ratingCategory);
     }
 
     @Override
     public void delete(Long id) {
+        ratingCategoryCache.reloadAfterCommit();
         ratingCategoryRepository.deleteById(id);
     }
 
@@ -56,6 +64,7 @@ public class RatingCategoryServiceImpl implements RatingCategoryService {
         RatingCategory updatedRatingCategory = existingRatingCategory.get();
         updatedRatingCategory.setCategoryName(ratingCategory.getCategoryName());
 
+        ratingCategoryCache.reloadAfterCommit();
         return ratingCategoryRepository.save(updatedRatingCategory);
     }
 }
@@ -15,20 +15,27 @@
  */
 package lk.channelling.services.impl;
 
+import lk.channelling.cache.ReferenceDataCache;
+import lk.channelling.cache.ReferenceDataCacheRegistry;
 import lk.channelling.entity.Specialization;
 import lk.channelling.enums.Status;
 import lk.channelling.exception.ObjectNotUniqueException;
 import lk.channelling.exception.OldObjectException;
 import lk.channelling.exception.RecordNotFoundException;
 import lk.channelling.handlers.LoginAuthenticationHandler;
+import lk.channelling.paging.KeysetPager;
+import lk.channelling.paging.PagingSchema;
 import lk.channelling.repository.SpecializationRepository;
 import lk.channelling.resources.ApiResponse;
 import lk.channelling.resources.ApiResponseItem;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 import lk.channelling.services.SpecializationService;
 import lk.channelling.util.TimeUtil;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -40,22 +47,36 @@ import java.util.Optional;
 public class SpecializationServiceImpl implements SpecializationService {
 
     private SpecializationRepository specializationRepository;
+    private ReferenceDataCache<Specialization> specializationCache;
+    private KeysetPager keysetPager;
+    private static final PagingSchema<Specialization> PAGING_SCHEMA = PagingSchema.definition(Specialization.class);
 
     @Autowired
     public void setSpecializationRepository(SpecializationRepository specializationRepository) {
         this.specializationRepository = specializationRepository;
     }
 
+    @Autowired
+    public void setReferenceDataCacheRegistry(ReferenceDataCacheRegistry referenceDataCacheRegistry) {
+        this.specializationCache = referenceDataCacheRegistry.register(
+                new ReferenceDataCache<>("specializations", () -> specializationRepository.findAll(), Specialization::getCode));
+    }
+
+    @Autowired
+    public void setKeysetPager(KeysetPager keysetPager) {
+        this.keysetPager = keysetPager;
+    }
+
     @Override
     public ApiResponse findAll() {
-        return new ApiResponse(true, specializationRepository.findAll().stream()
+        return new ApiResponse(true, specializationCache.findAll().stream()
                 .map(specialization -> new ApiResponseItem(specialization.getDescription(), specialization.getCode(), specialization.getDescription()))
                 .toList());
     }
 
     @Override
     public Specialization findById(Long id) {
-        Optional<Specialization> country = specializationRepository.findById(id);
+        Optional<Specialization> country = specializationCache.findById(id);
 
         if (country.isEmpty()) throw new RecordNotFoundException("No Specialization record found for the id : " + id);
 
@@ -64,7 +85,7 @@ public class SpecializationServiceImpl implements SpecializationService {
 
     @Override
     public Specialization findByCode(String code) {
-        Optional<Specialization> country = specializationRepository.findByCode(code);
+        Optional<Specialization> country = specializationCache.findByCode(code);
 
         if (country.isEmpty())
             throw new RecordNotFoundException("No Specialization record found for the code : " + code);
@@ -73,8 +94,9 @@ public class SpecializationServiceImpl implements SpecializationService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Specialization> findByStatus(Status status) {
-        return specializationRepository.findByStatus(status);
+        return specializationCache.findByStatus(status);
     }
 
     @Override
@@ -89,17 +111,19 @@ public class SpecializationServiceImpl implements SpecializationService {
         specialization.setStatus(Status.ACTIVE);
         specialization.setCreatedDate(TimeUtil.getCurrentTimeStamp());
 
+        specializationCache.reloadAfterCommit();
         return specializationRepository.saveAndFlush(specialization);
     }
 
     @Override
     public void delete(Long id) {
-        Specialization fetchedSpecialization = findById(id);
+        Optional<Specialization> fetchedSpecialization = specializationRepository.findById(id);
 
-        if (fetchedSpecialization == null)
+        if (fetchedSpecialization.isEmpty())
             throw new RecordNotFoundException("No Specialization record found for the id : " + id);
 
-        specializationRepository.delete(fetchedSpecialization);
+        specializationCache.reloadAfterCommit();
+        specializationRepository.delete(fetchedSpecialization.get());
     }
 
     @Override
@@ -115,10 +139,22 @@ public class SpecializationServiceImpl implements SpecializationService {
             cm.setModifiedUser(LoginAuthenticationHandler.getUserName());
             cm.setModifiedDate(TimeUtil.getCurrentTimeStamp());
 
+            specializationCache.reloadAfterCommit();
             return specializationRepository.save(cm);
         });
 
         if (updatedSpecialization.isPresent()) return updatedSpecialization.get();
         throw new RecordNotFoundException("No Specialization record found for the id : " + id);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageArray getData(PagingRequest pagingRequest) {
+        return keysetPager.getData(PAGING_SCHEMA, pagingRequest);
+    }
+
+    @Override
+    public String getETag() {
+        return specializationCache.getETag();
+    }
 }
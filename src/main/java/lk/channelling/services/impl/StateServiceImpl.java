@@ -15,10 +15,13 @@
  */
 package lk.channelling.services.impl;
 
+import lk.channelling.cache.ReferenceDataCache;
+import lk.channelling.cache.ReferenceDataCacheRegistry;
 import lk.channelling.entity.State;
 import lk.channelling.enums.Status;
 import lk.channelling.exception.OldObjectException;
 import lk.channelling.exception.RecordNotFoundException;
+import lk.channelling.geography.GeographyTree;
 import lk.channelling.handlers.LoginAuthenticationHandler;
 import lk.channelling.repository.StateRepository;
 import lk.channelling.services.StateService;
@@ -37,20 +40,35 @@ import java.util.Optional;
 public class StateServiceImpl implements StateService {
 
     private StateRepository stateRepository;
+    private ReferenceDataCache<State> stateCache;
+    private GeographyTree geographyTree;
+    private static final String BY_COUNTRY_ID = "countryId";
 
     @Autowired
     public void setStateRepository(StateRepository stateRepository) {
         this.stateRepository = stateRepository;
     }
 
+    @Autowired
+    public void setGeographyTree(GeographyTree geographyTree) {
+        this.geographyTree = geographyTree;
+    }
+
+    @Autowired
+    public void setReferenceDataCacheRegistry(ReferenceDataCacheRegistry referenceDataCacheRegistry) {
+        this.stateCache = referenceDataCacheRegistry.register(
+                new ReferenceDataCache<State>("states", () -> stateRepository.findAll(), null)
+                        .groupBy(BY_COUNTRY_ID, State::getCountryId));
+    }
+
     @Override
     public List<State> findAll() {
-        return stateRepository.findAll();
+        return stateCache.findAll();
     }
 
     @Override
     public State findById(Long id) {
-        Optional<State> state = stateRepository.findById(id);
+        Optional<State> state = stateCache.findById(id);
 
         if (state.isEmpty()) throw new RecordNotFoundException("No state record found for the id : " + id);
 
@@ -59,7 +77,7 @@ public class StateServiceImpl implements StateService {
 
     @Override
     public List<State> findByStatus(Status status) {
-        return stateRepository.findByStatus(status);
+        return stateCache.findByStatus(status);
     }
 
     @Override
@@ -70,16 +88,20 @@ public class StateServiceImpl implements StateService {
         state.setStatus(Status.ACTIVE);
         state.setCreatedDate(TimeUtil.getCurrentTimeStamp());
 
+        stateCache.reloadAfterCommit();
+        geographyTree.stateSaved(state);
         return stateRepository.saveAndFlush(state);
     }
 
     @Override
     public void delete(Long id) {
-        State fetchedInstitution = findById(id);
+        Optional<State> fetchedInstitution = stateRepository.findById(id);
 
-        if (fetchedInstitution == null) throw new RecordNotFoundException("No state record found for the id : " + id);
+        if (fetchedInstitution.isEmpty()) throw new RecordNotFoundException("No state record found for the id : " + id);
 
-        stateRepository.delete(fetchedInstitution);
+        stateCache.reloadAfterCommit();
+        geographyTree.stateDeleted(id);
+        stateRepository.delete(fetchedInstitution.get());
     }
 
     @Override
@@ -95,6 +117,8 @@ public class StateServiceImpl implements StateService {
             state.setModifiedUser(LoginAuthenticationHandler.getUserName());
             state.setModifiedDate(TimeUtil.getCurrentTimeStamp());
 
+            stateCache.reloadAfterCommit();
+            geographyTree.stateSaved(state);
             return stateRepository.save(state);
         });
 
@@ -104,6 +128,11 @@ public class StateServiceImpl implements StateService {
 
     @Override
     public List<State> findByCountryId(Long countryId) {
-        return stateRepository.findByCountryId(countryId);
+        return stateCache.findBy(BY_COUNTRY_ID, countryId);
+    }
+
+    @Override
+    public String getETag() {
+        return stateCache.getETag();
     }
 }
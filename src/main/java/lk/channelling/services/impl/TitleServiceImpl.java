@@ -15,13 +15,19 @@
  */
 package lk.channelling.services.impl;
 
+import lk.channelling.cache.ReferenceDataCache;
+import lk.channelling.cache.ReferenceDataCacheRegistry;
 import lk.channelling.entity.Title;
 import lk.channelling.enums.Status;
 import lk.channelling.exception.ObjectNotUniqueException;
 import lk.channelling.exception.OldObjectException;
 import lk.channelling.exception.RecordNotFoundException;
 import lk.channelling.handlers.LoginAuthenticationHandler;
+import lk.channelling.paging.KeysetPager;
+import lk.channelling.paging.PagingSchema;
 import lk.channelling.repository.TitleRepository;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 import lk.channelling.services.TitleService;
 import lk.channelling.util.TimeUtil;
 import lombok.extern.log4j.Log4j2;
@@ -38,20 +44,34 @@ import java.util.Optional;
 public class TitleServiceImpl implements TitleService {
 
     private TitleRepository titleRepository;
+    private ReferenceDataCache<Title> titleCache;
+    private KeysetPager keysetPager;
+    private static final PagingSchema<Title> PAGING_SCHEMA = PagingSchema.definition(Title.class);
 
     @Autowired
     public void setTitleRepository(TitleRepository titleRepository) {
         this.titleRepository = titleRepository;
     }
 
+    @Autowired
+    public void setReferenceDataCacheRegistry(ReferenceDataCacheRegistry referenceDataCacheRegistry) {
+        this.titleCache = referenceDataCacheRegistry.register(
+                new ReferenceDataCache<>("titles", () -> titleRepository.findAll(), Title::getCode));
+    }
+
+    @Autowired
+    public void setKeysetPager(KeysetPager keysetPager) {
+        this.keysetPager = keysetPager;
+    }
+
     @Override
     public List<Title> findAll() {
-        return titleRepository.findAll();
+        return titleCache.findAll();
     }
 
     @Override
     public Title findById(Long id) {
-        Optional<Title> title = titleRepository.findById(id);
+        Optional<Title> title = titleCache.findById(id);
 
         if (title.isEmpty()) throw new RecordNotFoundException("No title record found for the id : " + id);
 
@@ -60,7 +80,7 @@ public class TitleServiceImpl implements TitleService {
 
     @Override
     public Title findByCode(String code) {
-        Optional<Title> title = titleRepository.findByCode(code);
+        Optional<Title> title = titleCache.findByCode(code);
 
         if (title.isEmpty()) throw new RecordNotFoundException("No title record found for the code : " + code);
 
@@ -69,7 +89,7 @@ public class TitleServiceImpl implements TitleService {
 
     @Override
     public List<Title> findByStatus(Status status) {
-        return titleRepository.findByStatus(status);
+        return titleCache.findByStatus(status);
     }
 
     @Override
@@ -85,15 +105,17 @@ public class TitleServiceImpl implements TitleService {
         title.setCreatedUser(LoginAuthenticationHandler.getUserName());
         title.setCreatedDate(TimeUtil.getCurrentTimeStamp());
 
+        titleCache.reloadAfterCommit();
         return titleRepository.saveAndFlush(title);
     }
 
     @Override
     public void delete(Long id) {
-        Title fetchedTitle = findById(id);
-        if (fetchedTitle == null) throw new RecordNotFoundException("No title record found for the id : " + id);
+        Optional<Title> fetchedTitle = titleRepository.findById(id);
+        if (fetchedTitle.isEmpty()) throw new RecordNotFoundException("No title record found for the id : " + id);
 
-        titleRepository.delete(fetchedTitle);
+        titleCache.reloadAfterCommit();
+        titleRepository.delete(fetchedTitle.get());
     }
 
     @Override
@@ -108,10 +130,17 @@ public class TitleServiceImpl implements TitleService {
             title.setModifiedUser(LoginAuthenticationHandler.getUserName());
             title.setModifiedDate(TimeUtil.getCurrentTimeStamp());
 
+            titleCache.reloadAfterCommit();
             return titleRepository.save(title);
         });
 
         if (updatedTitle.isPresent()) return updatedTitle.get();
         throw new RecordNotFoundException("No title record found for the id : " + id);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageArray getData(PagingRequest pagingRequest) {
+        return keysetPager.getData(PAGING_SCHEMA, pagingRequest);
+    }
 }
@@ -15,13 +15,20 @@
  */
 package lk.channelling.services.impl;
 
+import lk.channelling.cache.ReferenceDataCache;
+import lk.channelling.cache.ReferenceDataCacheRegistry;
 import lk.channelling.entity.TransactionType;
 import lk.channelling.enums.Status;
 import lk.channelling.exception.ObjectNotUniqueException;
 import lk.channelling.exception.OldObjectException;
 import lk.channelling.exception.RecordNotFoundException;
 import lk.channelling.handlers.LoginAuthenticationHandler;
+import lk.channelling.paging.KeysetPager;
+import lk.channelling.paging.PagingColumn;
+import lk.channelling.paging.PagingSchema;
 import lk.channelling.repository.TransactionTypeRepository;
+import lk.channelling.resources.PageArray;
+import lk.channelling.resources.PagingRequest;
 import lk.channelling.services.TransactionTypeService;
 import lk.channelling.util.TimeUtil;
 import lombok.extern.log4j.Log4j2;
@@ -38,20 +45,35 @@ import java.util.Optional;
 public class TransactionTypeServiceImpl implements TransactionTypeService {
 
     private TransactionTypeRepository transactionTypeRepository;
+    private ReferenceDataCache<TransactionType> transactionTypeCache;
+    private KeysetPager keysetPager;
+    private static final PagingSchema<TransactionType> PAGING_SCHEMA = PagingSchema.definition(TransactionType.class, PagingColumn.display("calculationMethod"),
+            PagingColumn.display("amountRate"));
 
     @Autowired
     public void setTransactionTypeRepository(TransactionTypeRepository transactionTypeRepository) {
         this.transactionTypeRepository = transactionTypeRepository;
     }
 
+    @Autowired
+    public void setReferenceDataCacheRegistry(ReferenceDataCacheRegistry referenceDataCacheRegistry) {
+        this.transactionTypeCache = referenceDataCacheRegistry.register(
+                new ReferenceDataCache<>("transaction-types", () -> transactionTypeRepository.findAll(), TransactionType::getCode));
+    }
+
+    @Autowired
+    public void setKeysetPager(KeysetPager keysetPager) {
+        this.keysetPager = keysetPager;
+    }
+
     @Override
     public List<TransactionType> findAll() {
-        return transactionTypeRepository.findAll();
+        return transactionTypeCache.findAll();
     }
 
     @Override
     public TransactionType findById(Long id) {
-        Optional<TransactionType> country = transactionTypeRepository.findById(id);
+        Optional<TransactionType> country = transactionTypeCache.findById(id);
 
         if (country.isEmpty()) throw new RecordNotFoundException("No Transaction Type record found for the id : " + id);
 
@@ -60,7 +82,7 @@ public class TransactionTypeServiceImpl implements TransactionTypeService {
 
     @Override
     public TransactionType findByCode(String code) {
-        Optional<TransactionType> country = transactionTypeRepository.findByCode(code);
+        Optional<TransactionType> country = transactionTypeCache.findByCode(code);
 
         if (country.isEmpty())
             throw new RecordNotFoundException("No Transaction Type record found for the code : " + code);
@@ -70,7 +92,7 @@ public class TransactionTypeServiceImpl implements TransactionTypeService {
 
     @Override
     public List<TransactionType> findByStatus(Status status) {
-        return transactionTypeRepository.findByStatus(status);
+        return transactionTypeCache.findByStatus(status);
     }
 
     @Override
@@ -85,17 +107,19 @@ public class TransactionTypeServiceImpl implements TransactionTypeService {
         transactionType.setStatus(Status.ACTIVE);
         transactionType.setCreatedDate(TimeUtil.getCurrentTimeStamp());
 
+        transactionTypeCache.reloadAfterCommit();
         return transactionTypeRepository.saveAndFlush(transactionType);
     }
 
     @Override
     public void delete(Long id) {
-        TransactionType fetchedTransactionType = findById(id);
+        Optional<TransactionType> fetchedTransactionType = transactionTypeRepository.findById(id);
 
-        if (fetchedTransactionType == null)
+        if (fetchedTransactionType.isEmpty())
             throw new RecordNotFoundException("No Transaction Type record found for the id : " + id);
 
-        transactionTypeRepository.delete(fetchedTransactionType);
+        transactionTypeCache.reloadAfterCommit();
+        transactionTypeRepository.delete(fetchedTransactionType.get());
     }
 
     @Override
@@ -113,10 +137,17 @@ public class TransactionTypeServiceImpl implements TransactionTypeService {
             cm.setModifiedUser(LoginAuthenticationHandler.getUserName());
             cm.setModifiedDate(TimeUtil.getCurrentTimeStamp());
 
+            transactionTypeCache.reloadAfterCommit();
             return transactionTypeRepository.save(cm);
         });
 
         if (updatedTransactionType.isPresent()) return updatedTransactionType.get();
         throw new RecordNotFoundException("No Transaction Type record found for the id : " + id);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageArray getData(PagingRequest pagingRequest) {
+        return keysetPager.getData(PAGING_SCHEMA, pagingRequest);
+    }
 }
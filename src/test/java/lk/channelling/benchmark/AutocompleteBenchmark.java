@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.benchmark;
+
+import lk.channelling.search.SearchDocument;
+import lk.channelling.search.SuggestionIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the doctor autocomplete at production scale.
+ *
+ * <p>Runs in sample time mode, so the report contains the p50, p99 and p99.9 latency of every query. The doctors are
+ * generated from a fixed seed, so the runs are comparable with each other. Run it with the {@link #main(String[])}
+ * method from the test classpath.</p>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AutocompleteBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Kamal", "Nimal", "Sunil", "Chaminda", "Kumari", "Dilani", "Ruwan",
+            "Saman", "Tharindu", "Nadeeka", "Ishara", "Priyanka", "Mahesh", "Lasantha", "Anura", "Chathura", "Dinesh",
+            "Gayani", "Harsha", "Janaka", "Kasun", "Lakmal", "Madhavi", "Nuwan", "Pradeep", "Roshan", "Sanjeewa",
+            "Thilini", "Upul", "Waruna"};
+
+    private static final String[] SYLLABLES = {"pe", "re", "ra", "fer", "nan", "do", "si", "va", "ku", "ma", "ja",
+            "ya", "wi", "ckre", "ma", "sin", "ghe", "ban", "da", "ra", "ga", "ma", "ge", "di", "sa", "na", "ya", "ke",
+            "la", "ko", "tu", "wa", "the", "ne", "hi", "go"};
+
+    @Param({"100000"})
+    private int doctors;
+
+    @Param({"k", "ku", "kum", "pere", "kumari pe", "chamnda"})
+    private String query;
+
+    private SuggestionIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<SearchDocument> documents = new ArrayList<>(doctors);
+        for (int id = 1; id <= doctors; id++) {
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            StringBuilder lastName = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int i = 0; i < syllables; i++) lastName.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            lastName.setCharAt(0, Character.toUpperCase(lastName.charAt(0)));
+
+            String fullName = firstName + " " + lastName;
+            documents.add(new SearchDocument(id, "Dr. " + fullName, "Dr. " + fullName, fullName));
+        }
+
+        index = new SuggestionIndex("doctors");
+        index.load(documents);
+    }
+
+    @Benchmark
+    public void prefix(Blackhole blackhole) {
+        blackhole.consume(index.suggest(query, false, 10));
+    }
+
+    @Benchmark
+    public void typoTolerant(Blackhole blackhole) {
+        blackhole.consume(index.suggest(query, true, 10));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AutocompleteBenchmark.class.getSimpleName()).build()).run();
+    }
+}
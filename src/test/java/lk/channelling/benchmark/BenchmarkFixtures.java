@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.benchmark;
+
+import lk.channelling.entity.Appointment;
+import lk.channelling.entity.BaseEntity;
+import lk.channelling.entity.Country;
+import lk.channelling.entity.Doctor;
+import lk.channelling.enums.AppointmentStatus;
+import lk.channelling.enums.Gender;
+import lk.channelling.enums.IdentificationMethod;
+import lk.channelling.enums.Status;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * In-memory entities shared by the benchmarks. The values only depend on the id, so the runs are comparable with
+ * each other.
+ */
+final class BenchmarkFixtures {
+
+    private static final Timestamp CREATED_DATE = Timestamp.valueOf(LocalDateTime.of(2024, 1, 15, 9, 30));
+
+    private BenchmarkFixtures() {
+    }
+
+    static Doctor doctor(int id) {
+        Doctor doctor = new Doctor();
+        doctor.setId((long) id);
+        doctor.setFirstName("Kamal");
+        doctor.setLastName("Perera");
+        doctor.setDisplayName("Dr. Kamal Perera");
+        doctor.setIdentificationMethod(IdentificationMethod.values()[0]);
+        doctor.setIdentificationValue("199012345678");
+        doctor.setMobileNo1("0771234567");
+        doctor.setEmail("kamal.perera@example.com");
+        doctor.setAddressLine1("No. 12");
+        doctor.setAddressLine2("Galle Road");
+        doctor.setAddressLine3("Colombo 03");
+        doctor.setCityId(1L);
+        doctor.setDateOfBirth(new Date(0));
+        doctor.setGender(Gender.values()[0]);
+        doctor.setDoctorRegistrationNo("SLMC-" + id);
+        audit(doctor, id);
+        return doctor;
+    }
+
+    static Appointment appointment(int id) {
+        Appointment appointment = new Appointment();
+        appointment.setId((long) id);
+        appointment.setAppointmentStatus(AppointmentStatus.values()[0].name());
+        appointment.setPatientId(id);
+        appointment.setSessionId(1 + id % 50);
+        appointment.setQueueNo(1 + id % 40);
+        appointment.setHoldExpiresAt(CREATED_DATE.toLocalDateTime().plusMinutes(10));
+        audit(appointment, id);
+        return appointment;
+    }
+
+    static Country country(int id) {
+        Country country = new Country();
+        country.setId((long) id);
+        country.setCode("C" + id);
+        country.setDescription("Country " + id);
+        country.setIsoCode("C" + (id % 100));
+        audit(country, id);
+        return country;
+    }
+
+    private static void audit(BaseEntity entity, int id) {
+        entity.setStatus(Status.ACTIVE);
+        entity.setCreatedUser("admin");
+        entity.setCreatedDate(new Timestamp(CREATED_DATE.getTime() + id * 60_000L));
+        entity.setVersion(0L);
+    }
+}
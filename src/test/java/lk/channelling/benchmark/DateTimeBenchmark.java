@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.benchmark;
+
+import lk.channelling.handlers.DateTimeHandler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of formatting and parsing dates with the {@link DateTimeHandler}.
+ *
+ * <p>{@code compiled} compiles the pattern for every call, as the handler used to, while {@code formatted} and
+ * {@code parsed} use its cached formatters. An empty pattern selects the default one. Run it with the
+ * {@link #main(String[])} method from the test classpath or with the {@code benchmark} Maven profile.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateTimeBenchmark {
+
+    @Param({"", "yyyy/MM/dd HH:mm:ss", "dd-MM-yyyy HH:mm"})
+    private String pattern;
+
+    private static final String DEFAULT_PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    private final LocalDateTime dateTime = LocalDateTime.of(2024, 1, 15, 9, 30, 15);
+
+    private String formattedDateTime;
+
+    private String resolvedPattern;
+
+    @Setup
+    public void setUp() {
+        resolvedPattern = pattern.isEmpty() ? DEFAULT_PATTERN : pattern;
+        formattedDateTime = DateTimeHandler.formatDate(dateTime, resolvedPattern);
+    }
+
+    @Benchmark
+    public String compiled() {
+        return dateTime.format(DateTimeFormatter.ofPattern(resolvedPattern));
+    }
+
+    @Benchmark
+    public String formatted() {
+        return DateTimeHandler.formatDate(dateTime, pattern);
+    }
+
+    @Benchmark
+    public LocalDateTime parsed() {
+        return DateTimeHandler.parseDate(formattedDateTime, resolvedPattern);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DateTimeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.benchmark;
+
+import lk.channelling.entity.Country;
+import lk.channelling.paging.PagingColumn;
+import lk.channelling.paging.PagingSchema;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping a page of countries to the rows of the DataTables listing.
+ *
+ * <p>{@code previous} is the former {@code CountryServiceImpl.toStringList}, with hand written getters and a
+ * {@code SimpleDateFormat} per row. {@code schema} is the current {@link PagingSchema#toRow(lk.channelling.entity.BaseEntity)},
+ * shared by all the definition listings. Run it with the {@link #main(String[])} method from the test classpath or
+ * with the {@code benchmark} Maven profile.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PagingRowBenchmark {
+
+    private static final PagingSchema<Country> PAGING_SCHEMA = PagingSchema.definition(Country.class, PagingColumn.display("isoCode"));
+
+    @Param({"10", "100"})
+    private int rows;
+
+    private List<Country> countries;
+
+    @Setup
+    public void setUp() {
+        countries = new ArrayList<>(rows);
+        for (int id = 1; id <= rows; id++) countries.add(BenchmarkFixtures.country(id));
+    }
+
+    @Benchmark
+    public List<List<String>> previous() {
+        return countries.stream().map(PagingRowBenchmark::toStringList).toList();
+    }
+
+    @Benchmark
+    public List<List<String>> schema() {
+        return countries.stream().map(PAGING_SCHEMA::toRow).toList();
+    }
+
+    private static List<String> toStringList(Country country) {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss");
+        return Arrays.asList(country.getCode(),
+                country.getDescription(),
+                country.getIsoCode(),
+                country.getStatus().toString(),
+                sdf.format(country.getCreatedDate()),
+                country.getCreatedUser());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PagingRowBenchmark.class.getSimpleName()).build()).run();
+    }
+}
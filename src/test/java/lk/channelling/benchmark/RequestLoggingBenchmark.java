@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.benchmark;
+
+import lk.channelling.entity.Doctor;
+import lk.channelling.log.LogRequest;
+import lk.channelling.log.RequestLogProperties;
+import lk.channelling.log.RequestLogSettings;
+import lk.channelling.resources.AvailabilitySearch;
+import org.apache.logging.log4j.Level;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the controller log message on the request thread, before and after the structured logging
+ * pipeline.
+ *
+ * <p>{@code previous} is the former {@code LogRequest.log} path: {@code Arrays.deepToString} of the arguments and a
+ * {@code DateTimeFormatter} compiled for every message. {@code structured} is the current one, with redaction.
+ * Both are measured without the appender, which runs asynchronously now. {@code sampledOut} is the cost of deciding
+ * to skip a request whose endpoint is not sampled. {@code logged} is the whole {@code LogRequest.log} call on the
+ * request thread, handing the message to the asynchronous appender configured in {@code logback-benchmark.xml}. Run it
+ * with the {@link #main(String[])} method from the test classpath or with the {@code benchmark} Maven profile.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class RequestLoggingBenchmark {
+
+    private static final String API_NAME = "/api/v1/doctors";
+
+    private static final String CLASS_NAME = "lk.channelling.controllers.DoctorController";
+
+    private static final String METHOD_NAME = "save";
+
+    private static final String ENDPOINT = "/api/v1/doctors/{id}";
+
+    @Param({"id", "entity", "search", "entities"})
+    private String arguments;
+
+    private Object[] methodArguments;
+
+    private String[] parameterNames;
+
+    private RequestLogSettings sampledOutSettings;
+
+    @Setup
+    public void setUp() {
+        RequestLogProperties properties = new RequestLogProperties();
+        properties.setEndpointSampleRates(Map.of("/api/v1/doctors/**", 0.0));
+        sampledOutSettings = new RequestLogSettings(properties);
+
+        methodArguments = switch (arguments) {
+            case "id" -> new Object[]{42L};
+            case "entity" -> new Object[]{BenchmarkFixtures.doctor(1)};
+            case "search" -> new Object[]{new AvailabilitySearch(7, 3, 12L, 5L, LocalDate.now(), LocalDate.now().plusDays(14))};
+            case "entities" -> {
+                List<Doctor> doctors = new ArrayList<>();
+                for (int i = 1; i <= 50; i++) doctors.add(BenchmarkFixtures.doctor(i));
+                yield new Object[]{doctors};
+            }
+            default -> throw new IllegalArgumentException(arguments);
+        };
+        parameterNames = new String[]{arguments};
+    }
+
+    @Benchmark
+    public String previous() {
+        StringBuilder message = new StringBuilder();
+
+        message.append("request-1")
+                .append(" ")
+                .append("Date & Time : ").append(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-mm-dd hh:mm:ss")))
+                .append(" ")
+                .append("Api : ").append(API_NAME)
+                .append(" ")
+                .append("Class Name : ").append(CLASS_NAME)
+                .append(" ")
+                .append("Enter Method : ").append(METHOD_NAME)
+                .append(" ")
+                .append("Args : ").append(Arrays.deepToString(methodArguments));
+
+        return message.toString();
+    }
+
+    @Benchmark
+    public String structured() {
+        return LogRequest.getInstance().format(API_NAME, CLASS_NAME, METHOD_NAME, methodArguments);
+    }
+
+    @Benchmark
+    public void logged() {
+        LogRequest.getInstance().log(Level.INFO, API_NAME, CLASS_NAME, METHOD_NAME, parameterNames, methodArguments, null,
+                RequestLogSettings.DEFAULT);
+    }
+
+    @Benchmark
+    public boolean sampledOut() {
+        return sampledOutSettings.sample(ENDPOINT);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RequestLoggingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
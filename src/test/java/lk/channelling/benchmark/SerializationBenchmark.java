@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lk.channelling.entity.Country;
+import lk.channelling.paging.PagingColumn;
+import lk.channelling.paging.PagingSchema;
+import lk.channelling.resources.PageArray;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of serializing the response bodies of the busiest endpoints with Jackson.
+ *
+ * <p>The mapper is built like the one of the application, with the Spring Boot defaults. {@code mapper} looks up the
+ * serializer of the value on every call, as the message converters do, while {@code writer} reuses an
+ * {@link ObjectWriter} bound to its type. {@code page} is a DataTables page of 100 country rows. Run it with the
+ * {@link #main(String[])} method from the test classpath or with the {@code benchmark} Maven profile.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"doctor", "appointment", "page"})
+    private String payload;
+
+    private ObjectMapper objectMapper;
+
+    private ObjectWriter objectWriter;
+
+    private Object value;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .build();
+
+        value = switch (payload) {
+            case "doctor" -> BenchmarkFixtures.doctor(1);
+            case "appointment" -> BenchmarkFixtures.appointment(1);
+            case "page" -> page(100);
+            default -> throw new IllegalArgumentException(payload);
+        };
+        objectWriter = objectMapper.writerFor(value.getClass());
+    }
+
+    @Benchmark
+    public byte[] mapper() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public byte[] writer() throws JsonProcessingException {
+        return objectWriter.writeValueAsBytes(value);
+    }
+
+    private static PageArray page(int rows) {
+        PagingSchema<Country> pagingSchema = PagingSchema.definition(Country.class, PagingColumn.display("isoCode"));
+        List<List<String>> data = new ArrayList<>(rows);
+        for (int id = 1; id <= rows; id++) data.add(pagingSchema.toRow(BenchmarkFixtures.country(id)));
+
+        PageArray pageArray = new PageArray();
+        pageArray.setData(data);
+        pageArray.setRecordsTotal(250);
+        pageArray.setRecordsFiltered(250);
+        pageArray.setDraw(1);
+        pageArray.setNextCursor("eyJpZCI6MTAwfQ");
+        return pageArray;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SerializationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.benchmark;
+
+import lk.channelling.security.JwtService;
+import lk.channelling.security.VerifiedTokenCache;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating a request with and without the {@link VerifiedTokenCache}.
+ *
+ * <p>Every invocation authenticates one of {@code users} access tokens in turn, so with more users than cache entries
+ * the cached variant shows the cost of a cache that keeps missing. Run it with the {@link #main(String[])} method from
+ * the test classpath.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenVerificationBenchmark {
+
+    private static final String SECRET_KEY = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+
+    @Param({"1", "1000", "20000"})
+    private int users;
+
+    private JwtService jwtService;
+
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private String[] tokens;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET_KEY, 86400000, 604800000);
+        verifiedTokenCache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxEntries", 10000);
+
+        tokens = new String[users];
+        for (int i = 0; i < users; i++) tokens[i] = jwtService.generateAccessToken("user-" + i);
+    }
+
+    @Benchmark
+    public void withoutCache(Blackhole blackhole) {
+        blackhole.consume(jwtService.verify(nextToken()));
+    }
+
+    @Benchmark
+    public void withCache(Blackhole blackhole) {
+        blackhole.consume(verifiedTokenCache.verify(nextToken(), jwtService::verify));
+    }
+
+    private String nextToken() {
+        String token = tokens[next];
+        next = next + 1 == tokens.length ? 0 : next + 1;
+        return token;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenVerificationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonPayloadTest {
+
+    @Test
+    void gzipIsAcceptedWhenListedWithAPositiveQuality() {
+        assertTrue(JsonPayload.acceptsGzip("gzip, deflate, br"));
+        assertTrue(JsonPayload.acceptsGzip("deflate;q=1.0, GZIP;q=0.5"));
+        assertTrue(JsonPayload.acceptsGzip("x-gzip"));
+        assertTrue(JsonPayload.acceptsGzip("br, *;q=0.1"));
+    }
+
+    @Test
+    void gzipIsRejectedWhenMissingOrExcluded() {
+        assertFalse(JsonPayload.acceptsGzip(null));
+        assertFalse(JsonPayload.acceptsGzip("identity"));
+        assertFalse(JsonPayload.acceptsGzip("gzip;q=0"));
+        assertFalse(JsonPayload.acceptsGzip("gzip; q=0.000, deflate"));
+        assertFalse(JsonPayload.acceptsGzip("*;q=0"));
+        assertFalse(JsonPayload.acceptsGzip("*, gzip;q=0"));
+        assertFalse(JsonPayload.acceptsGzip("gzip;q=high"));
+        assertFalse(JsonPayload.acceptsGzip("gzipx"));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.datagen;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Inserts the rows of one table through a batched prepared statement, assigning the ids itself.
+ *
+ * <p>The ids continue from the largest id already in the table, so the generator knows the id of a row as soon as it
+ * is added and can reference it from the rows of the child tables without reading anything back. The rows are only
+ * sent on {@link #flush()}, which the generator calls in the order of the foreign keys.</p>
+ */
+final class BatchInserter implements AutoCloseable {
+
+    private final String table;
+
+    private final PreparedStatement statement;
+
+    private final int columns;
+
+    private long nextId;
+
+    private int pending;
+
+    private long rows;
+
+    BatchInserter(Connection connection, String table, String... columns) throws SQLException {
+        this.table = table;
+        this.columns = columns.length;
+        try (Statement query = connection.createStatement();
+             ResultSet resultSet = query.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            resultSet.next();
+            this.nextId = resultSet.getLong(1) + 1;
+        }
+        this.statement = connection.prepareStatement("INSERT INTO " + table + " (id, " + String.join(", ", columns) +
+                ") VALUES (?" + ", ?".repeat(columns.length) + ")");
+    }
+
+    /**
+     * Adds a row to the batch.
+     *
+     * @param values the values of the columns, in the order given to the constructor.
+     * @return the id of the row.
+     */
+    long add(Object... values) throws SQLException {
+        if (values.length != columns) throw new IllegalArgumentException("Expected " + columns + " values for " + table + " but got " + values.length);
+
+        long id = nextId++;
+        statement.setLong(1, id);
+        for (int i = 0; i < values.length; i++) statement.setObject(i + 2, values[i]);
+        statement.addBatch();
+        pending++;
+        rows++;
+        return id;
+    }
+
+    /**
+     * Sends the pending rows to the database.
+     */
+    void flush() throws SQLException {
+        if (pending == 0) return;
+        statement.executeBatch();
+        pending = 0;
+    }
+
+    String getTable() {
+        return table;
+    }
+
+    int getPending() {
+        return pending;
+    }
+
+    long getRows() {
+        return rows;
+    }
+
+    long getNextId() {
+        return nextId;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        statement.close();
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.datagen;
+
+/**
+ * The volumes of the data produced by the {@link SyntheticDataGenerator}.
+ *
+ * <p>Starts from the {@link #small()} or {@link #production()} preset, whose values can be overridden by name with
+ * {@link #set(String, String)}. Sessions are spread over the {@code history-days} before and the {@code future-days}
+ * after the day of the run, and every session is booked to its {@code past-occupancy} or {@code future-occupancy} on
+ * average. A {@code cancellation-rate} of the issued queue numbers is cancelled, every other appointment is booked and
+ * paid, and the {@code doctor-rating-rate} and {@code hospital-rating-rate} of the past appointments are rated.</p>
+ */
+public final class DataScale {
+
+    private int cities;
+
+    private int hospitals;
+
+    private int specializations;
+
+    private int doctors;
+
+    private int patients;
+
+    private int sessionsPerDoctor;
+
+    private int maxPatients;
+
+    private int historyDays;
+
+    private int futureDays;
+
+    private double pastOccupancy;
+
+    private double futureOccupancy;
+
+    private double cancellationRate;
+
+    private double doctorRatingRate;
+
+    private double hospitalRatingRate;
+
+    private DataScale() {
+    }
+
+    /**
+     * A few thousand rows, enough for the search and booking flows: 500 doctors with 10 sessions each over the next
+     * two weeks, 10,000 patients and a fifth of the slots booked.
+     *
+     * @return the small scale.
+     */
+    public static DataScale small() {
+        DataScale scale = new DataScale();
+        scale.cities = 100;
+        scale.hospitals = 50;
+        scale.specializations = 20;
+        scale.doctors = 500;
+        scale.patients = 10000;
+        scale.sessionsPerDoctor = 10;
+        scale.maxPatients = 30;
+        scale.historyDays = 0;
+        scale.futureDays = 14;
+        scale.pastOccupancy = 0.6;
+        scale.futureOccupancy = 0.2;
+        scale.cancellationRate = 0.05;
+        scale.doctorRatingRate = 0.1;
+        scale.hospitalRatingRate = 0.05;
+        return scale;
+    }
+
+    /**
+     * The size of the production database: 10,000 doctors in 500 hospitals with 30 sessions each over the past year
+     * and the next month, 500,000 patients and around 3.5 million appointments and 3.3 million payments.
+     *
+     * @return the production scale.
+     */
+    public static DataScale production() {
+        DataScale scale = small();
+        scale.cities = 300;
+        scale.hospitals = 500;
+        scale.specializations = 40;
+        scale.doctors = 10000;
+        scale.patients = 500000;
+        scale.sessionsPerDoctor = 30;
+        scale.maxPatients = 20;
+        scale.historyDays = 365;
+        scale.futureDays = 30;
+        return scale;
+    }
+
+    /**
+     * Returns the preset with the given name.
+     *
+     * @param name {@code small} or {@code production}.
+     * @return the preset.
+     * @throws IllegalArgumentException if there is no such preset.
+     */
+    public static DataScale preset(String name) {
+        return switch (name) {
+            case "small" -> small();
+            case "production" -> production();
+            default -> throw new IllegalArgumentException("Unknown data scale " + name + ", expected small or production.");
+        };
+    }
+
+    /**
+     * Overrides the value with the given name, e.g. {@code doctors} or {@code past-occupancy}.
+     *
+     * @param name  the name of the value.
+     * @param value the new value.
+     * @return {@code false} if there is no value with that name.
+     */
+    public boolean set(String name, String value) {
+        switch (name) {
+            case "cities" -> cities = count(name, value);
+            case "hospitals" -> hospitals = count(name, value);
+            case "specializations" -> specializations = count(name, value);
+            case "doctors" -> doctors = count(name, value);
+            case "patients" -> patients = count(name, value);
+            case "sessions-per-doctor" -> sessionsPerDoctor = count(name, value);
+            case "max-patients" -> maxPatients = count(name, value);
+            case "history-days" -> historyDays = count(name, value);
+            case "future-days" -> futureDays = count(name, value);
+            case "past-occupancy" -> pastOccupancy = rate(name, value);
+            case "future-occupancy" -> futureOccupancy = rate(name, value);
+            case "cancellation-rate" -> cancellationRate = rate(name, value);
+            case "doctor-rating-rate" -> doctorRatingRate = rate(name, value);
+            case "hospital-rating-rate" -> hospitalRatingRate = rate(name, value);
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getCities() {
+        return cities;
+    }
+
+    public int getHospitals() {
+        return hospitals;
+    }
+
+    public int getSpecializations() {
+        return specializations;
+    }
+
+    public int getDoctors() {
+        return doctors;
+    }
+
+    public int getPatients() {
+        return patients;
+    }
+
+    public int getSessionsPerDoctor() {
+        return sessionsPerDoctor;
+    }
+
+    public int getMaxPatients() {
+        return maxPatients;
+    }
+
+    public int getHistoryDays() {
+        return historyDays;
+    }
+
+    public int getFutureDays() {
+        return futureDays;
+    }
+
+    public double getPastOccupancy() {
+        return pastOccupancy;
+    }
+
+    public double getFutureOccupancy() {
+        return futureOccupancy;
+    }
+
+    public double getCancellationRate() {
+        return cancellationRate;
+    }
+
+    public double getDoctorRatingRate() {
+        return doctorRatingRate;
+    }
+
+    public double getHospitalRatingRate() {
+        return hospitalRatingRate;
+    }
+
+    private static int count(String name, String value) {
+        int count = Integer.parseInt(value);
+        if (count < 0) throw new IllegalArgumentException("The data scale " + name + " must not be negative.");
+        return count;
+    }
+
+    private static double rate(String name, String value) {
+        double rate = Double.parseDouble(value);
+        if (rate < 0 || rate > 1) throw new IllegalArgumentException("The data scale " + name + " must be between 0 and 1.");
+        return rate;
+    }
+}
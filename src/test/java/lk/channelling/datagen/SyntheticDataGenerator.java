@@ -0,0 +1,369 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.datagen;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Fills the schema with a synthetic but realistic dataset: the locations, hospitals, specializations, doctors and
+ * patients, and the doctor sessions with their appointments, payments and ratings.
+ *
+ * <p>Every value is drawn from one {@link Random} with the given seed and every date is relative to the given day, so
+ * the same seed, scale and day always produce the same rows. The rows are written in the order of the foreign keys
+ * through one {@link BatchInserter} per table, on a single connection with auto commit off, which loads millions of
+ * appointments in a few minutes. On MySQL that needs {@code rewriteBatchedStatements=true} on the URL, which
+ * {@link #main(String[])} adds.</p>
+ *
+ * <p>The generator is meant for an empty schema created by Liquibase, running it again appends another dataset. Run it
+ * with e.g. {@code mvn -Pdatagen -Ddatagen="--url=jdbc:mysql://localhost:3306/channelling_db --username=root
+ * --password=secret --scale=production --doctors=5000"}, any {@link DataScale} value can be overridden by name.</p>
+ */
+@Log4j2
+public final class SyntheticDataGenerator {
+
+    public static final String CREATED_USER = "datagen";
+
+    static final String[] FIRST_NAMES = {"Kamal", "Nimal", "Sunil", "Chaminda", "Kumari", "Dilani", "Ruwan", "Saman",
+            "Tharindu", "Nadeeka", "Ishara", "Priyanka", "Mahesh", "Lasantha", "Anura", "Chathura", "Dinesh", "Gayani",
+            "Harsha", "Janaka", "Kasun", "Lakmal", "Madhavi", "Nuwan", "Pradeep", "Roshan", "Sanjeewa", "Thilini", "Upul",
+            "Waruna"};
+
+    static final String[] LAST_NAMES = {"Perera", "Fernando", "Silva", "Jayasinghe", "Bandara", "Wickramasinghe",
+            "Gunawardena", "Rathnayake", "Dissanayake", "Herath", "Kumara", "Rajapaksha", "Senanayake", "Wijesinghe",
+            "Abeysekara", "Karunaratne", "Liyanage", "Samarasinghe", "Weerasinghe", "Peiris"};
+
+    private static final String[] PROVINCES = {"Western", "Central", "Southern", "Northern", "Eastern", "North Western",
+            "North Central", "Uva", "Sabaragamuwa"};
+
+    private static final String[] RATING_CATEGORIES = {"Punctuality", "Communication", "Treatment", "Facilities", "Value"};
+
+    private static final String[] PAYMENT_METHODS = {"CARD", "CARD", "CARD", "CASH", "ONLINE"};
+
+    private static final int BATCH_SIZE = 5000;
+
+    private final DataSource dataSource;
+
+    private final DataScale scale;
+
+    private final Random random;
+
+    private final LocalDate today;
+
+    private final Timestamp now;
+
+    private final List<BatchInserter> inserters = new ArrayList<>();
+
+    private Connection connection;
+
+    /**
+     * @param dataSource the database to fill.
+     * @param scale      the volumes of the data.
+     * @param seed       the seed of the values.
+     * @param today      the day the history and the future sessions are relative to.
+     */
+    public SyntheticDataGenerator(DataSource dataSource, DataScale scale, long seed, LocalDate today) {
+        this.dataSource = dataSource;
+        this.scale = scale;
+        this.random = new Random(seed);
+        this.today = today;
+        this.now = Timestamp.valueOf(today.atTime(8, 0));
+    }
+
+    /**
+     * Generates the dataset and commits it.
+     *
+     * @return the number of generated rows per table, in the order they were written.
+     * @throws SQLException if the database rejects the rows, nothing is committed after the failed batch.
+     */
+    public Map<String, Long> generate() throws SQLException {
+        long startTime = System.currentTimeMillis();
+        try (Connection connection = dataSource.getConnection()) {
+            this.connection = connection;
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                generateAll();
+                connection.commit();
+                restartIdentities();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                for (BatchInserter inserter : inserters) inserter.close();
+                connection.setAutoCommit(autoCommit);
+                this.connection = null;
+            }
+        }
+
+        Map<String, Long> rows = new LinkedHashMap<>();
+        long totalRows = 0;
+        for (BatchInserter inserter : inserters) {
+            rows.put(inserter.getTable(), inserter.getRows());
+            totalRows += inserter.getRows();
+        }
+        long elapsed = Math.max(System.currentTimeMillis() - startTime, 1);
+        log.info("Generated {} rows in {} ms ({} rows/s): {}", totalRows, elapsed, totalRows * 1000 / elapsed, rows);
+        return rows;
+    }
+
+    private void generateAll() throws SQLException {
+        BatchInserter countries = inserter("country", "code", "description", "iso_code", "status", "created_user", "created_date");
+        long countryId = countries.add("LK", "Sri Lanka", "LK", "ACTIVE", CREATED_USER, now);
+        flush(countries);
+
+        BatchInserter states = inserter("state", "description", "country_id", "status", "created_user", "created_date");
+        long[] stateIds = new long[PROVINCES.length];
+        for (int i = 0; i < PROVINCES.length; i++) stateIds[i] = states.add(PROVINCES[i] + " Province", countryId, "ACTIVE", CREATED_USER, now);
+        flush(states);
+
+        BatchInserter cities = inserter("city", "description", "state_id", "status", "created_user", "created_date");
+        long[] cityIds = new long[scale.getCities()];
+        for (int i = 0; i < cityIds.length; i++) cityIds[i] = cities.add("City " + (i + 1), stateIds[i % stateIds.length], "ACTIVE", CREATED_USER, now);
+        flush(cities);
+
+        BatchInserter specializations = inserter("specialization", "code", "description", "status", "created_user", "created_date");
+        long[] specializationIds = new long[scale.getSpecializations()];
+        for (int i = 0; i < specializationIds.length; i++)
+            specializationIds[i] = specializations.add("SP" + (i + 1), "Specialization " + (i + 1), "ACTIVE", CREATED_USER, now);
+        flush(specializations);
+
+        BatchInserter hospitals = inserter("hospital", "name", "display_name", "address_line1", "city_id", "hospital_fee", "status",
+                "created_user", "created_date");
+        long[] hospitalIds = new long[scale.getHospitals()];
+        for (int i = 0; i < hospitalIds.length; i++)
+            hospitalIds[i] = hospitals.add("Hospital " + (i + 1), LAST_NAMES[i % LAST_NAMES.length] + " Hospital " + (i + 1),
+                    "No. " + (i + 1), pick(cityIds), BigDecimal.valueOf(500 + random.nextInt(20) * 50), "ACTIVE", CREATED_USER, now);
+        flush(hospitals);
+
+        BatchInserter doctors = inserter("doctor", "first_name", "last_name", "display_name", "identification_method",
+                "identification_value", "city_id", "gender", "doc_reg_no", "status", "created_user", "created_date");
+        BatchInserter doctorSpecialities = inserter("doctor_speciality", "doctor_id", "speciality_id", "status", "created_user", "created_date");
+        long[] doctorIds = new long[scale.getDoctors()];
+        for (int i = 0; i < doctorIds.length; i++) {
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            doctorIds[i] = doctors.add(firstName, lastName, "Dr. " + firstName + " " + lastName, "NIC", nic(), pick(cityIds),
+                    gender(), "SLMC-" + doctors.getNextId(), "ACTIVE", CREATED_USER, now);
+            doctorSpecialities.add(doctorIds[i], pick(specializationIds), "ACTIVE", CREATED_USER, now);
+            if (doctors.getPending() >= BATCH_SIZE) flush(doctors, doctorSpecialities);
+        }
+        flush(doctors, doctorSpecialities);
+
+        BatchInserter patients = inserter("patient", "first_name", "last_name", "display_name", "identification_method",
+                "identification_value", "city_id", "gender", "status", "created_user", "created_date");
+        long firstPatientId = patients.getNextId();
+        for (int i = 0; i < scale.getPatients(); i++) {
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            patients.add(firstName, lastName, firstName + " " + lastName, "NIC", nic(), pick(cityIds), gender(), "ACTIVE", CREATED_USER, now);
+            if (patients.getPending() >= BATCH_SIZE) flush(patients);
+        }
+        flush(patients);
+
+        BatchInserter ratingCategories = inserter("rating_categories", "category_name", "status", "created_user", "created_date");
+        long[] ratingCategoryIds = new long[RATING_CATEGORIES.length];
+        for (int i = 0; i < RATING_CATEGORIES.length; i++) ratingCategoryIds[i] = ratingCategories.add(RATING_CATEGORIES[i], "ACTIVE", CREATED_USER, now);
+        flush(ratingCategories);
+
+        generateSessions(doctorIds, hospitalIds, firstPatientId, ratingCategoryIds);
+    }
+
+    /**
+     * Generates the sessions of every doctor in one of the hospitals, with the appointments, payments and ratings of
+     * each session, flushing the four tables together whenever enough appointments are pending.
+     */
+    private void generateSessions(long[] doctorIds, long[] hospitalIds, long firstPatientId, long[] ratingCategoryIds) throws SQLException {
+        BatchInserter sessions = inserter("doctor_sessions", "doctor_id", "hospital_id", "session_date_time", "max_patients",
+                "total_fee", "booked_patients", "last_queue_no", "status", "created_user", "created_date");
+        BatchInserter appointments = inserter("appointment", "appointment_status", "patient_id", "session_id", "queue_no", "status",
+                "created_user", "created_date");
+        BatchInserter payments = inserter("payment", "appointment_id", "payment_date", "amount", "payment_method", "status",
+                "created_user", "created_date");
+        BatchInserter doctorRatings = inserter("doctor_ratings", "patient_id", "session_id", "doctor_id", "category_id", "rating",
+                "rating_date", "status", "created_user", "created_date");
+        BatchInserter hospitalRatings = inserter("hospital_ratings", "patient_id", "session_id", "hospital_id", "category_id", "rating",
+                "rating_date", "status", "created_user", "created_date");
+
+        int days = Math.max(scale.getHistoryDays() + scale.getFutureDays(), 1);
+        int maxPatients = scale.getMaxPatients();
+        for (long doctorId : doctorIds) {
+            long hospitalId = pick(hospitalIds);
+            for (int session = 0; session < scale.getSessionsPerDoctor(); session++) {
+                if (random.nextInt(4) == 0) hospitalId = pick(hospitalIds);
+                LocalDate sessionDate = today.minusDays(scale.getHistoryDays()).plusDays(random.nextInt(days));
+                boolean past = sessionDate.isBefore(today);
+                BigDecimal totalFee = BigDecimal.valueOf(1500 + random.nextInt(30) * 100);
+
+                int target = scale.getPatients() == 0 ? 0 : booked(maxPatients, past ? scale.getPastOccupancy() : scale.getFutureOccupancy());
+                int[] cancelled = new int[maxPatients];
+                int booked = 0;
+                int issued = 0;
+                while (booked < target) {
+                    if (random.nextDouble() < scale.getCancellationRate() && issued - booked < cancelled.length) cancelled[issued - booked] = issued + 1;
+                    else booked++;
+                    issued++;
+                }
+
+                long sessionId = sessions.add(doctorId, hospitalId, Date.valueOf(sessionDate), maxPatients, totalFee, booked, issued,
+                        "ACTIVE", CREATED_USER, now);
+                int nextCancelled = 0;
+                for (int queueNo = 1; queueNo <= issued; queueNo++) {
+                    long patientId = firstPatientId + random.nextInt(scale.getPatients());
+                    LocalDateTime bookedAt = bookedAt(sessionDate);
+                    Timestamp createdDate = Timestamp.valueOf(bookedAt);
+                    if (nextCancelled < issued - booked && cancelled[nextCancelled] == queueNo) {
+                        nextCancelled++;
+                        appointments.add("CANCELLED", patientId, sessionId, queueNo, "ACTIVE", CREATED_USER, createdDate);
+                        continue;
+                    }
+
+                    long appointmentId = appointments.add("BOOKED", patientId, sessionId, queueNo, "ACTIVE", CREATED_USER, createdDate);
+                    payments.add(appointmentId, Date.valueOf(bookedAt.toLocalDate()), totalFee,
+                            PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)], "ACTIVE", CREATED_USER, createdDate);
+                    if (!past) continue;
+
+                    Timestamp ratingDate = Timestamp.valueOf(sessionDate.plusDays(1 + random.nextInt(3)).atTime(9 + random.nextInt(12), random.nextInt(60)));
+                    if (random.nextDouble() < scale.getDoctorRatingRate())
+                        doctorRatings.add(patientId, sessionId, doctorId, pick(ratingCategoryIds), rating(), ratingDate, "ACTIVE", CREATED_USER, ratingDate);
+                    if (random.nextDouble() < scale.getHospitalRatingRate())
+                        hospitalRatings.add(patientId, sessionId, hospitalId, pick(ratingCategoryIds), rating(), ratingDate, "ACTIVE", CREATED_USER, ratingDate);
+                }
+            }
+            if (appointments.getPending() >= BATCH_SIZE || sessions.getPending() >= BATCH_SIZE)
+                flush(sessions, appointments, payments, doctorRatings, hospitalRatings);
+        }
+        flush(sessions, appointments, payments, doctorRatings, hospitalRatings);
+    }
+
+    /**
+     * Draws the number of booked slots of a session, uniformly between none and twice the occupancy, so the average
+     * session is booked to the occupancy.
+     */
+    private int booked(int maxPatients, double occupancy) {
+        int booked = (int) Math.round(maxPatients * occupancy * 2 * random.nextDouble());
+        return Math.min(booked, maxPatients);
+    }
+
+    /**
+     * Draws the time of a booking, during the two weeks before the session but not after the day of the run.
+     */
+    private LocalDateTime bookedAt(LocalDate sessionDate) {
+        LocalDate bookedOn = sessionDate.minusDays(random.nextInt(14));
+        if (bookedOn.isAfter(today)) bookedOn = today.minusDays(random.nextInt(3));
+        return bookedOn.atTime(6 + random.nextInt(16), random.nextInt(60), random.nextInt(60));
+    }
+
+    /**
+     * Draws a rating from 1 to 5, skewed towards the good ones like the real ratings.
+     */
+    private int rating() {
+        return Math.min(5, 2 + random.nextInt(3) + (random.nextInt(3) == 0 ? 1 : 0) - (random.nextInt(10) == 0 ? 1 : 0));
+    }
+
+    private BatchInserter inserter(String table, String... columns) throws SQLException {
+        BatchInserter inserter = new BatchInserter(connection, table, columns);
+        inserters.add(inserter);
+        return inserter;
+    }
+
+    /**
+     * Sends the pending rows of the tables in the given order, parents first, and commits them.
+     */
+    private void flush(BatchInserter... tables) throws SQLException {
+        for (BatchInserter table : tables) table.flush();
+        connection.commit();
+    }
+
+    /**
+     * The ids were assigned by the generator, so the identity columns of H2 are moved past them for the rows the
+     * application inserts later. MySQL moves its auto increment counters past inserted ids by itself.
+     */
+    private void restartIdentities() throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        if (!"H2".equals(metaData.getDatabaseProductName())) return;
+
+        try (Statement statement = connection.createStatement()) {
+            for (BatchInserter inserter : inserters)
+                statement.execute("ALTER TABLE " + inserter.getTable() + " ALTER COLUMN id RESTART WITH " + inserter.getNextId());
+        }
+        connection.commit();
+    }
+
+    private long pick(long[] ids) {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private String gender() {
+        return random.nextBoolean() ? "MALE" : "FEMALE";
+    }
+
+    private String nic() {
+        return String.valueOf(190000000000L + (long) (random.nextDouble() * 10000000000L));
+    }
+
+    /**
+     * Generates a dataset into the database given by {@code --url}, {@code --username} and {@code --password}, see
+     * {@link DataScale} for the other arguments.
+     *
+     * @param args the {@code --name=value} arguments: the connection, {@code --seed} (42 by default), {@code --today}
+     *             (the current day by default), {@code --scale} (small or production) and any value of the scale.
+     */
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        String url = values.remove("url");
+        if (url == null) throw new IllegalArgumentException("The --url of the database is required.");
+        if (url.startsWith("jdbc:mysql:") && !url.contains("rewriteBatchedStatements"))
+            url += (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, values.getOrDefault("username", ""), values.getOrDefault("password", ""));
+        values.remove("username");
+        values.remove("password");
+
+        long seed = Long.parseLong(values.getOrDefault("seed", "42"));
+        LocalDate today = values.containsKey("today") ? LocalDate.parse(values.get("today")) : LocalDate.now();
+        DataScale scale = DataScale.preset(values.getOrDefault("scale", "small"));
+        values.remove("seed");
+        values.remove("today");
+        values.remove("scale");
+        values.forEach((name, value) -> {
+            if (!scale.set(name, value)) throw new IllegalArgumentException("Unknown data generator setting " + name);
+        });
+
+        new SyntheticDataGenerator(dataSource, scale, seed, today).generate();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.geography;
+
+import lk.channelling.entity.City;
+import lk.channelling.entity.Country;
+import lk.channelling.entity.State;
+import lk.channelling.enums.Status;
+import lk.channelling.repository.CityRepository;
+import lk.channelling.repository.CountryRepository;
+import lk.channelling.repository.StateRepository;
+import lk.channelling.resources.GeographyNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GeographyTreeTest {
+
+    private GeographyTree geographyTree;
+
+    @BeforeEach
+    void setUp() {
+        CountryRepository countryRepository = mock(CountryRepository.class);
+        StateRepository stateRepository = mock(StateRepository.class);
+        CityRepository cityRepository = mock(CityRepository.class);
+
+        when(countryRepository.findAll()).thenReturn(List.of(country(1L, "Sri Lanka")));
+        when(stateRepository.findAll()).thenReturn(List.of(state(10L, "Western", 1L), state(11L, "Central", 1L)));
+        when(cityRepository.findAll()).thenReturn(List.of(city(100L, "Colombo", 10L), city(101L, "Kandy", 11L),
+                city(102L, "Gampaha", 10L)));
+
+        geographyTree = new GeographyTree(countryRepository, stateRepository, cityRepository, mock(PlatformTransactionManager.class));
+        geographyTree.rebuild();
+    }
+
+    @Test
+    void countrySubtreeIsOrderedByDescription() {
+        GeographyNode country = geographyTree.findCountry(1L).orElseThrow();
+
+        assertEquals(List.of("Central", "Western"), country.getChildren().stream().map(GeographyNode::getDescription).toList());
+        assertEquals(List.of("Colombo", "Gampaha"), country.getChildren().get(1).getChildren().stream()
+                .map(GeographyNode::getDescription).toList());
+        assertEquals(List.of(101L, 100L, 102L), geographyTree.findCitiesByCountryId(1L).orElseThrow().stream()
+                .map(City::getId).toList());
+    }
+
+    @Test
+    void writesAreAppliedIncrementally() {
+        geographyTree.citySaved(city(100L, "Colombo", 11L));
+        geographyTree.stateSaved(inactive(state(10L, "Western", 1L)));
+        geographyTree.citySaved(city(103L, "Matale", 11L));
+
+        assertTrue(geographyTree.findState(10L).isEmpty());
+        assertEquals(List.of("Colombo", "Kandy", "Matale"), geographyTree.findState(11L).orElseThrow().getChildren().stream()
+                .map(GeographyNode::getDescription).toList());
+
+        geographyTree.countryDeleted(1L);
+
+        assertTrue(geographyTree.findCountry(1L).isEmpty());
+        assertTrue(geographyTree.getTree().isEmpty());
+    }
+
+    private static Country country(Long id, String description) {
+        Country country = new Country();
+        country.setId(id);
+        country.setCode("C" + id);
+        country.setDescription(description);
+        country.setStatus(Status.ACTIVE);
+        return country;
+    }
+
+    private static State state(Long id, String description, Long countryId) {
+        State state = new State();
+        state.setId(id);
+        state.setDescription(description);
+        state.setCountryId(countryId);
+        state.setStatus(Status.ACTIVE);
+        return state;
+    }
+
+    private static City city(Long id, String description, Long stateId) {
+        City city = new City();
+        city.setId(id);
+        city.setDescription(description);
+        city.setStateId(stateId);
+        city.setStatus(Status.ACTIVE);
+        return city;
+    }
+
+    private static State inactive(State state) {
+        state.setStatus(Status.INACTIVE);
+        return state;
+    }
+}
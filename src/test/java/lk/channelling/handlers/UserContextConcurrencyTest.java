@@ -0,0 +1,155 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.handlers;
+
+import lk.channelling.entity.Doctor;
+import lk.channelling.enums.Gender;
+import lk.channelling.enums.IdentificationMethod;
+import lk.channelling.services.DoctorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class UserContextConcurrencyTest {
+
+    private static final int WRITES = 2000;
+    private static final int REQUEST_THREADS = 64;
+    private static final String REGISTRATION_PREFIX = "UC-";
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserContextTaskDecorator userContextTaskDecorator;
+
+    private ExecutorService requestExecutor;
+
+    private ThreadPoolTaskExecutor asyncExecutor;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        jdbcTemplate.update("DELETE FROM doctor WHERE doc_reg_no LIKE ?", REGISTRATION_PREFIX + "%");
+
+        requestExecutor = Executors.newFixedThreadPool(REQUEST_THREADS);
+        asyncExecutor = new ThreadPoolTaskExecutor();
+        asyncExecutor.setCorePoolSize(16);
+        asyncExecutor.setTaskDecorator(userContextTaskDecorator);
+        asyncExecutor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestExecutor.shutdownNow();
+        asyncExecutor.shutdown();
+        jdbcTemplate.update("DELETE FROM doctor WHERE doc_reg_no LIKE ?", REGISTRATION_PREFIX + "%");
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    @Test
+    void auditColumnsCarryTheUserOfEveryParallelWrite() throws Exception {
+        List<Long> ids = writeInParallel("creator-", i -> doctorService.save(doctor(i)).getId());
+        writeInParallel("editor-", i -> {
+            Doctor doctor = doctorService.findById(ids.get(i));
+            doctor.setEmail("doctor" + i + "@channelling.lk");
+            return doctorService.update(doctor.getId(), doctor).getId();
+        });
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT doc_reg_no, created_user, modified_user " +
+                "FROM doctor WHERE doc_reg_no LIKE ?", REGISTRATION_PREFIX + "%");
+
+        assertEquals(WRITES, rows.size());
+        for (Map<String, Object> row : rows) {
+            String index = ((String) row.get("doc_reg_no")).substring(REGISTRATION_PREFIX.length());
+            assertEquals("creator-" + index, row.get("created_user"));
+            assertEquals("editor-" + index, row.get("modified_user"));
+        }
+    }
+
+    @Test
+    void pooledThreadsDoNotKeepTheUserOfAPreviousTask() throws Exception {
+        writeInParallel("user-", i -> (long) i);
+
+        List<Future<String>> leftovers = new ArrayList<>();
+        for (int i = 0; i < REQUEST_THREADS * 4; i++) {
+            leftovers.add(requestExecutor.submit(UserContext::getUserName));
+            leftovers.add(asyncExecutor.submit(UserContext::getUserName));
+        }
+        for (Future<String> leftover : leftovers) assertNull(leftover.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void writesWithoutAUserAreRejected() {
+        assertThrows(Exception.class, () -> requestExecutor.submit(() -> doctorService.save(doctor(WRITES))).get(10, TimeUnit.SECONDS));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM doctor WHERE doc_reg_no = ?", Integer.class,
+                REGISTRATION_PREFIX + WRITES));
+    }
+
+    /**
+     * Runs the write for every index as its own user, all released at once. Every other write is handed over to the
+     * async executor, so the user has to travel with the task.
+     */
+    private List<Long> writeInParallel(String userPrefix, IntFunction<Long> write) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+
+        for (int i = 0; i < WRITES; i++) {
+            int index = i;
+            results.add(requestExecutor.submit(() -> UserContext.callAs(userPrefix + index, () -> {
+                start.await();
+                if (index % 2 == 0) return write.apply(index);
+                return asyncExecutor.submit(() -> write.apply(index)).get();
+            })));
+        }
+
+        start.countDown();
+        List<Long> ids = new ArrayList<>(WRITES);
+        for (Future<Long> result : results) ids.add(result.get(120, TimeUnit.SECONDS));
+        return ids;
+    }
+
+    private static Doctor doctor(int index) {
+        Doctor doctor = new Doctor();
+        doctor.setFirstName("First" + index);
+        doctor.setLastName("Last" + index);
+        doctor.setDisplayName("Dr. First" + index + " Last" + index);
+        doctor.setIdentificationMethod(IdentificationMethod.NIC);
+        doctor.setIdentificationValue("NIC" + index);
+        doctor.setCityId(1L);
+        doctor.setGender(Gender.MALE);
+        doctor.setDoctorRegistrationNo(REGISTRATION_PREFIX + index);
+        doctor.setTitleId(1L);
+        return doctor;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lk.channelling.exception.IdempotencyKeyMismatchException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyKeyStoreTest {
+
+    private IdempotencyKeyStore idempotencyKeyStore;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyKeyStore = new IdempotencyKeyStore(null, new ObjectMapper());
+        ReflectionTestUtils.setField(idempotencyKeyStore, "ttl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(idempotencyKeyStore, "maxKeys", 1000);
+        ReflectionTestUtils.setField(idempotencyKeyStore, "persistent", false);
+    }
+
+    @Test
+    void concurrentDuplicatesExecuteTheActionOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        List<Future<IdempotentResult<String>>> results = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return idempotencyKeyStore.execute("test", "key-1", "request", String.class, () -> "response-" + executions.incrementAndGet());
+            }));
+        }
+
+        start.countDown();
+        int replayed = 0;
+        for (Future<IdempotentResult<String>> result : results) {
+            IdempotentResult<String> idempotentResult = result.get(10, TimeUnit.SECONDS);
+            assertEquals("response-1", idempotentResult.getValue());
+            if (idempotentResult.isReplayed()) replayed++;
+        }
+        executor.shutdown();
+
+        assertEquals(1, executions.get());
+        assertEquals(199, replayed);
+    }
+
+    @Test
+    void failedRequestCanBeRetriedWithTheSameKey() {
+        assertThrows(IllegalStateException.class, () -> idempotencyKeyStore.execute("test", "key-2", "request", String.class, () -> {
+            throw new IllegalStateException("failed");
+        }));
+
+        IdempotentResult<String> retried = idempotencyKeyStore.execute("test", "key-2", "request", String.class, () -> "response");
+
+        assertEquals("response", retried.getValue());
+        assertFalse(retried.isReplayed());
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsRejected() {
+        idempotencyKeyStore.execute("test", "key-3", "request", String.class, () -> "response");
+
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> idempotencyKeyStore.execute("test", "key-3", "another request", String.class, () -> "another response"));
+        assertEquals("response", idempotencyKeyStore.execute("test", "key-3", "request", String.class, () -> "another response").getValue());
+    }
+}
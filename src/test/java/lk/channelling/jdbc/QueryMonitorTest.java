@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryMonitorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private QueryMonitor queryMonitor;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        queryMonitor = new QueryMonitor(meterRegistry);
+        ReflectionTestUtils.setField(queryMonitor, "maxStatements", 10);
+        ReflectionTestUtils.setField(queryMonitor, "maxDbTime", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(queryMonitor, "nPlusOneThreshold", 3);
+        ReflectionTestUtils.setField(queryMonitor, "slowStatementThreshold", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(queryMonitor, "slowestStatements", 2);
+
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("queryMonitor", queryMonitor));
+        jdbcTemplate = new JdbcTemplate(new QueryMonitoringDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:query_monitor;DB_CLOSE_DELAY=-1", "sa", ""),
+                beanFactory.getBeanProvider(QueryMonitor.class)));
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS doctor (id INT PRIMARY KEY, name VARCHAR(50))");
+        jdbcTemplate.execute("MERGE INTO doctor KEY (id) VALUES (1, 'A'), (2, 'B'), (3, 'C')");
+    }
+
+    @Test
+    void repeatedStatementsAreFlaggedAsNPlusOne() {
+        QueryStatistics statistics = queryMonitor.begin();
+        for (int id = 1; id <= 3; id++) {
+            jdbcTemplate.queryForList("SELECT name FROM doctor WHERE id = ?", String.class, id);
+        }
+        jdbcTemplate.queryForList("SELECT name FROM doctor WHERE id IN (1, 2, 3)", String.class);
+        queryMonitor.end(statistics, "GET", "/api/v1/doctors");
+
+        assertEquals(4, statistics.getStatements());
+        assertEquals(Map.of("SELECT name FROM doctor WHERE id = ?", 3), statistics.getRepeated(3));
+        assertEquals(2, statistics.getSlowest().size());
+        assertEquals(List.of(QueryMonitor.N_PLUS_ONE_VIOLATION), queryMonitor.violations(statistics));
+        assertEquals(4, meterRegistry.get(QueryMonitor.STATEMENTS).tag("endpoint", "/api/v1/doctors").summary().totalAmount());
+        assertEquals(1, meterRegistry.get(QueryMonitor.BUDGET_EXCEEDED).tag("reason", QueryMonitor.N_PLUS_ONE_VIOLATION).counter().count());
+    }
+
+    @Test
+    void statementsOutsideOfARequestAreNotCollected() {
+        jdbcTemplate.queryForList("SELECT name FROM doctor", String.class);
+
+        QueryStatistics statistics = queryMonitor.begin();
+        for (int i = 0; i < 11; i++) {
+            jdbcTemplate.queryForList(i % 2 == 0 ? "SELECT name FROM doctor" : "SELECT id FROM doctor", Object.class);
+        }
+        queryMonitor.end(statistics, "GET", "/api/v1/doctors");
+
+        assertEquals(11, statistics.getStatements());
+        assertTrue(queryMonitor.violations(statistics).contains(QueryMonitor.STATEMENTS_VIOLATION));
+        assertNull(ReflectionTestUtils.invokeMethod(ReflectionTestUtils.getField(queryMonitor, "current"), "get"));
+    }
+
+    @Test
+    void literalsAndPlaceholderListsAreNormalized() {
+        assertEquals("select * from appointment where session_id in (?) and status = ? and c1 = ?",
+                SqlNormalizer.normalize("select *\n  from appointment where session_id in (1, 2,3) and status = 'IT''S' and c1 = ?"));
+        assertEquals("select * from patient where id in (?)", SqlNormalizer.normalize("select * from patient where id in (?, ?, ?)"));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The latencies and outcomes of the requests of one scenario.
+ *
+ * <p>Each client records into its own instances, which are merged once the run is over, so recording never contends.
+ * Responses with status 409 are business rejections, such as a fully booked session or an expired hold, and are
+ * counted apart from the errors.</p>
+ */
+final class LatencyRecorder {
+
+    static final int IO_ERROR = -1;
+
+    private long[] latencies = new long[1024];
+
+    private int requests;
+
+    private int rejected;
+
+    private final Map<Integer, Integer> errors = new TreeMap<>();
+
+    void record(long nanos, int status) {
+        if (requests == latencies.length) latencies = Arrays.copyOf(latencies, requests * 2);
+        latencies[requests++] = nanos;
+
+        if (status == 409) rejected++;
+        else if (status < 200 || status >= 300) errors.merge(status, 1, Integer::sum);
+    }
+
+    void merge(LatencyRecorder other) {
+        if (requests + other.requests > latencies.length) latencies = Arrays.copyOf(latencies, requests + other.requests);
+        System.arraycopy(other.latencies, 0, latencies, requests, other.requests);
+        requests += other.requests;
+        rejected += other.rejected;
+        other.errors.forEach((status, count) -> errors.merge(status, count, Integer::sum));
+    }
+
+    int getRequests() {
+        return requests;
+    }
+
+    int getRejected() {
+        return rejected;
+    }
+
+    int getErrors() {
+        return errors.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Returns the number of failed requests by response status, {@value #IO_ERROR} for requests without a response.
+     *
+     * @return the errors by status.
+     */
+    Map<Integer, Integer> getErrorsByStatus() {
+        return errors;
+    }
+
+    /**
+     * Returns the latencies in ascending order.
+     *
+     * @return the sorted latencies in nanoseconds.
+     */
+    long[] sortedLatencies() {
+        long[] sorted = Arrays.copyOf(latencies, requests);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+}
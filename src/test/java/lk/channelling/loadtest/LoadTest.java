@@ -0,0 +1,150 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.loadtest;
+
+import lk.channelling.ChannellingAppApiApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * End-to-end load test of the booking and search endpoints, without a MySQL server.
+ *
+ * <p>Boots the application on an in-memory H2 database in MySQL mode with the Liquibase changelogs applied, seeds it
+ * with the {@link LoadTestDataSeeder} and drives a weighted mix of the {@link Scenario}s through the real controllers
+ * over HTTP, from {@code clients} concurrent clients, each sending its next request as soon as the previous one
+ * completed. The requests sent during the warmup are not measured. Prints the throughput, latency percentiles and
+ * error rates of every scenario once the run is over.</p>
+ *
+ * <p>Run it with the {@link #main(String[])} method from the test classpath or with the {@code load-test} Maven
+ * profile, passing the {@link LoadTestSettings}, e.g.
+ * {@code mvn -Pload-test test -Dload-test="--doctors=2000 --clients=64 --duration=2m"}.</p>
+ */
+public final class LoadTest {
+
+    private static final String DATASOURCE_URL = "jdbc:h2:mem:load_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;" +
+            "LOCK_TIMEOUT=10000;NON_KEYWORDS=USER";
+
+    private final LoadTestSettings settings;
+
+    private final LoadTestClient client;
+
+    private LoadTest(LoadTestSettings settings, SeededData seededData, URI baseUri) {
+        this.settings = settings;
+        this.client = new LoadTestClient(baseUri, seededData);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.parse(args);
+
+        try (ConfigurableApplicationContext context = start(settings)) {
+            SeededData seededData = context.getBean(LoadTestDataSeeder.class).getSeededData();
+            URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+
+            new LoadTest(settings, seededData, baseUri).run().print(System.out);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(LoadTestSettings settings) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.datasource.url", DATASOURCE_URL);
+        properties.putAll(settings.getApplicationProperties());
+
+        return new SpringApplicationBuilder(ChannellingAppApiApplication.class)
+                .profiles("h2")
+                .properties(properties)
+                .initializers(context -> ((GenericApplicationContext) context).registerBean(LoadTestDataSeeder.class,
+                        () -> new LoadTestDataSeeder(settings, context.getBean(JdbcTemplate.class))))
+                .run();
+    }
+
+    private LoadTestReport run() throws Exception {
+        client.login();
+
+        long startTime = System.nanoTime();
+        long measureFrom = startTime + settings.getWarmup().toNanos();
+        long measureUntil = measureFrom + settings.getDuration().toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(settings.getClients());
+        try {
+            List<Future<Map<Scenario, LatencyRecorder>>> clients = new ArrayList<>();
+            for (int i = 0; i < settings.getClients(); i++) {
+                Random random = new Random(settings.getSeed() + i);
+                clients.add(executor.submit(() -> drive(random, measureFrom, measureUntil)));
+            }
+
+            LoadTestReport report = new LoadTestReport(settings.getDuration(), settings.getClients());
+            for (Future<Map<Scenario, LatencyRecorder>> clientResults : clients) report.add(clientResults.get());
+            return report;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<Scenario, LatencyRecorder> drive(Random random, long measureFrom, long measureUntil) throws InterruptedException {
+        Map<Scenario, LatencyRecorder> results = new EnumMap<>(Scenario.class);
+        int totalWeight = 0;
+        for (Scenario scenario : Scenario.values()) totalWeight += settings.getWeight(scenario);
+        if (totalWeight == 0) throw new IllegalArgumentException("At least one scenario must have a weight.");
+
+        long startTime;
+        while ((startTime = System.nanoTime()) < measureUntil) {
+            Scenario scenario = pick(random, totalWeight);
+            Long heldAppointment = scenario == Scenario.PAY ? client.pollHeldAppointment() : null;
+            if (scenario == Scenario.PAY && heldAppointment == null) scenario = Scenario.BOOK;
+
+            int status;
+            try {
+                status = switch (scenario) {
+                    case SEARCH -> client.search(random);
+                    case BOOK -> client.book(random);
+                    case PAY -> client.pay(heldAppointment, random);
+                    case RATE -> client.rate(random);
+                };
+            } catch (IOException e) {
+                status = LatencyRecorder.IO_ERROR;
+            }
+
+            long latency = System.nanoTime() - startTime;
+            if (startTime >= measureFrom) results.computeIfAbsent(scenario, key -> new LatencyRecorder()).record(latency, status);
+        }
+        return results;
+    }
+
+    private Scenario pick(Random random, int totalWeight) {
+        int value = random.nextInt(totalWeight);
+        for (Scenario scenario : Scenario.values()) {
+            value -= settings.getWeight(scenario);
+            if (value < 0) return scenario;
+        }
+        throw new IllegalStateException();
+    }
+}
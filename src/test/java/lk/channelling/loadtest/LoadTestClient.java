@@ -0,0 +1,165 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lk.channelling.idempotency.IdempotencyKeyStore;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Queue;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Sends the requests of the scenarios to the running application, authenticated with the token of the seeded user.
+ *
+ * <p>The ids of the appointments held by {@link Scenario#BOOK} are queued for {@link Scenario#PAY}, shared by all the
+ * clients. The client is thread safe.</p>
+ */
+final class LoadTestClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String JSON = "application/json";
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(TIMEOUT)
+            .build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Queue<Long> heldAppointments = new ConcurrentLinkedQueue<>();
+
+    private final URI baseUri;
+
+    private final SeededData seededData;
+
+    private String authorization;
+
+    LoadTestClient(URI baseUri, SeededData seededData) {
+        this.baseUri = baseUri;
+        this.seededData = seededData;
+    }
+
+    /**
+     * Logs in as the seeded user, the access token is sent with every following request.
+     */
+    void login() throws IOException, InterruptedException {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("username", LoadTestDataSeeder.USERNAME)
+                .put("password", LoadTestDataSeeder.PASSWORD);
+        HttpResponse<String> response = httpClient.send(post("/api/v1/auth/login", body).build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) throw new IllegalStateException("Login failed with status " + response.statusCode() + ": " + response.body());
+        authorization = "Bearer " + objectMapper.readTree(response.body()).path("access_token").asText();
+    }
+
+    /**
+     * Takes the id of an appointment held by an earlier booking, to be paid.
+     *
+     * @return the id of the held appointment, or {@code null} if there is none.
+     */
+    Long pollHeldAppointment() {
+        return heldAppointments.poll();
+    }
+
+    int search(Random random) throws IOException, InterruptedException {
+        String path = switch (random.nextInt(3)) {
+            case 0 -> "/api/v1/doctor-search?q=" + encode(seededData.randomSearchTerm(random)) + "&cityId=" + seededData.randomCityId(random);
+            case 1 -> "/api/v1/availability?from=" + LocalDate.now() + "&to=" + LocalDate.now().plusDays(6) +
+                    "&specializationId=" + seededData.randomSpecializationId(random);
+            default -> "/api/v1/autocomplete/doctors?q=" + encode(seededData.randomSearchTerm(random));
+        };
+        return send(request(path).GET());
+    }
+
+    int book(Random random) throws IOException, InterruptedException {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("patientId", seededData.randomPatientId(random))
+                .put("sessionId", seededData.getSessionId(seededData.randomSession(random)));
+        HttpResponse<String> response = httpClient.send(post("/api/v1/appointments/hold", body)
+                .header(IdempotencyKeyStore.HEADER, UUID.randomUUID().toString()).build(), HttpResponse.BodyHandlers.ofString());
+
+        if (response.statusCode() == 201) {
+            JsonNode id = objectMapper.readTree(response.body()).path("id");
+            if (id.canConvertToLong()) heldAppointments.add(id.asLong());
+        }
+        return response.statusCode();
+    }
+
+    int pay(long appointmentId, Random random) throws IOException, InterruptedException {
+        ObjectNode body = audited(objectMapper.createObjectNode()
+                .put("appointmentId", appointmentId)
+                .put("paymentDate", System.currentTimeMillis())
+                .put("amount", 1500 + random.nextInt(30) * 100)
+                .put("paymentMethod", "CARD"));
+        return send(post("/api/v1/payments/", body).header(IdempotencyKeyStore.HEADER, UUID.randomUUID().toString()));
+    }
+
+    int rate(Random random) throws IOException, InterruptedException {
+        int session = seededData.randomSession(random);
+        ObjectNode body = audited(objectMapper.createObjectNode()
+                .put("patientId", seededData.randomPatientId(random))
+                .put("sessionId", seededData.getSessionId(session))
+                .put("doctorId", seededData.getSessionDoctorId(session))
+                .put("categoryId", seededData.randomRatingCategoryId(random))
+                .put("rating", 1 + random.nextInt(5))
+                .put("comment", "Load test rating")
+                .put("ratingDate", LocalDateTime.now().withNano(0).toString()));
+        return send(post("/api/v1/doctor-ratings/", body));
+    }
+
+    /**
+     * Adds the audit columns the payment and rating endpoints expect from the client.
+     */
+    private ObjectNode audited(ObjectNode body) {
+        return body.put("status", "ACTIVE")
+                .put("created_user", LoadTestDataSeeder.USERNAME)
+                .put("created_date", System.currentTimeMillis());
+    }
+
+    private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.Builder post(String path, JsonNode body) throws IOException {
+        return request(path)
+                .header("Content-Type", JSON)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(TIMEOUT).header("Accept", JSON);
+        if (authorization != null) request.header("Authorization", authorization);
+        return request;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
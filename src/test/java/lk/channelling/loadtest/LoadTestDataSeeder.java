@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.loadtest;
+
+import lk.channelling.datagen.SyntheticDataGenerator;
+import lk.channelling.security.PasswordHasher;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds the empty database with the {@link SyntheticDataGenerator} at the scale of the settings, and adds the user of
+ * the load test clients.
+ *
+ * <p>Runs as an {@link ApplicationRunner}, after Liquibase has created the schema but before the
+ * {@code ApplicationReadyEvent}, so the capacity counters, the availability snapshot and the search indexes are built
+ * from the seeded data. The values only depend on the seed, so the runs are comparable with each other.</p>
+ */
+@Log4j2
+final class LoadTestDataSeeder implements ApplicationRunner {
+
+    static final String USERNAME = "loadtest";
+
+    static final String PASSWORD = "loadtest-password";
+
+    private final LoadTestSettings settings;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private SeededData seededData;
+
+    LoadTestDataSeeder(LoadTestSettings settings, JdbcTemplate jdbcTemplate) {
+        this.settings = settings;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        long startTime = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        new SyntheticDataGenerator(jdbcTemplate.getDataSource(), settings.getScale(), settings.getSeed(), today).generate();
+        jdbcTemplate.update("INSERT INTO user (name, username, password) VALUES (?, ?, ?)", "Load Test", USERNAME, PasswordHasher.hash(PASSWORD));
+
+        // Only the upcoming sessions can be booked.
+        List<long[]> sessions = jdbcTemplate.query("SELECT id, doctor_id FROM doctor_sessions WHERE session_date_time >= ? ORDER BY id",
+                (resultSet, rowNum) -> new long[]{resultSet.getLong(1), resultSet.getLong(2)}, Date.valueOf(today));
+        List<String> searchTerms = new ArrayList<>();
+        jdbcTemplate.queryForList("SELECT DISTINCT first_name FROM doctor ORDER BY first_name", String.class)
+                .forEach(name -> searchTerms.add(name.substring(0, Math.min(name.length(), 3)).toLowerCase()));
+        jdbcTemplate.queryForList("SELECT DISTINCT last_name FROM doctor ORDER BY last_name", String.class)
+                .forEach(name -> searchTerms.add(name.toLowerCase()));
+
+        seededData = new SeededData(sessions.stream().mapToLong(session -> session[0]).toArray(),
+                sessions.stream().mapToLong(session -> session[1]).toArray(), ids("patient"), ids("city"), ids("specialization"),
+                ids("rating_categories"), searchTerms);
+        log.info("Seeded {} upcoming sessions and {} patients in {} ms", seededData.getSessions(), seededData.getPatients(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    SeededData getSeededData() {
+        return seededData;
+    }
+
+    private long[] ids(String table) {
+        return jdbcTemplate.queryForList("SELECT id FROM " + table + " ORDER BY id", Long.class).stream().mapToLong(Long::longValue).toArray();
+    }
+}
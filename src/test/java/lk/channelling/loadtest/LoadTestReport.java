@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.loadtest;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Throughput, latency percentiles and error rates of every scenario over the measured part of the run.
+ */
+final class LoadTestReport {
+
+    private static final String HEADER_FORMAT = "%-8s %9s %9s %9s %9s %9s %9s %9s %9s %9s%n";
+
+    private static final String ROW_FORMAT = "%-8s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %8.2f%% %8.2f%%%n";
+
+    private final Map<Scenario, LatencyRecorder> results = new EnumMap<>(Scenario.class);
+
+    private final Duration measured;
+
+    private final int clients;
+
+    LoadTestReport(Duration measured, int clients) {
+        this.measured = measured;
+        this.clients = clients;
+    }
+
+    void add(Map<Scenario, LatencyRecorder> clientResults) {
+        clientResults.forEach((scenario, recorder) -> results.computeIfAbsent(scenario, key -> new LatencyRecorder()).merge(recorder));
+    }
+
+    void print(PrintStream out) {
+        double seconds = measured.toMillis() / 1000.0;
+        out.printf("%nLoad test: %d clients, %.0f s measured%n%n", clients, seconds);
+        out.printf(HEADER_FORMAT, "scenario", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "rejected", "errors");
+
+        LatencyRecorder total = new LatencyRecorder();
+        for (Map.Entry<Scenario, LatencyRecorder> result : results.entrySet()) {
+            print(out, result.getKey().name(), result.getValue(), seconds);
+            total.merge(result.getValue());
+        }
+        print(out, "TOTAL", total, seconds);
+
+        if (total.getErrors() > 0) {
+            out.println();
+            results.forEach((scenario, recorder) -> {
+                if (recorder.getErrors() > 0) out.printf("%s errors by status: %s%n", scenario, recorder.getErrorsByStatus());
+            });
+        }
+    }
+
+    private static void print(PrintStream out, String name, LatencyRecorder recorder, double seconds) {
+        int requests = recorder.getRequests();
+        if (requests == 0) {
+            out.printf(HEADER_FORMAT, name, 0, "-", "-", "-", "-", "-", "-", "-", "-");
+            return;
+        }
+
+        long[] latencies = recorder.sortedLatencies();
+        out.printf(ROW_FORMAT, name, requests, requests / seconds,
+                millis(percentile(latencies, 0.5)), millis(percentile(latencies, 0.9)), millis(percentile(latencies, 0.99)),
+                millis(percentile(latencies, 0.999)), millis(latencies[latencies.length - 1]),
+                100.0 * recorder.getRejected() / requests, 100.0 * recorder.getErrors() / requests);
+    }
+
+    private static long percentile(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
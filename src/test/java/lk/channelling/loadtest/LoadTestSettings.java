@@ -0,0 +1,137 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.loadtest;
+
+import lk.channelling.datagen.DataScale;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The scale of the seeded data and the shape of the workload, read from {@code --name=value} arguments.
+ *
+ * <p>The data starts from the {@link DataScale#small()} scale, any of its values can be overridden by name, e.g.
+ * {@code --doctors=2000 --future-days=30}. The weights of the scenarios are relative to each other, e.g.
+ * {@code --search=70 --book=10 --pay=10 --rate=10}. Durations accept the Spring Boot formats, e.g.
+ * {@code --duration=2m}. Arguments whose name contains a dot are passed on to the application as properties, e.g.
+ * {@code --application.logging.requests.sample-rate=0.01}.</p>
+ */
+final class LoadTestSettings {
+
+    private final Map<String, String> values;
+
+    private final Map<String, Object> applicationProperties;
+
+    private final long seed;
+
+    private final DataScale scale = DataScale.small();
+
+    private final int clients;
+
+    private final Duration warmup;
+
+    private final Duration duration;
+
+    private final int searchWeight;
+
+    private final int bookWeight;
+
+    private final int payWeight;
+
+    private final int rateWeight;
+
+    private LoadTestSettings(Map<String, String> values, Map<String, Object> applicationProperties) {
+        this.values = values;
+        this.applicationProperties = applicationProperties;
+        this.seed = Long.parseLong(value("seed", "42"));
+        this.clients = intValue("clients", 32);
+        this.warmup = DurationStyle.detectAndParse(value("warmup", "10s"));
+        this.duration = DurationStyle.detectAndParse(value("duration", "60s"));
+        this.searchWeight = intValue("search", 55);
+        this.bookWeight = intValue("book", 20);
+        this.payWeight = intValue("pay", 15);
+        this.rateWeight = intValue("rate", 10);
+        for (String name : Map.copyOf(this.values).keySet())
+            if (scale.set(name, this.values.get(name))) this.values.remove(name);
+        if (!this.values.isEmpty()) throw new IllegalArgumentException("Unknown load test settings: " + this.values.keySet());
+    }
+
+    /**
+     * Parses the {@code --name=value} arguments, any other argument or unknown name is rejected.
+     *
+     * @param args the command line arguments.
+     * @return the settings.
+     */
+    static LoadTestSettings parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        Map<String, Object> applicationProperties = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) throw new IllegalArgumentException("Expected --name=value but got " + arg);
+
+            String name = arg.substring(2, separator);
+            if (name.contains(".")) applicationProperties.put(name, arg.substring(separator + 1));
+            else values.put(name, arg.substring(separator + 1));
+        }
+        return new LoadTestSettings(values, applicationProperties);
+    }
+
+    Map<String, Object> getApplicationProperties() {
+        return applicationProperties;
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    DataScale getScale() {
+        return scale;
+    }
+
+    int getClients() {
+        return clients;
+    }
+
+    Duration getWarmup() {
+        return warmup;
+    }
+
+    Duration getDuration() {
+        return duration;
+    }
+
+    int getWeight(Scenario scenario) {
+        return switch (scenario) {
+            case SEARCH -> searchWeight;
+            case BOOK -> bookWeight;
+            case PAY -> payWeight;
+            case RATE -> rateWeight;
+        };
+    }
+
+    private String value(String name, String defaultValue) {
+        String value = values.remove(name);
+        return value == null ? defaultValue : value;
+    }
+
+    private int intValue(String name, int defaultValue) {
+        int value = Integer.parseInt(value(name, String.valueOf(defaultValue)));
+        if (value < 0) throw new IllegalArgumentException("The load test setting " + name + " must not be negative.");
+        return value;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.loadtest;
+
+/**
+ * The operations driven by the load test clients.
+ *
+ * <ul>
+ *     <li>{@link #SEARCH} runs one of the doctor search, availability and autocomplete queries.</li>
+ *     <li>{@link #BOOK} holds a slot of a random session for a random patient.</li>
+ *     <li>{@link #PAY} pays for a slot held by an earlier {@link #BOOK}, which confirms the appointment.</li>
+ *     <li>{@link #RATE} rates the doctor of a random session.</li>
+ * </ul>
+ */
+enum Scenario {
+    SEARCH,
+    BOOK,
+    PAY,
+    RATE
+}
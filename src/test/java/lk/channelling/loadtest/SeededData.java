@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.loadtest;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The ids and search terms of the seeded data the load test clients pick from.
+ */
+final class SeededData {
+
+    private final long[] sessionIds;
+
+    private final long[] sessionDoctorIds;
+
+    private final long[] patientIds;
+
+    private final long[] cityIds;
+
+    private final long[] specializationIds;
+
+    private final long[] ratingCategoryIds;
+
+    private final List<String> searchTerms;
+
+    SeededData(long[] sessionIds, long[] sessionDoctorIds, long[] patientIds, long[] cityIds, long[] specializationIds,
+               long[] ratingCategoryIds, List<String> searchTerms) {
+        this.sessionIds = sessionIds;
+        this.sessionDoctorIds = sessionDoctorIds;
+        this.patientIds = patientIds;
+        this.cityIds = cityIds;
+        this.specializationIds = specializationIds;
+        this.ratingCategoryIds = ratingCategoryIds;
+        this.searchTerms = List.copyOf(searchTerms);
+    }
+
+    /**
+     * Returns the index of a random session, see {@link #getSessionId(int)} and {@link #getSessionDoctorId(int)}.
+     *
+     * @param random the random of the client.
+     * @return the index of the session.
+     */
+    int randomSession(Random random) {
+        return random.nextInt(sessionIds.length);
+    }
+
+    long getSessionId(int session) {
+        return sessionIds[session];
+    }
+
+    long getSessionDoctorId(int session) {
+        return sessionDoctorIds[session];
+    }
+
+    long randomPatientId(Random random) {
+        return patientIds[random.nextInt(patientIds.length)];
+    }
+
+    long randomCityId(Random random) {
+        return cityIds[random.nextInt(cityIds.length)];
+    }
+
+    long randomSpecializationId(Random random) {
+        return specializationIds[random.nextInt(specializationIds.length)];
+    }
+
+    long randomRatingCategoryId(Random random) {
+        return ratingCategoryIds[random.nextInt(ratingCategoryIds.length)];
+    }
+
+    String randomSearchTerm(Random random) {
+        return searchTerms.get(random.nextInt(searchTerms.size()));
+    }
+
+    int getSessions() {
+        return sessionIds.length;
+    }
+
+    int getPatients() {
+        return patientIds.length;
+    }
+}
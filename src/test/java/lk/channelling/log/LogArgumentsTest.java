@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.log;
+
+import lk.channelling.entity.Patient;
+import lk.channelling.resources.LoginRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogArgumentsTest {
+
+    @Test
+    void personalFieldsAndPasswordsAreRedacted() {
+        Patient patient = new Patient();
+        patient.setId(7L);
+        patient.setFirstName("Nimal");
+        patient.setMobileNo1("0771234567");
+        patient.setEmail("nimal@example.com");
+        patient.setGender("MALE");
+
+        String message = render(RequestLogSettings.DEFAULT, new String[]{"patient", "loginRequest"},
+                patient, new LoginRequest("nimal", "secret"));
+
+        assertTrue(message.contains("patient=Patient(id=7"));
+        assertTrue(message.contains("gender=MALE"));
+        assertTrue(message.contains("firstName=***"));
+        assertTrue(message.contains("mobileNo1=***"));
+        assertTrue(message.contains("password=***"));
+        assertFalse(message.contains("Nimal"));
+        assertFalse(message.contains("0771234567"));
+        assertFalse(message.contains("nimal@example.com"));
+        assertFalse(message.contains("secret"));
+    }
+
+    @Test
+    void redactedParametersAreNotRendered() {
+        RequestLogProperties properties = new RequestLogProperties();
+        properties.setRedactedFields(List.of("q"));
+
+        String message = render(new RequestLogSettings(properties), new String[]{"q", "page"}, "kamal perera", 2);
+
+        assertEquals("[q=***, page=2]", message);
+    }
+
+    @Test
+    void argumentsAreTruncated() {
+        RequestLogProperties properties = new RequestLogProperties();
+        properties.setMaxArgumentLength(10);
+        properties.setMaxMessageLength(34);
+
+        String message = render(new RequestLogSettings(properties), null, "a".repeat(50), "b".repeat(50), "c", "d", "e");
+
+        assertEquals("[aaaaaaaaaa..., bbbbbbbbbb..., c, ...]", message);
+    }
+
+    @Test
+    void mostSpecificEndpointRateWins() {
+        RequestLogProperties properties = new RequestLogProperties();
+        properties.setSampleRate(1);
+        properties.setEndpointSampleRates(Map.of("/api/v1/doctors/**", 0.0, "/api/v1/doctors/{id}", 1.0));
+        RequestLogSettings settings = new RequestLogSettings(properties);
+
+        assertTrue(settings.sample("/api/v1/doctors/{id}"));
+        assertFalse(settings.sample("/api/v1/doctors/paging"));
+        assertTrue(settings.sample("/api/v1/hospitals"));
+        assertTrue(settings.sample(null));
+    }
+
+    private static String render(RequestLogSettings settings, String[] parameterNames, Object... arguments) {
+        StringBuilder message = new StringBuilder();
+        LogArguments.append(message, parameterNames, arguments, settings);
+        return message.toString();
+    }
+}
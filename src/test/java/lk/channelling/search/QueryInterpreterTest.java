@@ -0,0 +1,139 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.search;
+
+import lk.channelling.entity.City;
+import lk.channelling.entity.Country;
+import lk.channelling.entity.Specialization;
+import lk.channelling.entity.State;
+import lk.channelling.enums.Status;
+import lk.channelling.geography.GeographyTree;
+import lk.channelling.repository.CityRepository;
+import lk.channelling.repository.CountryRepository;
+import lk.channelling.repository.StateRepository;
+import lk.channelling.services.SpecializationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QueryInterpreterTest {
+
+    private QueryInterpreter queryInterpreter;
+
+    @BeforeEach
+    void setUp() {
+        SpecializationService specializationService = mock(SpecializationService.class);
+        when(specializationService.findByStatus(Status.ACTIVE)).thenReturn(List.of(specialization(1L, "CARD", "Cardiology"),
+                specialization(2L, "GS", "General Surgery"), specialization(3L, "GP", "General Practice"),
+                specialization(4L, "ENT", "Ear Nose and Throat")));
+
+        CountryRepository countryRepository = mock(CountryRepository.class);
+        StateRepository stateRepository = mock(StateRepository.class);
+        CityRepository cityRepository = mock(CityRepository.class);
+        when(countryRepository.findAll()).thenReturn(List.of(country()));
+        when(stateRepository.findAll()).thenReturn(List.of(state(10L, "Western"), state(11L, "Central")));
+        when(cityRepository.findAll()).thenReturn(List.of(city(100L, "Colombo", 10L), city(101L, "Kandy", 11L),
+                city(102L, "Gampaha", 10L), city(103L, "Nuwara Eliya", 11L)));
+
+        GeographyTree geographyTree = new GeographyTree(countryRepository, stateRepository, cityRepository, mock(PlatformTransactionManager.class));
+        geographyTree.rebuild();
+        queryInterpreter = new QueryInterpreter(specializationService, geographyTree);
+    }
+
+    @Test
+    void specializationAndPlaceAreRecognized() {
+        DoctorQuery query = queryInterpreter.interpret("Cardiologist near Kandy", word -> false);
+
+        assertEquals(Set.of(1L), query.getSpecializationIds());
+        assertEquals(Set.of(101L), query.getCityIds());
+        assertEquals(Set.of(101L, 103L), query.getNearbyCityIds());
+        assertTrue(query.getNameTerms().isEmpty());
+    }
+
+    @Test
+    void specializationWordsNarrowEachOtherDown() {
+        assertEquals(Set.of(2L), queryInterpreter.interpret("general surgeon", word -> false).getSpecializationIds());
+        assertEquals(Set.of(4L), queryInterpreter.interpret("ear nose throat", word -> false).getSpecializationIds());
+        assertEquals(Set.of(4L), queryInterpreter.interpret("ENT", word -> false).getSpecializationIds());
+    }
+
+    @Test
+    void placesAreMatchedWithTyposAndAcrossWords() {
+        assertEquals(Set.of(101L), queryInterpreter.interpret("kandi cardiology", word -> false).getCityIds());
+        assertEquals(Set.of(103L), queryInterpreter.interpret("nuwara eliya", word -> false).getCityIds());
+        assertEquals(Set.of(100L, 102L), queryInterpreter.interpret("western", word -> false).getCityIds());
+    }
+
+    @Test
+    void remainingWordsAreNameTerms() {
+        DoctorQuery query = queryInterpreter.interpret("Dr. Perera colombo", word -> false);
+
+        assertNull(query.getSpecializationIds());
+        assertEquals(Set.of(100L), query.getCityIds());
+        assertEquals(List.of("perera"), query.getNameTerms());
+    }
+
+    @Test
+    void knownNameWordsAreNotTakenForTypos() {
+        DoctorQuery query = queryInterpreter.interpret("kandi", "kandi"::equals);
+
+        assertNull(query.getCityIds());
+        assertEquals(List.of("kandi"), query.getNameTerms());
+    }
+
+    private static Specialization specialization(Long id, String code, String description) {
+        Specialization specialization = new Specialization();
+        specialization.setId(id);
+        specialization.setCode(code);
+        specialization.setDescription(description);
+        specialization.setStatus(Status.ACTIVE);
+        return specialization;
+    }
+
+    private static Country country() {
+        Country country = new Country();
+        country.setId(1L);
+        country.setCode("LK");
+        country.setDescription("Sri Lanka");
+        country.setStatus(Status.ACTIVE);
+        return country;
+    }
+
+    private static State state(Long id, String description) {
+        State state = new State();
+        state.setId(id);
+        state.setDescription(description);
+        state.setCountryId(1L);
+        state.setStatus(Status.ACTIVE);
+        return state;
+    }
+
+    private static City city(Long id, String description, Long stateId) {
+        City city = new City();
+        city.setId(id);
+        city.setDescription(description);
+        city.setStateId(stateId);
+        city.setStatus(Status.ACTIVE);
+        return city;
+    }
+}
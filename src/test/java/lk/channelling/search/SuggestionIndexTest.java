@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestionIndexTest {
+
+    private SuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SuggestionIndex("doctors");
+        index.load(List.of(
+                new SearchDocument(1, "Dr. Kamal Perera", "Dr. Kamal Perera", "Kamal Perera"),
+                new SearchDocument(2, "Dr. Kumari Fernando", "Dr. Kumari Fernando", "Kumari Fernando"),
+                new SearchDocument(3, "Dr. Nimal Pereira", "Dr. Nimal Pereira", "Nimal Pereira"),
+                new SearchDocument(4, "Dr. Sunil Kumara", "Dr. Sunil Kumara", "Sunil Kumara")));
+    }
+
+    @Test
+    void wholeNameMatchesRankAboveWordMatches() {
+        assertEquals(List.of(2L, 4L), ids(index.suggest("kum", false, 10)));
+        assertEquals(List.of(2L), ids(index.suggest("Kumari F", false, 10)));
+        assertEquals(List.of(1L, 3L), ids(index.suggest("PERE", false, 10)));
+        assertEquals(List.of(1L), ids(index.suggest("pere", false, 1)));
+    }
+
+    @Test
+    void typoTolerantModeMatchesOneEdit() {
+        assertTrue(index.suggest("fernadno", false, 10).isEmpty());
+        assertEquals(List.of(2L), ids(index.suggest("fernadno", true, 10)));
+        assertEquals(List.of(3L, 1L), ids(index.suggest("pereria", true, 10)));
+    }
+
+    @Test
+    void changesAreVisibleBeforeTheIndexIsRebuilt() {
+        index.put(new SearchDocument(1, "Dr. Kamal Silva", "Dr. Kamal Silva", "Kamal Silva"));
+        index.put(new SearchDocument(5, "Dr. Kumudu Perera", "Dr. Kumudu Perera", "Kumudu Perera"));
+        index.remove(4);
+
+        assertEquals(List.of(5L, 3L), ids(index.suggest("pere", false, 10)));
+        assertEquals(List.of(5L, 2L), ids(index.suggest("kum", false, 10)));
+        assertEquals(List.of(1L), ids(index.suggest("silv", false, 10)));
+        assertEquals(4, index.size());
+    }
+
+    private static List<Long> ids(List<SearchDocument> documents) {
+        return documents.stream().map(SearchDocument::getId).toList();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.security;
+
+import lk.channelling.exception.InvalidTokenException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private static final String SECRET_KEY = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+
+    private JwtService jwtService;
+
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET_KEY, 60000, 120000);
+        verifiedTokenCache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxEntries", 2);
+    }
+
+    @Test
+    void repeatedTokensAreVerifiedOnce() {
+        String token = jwtService.generateAccessToken("alice");
+
+        for (int i = 0; i < 5; i++) assertEquals("alice", verify(token).getSubject());
+
+        assertEquals(1, verifications.get());
+        assertEquals(4, verifiedTokenCache.getStatistics().getHits());
+    }
+
+    @Test
+    void tamperedTokensAreNeverServedFromTheCache() {
+        String token = jwtService.generateAccessToken("alice");
+        verify(token);
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        assertThrows(InvalidTokenException.class, () -> verify(tampered));
+        assertThrows(InvalidTokenException.class, () -> verify(tampered));
+        assertEquals(3, verifications.get());
+    }
+
+    @Test
+    void expiredTokensAreNotCached() {
+        JwtService expired = new JwtService(SECRET_KEY, -1000, -1000);
+        String token = expired.generateAccessToken("alice");
+
+        assertThrows(InvalidTokenException.class, () -> verifiedTokenCache.verify(token, expired::verify));
+        assertEquals(0, verifiedTokenCache.getStatistics().getSize());
+    }
+
+    @Test
+    void oldestTokensAreEvictedBeyondTheLimit() {
+        String first = jwtService.generateAccessToken("alice");
+        verify(first);
+        verify(jwtService.generateAccessToken("bob"));
+        verify(jwtService.generateAccessToken("carol"));
+
+        assertEquals(2, verifiedTokenCache.getStatistics().getSize());
+        verify(first);
+        assertEquals(4, verifications.get());
+    }
+
+    private VerifiedToken verify(String token) {
+        return verifiedTokenCache.verify(token, value -> {
+            verifications.incrementAndGet();
+            return jwtService.verify(value);
+        });
+    }
+}
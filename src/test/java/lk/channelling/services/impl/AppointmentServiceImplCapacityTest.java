@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.services.impl;
+
+import lk.channelling.availability.AvailabilitySnapshot;
+import lk.channelling.booking.BookingMetrics;
+import lk.channelling.booking.SessionCapacityRegistry;
+import lk.channelling.booking.SlotHoldRegistry;
+import lk.channelling.entity.Appointment;
+import lk.channelling.exception.SessionFullException;
+import lk.channelling.handlers.UserContext;
+import lk.channelling.paging.CountCache;
+import lk.channelling.paging.KeysetPager;
+import lk.channelling.repository.AppointmentRepository;
+import lk.channelling.repository.DoctorSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AppointmentServiceImplCapacityTest {
+
+    private static final long SESSION_ID = 7L;
+
+    private DoctorSessionRepository doctorSessionRepository;
+
+    private SessionCapacityRegistry sessionCapacityRegistry;
+
+    private AppointmentServiceImpl appointmentService;
+
+    @BeforeEach
+    void setUp() {
+        AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+        BookingMetrics bookingMetrics = mock(BookingMetrics.class);
+        doctorSessionRepository = mock(DoctorSessionRepository.class);
+        sessionCapacityRegistry = new SessionCapacityRegistry(appointmentRepository, doctorSessionRepository, bookingMetrics);
+        appointmentService = new AppointmentServiceImpl(appointmentRepository, doctorSessionRepository, sessionCapacityRegistry,
+                mock(SlotHoldRegistry.class), mock(AvailabilitySnapshot.class), mock(KeysetPager.class), bookingMetrics,
+                mock(CountCache.class));
+
+        when(doctorSessionRepository.existsById(SESSION_ID)).thenReturn(true);
+        sessionCapacityRegistry.track(SESSION_ID, 1, 0);
+    }
+
+    @Test
+    void releaseCommittedDuringARejectedReservationKeepsItsSlot() {
+        // The last slot is booked, then released by a cancellation which commits after the conditional update of a
+        // competing booking has already found the session full.
+        sessionCapacityRegistry.reserved(SESSION_ID);
+        when(doctorSessionRepository.reserveSlot(SESSION_ID)).thenAnswer(invocation -> {
+            sessionCapacityRegistry.released(SESSION_ID);
+            return 0;
+        });
+
+        assertThrows(SessionFullException.class, () -> UserContext.callAs("test", () -> appointmentService.save(appointment())));
+
+        assertEquals(1, sessionCapacityRegistry.getRemaining(SESSION_ID));
+        assertDoesNotThrow(() -> sessionCapacityRegistry.ensureAvailable(SESSION_ID));
+    }
+
+    private static Appointment appointment() {
+        Appointment appointment = new Appointment();
+        appointment.setPatientId(1);
+        appointment.setSessionId((int) SESSION_ID);
+        return appointment;
+    }
+}
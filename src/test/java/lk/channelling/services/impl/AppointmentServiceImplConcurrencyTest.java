@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024 Channelling.lk
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package lk.channelling.services.impl;
+
+import lk.channelling.entity.Appointment;
+import lk.channelling.exception.SessionFullException;
+import lk.channelling.handlers.UserContext;
+import lk.channelling.services.AppointmentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class AppointmentServiceImplConcurrencyTest {
+
+    private static final int MAX_PATIENTS = 40;
+    private static final int CONCURRENT_REQUESTS = 500;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long sessionId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        jdbcTemplate.update("INSERT INTO doctor_sessions (doctor_id, hospital_id, session_date_time, max_patients, status, created_user) " +
+                "VALUES (1, 1, CURRENT_DATE, ?, 'ACTIVE', 'test')", MAX_PATIENTS);
+        sessionId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM doctor_sessions", Long.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM appointment WHERE session_id = ?", sessionId);
+        jdbcTemplate.update("DELETE FROM doctor_sessions WHERE id = ?", sessionId);
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    @Test
+    void concurrentBookingsNeverOverbookTheSession() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            int patientId = i + 1;
+            results.add(executor.submit(() -> {
+                start.await();
+                Appointment appointment = new Appointment();
+                appointment.setPatientId(patientId);
+                appointment.setSessionId((int) sessionId);
+                try {
+                    return UserContext.callAs("test", () -> appointmentService.save(appointment).getQueueNo());
+                } catch (SessionFullException e) {
+                    rejected.incrementAndGet();
+                    return null;
+                }
+            }));
+        }
+
+        start.countDown();
+        Set<Integer> queueNumbers = new TreeSet<>();
+        for (Future<Integer> result : results) {
+            Integer queueNo = result.get(60, TimeUnit.SECONDS);
+            if (queueNo != null) queueNumbers.add(queueNo);
+        }
+        executor.shutdown();
+
+        Integer booked = jdbcTemplate.queryForObject("SELECT booked_patients FROM doctor_sessions WHERE id = ?", Integer.class, sessionId);
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM appointment WHERE session_id = ?", Integer.class, sessionId);
+
+        assertEquals(MAX_PATIENTS, booked);
+        assertEquals(MAX_PATIENTS, rows);
+        assertEquals(CONCURRENT_REQUESTS - MAX_PATIENTS, rejected.get());
+        assertEquals(IntStream.rangeClosed(1, MAX_PATIENTS).boxed().collect(Collectors.toSet()), queueNumbers);
+    }
+}